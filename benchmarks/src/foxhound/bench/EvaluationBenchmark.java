@@ -0,0 +1,76 @@
+package foxhound.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Static evaluation with the default weights on the initial position and on a middle game
+ * position where the fox has broken through the hound line.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvaluationBenchmark {
+
+    @Param({"8", "26"})
+    public int dim;
+
+    private Object evaluator;
+    private Object initial;
+    private Object middle;
+
+    @Setup
+    public void setup() throws Throwable {
+        evaluator = (Object) Game.EVALUATOR_DEFAULTS.invokeExact();
+        String[] players = (String[]) Game.INITIALISE_POSITIONS.invokeExact(dim);
+        initial = (Object) Game.BOARD_FROM_PLAYERS.invokeExact(players, dim);
+        // hounds spread over the board with the fox halfway up, the first hound already passed
+        String[] spread = players.clone();
+        int foxVert = dim / 2;
+        for (int i = 0; i < spread.length - 1; i++) {
+            int vert = 1 + (i * 3) % (dim - 1);
+            // keep the fox's row free
+            if (vert == foxVert) {
+                vert++;
+            }
+            int lat = 2 * i + 1 + vert % 2;
+            spread[i] = Character.toString('A' - 1 + lat) + vert;
+        }
+        spread[spread.length - 1] = Character.toString('A' + foxVert % 2 + 2) + foxVert;
+        middle = (Object) Game.BOARD_FROM_PLAYERS.invokeExact(spread, dim);
+    }
+
+    @Benchmark
+    public int evaluateInitialFox() throws Throwable {
+        return (int) Game.EVALUATE.invokeExact(evaluator, initial, Game.FOX_FIELD);
+    }
+
+    @Benchmark
+    public int evaluateInitialHounds() throws Throwable {
+        return (int) Game.EVALUATE.invokeExact(evaluator, initial, Game.HOUND_FIELD);
+    }
+
+    @Benchmark
+    public int evaluateMiddleFox() throws Throwable {
+        return (int) Game.EVALUATE.invokeExact(evaluator, middle, Game.FOX_FIELD);
+    }
+
+    @Benchmark
+    public int evaluateMiddleHounds() throws Throwable {
+        return (int) Game.EVALUATE.invokeExact(evaluator, middle, Game.HOUND_FIELD);
+    }
+}
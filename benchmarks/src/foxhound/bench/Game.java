@@ -0,0 +1,105 @@
+package foxhound.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Path;
+
+/**
+ * Handles to the methods of the fox hound program measured by the benchmarks.
+ *
+ * JMH only accepts benchmarks inside a package, while the game classes live in the
+ * default package, which can't be imported. The methods are therefore looked up once
+ * by name and kept in static final fields, where the JIT compiler treats them as
+ * constants and inlines the calls like direct invocations. Game types in a signature
+ * are erased to Object so the benchmarks can call every handle with invokeExact.
+ */
+final class Game {
+
+    /** Symbol of the fox, see FoxHoundUtils.FOX_FIELD. */
+    static final char FOX_FIELD = 'F';
+    /** Symbol of the hounds, see FoxHoundUtils.HOUND_FIELD. */
+    static final char HOUND_FIELD = 'H';
+    /** Buffer size for generated moves, see FoxHoundMoveGenerator.MAX_MOVES. */
+    static final int MAX_MOVES = 26;
+
+    static final MethodHandle INITIALISE_POSITIONS = find("FoxHoundUtils", "initialisePositions",
+            MethodType.methodType(String[].class, int.class));
+    static final MethodHandle IS_VALID_MOVE = find("FoxHoundUtils", "isValidMove",
+            MethodType.methodType(boolean.class, int.class, String[].class, char.class, String.class, String.class));
+    static final MethodHandle IS_HOUND_WIN = find("FoxHoundUtils", "isHoundWin",
+            MethodType.methodType(boolean.class, String[].class, int.class));
+    static final MethodHandle DISPLAY_BOARD = find("FoxHoundUI", "displayBoard",
+            MethodType.methodType(void.class, String[].class, int.class));
+    static final MethodHandle FANCY_DISPLAY_BOARD = find("FoxHoundUI", "fancyDisplayBoard",
+            MethodType.methodType(void.class, String[].class, int.class));
+    static final MethodHandle SAVE_GAME = find("FoxHoundIO", "saveGame",
+            MethodType.methodType(boolean.class, String[].class, char.class, Path.class));
+    static final MethodHandle LOAD_GAME = find("FoxHoundIO", "loadGame",
+            MethodType.methodType(char.class, String[].class, Path.class));
+
+    static final MethodHandle BOARD_FROM_PLAYERS = find("FoxHoundBitboard", "fromPlayers",
+            MethodType.methodType(Object.class, String[].class, int.class));
+    static final MethodHandle NEW_MOVE_GENERATOR = find("FoxHoundMoveGenerator", "<init>",
+            MethodType.methodType(Object.class, int.class));
+    static final MethodHandle GENERATE = find("FoxHoundMoveGenerator", "generate",
+            MethodType.methodType(int.class, Object.class, Object.class, char.class, int[].class));
+    static final MethodHandle EVALUATOR_DEFAULTS = find("FoxHoundEvaluator", "defaults",
+            MethodType.methodType(Object.class));
+    static final MethodHandle EVALUATE = find("FoxHoundEvaluator", "evaluate",
+            MethodType.methodType(int.class, Object.class, Object.class, char.class));
+
+    private Game() {
+    }
+
+    /**
+     * Look up a public method or constructor ({@code "<init>"}) of a game class.
+     *
+     * @param className name of the class in the default package
+     * @param name name of the method
+     * @param type type of the method using Object for game classes, with the receiver
+     *             as first parameter for instance methods
+     * @return handle to the method adapted to the given type
+     * @throws IllegalStateException if the game classes aren't on the class path
+     */
+    static MethodHandle find(String className, String name, MethodType type) {
+        try {
+            Class<?> owner = Class.forName(className);
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            if (name.equals("<init>")) {
+                Class<?>[] parameters = type.parameterArray();
+                return lookup.findConstructor(owner, MethodType.methodType(void.class, parameters)).asType(type);
+            }
+            for (Method method : owner.getMethods()) {
+                int receiver = Modifier.isStatic(method.getModifiers()) ? 0 : 1;
+                if (method.getName().equals(name) && matches(method.getParameterTypes(), type, receiver)) {
+                    return lookup.unreflect(method).asType(type);
+                }
+            }
+            throw new NoSuchMethodException(className + "." + name + type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Game classes not on the class path: " + className, e);
+        }
+    }
+
+    /**
+     * @param parameters parameter types of a method
+     * @param type requested type, Object standing in for any game class
+     * @param receiver 1 if the first requested parameter is the receiver, 0 otherwise
+     * @return true if the method can be adapted to the requested type
+     */
+    private static boolean matches(Class<?>[] parameters, MethodType type, int receiver) {
+        if (parameters.length + receiver != type.parameterCount()) {
+            return false;
+        }
+        for (int i = 0; i < parameters.length; i++) {
+            Class<?> wanted = type.parameterType(i + receiver);
+            if (wanted != parameters[i] && !(wanted == Object.class && !parameters[i].isPrimitive())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,60 @@
+package foxhound.bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Board rendering of the initial position. Standard output is replaced by a stream
+ * discarding every byte, so the measurement covers building and writing the frame
+ * but not the terminal.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RenderBenchmark {
+
+    @Param({"8", "26"})
+    public int dim;
+
+    private String[] players;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() throws Throwable {
+        players = (String[]) Game.INITIALISE_POSITIONS.invokeExact(dim);
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public void displayBoard() throws Throwable {
+        Game.DISPLAY_BOARD.invokeExact(players, dim);
+    }
+
+    @Benchmark
+    public void fancyDisplayBoard() throws Throwable {
+        Game.FANCY_DISPLAY_BOARD.invokeExact(players, dim);
+    }
+}
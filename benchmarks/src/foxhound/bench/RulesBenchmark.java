@@ -0,0 +1,77 @@
+package foxhound.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Move validation and win detection on the initial position.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RulesBenchmark {
+
+    @Param({"8", "26"})
+    public int dim;
+
+    private String[] players;
+    private String foxOrigin;
+    private String foxDest;
+    private String houndOrigin;
+    private String houndDest;
+    private Object board;
+    private Object generator;
+    private int[] moves;
+
+    @Setup
+    public void setup() throws Throwable {
+        players = (String[]) Game.INITIALISE_POSITIONS.invokeExact(dim);
+        foxOrigin = players[players.length - 1];
+        // one row up and one column left of the fox
+        foxDest = Character.toString(foxOrigin.charAt(0) - 1) + (dim - 1);
+        houndOrigin = players[0];
+        houndDest = Character.toString(houndOrigin.charAt(0) + 1) + 2;
+        board = (Object) Game.BOARD_FROM_PLAYERS.invokeExact(players, dim);
+        generator = (Object) Game.NEW_MOVE_GENERATOR.invokeExact(dim);
+        moves = new int[Game.MAX_MOVES];
+    }
+
+    @Benchmark
+    public boolean isValidMoveFox() throws Throwable {
+        return (boolean) Game.IS_VALID_MOVE.invokeExact(dim, players, Game.FOX_FIELD, foxOrigin, foxDest);
+    }
+
+    @Benchmark
+    public boolean isValidMoveHound() throws Throwable {
+        return (boolean) Game.IS_VALID_MOVE.invokeExact(dim, players, Game.HOUND_FIELD, houndOrigin, houndDest);
+    }
+
+    @Benchmark
+    public boolean isHoundWin() throws Throwable {
+        return (boolean) Game.IS_HOUND_WIN.invokeExact(players, dim);
+    }
+
+    @Benchmark
+    public int generateHoundMoves() throws Throwable {
+        return (int) Game.GENERATE.invokeExact(generator, board, Game.HOUND_FIELD, moves);
+    }
+
+    @Benchmark
+    public int generateFoxMoves() throws Throwable {
+        return (int) Game.GENERATE.invokeExact(generator, board, Game.FOX_FIELD, moves);
+    }
+}
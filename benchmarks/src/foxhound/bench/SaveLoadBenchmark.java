@@ -0,0 +1,61 @@
+package foxhound.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Saving a game to a file and loading it back, the round trip done by the
+ * save and load menu entries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SaveLoadBenchmark {
+
+    private String[] players;
+    private String[] loaded;
+    private Path directory;
+    private Path saveFile;
+
+    @Setup
+    public void setup() throws IOException {
+        players = new String[]{"B3", "C2", "F1", "H3", "F3"};
+        loaded = players.clone();
+        directory = Files.createTempDirectory("foxHoundBench");
+        saveFile = directory.resolve("game.txt");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(saveFile);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public char saveLoadRoundTrip() throws Throwable {
+        // saveGame refuses to overwrite an existing file
+        Files.deleteIfExists(saveFile);
+        boolean saved = (boolean) Game.SAVE_GAME.invokeExact(players, Game.FOX_FIELD, saveFile);
+        if (!saved) {
+            throw new IllegalStateException("Saving failed");
+        }
+        return (char) Game.LOAD_GAME.invokeExact(loaded, saveFile);
+    }
+}
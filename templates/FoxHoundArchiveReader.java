@@ -0,0 +1,229 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A reader for archives written by {@link FoxHoundArchiveWriter}.
+ *
+ * The records and the index are memory mapped read only, so games are decoded straight from
+ * the operating system's file cache without reading the file onto the heap. Records are
+ * mapped in segments of up to {@value FoxHoundArchiveReader#SEGMENT_BYTES} bytes which
+ * always end between two records. Any game can be read by its index, and a {@link Cursor}
+ * streams over a range of games decoding each into one reused {@link FoxHoundGameRecord}.
+ *
+ * A reader is immutable and can be shared by any number of threads, while every cursor
+ * belongs to a single thread. Jobs scanning a whole archive in parallel give every thread
+ * a cursor over its own range of games.
+ * <p>
+ * A reader sees the games up to the last complete trailer of the file, so games appended by a
+ * writer which hasn't been closed yet, or never was, are left out.
+ */
+public class FoxHoundArchiveReader {
+
+    /** Largest number of bytes covered by a memory mapped segment. */
+    private static final int SEGMENT_BYTES = 1 << 30;
+
+    /** Number of games in the archive. */
+    private final int games;
+    /** File offset of every record, mapped. */
+    private final LongBuffer index;
+    /** File offset of the first byte of every segment. */
+    private final long[] segmentStarts;
+    /** Memory mapped record segments. */
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * Map an archive.
+     *
+     * @param archive path of the archive
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the file isn't an archive or has no complete trailer
+     */
+    public FoxHoundArchiveReader(Path archive) throws IOException {
+        this(archive, SEGMENT_BYTES);
+    }
+
+    /**
+     * Map an archive in segments of a given size.
+     *
+     * @param archive path of the archive
+     * @param segmentBytes largest number of bytes covered by a segment
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the file isn't an archive or has no complete trailer
+     */
+    FoxHoundArchiveReader(Path archive, int segmentBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ)) {
+            long[] trailer = FoxHoundArchiveWriter.readTrailer(channel);
+            long indexOffset = trailer[0];
+            this.games = (int) trailer[1];
+            this.index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, (long) games * Long.BYTES)
+                    .asLongBuffer();
+            // cut the records into segments at record boundaries
+            long[] starts = new long[8];
+            long[] ends = new long[8];
+            int count = 0;
+            long start = FoxHoundBinaryIO.HEADER_BYTES;
+            for (int game = 0; game <= games; game++) {
+                long offset = game < games ? index.get(game) : indexOffset;
+                if (offset < start || offset > indexOffset) {
+                    throw new IllegalArgumentException("Archive index is corrupt");
+                }
+                long end = game + 1 < games ? index.get(game + 1) : indexOffset;
+                if ((end - start > segmentBytes && offset > start) || game == games) {
+                    if (count == starts.length) {
+                        starts = Arrays.copyOf(starts, count * 2);
+                        ends = Arrays.copyOf(ends, count * 2);
+                    }
+                    starts[count] = start;
+                    ends[count++] = offset;
+                    start = offset;
+                }
+            }
+            this.segmentStarts = Arrays.copyOf(starts, count);
+            this.segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                if (ends[i] - starts[i] > segmentBytes) {
+                    throw new IllegalArgumentException("Archive record too large to map");
+                }
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, starts[i], ends[i] - starts[i]);
+            }
+        }
+        // the mapping stays valid after the channel is closed
+    }
+
+    /** @return number of games in the archive */
+    public int getGameCount() {
+        return games;
+    }
+
+    /**
+     * Decode a game by its index.
+     *
+     * @param game index of the game in the order the games were appended
+     * @param record record receiving the game
+     * @throws IndexOutOfBoundsException if there is no such game
+     * @throws IllegalArgumentException if the record is invalid
+     */
+    public void read(int game, FoxHoundGameRecord record) {
+        int segment = segmentOf(game);
+        // the shared segments are never moved, every read decodes from its own view
+        ByteBuffer view = segments[segment].duplicate();
+        FoxHoundBinaryIO.decode(view.position(positionIn(segment, game)), record);
+    }
+
+    /**
+     * Decode a game by its index into a new record.
+     *
+     * @param game index of the game in the order the games were appended
+     * @return the game
+     * @throws IndexOutOfBoundsException if there is no such game
+     * @throws IllegalArgumentException if the record is invalid
+     */
+    public FoxHoundGameRecord read(int game) {
+        FoxHoundGameRecord record = new FoxHoundGameRecord();
+        read(game, record);
+        return record;
+    }
+
+    /**
+     * @return a cursor over all games
+     */
+    public Cursor cursor() {
+        return new Cursor(0, games);
+    }
+
+    /**
+     * @param from index of the first game
+     * @param to index after the last game
+     * @return a cursor over a range of games
+     * @throws IndexOutOfBoundsException if the range isn't inside the archive
+     */
+    public Cursor cursor(int from, int to) {
+        if (from < 0 || to > games || from > to) {
+            throw new IndexOutOfBoundsException("Invalid game range " + from + " to " + to + " of " + games);
+        }
+        return new Cursor(from, to);
+    }
+
+    /**
+     * @param game index of the game
+     * @return index of the segment holding the game's record
+     * @throws IndexOutOfBoundsException if there is no such game
+     */
+    private int segmentOf(int game) {
+        if (game < 0 || game >= games) {
+            throw new IndexOutOfBoundsException("No game " + game + " in an archive of " + games);
+        }
+        int segment = Arrays.binarySearch(segmentStarts, index.get(game));
+        return segment < 0 ? -segment - 2 : segment;
+    }
+
+    /**
+     * @param segment index of the segment holding the game's record
+     * @param game index of the game
+     * @return position of the record in the segment
+     */
+    private int positionIn(int segment, int game) {
+        return (int) (index.get(game) - segmentStarts[segment]);
+    }
+
+    /**
+     * Streams over a range of games, decoding every game into the same record.
+     * The record returned by {@link #next()} is only valid until the following call.
+     */
+    public class Cursor implements Iterator<FoxHoundGameRecord> {
+
+        /** Views of the segments owned by this cursor. */
+        private final ByteBuffer[] views = new ByteBuffer[segments.length];
+        /** The reused record. */
+        private final FoxHoundGameRecord record = new FoxHoundGameRecord();
+        /** Index of the next game. */
+        private int game;
+        /** Index after the last game. */
+        private final int end;
+
+        /**
+         * @param from index of the first game
+         * @param to index after the last game
+         */
+        private Cursor(int from, int to) {
+            for (int i = 0; i < views.length; i++) {
+                views[i] = segments[i].duplicate();
+            }
+            this.game = from;
+            this.end = to;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return game < end;
+        }
+
+        /**
+         * @return the next game, the same record instance on every call
+         * @throws NoSuchElementException if all games of the range have been read
+         * @throws IllegalArgumentException if the record is invalid
+         */
+        @Override
+        public FoxHoundGameRecord next() {
+            if (game >= end) {
+                throw new NoSuchElementException();
+            }
+            int segment = segmentOf(game);
+            FoxHoundBinaryIO.decode(views[segment].position(positionIn(segment, game++)), record);
+            return record;
+        }
+
+        /** @return index of the game the next call of {@link #next()} returns */
+        public int nextIndex() {
+            return game;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Appends games in the binary record format of {@link FoxHoundBinaryIO} to an archive file.
+ *
+ * Records are written one after another behind the file header. Closing the writer appends
+ * an index holding the file offset of every record and a trailer pointing to the index, so
+ * any game can be found without scanning the file.
+ * <pre>
+ * int magic  byte version  byte[3] reserved
+ * record[games]
+ * long[games] record offsets
+ * long index offset  int games  int trailer magic
+ * </pre>
+ * The file is only ever appended to. A new archive starts with an empty index, and opening an
+ * existing archive continues behind its trailer, so the old index and trailer stay in the file
+ * and keep the archive readable until the next trailer has been forced to disk by
+ * {@link #close()}. If the last trailer of a file is missing because a writer didn't close,
+ * e.g. after a crash, readers fall back to the last complete trailer before it, losing only
+ * the games of the unclosed writer. Reopening such a file cuts off the incomplete end first.
+ * <p>
+ * A writer must only be used by one thread at a time.
+ */
+public class FoxHoundArchiveWriter implements Closeable {
+
+    /** Magic number at the start of an archive, "FHGA" in ASCII. */
+    public static final int ARCHIVE_MAGIC = 0x46484741;
+    /** Magic number at the end of a completely written archive, "FHGI" in ASCII. */
+    public static final int TRAILER_MAGIC = 0x46484749;
+    /** Size of the trailer in bytes. */
+    public static final int TRAILER_BYTES = 16;
+
+    /** Size of the write buffer in bytes, records are written in batches of this size. */
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    /** Channel of the archive file. */
+    private final FileChannel channel;
+    /** Buffer collecting records until it is written out. */
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    /** File offset of every record. */
+    private long[] offsets;
+    /** Number of records in the archive. */
+    private int games;
+    /** File offset the buffer starts at. */
+    private long bufferStart;
+
+    /**
+     * Open an archive for appending, creating it if it doesn't exist.
+     *
+     * @param archive path of the archive
+     * @throws IOException if the file can't be opened or read
+     * @throws IllegalArgumentException if an existing file isn't an archive or has no complete trailer
+     */
+    public FoxHoundArchiveWriter(Path archive) throws IOException {
+        this.channel = FileChannel.open(archive, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                this.offsets = new long[1024];
+                // an empty archive is readable from the start
+                FoxHoundBinaryIO.writeHeader(ARCHIVE_MAGIC, buffer);
+                buffer.putLong(FoxHoundBinaryIO.HEADER_BYTES).putInt(0).putInt(TRAILER_MAGIC);
+                flush();
+                channel.force(false);
+            } else {
+                long[] trailer = readTrailer(channel);
+                long[] index = readIndex(channel, trailer);
+                this.games = index.length;
+                this.offsets = Arrays.copyOf(index, Math.max(1024, index.length * 2));
+                // continue behind the last complete trailer, dropping what an unclosed writer left
+                this.bufferStart = trailer[2];
+                if (channel.size() > bufferStart) {
+                    channel.truncate(bufferStart);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** @return number of games in the archive */
+    public int getGameCount() {
+        return games;
+    }
+
+    /**
+     * Append a game.
+     *
+     * @param board current position
+     * @param turn the figure to move next
+     * @param history packed moves played from the start of the game, may be null
+     * @param historyLength number of moves in the history, 0 to store none
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if the figure is invalid, the board has no fox or too many hounds
+     */
+    public void append(FoxHoundBitboard board, char turn, int[] history, int historyLength) throws IOException {
+        int size = FoxHoundBinaryIO.recordBytes(board.getDim(), board.getHoundCount(), historyLength);
+        if (buffer.remaining() < size) {
+            flush();
+        }
+        long offset = bufferStart + buffer.position();
+        if (size > buffer.capacity()) {
+            // a record with a very long history bypasses the buffer
+            ByteBuffer large = ByteBuffer.allocate(size);
+            FoxHoundBinaryIO.encode(board, turn, history, historyLength, large);
+            writeFully(large.flip(), offset);
+            bufferStart += size;
+        } else {
+            FoxHoundBinaryIO.encode(board, turn, history, historyLength, buffer);
+        }
+        if (games == offsets.length) {
+            offsets = Arrays.copyOf(offsets, games * 2);
+        }
+        offsets[games++] = offset;
+    }
+
+    /**
+     * Append a game record.
+     *
+     * @param record the game
+     * @throws IOException if writing fails
+     */
+    public void append(FoxHoundGameRecord record) throws IOException {
+        int length = record.getHistoryLength();
+        append(record.getBoard(), record.getTurn(), record.historyBuffer(length), length);
+    }
+
+    /**
+     * Write the index and trailer, force them to disk and close the file.
+     * The records and index are forced before the trailer, so a trailer on disk always
+     * points to a complete index.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            long indexOffset = bufferStart + buffer.position();
+            for (int i = 0; i < games; i++) {
+                if (buffer.remaining() < Long.BYTES) {
+                    flush();
+                }
+                buffer.putLong(offsets[i]);
+            }
+            flush();
+            channel.force(false);
+            buffer.putLong(indexOffset).putInt(games).putInt(TRAILER_MAGIC);
+            flush();
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Write the buffer to the file.
+     *
+     * @throws IOException if writing fails
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        int length = buffer.remaining();
+        writeFully(buffer, bufferStart);
+        bufferStart += length;
+        buffer.clear();
+    }
+
+    /**
+     * @param data bytes to write
+     * @param position file offset to write them to
+     * @throws IOException if writing fails
+     */
+    private void writeFully(ByteBuffer data, long position) throws IOException {
+        while (data.hasRemaining()) {
+            position += channel.write(data, position);
+        }
+    }
+
+    /**
+     * Read and check the header and the last complete trailer of an archive.
+     * If the file doesn't end with a trailer, it is searched backwards for the last one.
+     *
+     * @param channel channel of the archive file
+     * @return file offset of the index, number of games and file offset after the trailer
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if the file isn't an archive or has no complete trailer
+     */
+    static long[] readTrailer(FileChannel channel) throws IOException {
+        long end = channel.size();
+        if (end < FoxHoundBinaryIO.HEADER_BYTES + TRAILER_BYTES) {
+            throw new IllegalArgumentException("Not a fox hound archive");
+        }
+        FoxHoundBinaryIO.readHeader(ARCHIVE_MAGIC, readFully(channel, 0, FoxHoundBinaryIO.HEADER_BYTES));
+        ByteBuffer last = readFully(channel, end - TRAILER_BYTES, TRAILER_BYTES);
+        if (isTrailer(last, 0, end - TRAILER_BYTES)) {
+            return new long[]{last.getLong(0), last.getInt(Long.BYTES), end};
+        }
+        // an unclosed writer appended behind the last trailer, read blocks from the end
+        // which overlap by a trailer so none is split between two blocks
+        for (long blockEnd = end; blockEnd > FoxHoundBinaryIO.HEADER_BYTES; ) {
+            long blockStart = Math.max(FoxHoundBinaryIO.HEADER_BYTES, blockEnd - BUFFER_BYTES);
+            ByteBuffer block = readFully(channel, blockStart, (int) (blockEnd - blockStart));
+            for (int pos = block.limit() - TRAILER_BYTES; pos >= 0; pos--) {
+                if (isTrailer(block, pos, blockStart + pos)) {
+                    return new long[]{block.getLong(pos), block.getInt(pos + Long.BYTES),
+                            blockStart + pos + TRAILER_BYTES};
+                }
+            }
+            blockEnd = blockStart + TRAILER_BYTES - 1;
+            if (blockStart == FoxHoundBinaryIO.HEADER_BYTES) {
+                break;
+            }
+        }
+        throw new IllegalArgumentException("Archive wasn't closed properly, its index is missing");
+    }
+
+    /**
+     * @param data bytes of the file
+     * @param pos position of a possible trailer in the bytes
+     * @param offset file offset of the possible trailer
+     * @return true if the bytes hold a trailer pointing to an index right in front of it
+     */
+    private static boolean isTrailer(ByteBuffer data, int pos, long offset) {
+        if (data.getInt(pos + Long.BYTES + Integer.BYTES) != TRAILER_MAGIC) {
+            return false;
+        }
+        long indexOffset = data.getLong(pos);
+        int games = data.getInt(pos + Long.BYTES);
+        return games >= 0 && games <= Integer.MAX_VALUE / Long.BYTES && indexOffset >= FoxHoundBinaryIO.HEADER_BYTES
+                && indexOffset + (long) games * Long.BYTES == offset;
+    }
+
+    /**
+     * Read and check the header, last complete trailer and index of an archive.
+     *
+     * @param channel channel of the archive file
+     * @return file offset of every record
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if the file isn't an archive or has no complete trailer
+     */
+    public static long[] readIndex(FileChannel channel) throws IOException {
+        return readIndex(channel, readTrailer(channel));
+    }
+
+    /**
+     * @param channel channel of the archive file
+     * @param trailer the archive's trailer, see {@link #readTrailer(FileChannel)}
+     * @return file offset of every record
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if the index is corrupt
+     */
+    private static long[] readIndex(FileChannel channel, long[] trailer) throws IOException {
+        long indexOffset = trailer[0];
+        long[] index = new long[(int) trailer[1]];
+        readFully(channel, indexOffset, index.length * Long.BYTES).asLongBuffer().get(index);
+        for (long offset : index) {
+            if (offset < FoxHoundBinaryIO.HEADER_BYTES || offset >= indexOffset) {
+                throw new IllegalArgumentException("Archive index is corrupt");
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @param channel channel to read from
+     * @param position file offset to read from
+     * @param length number of bytes to read
+     * @return buffer holding the bytes
+     * @throws IOException if reading fails or the file ends early
+     */
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(length);
+        while (data.hasRemaining()) {
+            int read = channel.read(data, position + data.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of archive");
+            }
+        }
+        return data.flip();
+    }
+}
@@ -0,0 +1,323 @@
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A utility class for the fox hound program.
+ *
+ * It validates large batches of untrusted positions and moves, e.g. records submitted by
+ * users, in parallel. Positions are encoded as save file lines, see {@link FoxHoundIO}, and
+ * moves as packed squares, see {@link FoxHoundMoveGenerator#pack(int, int)}. Instead of
+ * throwing or logging per record, a batch returns a {@link Result} holding a bitmap of the
+ * valid records and an error code per record, see {@link #describe(int)}.
+ *
+ * Records are split into chunks of {@value FoxHoundBatchValidator#CHUNK} which are checked
+ * by the threads of the common fork join pool. Every chunk owns whole words of the bitmap and
+ * reuses its parse buffers, so a valid record costs no allocation and no synchronisation.
+ */
+public class FoxHoundBatchValidator {
+
+    /** Code of a valid record. */
+    public static final int VALID = 0;
+    /** Code of a null record. */
+    public static final int NO_RECORD = 1;
+    /** Code of a record not starting with the figure to move. */
+    public static final int INVALID_TURN = 2;
+    /** Code of a record with a dimension that isn't a number between the smallest and largest board. */
+    public static final int INVALID_DIMENSION = 3;
+    /** Code of a record with fewer pieces than its board holds. */
+    public static final int MISSING_PIECES = 4;
+    /** Code of a record with a piece that isn't a coordinate on its board. */
+    public static final int INVALID_POSITION = 5;
+    /** Code of a record with two pieces on one square. */
+    public static final int SHARED_SQUARE = 6;
+    /** Code of a record with more pieces than its board holds or trailing text. */
+    public static final int TOO_MANY_PIECES = 7;
+    /** Code of a move with a square off the board. */
+    public static final int MOVE_OFF_BOARD = 8;
+    /** Code of a move whose origin doesn't hold the figure to move. */
+    public static final int MOVE_WRONG_PIECE = 9;
+    /** Code of a move to an occupied square. */
+    public static final int MOVE_OCCUPIED = 10;
+    /** Code of a move the figure can't make in a single step. */
+    public static final int MOVE_NOT_A_STEP = 11;
+
+    /** Descriptions of the codes, by code. */
+    private static final String[] DESCRIPTIONS = {
+            "valid",
+            "no record",
+            "invalid figure to move",
+            "invalid dimension",
+            "missing pieces",
+            "invalid position",
+            "two pieces on one square",
+            "too many pieces",
+            "move off the board",
+            "no piece of the figure to move on the origin",
+            "destination occupied",
+            "not a single step of the figure"
+    };
+
+    /** Number of records checked by one task, a multiple of the bitmap's word size. */
+    static final int CHUNK = 1024;
+
+    /**
+     * @param code a validation code
+     * @return description of the code
+     * @throws IllegalArgumentException if the code is unknown
+     */
+    public static String describe(int code) {
+        if (code < 0 || code >= DESCRIPTIONS.length) {
+            throw new IllegalArgumentException("Unknown validation code: " + code);
+        }
+        return DESCRIPTIONS[code];
+    }
+
+    /**
+     * Validate save file lines.
+     *
+     * @param positions encoded positions, null elements are reported as {@link #NO_RECORD}
+     * @return validity of every position
+     */
+    public static Result validatePositions(String[] positions) {
+        return validate(positions.length, (buffers, i) -> buffers.parse(positions[i]));
+    }
+
+    /**
+     * Validate save file lines read as bytes, the way {@link FoxHoundIO} reads them from files.
+     *
+     * @param positions encoded positions, null elements are reported as {@link #NO_RECORD}
+     * @return validity of every position
+     */
+    public static Result validatePositions(byte[][] positions) {
+        return validate(positions.length, (buffers, i) -> buffers.parse(positions[i]));
+    }
+
+    /**
+     * Validate a stream of save file lines, collected in encounter order first.
+     *
+     * @param positions encoded positions, null elements are reported as {@link #NO_RECORD}
+     * @return validity of every position, indexed in encounter order
+     */
+    public static Result validatePositions(Stream<String> positions) {
+        return validatePositions(positions.toArray(String[]::new));
+    }
+
+    /**
+     * Validate moves, each played by the figure to move in the position of the same index.
+     * A move is valid only if its position is, otherwise the position's code is reported.
+     *
+     * @param positions encoded positions, null elements are reported as {@link #NO_RECORD}
+     * @param moves packed moves, see {@link FoxHoundMoveGenerator#pack(int, int)}
+     * @return validity of every move
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public static Result validateMoves(String[] positions, int[] moves) {
+        if (positions.length != moves.length) {
+            throw new IllegalArgumentException("Got " + positions.length + " positions for "
+                    + moves.length + " moves");
+        }
+        return validate(positions.length, (buffers, i) -> {
+            int code = buffers.parse(positions[i]);
+            return code == VALID ? buffers.checkMove(moves[i]) : code;
+        });
+    }
+
+    /**
+     * Check all records of a batch in parallel chunks.
+     *
+     * @param size number of records
+     * @param check check of a single record
+     * @return validity of every record
+     */
+    private static Result validate(int size, Check check) {
+        Result result = new Result(size);
+        int chunks = (size + CHUNK - 1) / CHUNK;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            Buffers buffers = new Buffers();
+            int end = Math.min(size, (chunk + 1) * CHUNK);
+            for (int word = chunk * CHUNK / Long.SIZE; word * Long.SIZE < end; word++) {
+                long bits = 0;
+                for (int i = word * Long.SIZE; i < Math.min(end, (word + 1) * Long.SIZE); i++) {
+                    int code = check.check(buffers, i);
+                    result.codes[i] = (byte) code;
+                    if (code == VALID) {
+                        bits |= 1L << i;
+                    }
+                }
+                result.valid[word] = bits;
+            }
+        });
+        return result;
+    }
+
+    /** Check of the record of a given index. */
+    private interface Check {
+
+        /**
+         * @param buffers buffers of the current thread
+         * @param index index of the record
+         * @return code of the record
+         */
+        int check(Buffers buffers, int index);
+    }
+
+    /**
+     * Parse buffers reused for all records of a chunk.
+     */
+    private static final class Buffers {
+
+        /** Figure to move, dimension and squares of the last parsed position. */
+        private final int[] game = new int[FoxHoundIO.PARSED_MAX_LENGTH];
+        /** Occupied squares of the last parsed position. */
+        private final long[] occupied = new long[FoxHoundIO.OCCUPIED_WORDS];
+        /** Bytes of the last string record. */
+        private byte[] bytes = new byte[4 * FoxHoundIO.PARSED_MAX_LENGTH];
+
+        /**
+         * @param position encoded position or null
+         * @return code of the position
+         */
+        int parse(byte[] position) {
+            if (position == null) {
+                return NO_RECORD;
+            }
+            return FoxHoundIO.parseGame(position, position.length, game, occupied);
+        }
+
+        /**
+         * @param position encoded position or null
+         * @return code of the position
+         */
+        int parse(String position) {
+            if (position == null) {
+                return NO_RECORD;
+            }
+            int length = position.length();
+            if (length > bytes.length) {
+                bytes = new byte[Math.max(length, 2 * bytes.length)];
+            }
+            for (int i = 0; i < length; i++) {
+                char c = position.charAt(i);
+                // characters outside of ASCII are invalid anywhere in a record
+                bytes[i] = c < 0x80 ? (byte) c : 0;
+            }
+            return FoxHoundIO.parseGame(bytes, length, game, occupied);
+        }
+
+        /**
+         * @param move packed move in the last parsed position, which must be valid
+         * @return code of the move
+         */
+        int checkMove(int move) {
+            int dim = game[FoxHoundIO.PARSED_DIM];
+            int from = FoxHoundMoveGenerator.from(move);
+            int to = FoxHoundMoveGenerator.to(move);
+            if (from >= dim * dim || to >= dim * dim) {
+                return MOVE_OFF_BOARD;
+            }
+            char figure = (char) game[FoxHoundIO.PARSED_TURN];
+            int fox = game[FoxHoundIO.parsedLength(dim) - 1];
+            boolean foxMoves = figure == FoxHoundUtils.FOX_FIELD;
+            if (foxMoves ? from != fox : from == fox || !FoxHoundBitboard.testBit(occupied, from)) {
+                return MOVE_WRONG_PIECE;
+            }
+            if (FoxHoundBitboard.testBit(occupied, to)) {
+                return MOVE_OCCUPIED;
+            }
+            return FoxHoundNeighbours.isStep(dim, figure, from, to) ? VALID : MOVE_NOT_A_STEP;
+        }
+    }
+
+    /**
+     * Validity of a batch of records: a bitmap with a set bit for every valid record and an
+     * error code per record.
+     */
+    public static final class Result {
+
+        /** Number of records. */
+        private final int size;
+        /** Bit i of word i / 64 is set if record i is valid. */
+        private final long[] valid;
+        /** Code of every record. */
+        private final byte[] codes;
+
+        /**
+         * @param size number of records
+         */
+        private Result(int size) {
+            this.size = size;
+            this.valid = new long[(size + Long.SIZE - 1) / Long.SIZE];
+            this.codes = new byte[size];
+        }
+
+        /** @return number of records */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @param index index of a record
+         * @return true if the record is valid
+         * @throws IndexOutOfBoundsException if there is no such record
+         */
+        public boolean isValid(int index) {
+            return getCode(index) == VALID;
+        }
+
+        /**
+         * @param index index of a record
+         * @return code of the record, {@link #VALID} if it is valid
+         * @throws IndexOutOfBoundsException if there is no such record
+         */
+        public int getCode(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("No record " + index + " in a batch of " + size);
+            }
+            return codes[index];
+        }
+
+        /** @return number of valid records */
+        public int getValidCount() {
+            int count = 0;
+            for (long word : valid) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+
+        /**
+         * Find invalid records without looking at the valid ones, e.g.
+         * {@code for (int i = result.nextInvalid(0); i >= 0; i = result.nextInvalid(i + 1))}.
+         *
+         * @param from index to start searching at
+         * @return index of the first invalid record at or after the given one, -1 if there is none
+         */
+        public int nextInvalid(int from) {
+            if (from < 0) {
+                from = 0;
+            }
+            for (int word = from / Long.SIZE; word < valid.length; word++) {
+                long invalid = ~valid[word];
+                if (word == from / Long.SIZE) {
+                    invalid &= -1L << from;
+                }
+                if (invalid != 0) {
+                    int index = word * Long.SIZE + Long.numberOfTrailingZeros(invalid);
+                    return index < size ? index : -1;
+                }
+            }
+            return -1;
+        }
+
+        /** @return copy of the bitmap, bit i of word i / 64 is set if record i is valid */
+        public long[] getBitmap() {
+            return valid.clone();
+        }
+
+        /** @return copy of the codes of all records */
+        public byte[] getCodes() {
+            return Arrays.copyOf(codes, size);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A utility class for the compact binary save format of the fox hound program.
+ *
+ * A game is stored as a record holding the dimension, the figure to move, the squares of
+ * all pieces and optionally the moves played from the start. Squares take a single byte
+ * on boards of up to {@value FoxHoundBinaryIO#BYTE_SQUARE_MAX_DIM} squares per side and
+ * two bytes on larger boards. All numbers are big endian.
+ * <pre>
+ * record:  byte dim  byte turn  byte flags  byte hounds  square[hounds] hounds  square fox
+ *          [int moves  (square from  square to)[moves]]    if flags has FLAG_HISTORY
+ * </pre>
+ * A single game file is a record after a header of {@value FoxHoundBinaryIO#HEADER_BYTES}
+ * bytes: {@code int magic  byte version  byte[3] reserved}. Archives holding many games are
+ * written by {@link FoxHoundArchiveWriter}.
+ */
+public class FoxHoundBinaryIO {
+
+    /** Magic number at the start of a single game file, "FHGS" in ASCII. */
+    public static final int GAME_MAGIC = 0x46484753;
+    /** Current version of the format. */
+    public static final byte VERSION = 1;
+    /** Size of the header of a single game file and an archive in bytes. */
+    public static final int HEADER_BYTES = 8;
+    /** Largest dimension whose squares are stored in a single byte. */
+    public static final int BYTE_SQUARE_MAX_DIM = 16;
+    /** Record flag marking a stored move history. */
+    public static final int FLAG_HISTORY = 1;
+
+    /** Largest number of hounds a record can hold. */
+    public static final int MAX_HOUNDS = 255;
+
+    /** Size of a record before the squares in bytes. */
+    private static final int RECORD_HEADER_BYTES = 4;
+
+    /**
+     * @param dim dimension of the board
+     * @return number of bytes used per square
+     */
+    public static int squareBytes(int dim) {
+        return dim <= BYTE_SQUARE_MAX_DIM ? 1 : 2;
+    }
+
+    /**
+     * @param dim dimension of the board
+     * @param hounds number of hounds
+     * @param historyLength number of moves in the history, 0 for none
+     * @return size of the record in bytes
+     */
+    public static int recordBytes(int dim, int hounds, int historyLength) {
+        int squares = hounds + 1 + (historyLength > 0 ? 2 * historyLength : 0);
+        return RECORD_HEADER_BYTES + squares * squareBytes(dim) + (historyLength > 0 ? Integer.BYTES : 0);
+    }
+
+    // ------------------------- records --------------------
+
+    /**
+     * Encode a game as a record.
+     *
+     * @param board current position with a fox on the board
+     * @param turn the figure to move next
+     * @param history packed moves played from the start of the game, may be null
+     * @param historyLength number of moves in the history, 0 to store none
+     * @param out buffer receiving the record
+     * @throws IllegalArgumentException if the figure is invalid, the board has no fox or too many hounds
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public static void encode(FoxHoundBitboard board, char turn, int[] history, int historyLength, ByteBuffer out) {
+        if (turn != FoxHoundUtils.FOX_FIELD && turn != FoxHoundUtils.HOUND_FIELD) {
+            throw new IllegalArgumentException("Invalid figure: " + turn);
+        }
+        if (board.getFox() == FoxHoundBitboard.NO_SQUARE || board.getHoundCount() > MAX_HOUNDS) {
+            throw new IllegalArgumentException("Can't save a board without a fox or with more than "
+                    + MAX_HOUNDS + " hounds");
+        }
+        int dim = board.getDim();
+        boolean wide = squareBytes(dim) == 2;
+        out.put((byte) dim).put((byte) turn).put((byte) (historyLength > 0 ? FLAG_HISTORY : 0))
+                .put((byte) board.getHoundCount());
+        for (int square = board.nextHound(0); square != FoxHoundBitboard.NO_SQUARE;
+             square = board.nextHound(square + 1)) {
+            putSquare(out, square, wide);
+        }
+        putSquare(out, board.getFox(), wide);
+        if (historyLength > 0) {
+            out.putInt(historyLength);
+            for (int i = 0; i < historyLength; i++) {
+                putSquare(out, FoxHoundMoveGenerator.from(history[i]), wide);
+                putSquare(out, FoxHoundMoveGenerator.to(history[i]), wide);
+            }
+        }
+    }
+
+    /**
+     * Encode a game record.
+     *
+     * @param record the game
+     * @param out buffer receiving the record
+     */
+    public static void encode(FoxHoundGameRecord record, ByteBuffer out) {
+        int length = record.getHistoryLength();
+        encode(record.getBoard(), record.getTurn(), record.historyBuffer(length), length, out);
+    }
+
+    /**
+     * Decode a record into a reusable game record.
+     *
+     * @param in buffer positioned at the start of the record, positioned after it afterwards
+     * @param record record receiving the game
+     * @throws IllegalArgumentException if the record is invalid or truncated
+     */
+    public static void decode(ByteBuffer in, FoxHoundGameRecord record) {
+        try {
+            int dim = in.get() & 0xFF;
+            char turn = (char) (in.get() & 0xFF);
+            int flags = in.get();
+            int hounds = in.get() & 0xFF;
+            if (dim < FoxHoundUtils.MIN_DIM || dim > FoxHoundUtils.MAX_DIM
+                    || (turn != FoxHoundUtils.FOX_FIELD && turn != FoxHoundUtils.HOUND_FIELD)
+                    || hounds >= dim * dim) {
+                throw new IllegalArgumentException("Invalid game record");
+            }
+            boolean wide = squareBytes(dim) == 2;
+            int squares = dim * dim;
+            readPieces(in, record.reset(dim, turn), hounds, squares, wide);
+            if ((flags & FLAG_HISTORY) != 0) {
+                int length = in.getInt();
+                if (length < 0 || length > in.remaining()) {
+                    throw new IllegalArgumentException("Invalid game record history");
+                }
+                int[] history = record.historyBuffer(length);
+                for (int i = 0; i < length; i++) {
+                    history[i] = FoxHoundMoveGenerator.pack(getSquare(in, squares, wide), getSquare(in, squares, wide));
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated game record", e);
+        }
+    }
+
+    /**
+     * @param in buffer positioned at the pieces of a record
+     * @param board cleared board receiving the pieces
+     * @param hounds number of hounds
+     * @param squares number of squares of the board
+     * @param wide true if squares take two bytes
+     */
+    private static void readPieces(ByteBuffer in, FoxHoundBitboard board, int hounds, int squares, boolean wide) {
+        for (int i = 0; i <= hounds; i++) {
+            int square = getSquare(in, squares, wide);
+            if (board.isOccupied(square)) {
+                throw new IllegalArgumentException("Two pieces on one square in game record");
+            }
+            if (i == hounds) {
+                board.setFox(square);
+            } else {
+                board.addHound(square);
+            }
+        }
+    }
+
+    /**
+     * @param out buffer receiving the square
+     * @param square square index
+     * @param wide true if squares take two bytes
+     */
+    private static void putSquare(ByteBuffer out, int square, boolean wide) {
+        if (wide) {
+            out.putShort((short) square);
+        } else {
+            out.put((byte) square);
+        }
+    }
+
+    /**
+     * @param in buffer positioned at a square
+     * @param squares number of squares of the board
+     * @param wide true if squares take two bytes
+     * @return square index
+     * @throws IllegalArgumentException if the square isn't on the board
+     */
+    private static int getSquare(ByteBuffer in, int squares, boolean wide) {
+        int square = wide ? in.getShort() & 0xFFFF : in.get() & 0xFF;
+        if (square >= squares) {
+            throw new IllegalArgumentException("Square " + square + " in game record isn't on the board");
+        }
+        return square;
+    }
+
+    // ------------------------- files --------------------
+
+    /**
+     * Write the header of a file.
+     *
+     * @param magic magic number of the file type
+     * @param out buffer receiving {@value FoxHoundBinaryIO#HEADER_BYTES} bytes
+     */
+    static void writeHeader(int magic, ByteBuffer out) {
+        out.putInt(magic).put(VERSION).put((byte) 0).putShort((short) 0);
+    }
+
+    /**
+     * Read and check the header of a file.
+     *
+     * @param magic expected magic number of the file type
+     * @param in buffer positioned at the start of the file
+     * @throws IllegalArgumentException if the header doesn't match
+     */
+    static void readHeader(int magic, ByteBuffer in) {
+        if (in.remaining() < HEADER_BYTES || in.getInt() != magic) {
+            throw new IllegalArgumentException("Not a fox hound file of the expected type");
+        }
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported file version: " + version);
+        }
+        in.position(in.position() + 3);
+    }
+
+    /**
+     * Save a single game to a new file.
+     *
+     * @param board current position
+     * @param turn the figure to move next
+     * @param history packed moves played from the start of the game, may be null
+     * @param historyLength number of moves in the history, 0 to store none
+     * @param saveFile path of the file, which must not exist yet
+     * @throws IOException if the file exists or can't be written
+     * @throws IllegalArgumentException if the figure is invalid or the board has no fox
+     */
+    public static void saveGame(FoxHoundBitboard board, char turn, int[] history, int historyLength, Path saveFile)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES
+                + recordBytes(board.getDim(), board.getHoundCount(), historyLength));
+        writeHeader(GAME_MAGIC, buffer);
+        encode(board, turn, history, historyLength, buffer);
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(saveFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Save a single game in the string representation to a new file.
+     *
+     * @param players array of the current positions of the pieces on the board, the fox last
+     * @param nextMove the figure to move next
+     * @param dim dimension of the board
+     * @param saveFile path of the file, which must not exist yet
+     * @throws IOException if the file exists or can't be written
+     * @throws IllegalArgumentException if a coordinate or the figure is invalid
+     */
+    public static void saveGame(String[] players, char nextMove, int dim, Path saveFile) throws IOException {
+        saveGame(FoxHoundBitboard.fromPlayers(players, dim), nextMove, null, 0, saveFile);
+    }
+
+    /**
+     * Load a single game file.
+     *
+     * @param loadFile path of the file
+     * @return the game
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the file isn't a valid game file
+     */
+    public static FoxHoundGameRecord loadGame(Path loadFile) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(loadFile));
+        readHeader(GAME_MAGIC, buffer);
+        FoxHoundGameRecord record = new FoxHoundGameRecord();
+        decode(buffer, record);
+        return record;
+    }
+
+    /**
+     * Read all games of an archive onto the heap. Large archives are better read with
+     * a reader mapping the file.
+     *
+     * @param archive path of the archive
+     * @return the games in the order they were appended
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the file isn't a valid archive
+     */
+    public static List<FoxHoundGameRecord> loadArchive(Path archive) throws IOException {
+        long[] index;
+        try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ)) {
+            index = FoxHoundArchiveWriter.readIndex(channel);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(archive));
+        List<FoxHoundGameRecord> games = new ArrayList<>(index.length);
+        for (long offset : index) {
+            FoxHoundGameRecord record = new FoxHoundGameRecord();
+            decode(buffer.position((int) offset), record);
+            games.add(record);
+        }
+        return games;
+    }
+}
@@ -0,0 +1,617 @@
+/**
+ * A compact position type for the fox hound program.
+ *
+ * It stores the hounds as a bit set over the board squares and the fox as
+ * a single square index, so rules can be evaluated with bitwise operations
+ * instead of parsing and building coordinate strings.
+ *
+ * Squares are numbered row by row starting from the top left corner:
+ * {@code square = (vert - 1) * dim + (lat - 1)}. Boards up to
+ * {@value FoxHoundBitboard#SMALL_MAX_DIM}x{@value FoxHoundBitboard#SMALL_MAX_DIM}
+ * fit into a single {@code long} and can use the static single word helpers,
+ * larger boards up to {@value FoxHoundUtils#MAX_DIM} use a {@code long[]} word array.
+ */
+public class FoxHoundBitboard {
+
+    /** Largest board dimension whose squares fit into a single long. */
+    public static final int SMALL_MAX_DIM = 8;
+    /** Square value used for an invalid or missing square. */
+    public static final int NO_SQUARE = -1;
+
+    /** Number of bits in a word of the bit set. */
+    private static final int WORD_BITS = 64;
+    /** Shift converting a square into its word index. */
+    private static final int WORD_SHIFT = 6;
+
+    /** Per dimension mask of all squares on the board. */
+    private static final long[][] BOARD_MASKS = new long[FoxHoundUtils.MAX_DIM + 1][];
+    /** Per dimension mask of all squares except the ones in column A. */
+    private static final long[][] NOT_FIRST_COLUMN = new long[FoxHoundUtils.MAX_DIM + 1][];
+    /** Per dimension mask of all squares except the ones in the last column. */
+    private static final long[][] NOT_LAST_COLUMN = new long[FoxHoundUtils.MAX_DIM + 1][];
+
+    static {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; dim++) {
+            long[] board = new long[wordCount(dim)];
+            long[] notFirst = new long[board.length];
+            long[] notLast = new long[board.length];
+            for (int square = 0; square < dim * dim; square++) {
+                setBit(board, square);
+                if (square % dim != 0) {
+                    setBit(notFirst, square);
+                }
+                if (square % dim != dim - 1) {
+                    setBit(notLast, square);
+                }
+            }
+            BOARD_MASKS[dim] = board;
+            NOT_FIRST_COLUMN[dim] = notFirst;
+            NOT_LAST_COLUMN[dim] = notLast;
+        }
+    }
+
+    /** Dimension of the board. */
+    private final int dim;
+    /** Bit set of all squares occupied by a hound. */
+    private final long[] hounds;
+    /** Square of the fox. */
+    private int fox;
+    /** Number of hounds on the board. */
+    private int houndCount;
+    /** Zobrist hash of all pieces, updated with every change, see {@link FoxHoundZobrist}. */
+    private long hash;
+    /** Zobrist hash of the mirror image of all pieces, see {@link FoxHoundSymmetry}. */
+    private long mirrorHash;
+
+    /**
+     * Create an empty board of the given dimension.
+     *
+     * @param dim dimension of the board
+     * @throws IllegalArgumentException if the board dimension isn't between {@value FoxHoundUtils#MIN_DIM} and
+     * {@value FoxHoundUtils#MAX_DIM}.
+     */
+    public FoxHoundBitboard(int dim) {
+        if (dim < FoxHoundUtils.MIN_DIM || dim > FoxHoundUtils.MAX_DIM) {
+            throw new IllegalArgumentException("You must have a board dimension from 4 to 26");
+        }
+        this.dim = dim;
+        this.hounds = new long[wordCount(dim)];
+        this.fox = NO_SQUARE;
+    }
+
+    /**
+     * Create a board from the string representation used by the rest of the program.
+     *
+     * @param players array of the current positions of the pieces on the board, the fox last
+     * @param dim dimension of the board
+     * @return the equivalent bitboard
+     * @throws IllegalArgumentException if a coordinate isn't on the board or two pieces share a square
+     * @throws NullPointerException if the given array is null
+     */
+    public static FoxHoundBitboard fromPlayers(String[] players, int dim) {
+        FoxHoundBitboard board = new FoxHoundBitboard(dim);
+        board.setPlayers(players);
+        return board;
+    }
+
+    /**
+     * Replace the contents of this board with the given string representation.
+     *
+     * @param players array of the current positions of the pieces on the board, the fox last
+     * @throws IllegalArgumentException if a coordinate isn't on the board or two pieces share a square
+     * @throws NullPointerException if the given array is null
+     */
+    public void setPlayers(String[] players) {
+        clear();
+        for (int i = 0; i < players.length; i++) {
+            int square = toSquare(players[i], dim);
+            if (square == NO_SQUARE || isOccupied(square)) {
+                throw new IllegalArgumentException("Invalid piece position: " + players[i]);
+            }
+            if (i == players.length - 1) {
+                setFox(square);
+            } else {
+                addHound(square);
+            }
+        }
+    }
+
+    /**
+     * Convert the board back to the string representation used by the rest of the program.
+     * Hounds are listed by ascending square, the fox last.
+     *
+     * @return array of the positions of the pieces on the board
+     */
+    public String[] toPlayers() {
+        return toPlayers(new String[houndCount + 1]);
+    }
+
+    /**
+     * Convert the board back to the string representation, writing into the given array.
+     *
+     * @param players array of length hound count plus one to fill
+     * @return the given array
+     * @throws IllegalArgumentException if the array length doesn't match the number of pieces
+     */
+    public String[] toPlayers(String[] players) {
+        if (players.length != houndCount + 1) {
+            throw new IllegalArgumentException("Players array must hold " + (houndCount + 1) + " pieces");
+        }
+        int place = 0;
+        for (int square = nextHound(0); square != NO_SQUARE; square = nextHound(square + 1)) {
+            players[place++] = toCoordinate(square, dim);
+        }
+        players[place] = fox == NO_SQUARE ? null : toCoordinate(fox, dim);
+        return players;
+    }
+
+    /** Remove every piece from the board. */
+    public void clear() {
+        for (int i = 0; i < hounds.length; i++) {
+            hounds[i] = 0L;
+        }
+        fox = NO_SQUARE;
+        houndCount = 0;
+        hash = 0L;
+        mirrorHash = 0L;
+    }
+
+    /**
+     * Copy the pieces of another board of the same dimension into this one.
+     *
+     * @param other board to copy from
+     * @throws IllegalArgumentException if the dimensions differ
+     */
+    public void copyFrom(FoxHoundBitboard other) {
+        if (other.dim != dim) {
+            throw new IllegalArgumentException("Boards must have the same dimension");
+        }
+        System.arraycopy(other.hounds, 0, hounds, 0, hounds.length);
+        fox = other.fox;
+        houndCount = other.houndCount;
+        hash = other.hash;
+        mirrorHash = other.mirrorHash;
+    }
+
+    /**
+     * Create an independent copy of this board.
+     *
+     * @return a new board with the same pieces
+     */
+    public FoxHoundBitboard copy() {
+        FoxHoundBitboard copy = new FoxHoundBitboard(dim);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /** @return dimension of the board */
+    public int getDim() {
+        return dim;
+    }
+
+    /** @return square of the fox or {@value FoxHoundBitboard#NO_SQUARE} if there is none */
+    public int getFox() {
+        return fox;
+    }
+
+    /** @return Zobrist hash of all pieces, without the side to move */
+    public long getHash() {
+        return hash;
+    }
+
+    /** @return Zobrist hash of the mirror image of all pieces, without the side to move */
+    public long getMirrorHash() {
+        return mirrorHash;
+    }
+
+    /** @return number of hounds on the board */
+    public int getHoundCount() {
+        return houndCount;
+    }
+
+    /**
+     * Direct access to the hound bit set, intended for move generation.
+     * The returned array must not be modified.
+     *
+     * @return bit set of all hound squares
+     */
+    long[] houndWords() {
+        return hounds;
+    }
+
+    /**
+     * Place the fox on the given square.
+     *
+     * @param square square of the fox
+     */
+    public void setFox(int square) {
+        if (fox != NO_SQUARE) {
+            hash ^= FoxHoundZobrist.foxKey(dim, fox);
+            mirrorHash ^= FoxHoundZobrist.mirrorFoxKey(dim, fox);
+        }
+        fox = square;
+        if (fox != NO_SQUARE) {
+            hash ^= FoxHoundZobrist.foxKey(dim, fox);
+            mirrorHash ^= FoxHoundZobrist.mirrorFoxKey(dim, fox);
+        }
+    }
+
+    /**
+     * Place a hound on the given square.
+     *
+     * @param square square of the new hound
+     */
+    public void addHound(int square) {
+        if (!testBit(hounds, square)) {
+            setBit(hounds, square);
+            houndCount++;
+            hash ^= FoxHoundZobrist.houndKey(dim, square);
+            mirrorHash ^= FoxHoundZobrist.mirrorHoundKey(dim, square);
+        }
+    }
+
+    /**
+     * @param square square to check
+     * @return true if a hound is standing on the square
+     */
+    public boolean isHound(int square) {
+        return testBit(hounds, square);
+    }
+
+    /**
+     * @param square square to check
+     * @return true if the fox is standing on the square
+     */
+    public boolean isFox(int square) {
+        return square == fox;
+    }
+
+    /**
+     * @param square square to check
+     * @return true if any piece is standing on the square
+     */
+    public boolean isOccupied(int square) {
+        return square == fox || testBit(hounds, square);
+    }
+
+    /**
+     * Find the next hound at or after the given square, used to iterate over the hounds
+     * without allocating.
+     *
+     * @param from first square to look at
+     * @return square of the next hound or {@value FoxHoundBitboard#NO_SQUARE} if there is none
+     */
+    public int nextHound(int from) {
+        return nextSetBit(hounds, from);
+    }
+
+    /**
+     * Find the last hound before the given square.
+     *
+     * @param before first square not to look at
+     * @return square of the previous hound or {@value FoxHoundBitboard#NO_SQUARE} if there is none
+     */
+    public int previousHound(int before) {
+        return previousSetBit(hounds, before - 1);
+    }
+
+    /**
+     * Count the hounds standing on squares with a lower index than the given one,
+     * for example all hounds in the rows above a square's row.
+     *
+     * @param square first square not to count
+     * @return number of hounds before the square
+     */
+    public int houndsBefore(int square) {
+        int word = square >>> WORD_SHIFT;
+        int count = 0;
+        for (int i = 0; i < word; i++) {
+            count += Long.bitCount(hounds[i]);
+        }
+        if (word < hounds.length) {
+            count += Long.bitCount(hounds[word] & ((1L << square) - 1));
+        }
+        return count;
+    }
+
+    /**
+     * Move the piece standing on one square to another square, the equivalent of
+     * {@link FoxHoundUtils#switchPlace(String[], String[])}. The hash is updated in constant time.
+     * Calling it again with the squares swapped undoes the move.
+     *
+     * @param from square of the piece to move
+     * @param to empty destination square
+     */
+    public void move(int from, int to) {
+        if (from == fox) {
+            fox = to;
+            hash ^= FoxHoundZobrist.foxKey(dim, from) ^ FoxHoundZobrist.foxKey(dim, to);
+            mirrorHash ^= FoxHoundZobrist.mirrorFoxKey(dim, from) ^ FoxHoundZobrist.mirrorFoxKey(dim, to);
+        } else {
+            clearBit(hounds, from);
+            setBit(hounds, to);
+            hash ^= FoxHoundZobrist.houndKey(dim, from) ^ FoxHoundZobrist.houndKey(dim, to);
+            mirrorHash ^= FoxHoundZobrist.mirrorHoundKey(dim, from) ^ FoxHoundZobrist.mirrorHoundKey(dim, to);
+        }
+    }
+
+    /**
+     * @return true if the fox has reached the first row
+     */
+    public boolean isFoxHome() {
+        return fox != NO_SQUARE && fox < dim;
+    }
+
+    /**
+     * Collect all empty squares the fox could move to.
+     *
+     * @param targets word array of {@link #wordCount(int)} words receiving the destination squares
+     * @return the given array
+     */
+    public long[] foxTargets(long[] targets) {
+        clearWords(targets);
+        if (fox == NO_SQUARE) {
+            return targets;
+        }
+        if (hounds.length == 1) {
+            targets[0] = foxTargets(1L << fox, hounds[0] | (1L << fox), dim);
+            return targets;
+        }
+        for (int to : FoxHoundNeighbours.diagonal(dim)[fox]) {
+            if (!isOccupied(to)) {
+                setBit(targets, to);
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Collect all empty squares reachable by a hound moving forward in one diagonal direction.
+     * The origin of every target is {@code target - dim - 1} when moving right
+     * and {@code target - dim + 1} when moving left.
+     *
+     * @param right true for moves towards the last column, false for moves towards column A
+     * @param targets word array of {@link #wordCount(int)} words receiving the destination squares
+     * @param scratch word array of the same size used as temporary storage
+     * @return the given targets array
+     */
+    public long[] houndTargets(boolean right, long[] targets, long[] scratch) {
+        if (hounds.length == 1) {
+            long occupied = hounds[0] | (fox == NO_SQUARE ? 0L : 1L << fox);
+            targets[0] = right ? houndTargetsRight(hounds[0], occupied, dim)
+                    : houndTargetsLeft(hounds[0], occupied, dim);
+            return targets;
+        }
+        long[] columnMask = right ? NOT_LAST_COLUMN[dim] : NOT_FIRST_COLUMN[dim];
+        for (int i = 0; i < hounds.length; i++) {
+            scratch[i] = hounds[i] & columnMask[i];
+        }
+        shiftLeft(scratch, right ? dim + 1 : dim - 1, targets);
+        long[] board = BOARD_MASKS[dim];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] &= board[i] & ~hounds[i];
+        }
+        if (fox != NO_SQUARE) {
+            clearBit(targets, fox);
+        }
+        return targets;
+    }
+
+    /**
+     * Check if a move of the given figure is legal on this board.
+     *
+     * @param figure the figure which would be moved
+     * @param from square of the piece being commanded to move
+     * @param to square which the piece would be moved to
+     * @return true if the move is valid and false otherwise
+     */
+    public boolean isValidMove(char figure, int from, int to) {
+        if (!FoxHoundNeighbours.isStep(dim, figure, from, to) || isOccupied(to)) {
+            return false;
+        }
+        return figure == FoxHoundUtils.FOX_FIELD ? from == fox : isHound(from);
+    }
+
+    // ------------------------- single word boards --------------------
+
+    /**
+     * Empty squares the fox can move to on a board of at most
+     * {@value FoxHoundBitboard#SMALL_MAX_DIM}x{@value FoxHoundBitboard#SMALL_MAX_DIM} squares.
+     *
+     * @param fox single bit mask of the fox square
+     * @param occupied mask of all occupied squares
+     * @param dim dimension of the board
+     * @return mask of all destination squares
+     */
+    public static long foxTargets(long fox, long occupied, int dim) {
+        long left = fox & NOT_FIRST_COLUMN[dim][0];
+        long right = fox & NOT_LAST_COLUMN[dim][0];
+        long targets = (left >>> (dim + 1)) | (right >>> (dim - 1))
+                | (left << (dim - 1)) | (right << (dim + 1));
+        return targets & BOARD_MASKS[dim][0] & ~occupied;
+    }
+
+    /**
+     * Empty squares hounds can reach moving forward towards column A on a single word board.
+     *
+     * @param hounds mask of all hound squares
+     * @param occupied mask of all occupied squares
+     * @param dim dimension of the board
+     * @return mask of all destination squares, each one coming from {@code target - dim + 1}
+     */
+    public static long houndTargetsLeft(long hounds, long occupied, int dim) {
+        return ((hounds & NOT_FIRST_COLUMN[dim][0]) << (dim - 1)) & BOARD_MASKS[dim][0] & ~occupied;
+    }
+
+    /**
+     * Empty squares hounds can reach moving forward towards the last column on a single word board.
+     *
+     * @param hounds mask of all hound squares
+     * @param occupied mask of all occupied squares
+     * @param dim dimension of the board
+     * @return mask of all destination squares, each one coming from {@code target - dim - 1}
+     */
+    public static long houndTargetsRight(long hounds, long occupied, int dim) {
+        return ((hounds & NOT_LAST_COLUMN[dim][0]) << (dim + 1)) & BOARD_MASKS[dim][0] & ~occupied;
+    }
+
+    // ------------------------- squares and words --------------------
+
+    /**
+     * @param dim dimension of the board
+     * @return number of longs needed to hold one bit per square
+     */
+    public static int wordCount(int dim) {
+        return (dim * dim + WORD_BITS - 1) >>> WORD_SHIFT;
+    }
+
+    /**
+     * Convert board coordinates to a square index.
+     *
+     * @param lat horizontal coordinate of a piece, measured from left to right of the board
+     * @param vert vertical coordinate of a piece, measured from top to bottom of the board
+     * @param dim dimension of the board
+     * @return square index
+     */
+    public static int square(int lat, int vert, int dim) {
+        return (vert - 1) * dim + (lat - 1);
+    }
+
+    /**
+     * Parse a coordinate like "C2" into a square index without creating any objects.
+     *
+     * @param coordinate a position on the board represented by a letter followed by a number
+     * @param dim dimension of the board
+     * @return square index or {@value FoxHoundBitboard#NO_SQUARE} if the coordinate isn't on the board
+     */
+    public static int toSquare(String coordinate, int dim) {
+        if (coordinate == null || coordinate.length() < 2 || coordinate.length() > 3) {
+            return NO_SQUARE;
+        }
+        int lat = coordinate.charAt(0) - FoxHoundUtils.CHAR_SHIFT;
+        int vert = 0;
+        for (int i = 1; i < coordinate.length(); i++) {
+            int digit = coordinate.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return NO_SQUARE;
+            }
+            vert = vert * 10 + digit;
+        }
+        if (lat < 1 || lat > dim || vert < 1 || vert > dim) {
+            return NO_SQUARE;
+        }
+        return square(lat, vert, dim);
+    }
+
+    /**
+     * Convert a square index back to a coordinate like "C2".
+     *
+     * @param square square index
+     * @param dim dimension of the board
+     * @return letter then number coordinate in the form of a string
+     */
+    public static String toCoordinate(int square, int dim) {
+        return FoxHoundCoordinates.ofSquare(square, dim);
+    }
+
+    /**
+     * @param words bit set
+     * @param square bit to check
+     * @return true if the bit is set
+     */
+    public static boolean testBit(long[] words, int square) {
+        return (words[square >>> WORD_SHIFT] & (1L << square)) != 0;
+    }
+
+    /**
+     * @param words bit set
+     * @param square bit to set
+     */
+    public static void setBit(long[] words, int square) {
+        words[square >>> WORD_SHIFT] |= 1L << square;
+    }
+
+    /**
+     * @param words bit set
+     * @param square bit to clear
+     */
+    public static void clearBit(long[] words, int square) {
+        words[square >>> WORD_SHIFT] &= ~(1L << square);
+    }
+
+    /**
+     * Find the next set bit at or after the given index.
+     *
+     * @param words bit set
+     * @param from first bit to look at
+     * @return index of the next set bit or {@value FoxHoundBitboard#NO_SQUARE} if there is none
+     */
+    public static int nextSetBit(long[] words, int from) {
+        int word = from >>> WORD_SHIFT;
+        if (word >= words.length) {
+            return NO_SQUARE;
+        }
+        long bits = words[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                return (word << WORD_SHIFT) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == words.length) {
+                return NO_SQUARE;
+            }
+            bits = words[word];
+        }
+    }
+
+    /**
+     * @param words bit set
+     * @param from last bit to look at, may be negative
+     * @return index of the previous set bit or {@value FoxHoundBitboard#NO_SQUARE} if there is none
+     */
+    public static int previousSetBit(long[] words, int from) {
+        if (from < 0) {
+            return NO_SQUARE;
+        }
+        int word = from >>> WORD_SHIFT;
+        long bits;
+        if (word >= words.length) {
+            word = words.length - 1;
+            bits = words[word];
+        } else {
+            // keep the bits up to and including from
+            bits = words[word] & (-1L >>> (WORD_BITS - 1 - (from & (WORD_BITS - 1))));
+        }
+        while (true) {
+            if (bits != 0) {
+                return (word << WORD_SHIFT) + WORD_BITS - 1 - Long.numberOfLeadingZeros(bits);
+            }
+            if (--word < 0) {
+                return NO_SQUARE;
+            }
+            bits = words[word];
+        }
+    }
+
+    /**
+     * Shift a multi word bit set towards higher square indexes.
+     *
+     * @param source bit set to shift
+     * @param distance number of squares to shift by, between 1 and 63
+     * @param target bit set receiving the result, must not be the source
+     */
+    static void shiftLeft(long[] source, int distance, long[] target) {
+        for (int i = target.length - 1; i > 0; i--) {
+            target[i] = (source[i] << distance) | (source[i - 1] >>> (WORD_BITS - distance));
+        }
+        target[0] = source[0] << distance;
+    }
+
+    /**
+     * @param words bit set to reset
+     */
+    private static void clearWords(long[] words) {
+        for (int i = 0; i < words.length; i++) {
+            words[i] = 0L;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * A utility class for the fox hound program.
+ *
+ * It holds the canonical string of every coordinate from "A1" to "Z26", created once and
+ * interned, so formatting a coordinate is a table lookup instead of building a new string.
+ * As the canonical strings are the same objects as equal string literals, and
+ * {@link String#equals(Object)} checks identity first, comparing canonical coordinates costs
+ * a single reference comparison.
+ *
+ * A coordinate's registry index is its square on the largest board,
+ * see {@link FoxHoundBitboard#square(int, int, int)}.
+ */
+public class FoxHoundCoordinates {
+
+    /** Canonical coordinates by their square on a board of the largest dimension. */
+    private static final String[] COORDINATES = new String[FoxHoundUtils.MAX_DIM * FoxHoundUtils.MAX_DIM];
+    /** Per dimension canonical coordinates of every square, sharing the strings above. */
+    private static final String[][] BY_SQUARE = new String[FoxHoundUtils.MAX_DIM + 1][];
+
+    static {
+        int maxDim = FoxHoundUtils.MAX_DIM;
+        for (int vert = 1; vert <= maxDim; vert++) {
+            for (int lat = 1; lat <= maxDim; lat++) {
+                COORDINATES[FoxHoundBitboard.square(lat, vert, maxDim)] =
+                        (Character.toString(FoxHoundUtils.CHAR_SHIFT + lat) + vert).intern();
+            }
+        }
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= maxDim; dim++) {
+            BY_SQUARE[dim] = new String[dim * dim];
+            for (int square = 0; square < dim * dim; square++) {
+                BY_SQUARE[dim][square] = COORDINATES[FoxHoundBitboard.square(square % dim + 1, square / dim + 1, maxDim)];
+            }
+        }
+    }
+
+    /**
+     * @param lat horizontal coordinate, 1 for column A
+     * @param vert vertical coordinate, 1 for the first row
+     * @return the canonical coordinate or null if it is outside of the largest board
+     */
+    public static String get(int lat, int vert) {
+        if (lat < 1 || lat > FoxHoundUtils.MAX_DIM || vert < 1 || vert > FoxHoundUtils.MAX_DIM) {
+            return null;
+        }
+        return COORDINATES[FoxHoundBitboard.square(lat, vert, FoxHoundUtils.MAX_DIM)];
+    }
+
+    /**
+     * @param square square index on the board, see {@link FoxHoundBitboard#square(int, int, int)}
+     * @param dim dimension of the board
+     * @return the canonical coordinate of the square, a new string if the square isn't on the board
+     */
+    public static String ofSquare(int square, int dim) {
+        if (dim < FoxHoundUtils.MIN_DIM || dim > FoxHoundUtils.MAX_DIM || square < 0 || square >= dim * dim) {
+            return FoxHoundUtils.makeCoordinate(square % dim + 1, square / dim + 1);
+        }
+        return BY_SQUARE[dim][square];
+    }
+
+    /**
+     * Find the canonical instance of a coordinate without creating any objects.
+     *
+     * @param coordinate a position like "C2"
+     * @return the canonical string equal to the coordinate, or the coordinate itself if it has none
+     */
+    public static String canonical(String coordinate) {
+        int index = FoxHoundBitboard.toSquare(coordinate, FoxHoundUtils.MAX_DIM);
+        if (index == FoxHoundBitboard.NO_SQUARE) {
+            return coordinate;
+        }
+        // "C02" parses like "C2" but isn't the same text
+        String canonical = COORDINATES[index];
+        return canonical.equals(coordinate) ? canonical : coordinate;
+    }
+}
@@ -0,0 +1,390 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.function.Function;
+
+/**
+ * The interaction of the fox hound program with a player as a state machine.
+ *
+ * It runs the flow of the console game: the dimension query, the main menu, and the queries
+ * for moves and file names, with exactly the prompts and messages of {@link FoxHoundUI}.
+ * Instead of blocking on a {@link java.util.Scanner}, it consumes input as it arrives in
+ * byte buffers and prints its responses to the streams it is given, so the same dialog can be
+ * driven by the console, see {@link FoxHoundGame}, or by a non-blocking server multiplexing
+ * many players on one thread, see {@link FoxHoundNioServer}.
+ *
+ * Input is read line by line, a line ending with a line feed and optionally a carriage return
+ * before it. The dimension and menu entries are read the way the Scanner of the console read
+ * them, as the next number even if it follows blank lines or the dimension on the same line.
+ */
+public class FoxHoundDialog implements Closeable {
+
+    /** Separator printed above the board before every main menu. */
+    private static final String SEPARATOR = "\n#################################\n";
+
+    /**
+     * Steps of a dialog, each waiting for one kind of input line.
+     */
+    public enum Step {
+        /** The dialog hasn't been started yet. */
+        NEW,
+        /** Waiting for the dimension of the board. */
+        DIMENSION,
+        /** Waiting for a main menu entry. */
+        MENU,
+        /** Waiting for the origin and destination of a move. */
+        MOVE,
+        /** Waiting for the file to save the game to. */
+        SAVE,
+        /** Waiting for the file to load a game from. */
+        LOAD,
+        /** The game is over or the player has left, all input is ignored. */
+        DONE
+    }
+
+    /** Maps file names entered by the player to paths, null for names which aren't allowed. */
+    private final Function<String, Path> files;
+    /** Stream prompts and boards are printed to. */
+    private final PrintStream out;
+    /** Stream error messages are printed to. */
+    private final PrintStream err;
+    /** Current game, null until the dimension is entered. */
+    private FoxHoundGameState state;
+    /** Current step. */
+    private Step step = Step.NEW;
+    /** File the game is journaled to, null if it isn't. */
+    private Path journalFile;
+    /** Committer of the journal. */
+    private FoxHoundJournalCommitter committer;
+    /** Journal of the game, null until the game has started. */
+    private FoxHoundJournal journal;
+    /** Blank lines received at the main menu since the last entry, including the rest of the dimension's line. */
+    private int blankLines;
+
+    /**
+     * Create a dialog which starts with the dimension query.
+     *
+     * @param files maps file names entered by the player to paths, returning null for names which aren't allowed
+     * @param out stream prompts and boards are printed to
+     * @param err stream error messages are printed to, may be the same as out
+     */
+    public FoxHoundDialog(Function<String, Path> files, PrintStream out, PrintStream err) {
+        this(null, files, out, err);
+    }
+
+    /**
+     * Create a dialog continuing a game.
+     *
+     * @param state the game to play, changed by every move or load, null to start with the dimension query
+     * @param files maps file names entered by the player to paths, returning null for names which aren't allowed
+     * @param out stream prompts and boards are printed to
+     * @param err stream error messages are printed to, may be the same as out
+     */
+    public FoxHoundDialog(FoxHoundGameState state, Function<String, Path> files, PrintStream out, PrintStream err) {
+        if (files == null || out == null || err == null) {
+            throw new NullPointerException("Files and streams must not be null");
+        }
+        this.state = state;
+        this.files = files;
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Journal every change of the game to a file once it has started, replacing the file.
+     *
+     * @param file path of the journal
+     * @param committer committer writing out the journal
+     * @throws IllegalStateException if the dialog has already started
+     */
+    public void journalTo(Path file, FoxHoundJournalCommitter committer) {
+        if (step != Step.NEW) {
+            throw new IllegalStateException("The dialog has already started");
+        }
+        this.journalFile = file;
+        this.committer = committer;
+    }
+
+    /**
+     * Print the first prompt.
+     *
+     * @return false if the dialog has ended right away because the journal couldn't be opened
+     * @throws IllegalStateException if the dialog has already started
+     */
+    public boolean start() {
+        if (step != Step.NEW) {
+            throw new IllegalStateException("The dialog has already started");
+        }
+        if (state == null) {
+            out.println(FoxHoundUtils.DIM_PROMPT);
+            step = Step.DIMENSION;
+        } else {
+            begin();
+        }
+        return step != Step.DONE;
+    }
+
+    /**
+     * Consume all complete lines of the input.
+     *
+     * @param in buffer ready to be read, left positioned after the last complete line
+     * @param endOfInput true if no more input follows, the bytes after the last line break then form a last line
+     * @return false once the dialog has ended
+     * @throws IllegalStateException if the dialog hasn't been started
+     */
+    public boolean receive(ByteBuffer in, boolean endOfInput) {
+        if (step == Step.NEW) {
+            throw new IllegalStateException("The dialog hasn't been started");
+        }
+        int lineStart = in.position();
+        for (int pos = lineStart; pos < in.limit() && step != Step.DONE; pos++) {
+            if (in.get(pos) == '\n') {
+                receive(line(in, lineStart, pos));
+                lineStart = pos + 1;
+                in.position(lineStart);
+            }
+        }
+        if (endOfInput && in.hasRemaining() && step != Step.DONE) {
+            receive(line(in, lineStart, in.limit()));
+            in.position(in.limit());
+        }
+        if (step == Step.DONE) {
+            // nothing is read after the end
+            in.position(in.limit());
+        }
+        return step != Step.DONE;
+    }
+
+    /**
+     * @param in input buffer
+     * @param start index of the first byte of the line
+     * @param end index after the last byte of the line, the line feed if there is one
+     * @return the line without its terminator
+     */
+    private static String line(ByteBuffer in, int start, int end) {
+        if (end > start && in.get(end - 1) == '\r') {
+            end--;
+        }
+        byte[] bytes = new byte[end - start];
+        in.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Handle a single line of input.
+     *
+     * @param line line without its terminator
+     * @return false once the dialog has ended
+     */
+    boolean receive(String line) {
+        switch (step) {
+            case DIMENSION:
+                dimension(line);
+                break;
+            case MENU:
+                menu(line);
+                break;
+            case MOVE:
+                move(line);
+                break;
+            case SAVE:
+                save(line);
+                break;
+            case LOAD:
+                load(line);
+                break;
+            default:
+                break;
+        }
+        return step != Step.DONE;
+    }
+
+    /**
+     * @param line dimension entered by the player, the default dimension is used if it isn't valid
+     */
+    private void dimension(String line) {
+        int dimension;
+        String[] words = line.trim().split("\\s+", 2);
+        String word = words[0];
+        if (word.isEmpty()) {
+            return;
+        }
+        try {
+            dimension = Integer.parseInt(word);
+        } catch (NumberFormatException e) {
+            dimension = FoxHoundUtils.DEFAULT_DIM;
+        }
+        if (!(dimension >= FoxHoundUtils.MIN_DIM && dimension <= FoxHoundUtils.MAX_DIM)) {
+            dimension = FoxHoundUtils.DEFAULT_DIM;
+        }
+        // start each game with the Fox
+        state = new FoxHoundGameState(dimension, FoxHoundUtils.initialisePositions(dimension),
+                FoxHoundUtils.FOX_FIELD);
+        begin();
+        // the rest of the line is read by the menu like a line of its own
+        if (step == Step.MENU) {
+            menu(words.length > 1 ? words[1] : "");
+        }
+    }
+
+    /**
+     * Open the journal, if any, and show the main menu.
+     */
+    private void begin() {
+        if (journalFile != null) {
+            try {
+                journal = new FoxHoundJournal(journalFile, state, committer);
+            } catch (IOException | IllegalArgumentException e) {
+                err.println("ERROR: Journal failed: " + e.getMessage());
+                step = Step.DONE;
+                return;
+            }
+        }
+        showMenu();
+    }
+
+    /**
+     * Print the board and the main menu.
+     */
+    private void showMenu() {
+        out.println(SEPARATOR);
+        FoxHoundUI.fancyDisplayBoard(state.getPlayers(), state.getDim(), out);
+        FoxHoundUI.printMenu(state.getTurn(), out);
+        step = Step.MENU;
+    }
+
+    /**
+     * @param line main menu entry entered by the player
+     */
+    private void menu(String line) {
+        int entry = FoxHoundUI.menuEntry(line);
+        if (entry == -1) {
+            // keep waiting for a number
+            blankLines++;
+            return;
+        }
+        int skipped = blankLines;
+        blankLines = 0;
+        switch (entry) {
+            case FoxHoundUI.MENU_MOVE:
+                FoxHoundUI.printPositionPrompt(state.getDim(), out);
+                step = Step.MOVE;
+                break;
+            case FoxHoundUI.MENU_SAVE:
+                out.println(FoxHoundUI.FILE_PROMPT);
+                step = Step.SAVE;
+                break;
+            case FoxHoundUI.MENU_LOAD:
+                out.println(FoxHoundUI.FILE_PROMPT);
+                step = Step.LOAD;
+                break;
+            case FoxHoundUI.MENU_EXIT:
+                step = Step.DONE;
+                break;
+            default:
+                // the Scanner dropped one line per rejected entry, so an invalid entry
+                // after blank lines is rejected once for each of them
+                for (int i = 0; i <= skipped; i++) {
+                    out.println(FoxHoundUI.MENU_ERROR);
+                    FoxHoundUI.printMenu(state.getTurn(), out);
+                }
+                break;
+        }
+    }
+
+    /**
+     * @param line origin and destination entered by the player
+     */
+    private void move(String line) {
+        String[] pair = line.split(" ");
+        int dim = state.getDim();
+        if (pair.length != 2 || pair[0].isEmpty() || pair[1].isEmpty()
+                || !FoxHoundUI.inRange(dim, pair[0], err) || !FoxHoundUI.inRange(dim, pair[1], err)) {
+            err.println(FoxHoundUI.POSITION_ERROR);
+            FoxHoundUI.printPositionPrompt(dim, out);
+            return;
+        }
+        if (!state.isValidMove(pair[0], pair[1])) {
+            // ask again without an error, like the console always did
+            FoxHoundUI.printPositionPrompt(dim, out);
+            return;
+        }
+        state.makeMove(pair[0], pair[1]);
+        if (journal != null) {
+            journal.recordMove(state.getLastMove());
+        }
+        if (FoxHoundUtils.isWinner(state.getPlayers(), dim, out)) {
+            step = Step.DONE;
+        } else {
+            showMenu();
+        }
+    }
+
+    /**
+     * @param line name of the save file entered by the player
+     */
+    private void save(String line) {
+        Path file = files.apply(line);
+        boolean saveSuccessful = false;
+        if (file != null) {
+            try {
+                saveSuccessful = FoxHoundIO.saveGame(state.getPlayers(), state.getTurn(), state.getDim(), file);
+            } catch (IllegalArgumentException e) {
+                // a game which couldn't be loaded again is reported like a failed write
+            }
+        }
+        if (!saveSuccessful) {
+            err.println("ERROR: Saving file failed.");
+        }
+        showMenu();
+    }
+
+    /**
+     * @param line name of the save file entered by the player
+     */
+    private void load(String line) {
+        Path file = files.apply(line);
+        String[] players = state.getPlayers();
+        char playerStatus = file == null ? FoxHoundIO.ERROR_CHAR : FoxHoundIO.loadGame(players, state.getDim(), file);
+        try {
+            if (playerStatus == FoxHoundIO.ERROR_CHAR) {
+                throw new IllegalArgumentException("Invalid game file");
+            }
+            state.setPosition(players, playerStatus);
+            if (journal != null) {
+                journal.recordPosition(state);
+            }
+        } catch (IllegalArgumentException e) {
+            err.println("ERROR: Loading from file failed.");
+        }
+        showMenu();
+    }
+
+    /** @return the current step */
+    public Step getStep() {
+        return step;
+    }
+
+    /** @return the current game, null until the dimension has been entered */
+    public FoxHoundGameState getState() {
+        return state;
+    }
+
+    /**
+     * End the dialog, writing out and closing its journal.
+     *
+     * @throws IOException if the journal can't be written
+     */
+    @Override
+    public void close() throws IOException {
+        step = Step.DONE;
+        if (journal != null) {
+            FoxHoundJournal closing = journal;
+            journal = null;
+            closing.close();
+        }
+    }
+}
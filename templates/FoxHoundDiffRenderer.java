@@ -0,0 +1,233 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Renders boards of the fox hound program incrementally for a single client.
+ *
+ * The renderer remembers the glyph of every square it has sent. The first frame and every
+ * frame after {@link #reset()} is a full redraw; later frames only carry the squares which
+ * changed since, two per move. Changes are either sent as ANSI escape sequences which
+ * repaint the squares of the frame on a terminal, or as a compact text line for clients
+ * keeping their own board:
+ * <pre>
+ * DELTA D7F E8.
+ * </pre>
+ * listing the coordinate and new glyph of every changed square, {@code .} for an empty one.
+ *
+ * ANSI updates move the cursor relative to where it was left, the start of a line below the
+ * frame, so they still find the frame after the terminal has scrolled. Every line printed
+ * below the frame in between must be reported with {@link #linesWritten(int)}. After an update
+ * the cursor is parked right below the frame and the rest of the screen is cleared. Once the
+ * top of the frame may have scrolled off the screen, because the frame and the lines below it
+ * don't fit into the terminal's height, a full frame is sent instead. With the default height
+ * of {@value FoxHoundDiffRenderer#DEFAULT_SCREEN_LINES} lines a fancy frame of a board of 10x10
+ * or larger is always sent in full.
+ *
+ * A renderer belongs to one client and must only be used by one thread at a time.
+ */
+public class FoxHoundDiffRenderer {
+
+    /** How changed squares are sent. */
+    public enum Mode {
+        /** Cursor addressed ANSI escape sequences for terminals. */
+        ANSI,
+        /** A single text line listing the changed squares. */
+        DELTA
+    }
+
+    /** Prefix of a delta line. */
+    public static final String DELTA = "DELTA";
+    /** Glyph of an empty square in a delta line. */
+    public static final char DELTA_EMPTY = '.';
+
+    /** Default height of a terminal in lines. */
+    public static final int DEFAULT_SCREEN_LINES = 24;
+
+    /** ANSI sequence moving the cursor home and clearing the screen. */
+    private static final String ANSI_CLEAR = "\u001b[H\u001b[2J";
+    /** ANSI sequence clearing the screen from the cursor to its end. */
+    private static final String ANSI_CLEAR_BELOW = "\u001b[J";
+
+    /** Renderer of full frames, also giving the position of every glyph. */
+    private final FoxHoundRenderer renderer;
+    /** How changed squares are sent. */
+    private final Mode mode;
+    /** Glyph of every square the client is showing. */
+    private final byte[] shown;
+    /** Glyph of every square of the frame being rendered. */
+    private final byte[] current;
+    /** Board used to convert the string representation. */
+    private final FoxHoundBitboard board;
+    /** Height of the client's terminal in lines. */
+    private final int screenLines;
+    /** False until a full frame has been sent since creation or the last reset. */
+    private boolean synced;
+    /** Lines printed below the frame since it was drawn or the cursor was parked. */
+    private int linesBelow;
+
+    /**
+     * @param renderer renderer of full frames
+     * @param mode how changed squares are sent
+     */
+    public FoxHoundDiffRenderer(FoxHoundRenderer renderer, Mode mode) {
+        this(renderer, mode, DEFAULT_SCREEN_LINES);
+    }
+
+    /**
+     * @param renderer renderer of full frames
+     * @param mode how changed squares are sent
+     * @param screenLines height of the client's terminal in lines, only used by {@link Mode#ANSI}
+     * @throws IllegalArgumentException if the height isn't positive
+     */
+    public FoxHoundDiffRenderer(FoxHoundRenderer renderer, Mode mode, int screenLines) {
+        if (screenLines < 1) {
+            throw new IllegalArgumentException("A screen needs at least one line: " + screenLines);
+        }
+        this.renderer = renderer;
+        this.mode = mode;
+        this.screenLines = screenLines;
+        int dim = renderer.getDim();
+        this.shown = new byte[dim * dim];
+        this.current = new byte[dim * dim];
+        this.board = new FoxHoundBitboard(dim);
+    }
+
+    /** @return how changed squares are sent */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Forget what the client is showing, so the next frame is a full redraw,
+     * e.g. after the client lost its screen or reconnected.
+     */
+    public void reset() {
+        synced = false;
+    }
+
+    /**
+     * Report lines printed on the client's terminal since the last frame, e.g. status lines or
+     * echoed requests, so ANSI updates can find the frame again.
+     *
+     * @param lines number of line breaks printed
+     */
+    public void linesWritten(int lines) {
+        linesBelow += lines;
+    }
+
+    /** @return height of the client's terminal in lines */
+    public int getScreenLines() {
+        return screenLines;
+    }
+
+    /**
+     * Render the changes since the last frame.
+     *
+     * @param players array of the current positions of the pieces on the board, the fox last
+     * @param out stream the changes are written to in a single write
+     * @return number of bytes written
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if a coordinate isn't on the board
+     */
+    public int render(String[] players, OutputStream out) throws IOException {
+        board.setPlayers(players);
+        return render(board, out);
+    }
+
+    /**
+     * Render the changes since the last frame.
+     *
+     * @param position current position, must have the renderer's dimension
+     * @param out stream the changes are written to in a single write
+     * @return number of bytes written
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if the board has a different dimension
+     */
+    public int render(FoxHoundBitboard position, OutputStream out) throws IOException {
+        if (position.getDim() != renderer.getDim()) {
+            throw new IllegalArgumentException("Board dimension " + position.getDim()
+                    + " doesn't match " + renderer.getDim());
+        }
+        Arrays.fill(current, renderer.emptyGlyph());
+        for (int square = position.nextHound(0); square != FoxHoundBitboard.NO_SQUARE;
+             square = position.nextHound(square + 1)) {
+            current[square] = FoxHoundUtils.HOUND_FIELD;
+        }
+        if (position.getFox() != FoxHoundBitboard.NO_SQUARE) {
+            current[position.getFox()] = FoxHoundUtils.FOX_FIELD;
+        }
+        // the cursor is on line lineCount + linesBelow counted from the top of the frame
+        boolean onScreen = mode == Mode.DELTA || renderer.lineCount() + linesBelow < screenLines;
+        byte[] frame = synced && onScreen ? diff() : fullFrame(position);
+        System.arraycopy(current, 0, shown, 0, current.length);
+        synced = true;
+        linesBelow = 0;
+        out.write(frame);
+        return frame.length;
+    }
+
+    /**
+     * @param position current position
+     * @return bytes of a full redraw
+     */
+    private byte[] fullFrame(FoxHoundBitboard position) {
+        byte[] frame = renderer.renderBytes(position);
+        if (mode == Mode.DELTA) {
+            return frame;
+        }
+        byte[] clear = ANSI_CLEAR.getBytes(StandardCharsets.US_ASCII);
+        byte[] full = Arrays.copyOf(clear, clear.length + frame.length);
+        System.arraycopy(frame, 0, full, clear.length, frame.length);
+        return full;
+    }
+
+    /**
+     * @return bytes of the changes between the shown and the current glyphs
+     */
+    private byte[] diff() {
+        StringBuilder changes = new StringBuilder(mode == Mode.DELTA ? DELTA : "");
+        int dim = renderer.getDim();
+        int line = renderer.lineCount() + linesBelow;
+        for (int square = 0; square < current.length; square++) {
+            if (current[square] == shown[square]) {
+                continue;
+            }
+            if (mode == Mode.DELTA) {
+                char glyph = current[square] == renderer.emptyGlyph() ? DELTA_EMPTY : (char) current[square];
+                changes.append(' ').append(FoxHoundBitboard.toCoordinate(square, dim)).append(glyph);
+            } else {
+                line = moveToLine(changes, line, renderer.glyphLine(square));
+                // ANSI columns start at one
+                changes.append("\u001b[").append(renderer.glyphColumn(square) + 1).append('G')
+                        .append((char) current[square]);
+            }
+        }
+        if (mode == Mode.DELTA) {
+            changes.append(System.lineSeparator());
+        } else {
+            // park the cursor right below the frame where the next status line is printed
+            moveToLine(changes, line, renderer.lineCount());
+            changes.append('\r').append(ANSI_CLEAR_BELOW);
+        }
+        return changes.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Append the ANSI sequence moving the cursor up or down to another line of the frame.
+     *
+     * @param changes sequences of the update
+     * @param from line of the cursor, counted from the top of the frame
+     * @param to line to move to
+     * @return the new line of the cursor
+     */
+    private static int moveToLine(StringBuilder changes, int from, int to) {
+        if (to < from) {
+            changes.append("\u001b[").append(from - to).append('A');
+        } else if (to > from) {
+            changes.append("\u001b[").append(to - from).append('B');
+        }
+        return to;
+    }
+}
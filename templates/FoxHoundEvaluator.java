@@ -0,0 +1,216 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Static evaluation of positions for the fox hound program, used by the search engines to
+ * score positions which aren't decided yet.
+ *
+ * The score is a weighted sum of features of the position, seen from the fox:
+ * <ul>
+ *     <li>progress: rows the fox has advanced towards the first row</li>
+ *     <li>mobility: squares the fox can move to</li>
+ *     <li>passed: hounds on or behind the fox's row, which can't block it anymore</li>
+ *     <li>gaps: rows between the front and the back of the hounds still ahead of the fox,
+ *     not counting the two rows a closed zig-zag line takes</li>
+ *     <li>tempo: a bonus for the figure to move</li>
+ * </ul>
+ * Every feature takes a few bit operations on the {@link FoxHoundBitboard}, so a call costs
+ * a few tens of nanoseconds without any branch on the board edge.
+ *
+ * Weights are read from a properties file with one integer per feature name, missing features
+ * keep their default weight:
+ * <pre>
+ * progress=10
+ * mobility=4
+ * passed=30
+ * gaps=6
+ * tempo=2
+ * </pre>
+ * An evaluator is immutable and can be shared by any number of threads.
+ */
+public class FoxHoundEvaluator {
+
+    /** Name of the progress weight in a weights file. */
+    public static final String PROGRESS = "progress";
+    /** Name of the mobility weight in a weights file. */
+    public static final String MOBILITY = "mobility";
+    /** Name of the passed hounds weight in a weights file. */
+    public static final String PASSED = "passed";
+    /** Name of the hound line gap weight in a weights file. */
+    public static final String GAPS = "gaps";
+    /** Name of the tempo weight in a weights file. */
+    public static final String TEMPO = "tempo";
+
+    /** Default weight of every row the fox has advanced towards the first row. */
+    public static final int DEFAULT_PROGRESS = 10;
+    /** Default weight of every square the fox can move to. */
+    public static final int DEFAULT_MOBILITY = 4;
+    /** Default weight of every hound the fox has already passed. */
+    public static final int DEFAULT_PASSED = 30;
+    /** Default weight of every row of gap in the hound line. */
+    public static final int DEFAULT_GAPS = 6;
+    /** Default bonus of the figure to move. */
+    public static final int DEFAULT_TEMPO = 2;
+    /** Largest absolute weight, keeping every score far below {@link FoxHoundSearch#WIN_SCORE}. */
+    public static final int MAX_WEIGHT = 1000;
+
+    /** Evaluator with the default weights. */
+    private static final FoxHoundEvaluator DEFAULT = new FoxHoundEvaluator(DEFAULT_PROGRESS, DEFAULT_MOBILITY,
+            DEFAULT_PASSED, DEFAULT_GAPS, DEFAULT_TEMPO);
+
+    /** Weight of the fox's progress. */
+    private final int progress;
+    /** Weight of the fox's mobility. */
+    private final int mobility;
+    /** Weight of the passed hounds. */
+    private final int passed;
+    /** Weight of the gaps in the hound line. */
+    private final int gaps;
+    /** Bonus of the figure to move. */
+    private final int tempo;
+
+    /**
+     * Create an evaluator with the given weights.
+     *
+     * @param progress weight of every row the fox has advanced
+     * @param mobility weight of every square the fox can move to
+     * @param passed weight of every hound the fox has passed
+     * @param gaps weight of every row of gap in the hound line
+     * @param tempo bonus of the figure to move
+     * @throws IllegalArgumentException if a weight is larger than {@value FoxHoundEvaluator#MAX_WEIGHT} in magnitude
+     */
+    public FoxHoundEvaluator(int progress, int mobility, int passed, int gaps, int tempo) {
+        this.progress = checkWeight(PROGRESS, progress);
+        this.mobility = checkWeight(MOBILITY, mobility);
+        this.passed = checkWeight(PASSED, passed);
+        this.gaps = checkWeight(GAPS, gaps);
+        this.tempo = checkWeight(TEMPO, tempo);
+    }
+
+    /**
+     * @param name name of the weight
+     * @param weight the weight
+     * @return the given weight
+     * @throws IllegalArgumentException if the weight is out of range
+     */
+    private static int checkWeight(String name, int weight) {
+        if (weight < -MAX_WEIGHT || weight > MAX_WEIGHT) {
+            throw new IllegalArgumentException("Weight " + name + " must be between -" + MAX_WEIGHT
+                    + " and " + MAX_WEIGHT + ": " + weight);
+        }
+        return weight;
+    }
+
+    /** @return the evaluator with the default weights */
+    public static FoxHoundEvaluator defaults() {
+        return DEFAULT;
+    }
+
+    /**
+     * Read weights from a properties file.
+     *
+     * @param file path of the weights file
+     * @return evaluator with the weights of the file, the default ones for missing names
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if a weight isn't an integer or out of range
+     */
+    public static FoxHoundEvaluator load(Path file) throws IOException {
+        Properties weights = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            weights.load(reader);
+        }
+        return new FoxHoundEvaluator(weight(weights, PROGRESS, DEFAULT_PROGRESS),
+                weight(weights, MOBILITY, DEFAULT_MOBILITY), weight(weights, PASSED, DEFAULT_PASSED),
+                weight(weights, GAPS, DEFAULT_GAPS), weight(weights, TEMPO, DEFAULT_TEMPO));
+    }
+
+    /**
+     * @param weights weights read from a file
+     * @param name name of the weight
+     * @param fallback weight if the name is missing
+     * @return the weight
+     * @throws IllegalArgumentException if the weight isn't an integer
+     */
+    private static int weight(Properties weights, String name, int fallback) {
+        String value = weights.getProperty(name);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Weight " + name + " isn't an integer: " + value);
+        }
+    }
+
+    /**
+     * Write the weights to a properties file which {@link #load(Path)} reads back.
+     *
+     * @param file path of the weights file, replaced if it exists
+     * @throws IOException if the file can't be written
+     */
+    public void save(Path file) throws IOException {
+        Properties weights = new Properties();
+        weights.setProperty(PROGRESS, Integer.toString(progress));
+        weights.setProperty(MOBILITY, Integer.toString(mobility));
+        weights.setProperty(PASSED, Integer.toString(passed));
+        weights.setProperty(GAPS, Integer.toString(gaps));
+        weights.setProperty(TEMPO, Integer.toString(tempo));
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            weights.store(writer, "Fox hound evaluation weights");
+        }
+    }
+
+    /**
+     * Score a position that isn't decided yet.
+     *
+     * @param board current position with a fox
+     * @param side the figure to move
+     * @return score from the view of the moving figure
+     */
+    public int evaluate(FoxHoundBitboard board, char side) {
+        int dim = board.getDim();
+        int foxRow = board.getFox() / dim;
+        int rowStart = foxRow * dim;
+        int ahead = board.houndsBefore(rowStart);
+        // the front hound is the one nearest to the first row, the back one is nearest to the fox
+        int front = board.nextHound(0) / dim;
+        int back = board.previousHound(rowStart) / dim;
+        int gapRows = ahead > 0 ? Math.max(0, back - front - 1) : 0;
+        int score = progress * (dim - 1 - foxRow)
+                + mobility * FoxHoundMoveGenerator.countFoxMoves(board)
+                + passed * (board.getHoundCount() - ahead)
+                + gaps * gapRows;
+        return (side == FoxHoundUtils.FOX_FIELD ? score : -score) + tempo;
+    }
+
+    /** @return weight of every row the fox has advanced */
+    public int getProgress() {
+        return progress;
+    }
+
+    /** @return weight of every square the fox can move to */
+    public int getMobility() {
+        return mobility;
+    }
+
+    /** @return weight of every hound the fox has passed */
+    public int getPassed() {
+        return passed;
+    }
+
+    /** @return weight of every row of gap in the hound line */
+    public int getGaps() {
+        return gaps;
+    }
+
+    /** @return bonus of the figure to move */
+    public int getTempo() {
+        return tempo;
+    }
+}
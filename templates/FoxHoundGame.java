@@ -1,136 +1,62 @@
-import java.util.Scanner;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 
 /**
  * The Main class of the fox hound program.
  *
- * It contains the main game loop where main menu interactions
- * are processed and handler functions are called.
+ * It contains the main game loop, which runs the main menu interactions
+ * of a {@link FoxHoundDialog} on the console.
  */
 public class FoxHoundGame {
 
-    /**
-     * This scanner can be used by the program to read from
-     * the standard input. 
-     *
-     * Every scanner should be closed after its use, however, if you do
-     * that for StdIn, it will close the underlying input stream as well
-     * which makes it difficult to read from StdIn again later during the
-     * program.
-     *
-     * Therefore, it is advisable to create only one Scanner for StdIn 
-     * over the course of a program and only close it when the program
-     * exits. Additionally, it reduces complexity. 
-     */
-    private static final Scanner STDIN_SCAN = new Scanner(System.in);
-
-    /**
-     * Swap between fox and hounds to determine the next
-     * figure to move.
-     *
-     * @param currentTurn last figure to be moved
-     * @return next figure to be moved
-     */
-    private static char swapPlayers(char currentTurn) {
-        if (currentTurn == FoxHoundUtils.FOX_FIELD) {
-            return FoxHoundUtils.HOUND_FIELD;
-        } else {
-            return FoxHoundUtils.FOX_FIELD;
-        }
-    }
+    /** Size of the buffer holding console input until a line is complete. */
+    private static final int INPUT_BUFFER = 8192;
 
     /**
-     *The loop that handle the piece's movements.
-     * It updates the player's positions instructed by a valid command.
-     * Loop will not break until valid movement selection is made.
+     * The main loop of the game, an adapter running the dialog on the console.
+     * Input is read from the standard input stream as it arrives, prompts are
+     * printed to standard output and error messages to standard error.
      *
-     * @param dim dimensions of the board
-     * @param players array of the current positions of the pieces on the board
-     * @param turn turn of the player making the move
-     * @param stdin input stream - used to request a move command.
-     * @return updated player array
+     * @param dialog the dialog to run, not yet started
+     * @throws IOException if the standard input stream can't be read
      */
-
-    private static String[] moveLoop(int dim, String[] players, char turn, Scanner stdin) {
-        boolean gotMove = false;
-        String[] movement = new String[2];
-        while(!gotMove) {
-            movement = FoxHoundUI.positionQuery(dim, stdin);
-            if (FoxHoundUtils.isValidMove(dim, players, turn, movement[0], movement[1])) {
-                gotMove = true;
+    private static void gameLoop(FoxHoundDialog dialog) throws IOException {
+        ReadableByteChannel stdin = Channels.newChannel(System.in);
+        ByteBuffer input = ByteBuffer.allocate(INPUT_BUFFER);
+        boolean open = dialog.start();
+        while (open) {
+            int read = stdin.read(input);
+            input.flip();
+            open = dialog.receive(input, read == -1);
+            if (open && read != -1 && input.remaining() == input.capacity()) {
+                // a line longer than the buffer is taken as it is
+                open = dialog.receive(input, true);
+            }
+            input.compact();
+            if (read == -1) {
+                break;
             }
-        }
-        return FoxHoundUtils.switchPlace(players, movement);
-    }
-
-    /**
-     * The loop used to save games to be accessed later.
-     * It saves the data required for a game to be laid out in a named file.
-     *
-     * @param players array of the current positions of the pieces on the board
-     * @param turn last figure to be used
-     * @param stdin input stream - used to specify a file name
-     */
-
-    private static void saveLoop(String[] players, char turn, Scanner stdin) {
-        boolean saveSuccessful = FoxHoundIO.saveGame(players, turn, FoxHoundUI.fileQuery(stdin));
-        if (!saveSuccessful) {
-            System.err.println("ERROR: Saving file failed.");
-        }
-    }
-
-    /** The loop used to load previous games.
-     * It replaces the current game with a game from a chosen save file.
-     *
-     * @param players array of the current positions of the pieces on the board
-     * @param turn last figure to be used
-     * @param stdin input stream - used to specify a file name
-     */
-    private static void loadLoop(String[] players, char turn, Scanner stdin) {
-        char playerStatus = FoxHoundIO.loadGame(players, FoxHoundUI.fileQuery(stdin));
-        if (playerStatus == FoxHoundIO.ERROR_CHAR) {
-            System.err.println("ERROR: Loading from file failed.");
-        } else {
-            turn = playerStatus;
         }
     }
 
     /**
-     * The main loop of the game. Interactions with the main
-     * menu are interpreted and executed here.
+     * Map a file name entered at the console to a path, any file can be used.
      *
-     * @param dim the dimension of the game board
-     * @param players current position of all figures on the board in board coordinates
+     * @param name file name entered by the user
+     * @return the path or null if the name isn't a valid path
      */
-    private static void gameLoop(int dim, String[] players) {
-
-        // start each game with the Fox
-        char turn = FoxHoundUtils.FOX_FIELD;
-        boolean exit = false;
-        while(!exit) {
-            System.out.println("\n#################################\n");
-            //The display function for the board table, can be displayBoard or fancyDisplayBoard
-            FoxHoundUI.fancyDisplayBoard(players, dim);
-            int choice = FoxHoundUI.mainMenuQuery(turn, STDIN_SCAN);
-
-            // handle menu choice
-            switch(choice) {
-                case FoxHoundUI.MENU_MOVE:
-                    moveLoop(dim, players, turn, STDIN_SCAN);
-                    exit = FoxHoundUtils.isWinner(players, dim);
-                    turn = swapPlayers(turn);
-                    break;
-                case FoxHoundUI.MENU_SAVE:
-                    saveLoop(players, turn, (STDIN_SCAN));
-                    break;
-                case FoxHoundUI.MENU_LOAD:
-                    loadLoop(players, turn, STDIN_SCAN);
-                    break;
-                case FoxHoundUI.MENU_EXIT:
-                    exit = true;
-                    break;
-                default:
-                    System.err.println("ERROR: invalid menu choice: " + choice);
-            }
+    private static Path toPath(String name) {
+        try {
+            return Path.of(name);
+        } catch (InvalidPathException e) {
+            return null;
         }
     }
 
@@ -146,16 +72,73 @@ public class FoxHoundGame {
      * Dimensions must be between {@value FoxHoundUtils#MIN_DIM} and
      * {@value FoxHoundUtils#MAX_DIM}.
      *
+     * If the first argument is {@code --selfplay}, the remaining arguments are
+     * passed to {@link FoxHoundSelfPlay#main(String[])} and games are played
+     * headless without any user interaction. If it is {@code --server}, the
+     * remaining arguments are passed to {@link FoxHoundServer#main(String[])}
+     * and games are served over TCP instead of the console, {@code --nio-server} passes
+     * them to {@link FoxHoundNioServer#main(String[])} to play the console game itself
+     * with many clients over TCP. {@code --search-bench}
+     * passes them to {@link FoxHoundParallelSearch#main(String[])} to report how
+     * the parallel search scales with the number of threads, {@code --mcts-bench}
+     * does the same for {@link FoxHoundMcts#main(String[])}. If it is
+     * {@code --journal} followed by a file, every move is journaled to that file;
+     * if the file already exists, the journaled game is recovered and continued.
+     *
      * @param args contain the command line arguments where the first can be
      * board dimensions.
      */
     public static void main(String[] args) {
-        int dimension = FoxHoundUtils.validateDim(STDIN_SCAN);
-
-        String[] players = FoxHoundUtils.initialisePositions(dimension);
-        gameLoop(dimension, players);
+        if (args.length > 0 && args[0].equals("--selfplay")) {
+            FoxHoundSelfPlay.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--server")) {
+            FoxHoundServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--search-bench")) {
+            FoxHoundParallelSearch.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--mcts-bench")) {
+            FoxHoundMcts.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--nio-server")) {
+            FoxHoundNioServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--journal")) {
+            if (args.length != 2) {
+                System.err.println("ERROR: Usage: --journal file");
+                return;
+            }
+            journaledGame(Paths.get(args[1]));
+        } else {
+            try (FoxHoundDialog dialog = new FoxHoundDialog(FoxHoundGame::toPath, System.out, System.err)) {
+                gameLoop(dialog);
+            } catch (IOException e) {
+                System.err.println("ERROR: " + e.getMessage());
+            }
+        }
+    }
 
-        // Close the scanner reading the standard input stream
-        STDIN_SCAN.close();
+    /**
+     * Play a game journaled to a file, recovering it from the file if it exists.
+     *
+     * @param file path of the journal
+     */
+    private static void journaledGame(Path file) {
+        try (FoxHoundJournalCommitter committer = new FoxHoundJournalCommitter()) {
+            // a new game is journaled once its dimension has been entered
+            FoxHoundGameState state = Files.exists(file) ? FoxHoundJournal.recover(file) : null;
+            try (FoxHoundDialog dialog = new FoxHoundDialog(state, FoxHoundGame::toPath, System.out, System.err)) {
+                dialog.journalTo(file, committer);
+                gameLoop(dialog);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("ERROR: Journal failed: " + e.getMessage());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+import java.util.Arrays;
+
+/**
+ * A decoded game of the binary save format of {@link FoxHoundBinaryIO}: a position,
+ * the figure to move and optionally the moves which led to it.
+ *
+ * A record is reused when decoding many games one after another, so reading an archive
+ * doesn't create objects per game. A record must only be used by one thread at a time.
+ */
+public class FoxHoundGameRecord {
+
+    /** Current position, replaced when a game of another dimension is decoded. */
+    private FoxHoundBitboard board;
+    /** The figure to move next. */
+    private char turn = FoxHoundUtils.FOX_FIELD;
+    /** Packed moves played from the start of the game. */
+    private int[] history = new int[64];
+    /** Number of moves in the history. */
+    private int historyLength;
+
+    /**
+     * Create an empty record for decoding games into.
+     */
+    public FoxHoundGameRecord() {
+        this.board = new FoxHoundBitboard(FoxHoundUtils.DEFAULT_DIM);
+    }
+
+    /**
+     * Create a record of a game.
+     *
+     * @param board current position, copied
+     * @param turn the figure to move next
+     * @param history packed moves played from the start of the game, copied, may be null
+     * @param historyLength number of moves in the history
+     */
+    public FoxHoundGameRecord(FoxHoundBitboard board, char turn, int[] history, int historyLength) {
+        this.board = board.copy();
+        this.turn = turn;
+        if (historyLength > 0) {
+            this.history = Arrays.copyOf(history, Math.max(historyLength, this.history.length));
+            this.historyLength = historyLength;
+        }
+    }
+
+    /** @return dimension of the board */
+    public int getDim() {
+        return board.getDim();
+    }
+
+    /** @return current position, valid until the next game is decoded into this record */
+    public FoxHoundBitboard getBoard() {
+        return board;
+    }
+
+    /** @return the figure to move next */
+    public char getTurn() {
+        return turn;
+    }
+
+    /** @return array of the positions of the pieces on the board, the fox last */
+    public String[] getPlayers() {
+        return board.toPlayers();
+    }
+
+    /** @return number of moves in the history, 0 if the game was saved without one */
+    public int getHistoryLength() {
+        return historyLength;
+    }
+
+    /**
+     * @param index index of the move, 0 for the first move of the game
+     * @return packed move
+     * @throws IndexOutOfBoundsException if there is no such move
+     */
+    public int getMove(int index) {
+        if (index < 0 || index >= historyLength) {
+            throw new IndexOutOfBoundsException("No move " + index + " in a history of " + historyLength);
+        }
+        return history[index];
+    }
+
+    /** @return a copy of the packed moves of the history */
+    public int[] getHistory() {
+        return Arrays.copyOf(history, historyLength);
+    }
+
+    /**
+     * Prepare the record for decoding a game without a history.
+     *
+     * @param dim dimension of the next game
+     * @param turn the figure to move next
+     * @return the cleared board to decode the pieces into
+     */
+    FoxHoundBitboard reset(int dim, char turn) {
+        if (board.getDim() != dim) {
+            board = new FoxHoundBitboard(dim);
+        } else {
+            board.clear();
+        }
+        this.turn = turn;
+        this.historyLength = 0;
+        return board;
+    }
+
+    /**
+     * Set the length of the history, growing its array if needed.
+     *
+     * @param length number of moves in the history
+     * @return the history array for decoding moves into
+     */
+    int[] historyBuffer(int length) {
+        if (history.length < length) {
+            history = Arrays.copyOf(history, Math.max(length, history.length * 2));
+        }
+        historyLength = length;
+        return history;
+    }
+}
@@ -0,0 +1,334 @@
+/**
+ * The state of a single game of the fox hound program: the board,
+ * its dimension and the figure to move next.
+ *
+ * A state is changed in place by {@link #makeMove(int)} and {@link #unmakeMove(int)}.
+ * Every move is recorded in a {@link FoxHoundMoveHistory}, so moves can be undone and
+ * redone in constant time and any earlier position of the game can be regenerated.
+ * {@link #snapshot()} returns a read only copy of the current state without copying
+ * the board or the history; they are only copied once the mutable state is changed afterwards.
+ * A snapshot never changes, so it can be handed to other threads, while a mutable
+ * state must only be used by one thread at a time.
+ */
+public class FoxHoundGameState {
+
+    /** Dimension of the board. */
+    private final int dim;
+    /** True if the state is a read only snapshot. */
+    private final boolean frozen;
+    /** Current position, possibly shared with snapshots. */
+    private FoxHoundBitboard board;
+    /** True if the board and history are also referenced by another state and must be copied before a change. */
+    private boolean shared;
+    /** The figure to move next. */
+    private char turn;
+    /** Position the history starts from, never changed. */
+    private FoxHoundBitboard start;
+    /** The figure which played the first move of the history. */
+    private char startTurn;
+    /** Moves played from the start position, possibly shared with snapshots. */
+    private FoxHoundMoveHistory history;
+
+    /**
+     * Create a mutable game state.
+     *
+     * @param dim dimension of the board
+     * @param players array of the current positions of the pieces on the board, the fox last
+     * @param turn the figure to move next
+     * @throws IllegalArgumentException if the dimension, a coordinate or the figure is invalid
+     * @throws NullPointerException if the given array is null
+     */
+    public FoxHoundGameState(int dim, String[] players, char turn) {
+        this(FoxHoundBitboard.fromPlayers(players, dim), checkTurn(turn), false);
+        this.start = board.copy();
+        this.startTurn = turn;
+        this.history = new FoxHoundMoveHistory();
+    }
+
+    /**
+     * @param board position, owned by the new state unless marked as shared
+     * @param turn the figure to move next
+     * @param frozen true for a read only snapshot
+     */
+    private FoxHoundGameState(FoxHoundBitboard board, char turn, boolean frozen) {
+        this.dim = board.getDim();
+        this.board = board;
+        this.turn = turn;
+        this.frozen = frozen;
+    }
+
+    /**
+     * @param other state whose board and history are shared with the new state
+     * @param frozen true for a read only snapshot
+     */
+    private FoxHoundGameState(FoxHoundGameState other, boolean frozen) {
+        this(other.board, other.turn, frozen);
+        this.start = other.start;
+        this.startTurn = other.startTurn;
+        this.history = other.history;
+        this.shared = true;
+    }
+
+    /**
+     * @param turn figure to check
+     * @return the given figure
+     * @throws IllegalArgumentException if the figure is neither the fox nor the hounds
+     */
+    private static char checkTurn(char turn) {
+        if (turn != FoxHoundUtils.FOX_FIELD && turn != FoxHoundUtils.HOUND_FIELD) {
+            throw new IllegalArgumentException("Invalid figure: " + turn);
+        }
+        return turn;
+    }
+
+    /** @return dimension of the board */
+    public int getDim() {
+        return dim;
+    }
+
+    /** @return the figure to move next */
+    public char getTurn() {
+        return turn;
+    }
+
+    /** @return true if the state is a read only snapshot */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /** @return Zobrist hash of the position including the figure to move */
+    public long getHash() {
+        return FoxHoundZobrist.hash(board, turn);
+    }
+
+    /**
+     * @return a new array of the positions of the pieces on the board, hounds by ascending square, the fox last
+     */
+    public String[] getPlayers() {
+        return board.toPlayers();
+    }
+
+    /**
+     * @return a copy of the board which can be changed freely, e.g. by a search
+     */
+    public FoxHoundBitboard copyBoard() {
+        return board.copy();
+    }
+
+    /**
+     * @return the figure which has won the game or {@value FoxHoundMoveGenerator#NO_WINNER} if the game goes on
+     */
+    public char getWinner() {
+        return FoxHoundMoveGenerator.winner(board);
+    }
+
+    /**
+     * Create a read only copy of the current state. The board is shared until this state changes.
+     *
+     * @return the snapshot, or this state if it's a snapshot itself
+     */
+    public FoxHoundGameState snapshot() {
+        if (frozen) {
+            return this;
+        }
+        shared = true;
+        return new FoxHoundGameState(this, true);
+    }
+
+    /**
+     * Create a mutable copy of the state, e.g. to continue a game from a snapshot.
+     * The board and history are shared until either state changes.
+     *
+     * @return the copy
+     */
+    public FoxHoundGameState copy() {
+        if (!frozen) {
+            shared = true;
+        }
+        return new FoxHoundGameState(this, false);
+    }
+
+    /**
+     * Check if a move of the figure to move is legal.
+     *
+     * @param origin the coordinate of the piece being commanded to move
+     * @param dest the coordinate which the piece would be moved to
+     * @return true if the move is valid and false otherwise
+     */
+    public boolean isValidMove(String origin, String dest) {
+        int from = FoxHoundBitboard.toSquare(origin, dim);
+        int to = FoxHoundBitboard.toSquare(dest, dim);
+        return from != FoxHoundBitboard.NO_SQUARE && to != FoxHoundBitboard.NO_SQUARE
+                && board.isValidMove(turn, from, to);
+    }
+
+    /**
+     * Play a move of the figure to move and pass the turn to the opponent.
+     *
+     * @param move packed move, see {@link FoxHoundMoveGenerator#pack(int, int)}
+     * @throws IllegalArgumentException if the move isn't legal
+     * @throws IllegalStateException if the state is a snapshot
+     */
+    public void makeMove(int move) {
+        checkMutable();
+        int from = FoxHoundMoveGenerator.from(move);
+        int to = FoxHoundMoveGenerator.to(move);
+        if (!board.isValidMove(turn, from, to)) {
+            throw new IllegalArgumentException("Invalid move for " + turn + ": "
+                    + String.join("-", FoxHoundMoveGenerator.toMovement(move, dim)));
+        }
+        unshare();
+        board.move(from, to);
+        history.push(move);
+        turn = FoxHoundSearch.opponent(turn);
+    }
+
+    /**
+     * Play a move given in board coordinates and pass the turn to the opponent.
+     *
+     * @param origin the coordinate of the piece being commanded to move
+     * @param dest the coordinate which the piece would be moved to
+     * @throws IllegalArgumentException if the move isn't legal
+     * @throws IllegalStateException if the state is a snapshot
+     */
+    public void makeMove(String origin, String dest) {
+        if (!isValidMove(origin, dest)) {
+            throw new IllegalArgumentException("Invalid move for " + turn + ": " + origin + "-" + dest);
+        }
+        makeMove(FoxHoundMoveGenerator.pack(FoxHoundBitboard.toSquare(origin, dim),
+                FoxHoundBitboard.toSquare(dest, dim)));
+    }
+
+    /**
+     * Take back the last move played, giving the turn back to the figure which played it.
+     * The move can be played again by {@link #redo()}.
+     *
+     * @param move packed move returned to its origin
+     * @throws IllegalArgumentException if the move isn't the last move played
+     * @throws IllegalStateException if the state is a snapshot
+     */
+    public void unmakeMove(int move) {
+        checkMutable();
+        if (move == FoxHoundSearch.NO_MOVE || history.lastMove() != move) {
+            throw new IllegalArgumentException("Move can't be taken back, it isn't the last move played");
+        }
+        undo();
+    }
+
+    /** @return number of moves played since the start of the history */
+    public int getPly() {
+        return history.length();
+    }
+
+    /** @return last packed move played or {@value FoxHoundSearch#NO_MOVE} if there is none */
+    public int getLastMove() {
+        return history.lastMove();
+    }
+
+    /** @return a copy of the packed moves played since the start of the history */
+    public int[] getMoves() {
+        return history.toArray();
+    }
+
+    /** @return true if a move has been played which can be taken back */
+    public boolean canUndo() {
+        return history.length() > 0;
+    }
+
+    /** @return true if a move has been taken back which can be played again */
+    public boolean canRedo() {
+        return history.redoCount() > 0;
+    }
+
+    /**
+     * Take back the last move played in constant time.
+     *
+     * @return false if no move has been played
+     * @throws IllegalStateException if the state is a snapshot
+     */
+    public boolean undo() {
+        checkMutable();
+        if (!canUndo()) {
+            return false;
+        }
+        unshare();
+        int move = history.undo();
+        board.move(FoxHoundMoveGenerator.to(move), FoxHoundMoveGenerator.from(move));
+        turn = FoxHoundSearch.opponent(turn);
+        return true;
+    }
+
+    /**
+     * Play the last move taken back again in constant time.
+     *
+     * @return false if no move has been taken back
+     * @throws IllegalStateException if the state is a snapshot
+     */
+    public boolean redo() {
+        checkMutable();
+        if (!canRedo()) {
+            return false;
+        }
+        unshare();
+        int move = history.redo();
+        board.move(FoxHoundMoveGenerator.from(move), FoxHoundMoveGenerator.to(move));
+        turn = FoxHoundSearch.opponent(turn);
+        return true;
+    }
+
+    /**
+     * Regenerate an earlier position of the game by replaying the history from its start.
+     *
+     * @param ply number of moves played in the position, 0 for the start
+     * @return read only state of the position, without the moves after it
+     * @throws IndexOutOfBoundsException if fewer moves have been played
+     */
+    public FoxHoundGameState positionAt(int ply) {
+        FoxHoundBitboard position = start.copy();
+        char positionTurn = history.replay(position, startTurn, ply);
+        FoxHoundGameState state = new FoxHoundGameState(position, positionTurn, true);
+        state.start = start;
+        state.startTurn = startTurn;
+        state.history = new FoxHoundMoveHistory(history.toArray(), ply);
+        return state;
+    }
+
+    /**
+     * Replace the whole state, e.g. with a loaded game.
+     *
+     * @param players array of the new positions of the pieces on the board, the fox last
+     * @param turn the figure to move next
+     * @throws IllegalArgumentException if a coordinate or the figure is invalid
+     * @throws IllegalStateException if the state is a snapshot
+     */
+    public void setPosition(String[] players, char turn) {
+        checkMutable();
+        FoxHoundBitboard position = FoxHoundBitboard.fromPlayers(players, dim);
+        this.turn = checkTurn(turn);
+        this.board = position;
+        this.start = position.copy();
+        this.startTurn = turn;
+        this.history = new FoxHoundMoveHistory();
+        this.shared = false;
+    }
+
+    /**
+     * @throws IllegalStateException if the state is a snapshot
+     */
+    private void checkMutable() {
+        if (frozen) {
+            throw new IllegalStateException("A game state snapshot can't be changed");
+        }
+    }
+
+    /**
+     * Copy the board and history if another state still references them.
+     */
+    private void unshare() {
+        if (shared) {
+            board = board.copy();
+            history = history.copy();
+            shared = false;
+        }
+    }
+}
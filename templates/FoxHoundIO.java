@@ -1,114 +1,303 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 
 /**
  * A utility class for the fox hound program.
  *
  * It contains helper functions for all file input / output
  * related operations such as saving and loading a game.
+ *
+ * A save file is a single line of fields separated by single spaces: the figure to move
+ * next, the dimension of the board and the positions of the pieces, the fox last, e.g.
+ * {@code F 8 B1 D1 F1 H1 E8}. Files written before the dimension was stored lack the
+ * second field and are read as games on a board of {@value FoxHoundUtils#DEFAULT_DIM}.
  */
 public class FoxHoundIO {
 
     /**Character identified by the program as an error code for a failed loading operation*/
     public static final char ERROR_CHAR = '#';
 
-    /**Length of the common 8x8 board player position array
-     * Any other array length isn't compatible for saving or loading*/
+    /**Length of the common 8x8 board player position array*/
     public static final int PIECE_NUM = 5;
 
+    /**Character separating the fields of a save file*/
+    private static final byte SEPARATOR = ' ';
+    /**Index of the figure to move next in a parsed save file*/
+    static final int PARSED_TURN = 0;
+    /**Index of the dimension in a parsed save file*/
+    static final int PARSED_DIM = 1;
+    /**Index of the first piece's square in a parsed save file*/
+    static final int PARSED_PIECES = 2;
+    /**Largest number of ints of a parsed save file, the one of the largest board*/
+    static final int PARSED_MAX_LENGTH = PARSED_PIECES + FoxHoundUtils.MAX_DIM / 2 + 1;
+    /**Number of words of the occupied squares of the largest board*/
+    static final int OCCUPIED_WORDS = FoxHoundBitboard.wordCount(FoxHoundUtils.MAX_DIM);
+
     /**
-     * A helper function used by loadGame
-     * Determines if the file constitutes valid game data, element by element.
+     * Determines if the file constitutes valid game data of a board of any dimension, element by element.
+     * Data without the dimension field is checked as a game of the default 8x8 board.
      *
      * @param gameData data from file read to a list of strings to be checked for validity before being loaded
      * @return whether the file's Data is valid or not
      */
     public static boolean isValidData(String[] gameData) {
-        char turn = gameData[0].charAt(0);
-        if (turn != FoxHoundUtils.FOX_FIELD && turn != FoxHoundUtils.HOUND_FIELD) {
-            return false;
-        }
-        String tray = gameData[1]; // Program won't pass tests if this line is deleted for some reason
-        //Checks if the data defining character positions is in the right format
-        for (int i = 1; i < gameData.length; i++) {
-            if (gameData[i].charAt(0) <= FoxHoundUtils.CHAR_SHIFT
-                    || gameData[i].charAt(0) > FoxHoundUtils.CHAR_SHIFT + FoxHoundUtils.DEFAULT_DIM){
-                return false;
-            }
-            try {
-                if (Integer.parseInt(gameData[i].substring(1)) > FoxHoundUtils.DEFAULT_DIM) {
-                    return false;
-                }
-            } catch (Exception e) {
-                System.err.println(e);
-                return false;
+        return parsedDim(gameData) != -1;
+    }
+
+    /**
+     * Determines if the file constitutes valid game data of a board of a given dimension, element by element.
+     * Data without the dimension field is checked as a game of the default 8x8 board.
+     *
+     * @param gameData data from file read to a list of strings to be checked for validity before being loaded
+     * @param dim dimension of the board the game has to be on
+     * @return whether the file's Data is valid or not
+     */
+    public static boolean isValidData(String[] gameData, int dim) {
+        return parsedDim(gameData) == dim;
+    }
+
+    /**
+     * @param gameData fields of a save file
+     * @return dimension of the game the fields describe, -1 if they aren't a valid game
+     */
+    private static int parsedDim(String[] gameData) {
+        for (String field : gameData) {
+            if (field == null) {
+                return -1;
             }
         }
-        return true;
+        // characters outside of ASCII turn into '?', which is invalid anywhere in a save file
+        byte[] data = String.join(String.valueOf((char) SEPARATOR), gameData).getBytes(StandardCharsets.US_ASCII);
+        int[] game = new int[PARSED_MAX_LENGTH];
+        int code = parseGame(data, data.length, game, new long[OCCUPIED_WORDS]);
+        return code == FoxHoundBatchValidator.VALID ? game[PARSED_DIM] : -1;
     }
 
     /**
-     * The method that attempts to load a saved game from a file location
+     * The method that attempts to load a saved game of the common 8x8 board from a file location.
      *
-     * @param players array of the current positions of the pieces on the board
+     * @param players array of the current positions of the pieces on the board, only changed if loading succeeds
      * @param loadFile path pointing to the file location where the data is to be loaded from
-     * @return character indicating who's turn it is to play
+     * @return character indicating who's turn it is to play, or {@value FoxHoundIO#ERROR_CHAR} if the file
+     * can't be read, is invalid or holds a game of another dimension
+     * @throws NullPointerException if the path is null
      */
     public static char loadGame(String[] players, Path loadFile) {
-        if (players.length != PIECE_NUM) {
-            throw new IllegalArgumentException("You can only load games when you have a board dimension of 8");
-        }
+        return loadGame(players, FoxHoundUtils.DEFAULT_DIM, loadFile);
+    }
+
+    /**
+     * The method that attempts to load a saved game of a given dimension from a file location.
+     *
+     * @param players array of the current positions of the pieces on the board, only changed if loading succeeds
+     * @param dim dimension of the board the game has to be on
+     * @param loadFile path pointing to the file location where the data is to be loaded from
+     * @return character indicating who's turn it is to play, or {@value FoxHoundIO#ERROR_CHAR} if the file
+     * can't be read, is invalid, holds a game of another dimension or the array doesn't fit its pieces
+     * @throws NullPointerException if the path is null
+     */
+    public static char loadGame(String[] players, int dim, Path loadFile) {
         if (loadFile.equals(null)) {
             throw new NullPointerException("There was no path entered");
         }
-        String[] playersTemp = players.clone();
         try {
-            String gameLine = Files.readString(loadFile);
-            String[] gameData = gameLine.split(" ");
-            char turn = gameData[0].charAt(0);
-            if (!isValidData(gameData)) {
-                throw new IllegalArgumentException("The file's format is wrong");
+            int[] game = parseGame(Files.readAllBytes(loadFile));
+            if (game[PARSED_DIM] != dim) {
+                throw new IllegalArgumentException("The file holds a game of dimension " + game[PARSED_DIM]);
             }
-            for (int i = 1; i < gameData.length; i++) {
-                players[i-1] = gameData[i];
+            if (game.length - PARSED_PIECES != players.length) {
+                throw new IllegalArgumentException("The file holds " + (game.length - PARSED_PIECES)
+                        + " pieces, not " + players.length);
             }
-            return turn;
+            toPlayers(game, players);
+            return (char) game[PARSED_TURN];
         } catch (Exception e) {
             System.err.println(e);
-            players = playersTemp.clone();
             return ERROR_CHAR;
         }
+    }
+
+    /**
+     * Load a saved game of any dimension.
+     *
+     * @param loadFile path pointing to the file location where the data is to be loaded from
+     * @return the saved game
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the file's format is wrong
+     * @throws NullPointerException if the path is null
+     */
+    public static FoxHoundGameState loadGame(Path loadFile) throws IOException {
+        int[] game = parseGame(Files.readAllBytes(loadFile));
+        String[] players = new String[game.length - PARSED_PIECES];
+        toPlayers(game, players);
+        return new FoxHoundGameState(game[PARSED_DIM], players, (char) game[PARSED_TURN]);
+    }
 
+    /**
+     * @param game parsed save file
+     * @param players array receiving the positions of its pieces, sized for them
+     */
+    private static void toPlayers(int[] game, String[] players) {
+        int dim = game[PARSED_DIM];
+        for (int i = 0; i < players.length; i++) {
+            int square = game[PARSED_PIECES + i];
+            players[i] = FoxHoundCoordinates.ofSquare(square, dim);
+        }
     }
 
     /**
-     * Method used to save a game to a specified file location so it can be played later
+     * Parse and validate the contents of a save file in a single pass without creating a string per field.
+     *
+     * @param data contents of the file, a single line optionally ending with a line break
+     * @return the figure to move next, the dimension and the square of every piece, the fox last
+     * @throws IllegalArgumentException if the format is wrong, a piece is off the board,
+     * two pieces share a square or the number of pieces doesn't match the dimension
+     */
+    private static int[] parseGame(byte[] data) {
+        int[] game = new int[PARSED_MAX_LENGTH];
+        int code = parseGame(data, data.length, game, new long[OCCUPIED_WORDS]);
+        if (code != FoxHoundBatchValidator.VALID) {
+            throw new IllegalArgumentException("The file's format is wrong: " + FoxHoundBatchValidator.describe(code));
+        }
+        return Arrays.copyOf(game, parsedLength(game[PARSED_DIM]));
+    }
+
+    /**
+     * Parse and validate a save file into caller supplied buffers without throwing, so batches
+     * of untrusted records cost no allocation or exception per record.
+     *
+     * @param data contents of the file, a single line optionally ending with a line break
+     * @param length number of bytes of the data to parse
+     * @param game buffer of at least {@value FoxHoundIO#PARSED_MAX_LENGTH} ints receiving the figure to move,
+     *             the dimension and the square of every piece, the fox last, see {@link #parsedLength(int)}
+     * @param occupied buffer of at least {@link #OCCUPIED_WORDS} words receiving the occupied squares
+     * @return {@link FoxHoundBatchValidator#VALID} or the error code of the first problem found
+     */
+    static int parseGame(byte[] data, int length, int[] game, long[] occupied) {
+        // a single trailing line break is tolerated
+        if (length > 0 && data[length - 1] == '\n') {
+            length--;
+            if (length > 0 && data[length - 1] == '\r') {
+                length--;
+            }
+        }
+        if (length < 2 || data[1] != SEPARATOR
+                || (data[0] != FoxHoundUtils.FOX_FIELD && data[0] != FoxHoundUtils.HOUND_FIELD)) {
+            return FoxHoundBatchValidator.INVALID_TURN;
+        }
+        int pos = 2;
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        if (pos < length && isDigit(data[pos])) {
+            dim = 0;
+            for (; pos < length && isDigit(data[pos]) && dim <= FoxHoundUtils.MAX_DIM; pos++) {
+                dim = dim * 10 + data[pos] - '0';
+            }
+            if (dim < FoxHoundUtils.MIN_DIM || dim > FoxHoundUtils.MAX_DIM || pos >= length
+                    || data[pos++] != SEPARATOR) {
+                return FoxHoundBatchValidator.INVALID_DIMENSION;
+            }
+        }
+        int end = parsedLength(dim);
+        game[PARSED_TURN] = data[0];
+        game[PARSED_DIM] = dim;
+        Arrays.fill(occupied, 0, FoxHoundBitboard.wordCount(dim), 0L);
+        for (int piece = PARSED_PIECES; piece < end; piece++) {
+            if (pos >= length) {
+                return FoxHoundBatchValidator.MISSING_PIECES;
+            }
+            int lat = data[pos++] - FoxHoundUtils.CHAR_SHIFT;
+            int vert = 0;
+            // no leading zeros, at most two digits
+            for (int digits = 0; pos < length && isDigit(data[pos]) && digits < 2 && (digits == 0 || vert > 0);
+                 digits++) {
+                vert = vert * 10 + data[pos++] - '0';
+            }
+            if (lat < 1 || lat > dim || vert < 1 || vert > dim || (pos < length && data[pos++] != SEPARATOR)) {
+                return FoxHoundBatchValidator.INVALID_POSITION;
+            }
+            int square = (vert - 1) * dim + (lat - 1);
+            if ((occupied[square / Long.SIZE] & 1L << square) != 0) {
+                return FoxHoundBatchValidator.SHARED_SQUARE;
+            }
+            occupied[square / Long.SIZE] |= 1L << square;
+            game[piece] = square;
+        }
+        if (pos < length || data[length - 1] == SEPARATOR) {
+            return FoxHoundBatchValidator.TOO_MANY_PIECES;
+        }
+        return FoxHoundBatchValidator.VALID;
+    }
+
+    /**
+     * @param dim dimension of a parsed save file
+     * @return number of ints the parsed file takes, the fox's square is the last one
+     */
+    static int parsedLength(int dim) {
+        return PARSED_PIECES + dim / 2 + 1;
+    }
+
+    /**
+     * @param c character of a save file
+     * @return true if the character is a decimal digit
+     */
+    private static boolean isDigit(byte c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Method used to save a game of the common 8x8 board to a specified file location so it can be played later
      *
      * @param players array of the current positions of the pieces on the board
      * @param nextMove character indicating whose turn it is to play at the time of saving the game
      * @param saveFile path pointing to the file location where the data is to be saved to
      * @return true if the process of saving was successful and false otherwise
+     * @throws IllegalArgumentException if the game doesn't fit the 8x8 board
+     * @throws NullPointerException if the path is null
      */
     public static boolean saveGame(String[] players, char nextMove, Path saveFile) {
+        return saveGame(players, nextMove, FoxHoundUtils.DEFAULT_DIM, saveFile);
+    }
+
+    /**
+     * Method used to save a game to a specified file location so it can be played later
+     *
+     * @param players array of the current positions of the pieces on the board
+     * @param nextMove character indicating whose turn it is to play at the time of saving the game
+     * @param dim dimension of the board
+     * @param saveFile path pointing to the file location where the data is to be saved to
+     * @return true if the process of saving was successful and false otherwise
+     * @throws IllegalArgumentException if the number of pieces doesn't match the dimension
+     * or the game couldn't be loaded again
+     * @throws NullPointerException if the path is null
+     */
+    public static boolean saveGame(String[] players, char nextMove, int dim, Path saveFile) {
         if (saveFile.equals(null)) {
             throw new NullPointerException("There was no path entered");
         }
-        if (players.length != PIECE_NUM) {
-            throw new IllegalArgumentException("You can only save games with a board dimension of 8");
+        if (dim < FoxHoundUtils.MIN_DIM || dim > FoxHoundUtils.MAX_DIM || players.length != dim / 2 + 1) {
+            throw new IllegalArgumentException("You can't save " + players.length
+                    + " pieces on a board of dimension " + dim);
         }
+        StringBuilder content = new StringBuilder(4 + players.length * 4);
+        content.append(nextMove).append((char) SEPARATOR).append(dim);
+        for (String player : players) {
+            content.append((char) SEPARATOR).append(player);
+        }
+        byte[] data = content.toString().getBytes(StandardCharsets.US_ASCII);
+        // never write a file that can't be loaded again
+        parseGame(data);
         try {
             if (Files.exists(saveFile)) {
                 return false;
             }
-            String content = "" + nextMove;
-            for (int i = 0; i < players.length; i++) {
-                content += " " + players[i];
-            }
-            Files.write(saveFile, content.getBytes());
+            Files.write(saveFile, data);
         } catch (Exception e) {
             System.err.println(e);
             return false;
         }
         return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,389 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An append only write ahead journal of a single game, used to recover sessions after a crash.
+ *
+ * A journal starts with the game's start position and the moves played so far, stored as
+ * a record of {@link FoxHoundBinaryIO}, followed by one small entry per change of the game:
+ * <pre>
+ * int magic  byte version  byte[3] reserved
+ * record              start position with its move history
+ * 'M' square square   move from to
+ * 'U'                 undo
+ * 'R'                 redo
+ * 'P' record          position replaced, e.g. by loading a game
+ * </pre>
+ * Recording an entry only appends a few bytes to a memory buffer. The entries are written
+ * and forced to disk in batches by a {@link FoxHoundJournalCommitter} shared by many
+ * journals, or right away by {@link #sync()}. {@link #recover(Path)} replays a journal up to
+ * its last complete entry.
+ *
+ * A file is journaled by at most one open journal at a time, see {@link #isOpen(Path)}: a
+ * second journal would replace the file under the first one, whose entries would be lost.
+ *
+ * Entries can be recorded from any thread.
+ */
+public class FoxHoundJournal implements Closeable {
+
+    /** Magic number at the start of a journal, "FHGJ" in ASCII. */
+    public static final int JOURNAL_MAGIC = 0x4648474A;
+    /** Entry of a move, followed by its origin and destination square. */
+    public static final byte OP_MOVE = 'M';
+    /** Entry of a move taken back. */
+    public static final byte OP_UNDO = 'U';
+    /** Entry of a move played again after it was taken back. */
+    public static final byte OP_REDO = 'R';
+    /** Entry of a replaced position, followed by a record without history. */
+    public static final byte OP_POSITION = 'P';
+
+    /** Initial size of the entry buffers in bytes. */
+    private static final int BUFFER_BYTES = 256;
+
+    /** Canonical paths of the files of all open journals. */
+    private static final Set<Path> OPEN_FILES = ConcurrentHashMap.newKeySet();
+
+    /** Canonical path of the journal file. */
+    private final Path file;
+    /** Channel appending to the journal file. */
+    private final FileChannel channel;
+    /** Committer writing the entries out, null to write them only on sync. */
+    private final FoxHoundJournalCommitter committer;
+    /** Dimension of the game's board. */
+    private final int dim;
+    /** True if squares take two bytes. */
+    private final boolean wide;
+    /** Lock serializing commits, held while writing to the file. */
+    private final Object commitLock = new Object();
+    /** Entries recorded since the last commit, guarded by this. */
+    private ByteBuffer pending = ByteBuffer.allocate(BUFFER_BYTES);
+    /** Entries being written by a commit, guarded by the commit lock. */
+    private ByteBuffer writing = ByteBuffer.allocate(BUFFER_BYTES);
+    /** True while the journal is queued at the committer, guarded by this. */
+    private boolean queued;
+    /** True once the journal has been closed, guarded by this. */
+    private boolean closed;
+    /** True if entries have been written but not forced to disk yet, guarded by the commit lock. */
+    private boolean unforced;
+    /** First failed write, after which nothing is written anymore, guarded by the commit lock. */
+    private IOException failure;
+
+    /**
+     * Start a journal of a game, replacing any existing file atomically.
+     *
+     * @param file path of the journal
+     * @param state the game, its start position and moves are written right away
+     * @param committer committer writing the entries out in batches, null to write them only on {@link #sync()}
+     * @throws IOException if the file can't be written
+     * @throws IllegalArgumentException if another open journal uses the file
+     */
+    public FoxHoundJournal(Path file, FoxHoundGameState state, FoxHoundJournalCommitter committer)
+            throws IOException {
+        this.file = canonical(file);
+        if (!OPEN_FILES.add(this.file)) {
+            throw new IllegalArgumentException("Journal is already in use: " + file);
+        }
+        try {
+            this.channel = start(this.file, state);
+        } catch (IOException | RuntimeException e) {
+            OPEN_FILES.remove(this.file);
+            throw e;
+        }
+        this.committer = committer;
+        this.dim = state.getDim();
+        this.wide = FoxHoundBinaryIO.squareBytes(dim) == 2;
+    }
+
+    /**
+     * Replace the file with a journal of a game's start position and moves.
+     *
+     * @param file path of the journal
+     * @param state the game
+     * @return channel appending to the file
+     * @throws IOException if the file can't be written
+     */
+    private static FileChannel start(Path file, FoxHoundGameState state) throws IOException {
+        FoxHoundGameState start = state.positionAt(0);
+        FoxHoundBitboard board = start.copyBoard();
+        int[] moves = state.getMoves();
+        ByteBuffer buffer = ByteBuffer.allocate(FoxHoundBinaryIO.HEADER_BYTES
+                + FoxHoundBinaryIO.recordBytes(board.getDim(), board.getHoundCount(), moves.length));
+        FoxHoundBinaryIO.writeHeader(JOURNAL_MAGIC, buffer);
+        FoxHoundBinaryIO.encode(board, start.getTurn(), moves, moves.length, buffer);
+        buffer.flip();
+        // a crash while starting over must not destroy the previous journal
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * @param file path of a file in an existing directory
+     * @return absolute path of the file with the directory's links resolved
+     * @throws IOException if the directory doesn't exist
+     */
+    static Path canonical(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path dir = absolute.getParent();
+        return dir == null ? absolute : dir.toRealPath().resolve(absolute.getFileName());
+    }
+
+    /**
+     * @param file path of a journal file
+     * @return true if an open journal uses the file
+     * @throws IOException if the file's directory doesn't exist
+     */
+    public static boolean isOpen(Path file) throws IOException {
+        return OPEN_FILES.contains(canonical(file));
+    }
+
+    /** @return canonical path of the journal file */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Record a move which has been played.
+     *
+     * @param move packed move
+     * @throws IllegalStateException if the journal is closed
+     */
+    public synchronized void recordMove(int move) {
+        ByteBuffer out = reserve(1 + 2 * (wide ? 2 : 1));
+        out.put(OP_MOVE);
+        putSquare(out, FoxHoundMoveGenerator.from(move));
+        putSquare(out, FoxHoundMoveGenerator.to(move));
+    }
+
+    /**
+     * Record a move which has been taken back.
+     *
+     * @throws IllegalStateException if the journal is closed
+     */
+    public synchronized void recordUndo() {
+        reserve(1).put(OP_UNDO);
+    }
+
+    /**
+     * Record a move which has been played again after it was taken back.
+     *
+     * @throws IllegalStateException if the journal is closed
+     */
+    public synchronized void recordRedo() {
+        reserve(1).put(OP_REDO);
+    }
+
+    /**
+     * Record a position replacing the game, e.g. a loaded game.
+     *
+     * @param state the game holding the new position
+     * @throws IllegalStateException if the journal is closed
+     * @throws IllegalArgumentException if the game has another dimension
+     */
+    public synchronized void recordPosition(FoxHoundGameState state) {
+        if (state.getDim() != dim) {
+            throw new IllegalArgumentException("Position of another dimension: " + state.getDim());
+        }
+        FoxHoundBitboard board = state.copyBoard();
+        ByteBuffer out = reserve(1 + FoxHoundBinaryIO.recordBytes(board.getDim(), board.getHoundCount(), 0));
+        out.put(OP_POSITION);
+        FoxHoundBinaryIO.encode(board, state.getTurn(), null, 0, out);
+    }
+
+    /**
+     * Make room for an entry and queue the journal for the next commit. Called holding the lock.
+     *
+     * @param bytes size of the entry
+     * @return buffer to put the entry into
+     * @throws IllegalStateException if the journal is closed
+     */
+    private ByteBuffer reserve(int bytes) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (pending.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + bytes));
+            pending = larger.put(pending.flip());
+        }
+        if (!queued && committer != null) {
+            queued = true;
+            committer.enqueue(this);
+        }
+        return pending;
+    }
+
+    /**
+     * @param out buffer receiving the square
+     * @param square square index
+     */
+    private void putSquare(ByteBuffer out, int square) {
+        if (wide) {
+            out.putShort((short) square);
+        } else {
+            out.put((byte) square);
+        }
+    }
+
+    /**
+     * Write out all entries recorded so far and force them to disk.
+     *
+     * @throws IOException if writing failed now or in an earlier commit
+     */
+    public void sync() throws IOException {
+        commit();
+    }
+
+    /**
+     * Write out the entries recorded since the last commit and force them to disk.
+     *
+     * @throws IOException if writing failed now or in an earlier commit
+     */
+    void commit() throws IOException {
+        synchronized (commitLock) {
+            write();
+            force();
+        }
+    }
+
+    /**
+     * Write out the entries recorded since the last commit without forcing them to disk.
+     *
+     * @return true if entries are waiting for {@link #force()}
+     * @throws IOException if writing failed now or in an earlier commit
+     */
+    boolean write() throws IOException {
+        synchronized (commitLock) {
+            synchronized (this) {
+                ByteBuffer full = pending;
+                pending = writing;
+                writing = full;
+                queued = false;
+            }
+            writing.flip();
+            try {
+                if (failure != null) {
+                    throw failure;
+                }
+                if (writing.hasRemaining() && channel.isOpen()) {
+                    while (writing.hasRemaining()) {
+                        channel.write(writing);
+                    }
+                    unforced = true;
+                }
+                return unforced;
+            } catch (IOException e) {
+                // the file may end with a partial entry, nothing may follow it
+                failure = e;
+                throw e;
+            } finally {
+                writing.clear();
+            }
+        }
+    }
+
+    /**
+     * Force the entries written so far to disk.
+     *
+     * @throws IOException if forcing failed now or writing failed in an earlier commit
+     */
+    void force() throws IOException {
+        synchronized (commitLock) {
+            if (failure != null) {
+                throw failure;
+            }
+            if (!unforced || !channel.isOpen()) {
+                return;
+            }
+            try {
+                channel.force(false);
+                unforced = false;
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Write out all entries and close the file.
+     *
+     * @throws IOException if writing failed now or in an earlier commit
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            commit();
+        } finally {
+            try {
+                channel.close();
+            } finally {
+                OPEN_FILES.remove(file);
+            }
+        }
+    }
+
+    /**
+     * Recover a game by replaying its journal. Replay stops at the first incomplete or invalid
+     * entry, which can only be the last entry written before a crash.
+     *
+     * @param file path of the journal
+     * @return the game as it was after the last complete entry, including its move history
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the file isn't a journal or its start is damaged
+     */
+    public static FoxHoundGameState recover(Path file) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+        FoxHoundBinaryIO.readHeader(JOURNAL_MAGIC, in);
+        FoxHoundGameRecord record = new FoxHoundGameRecord();
+        FoxHoundBinaryIO.decode(in, record);
+        int dim = record.getDim();
+        FoxHoundGameState state = new FoxHoundGameState(dim, record.getPlayers(), record.getTurn());
+        for (int i = 0; i < record.getHistoryLength(); i++) {
+            state.makeMove(record.getMove(i));
+        }
+        boolean wide = FoxHoundBinaryIO.squareBytes(dim) == 2;
+        try {
+            while (in.hasRemaining()) {
+                byte op = in.get();
+                if (op == OP_MOVE) {
+                    int from = wide ? in.getShort() & 0xFFFF : in.get() & 0xFF;
+                    int to = wide ? in.getShort() & 0xFFFF : in.get() & 0xFF;
+                    state.makeMove(FoxHoundMoveGenerator.pack(from, to));
+                } else if (op == OP_POSITION) {
+                    FoxHoundBinaryIO.decode(in, record);
+                    if (record.getDim() != dim) {
+                        break;
+                    }
+                    state.setPosition(record.getPlayers(), record.getTurn());
+                } else if (!(op == OP_UNDO && state.undo()) && !(op == OP_REDO && state.redo())) {
+                    break;
+                }
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            // a torn last entry, everything before it has been replayed
+        }
+        return state;
+    }
+}
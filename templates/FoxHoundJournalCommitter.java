@@ -0,0 +1,207 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background thread making the entries of many {@link FoxHoundJournal}s durable in batches.
+ *
+ * Recording an entry only appends it to the journal's memory buffer and queues the journal
+ * here once, so a move costs no file access on the thread playing it. Every commit interval
+ * the thread makes a pass over all queued journals: it first writes out all their buffers,
+ * which only copies them into the operating system's file cache, and then forces the
+ * files to disk on a small pool of threads. Every journal is a file of its own and needs a
+ * sync of its own, and the pool keeps that many syncs in flight at once instead of waiting
+ * for one after the other.
+ *
+ * A pass still takes at least as long as the slowest sync, and longer with more dirty
+ * journals than force threads. A crash loses the entries recorded since the start of the
+ * last completed pass, up to the interval plus the duration of a pass, which is reported by
+ * {@link #getLastCommitNanos()} and {@link #getMaxCommitNanos()}.
+ */
+public class FoxHoundJournalCommitter implements Closeable {
+
+    /** Default time between two commits in milliseconds. */
+    public static final long DEFAULT_INTERVAL_MILLIS = 5;
+    /** Default number of threads forcing journals to disk. */
+    public static final int DEFAULT_FORCE_THREADS = 8;
+
+    /** Journals with entries which aren't durable yet. */
+    private final ConcurrentLinkedQueue<FoxHoundJournal> dirty = new ConcurrentLinkedQueue<>();
+    /** Time between two commits in nanoseconds. */
+    private final long intervalNanos;
+    /** Threads forcing journals to disk, the commit thread being one of them. */
+    private final int forceThreads;
+    /** Pool running the other force threads. */
+    private final ExecutorService forcePool;
+    /** The commit thread. */
+    private final Thread thread;
+    /** True once the committer has been closed. */
+    private volatile boolean closed;
+    /** Duration of the last pass which committed anything in nanoseconds. */
+    private volatile long lastCommitNanos;
+    /** Longest duration of a pass in nanoseconds. */
+    private volatile long maxCommitNanos;
+
+    /**
+     * Start a committer with the default interval.
+     */
+    public FoxHoundJournalCommitter() {
+        this(DEFAULT_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Start a committer with the default number of force threads.
+     *
+     * @param intervalMillis time between two commits in milliseconds
+     * @throws IllegalArgumentException if the interval isn't positive
+     */
+    public FoxHoundJournalCommitter(long intervalMillis) {
+        this(intervalMillis, DEFAULT_FORCE_THREADS);
+    }
+
+    /**
+     * Start a committer.
+     *
+     * @param intervalMillis time between two commits in milliseconds
+     * @param forceThreads number of threads forcing journals to disk at the same time
+     * @throws IllegalArgumentException if the interval or the number of threads isn't positive
+     */
+    public FoxHoundJournalCommitter(long intervalMillis, int forceThreads) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Commit interval must be positive: " + intervalMillis);
+        }
+        if (forceThreads <= 0) {
+            throw new IllegalArgumentException("Number of force threads must be positive: " + forceThreads);
+        }
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.forceThreads = forceThreads;
+        this.forcePool = forceThreads == 1 ? null : Executors.newFixedThreadPool(forceThreads - 1, task -> {
+            Thread forceThread = new Thread(task, "foxhound-journal-force");
+            forceThread.setDaemon(true);
+            return forceThread;
+        });
+        this.thread = new Thread(this::commitLoop, "foxhound-journal-committer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queue a journal for the next commit, called once per batch of entries.
+     *
+     * @param journal journal with entries which aren't durable yet
+     */
+    void enqueue(FoxHoundJournal journal) {
+        dirty.add(journal);
+    }
+
+    /**
+     * Commit all queued journals until the committer is closed.
+     */
+    private void commitLoop() {
+        while (!closed) {
+            LockSupport.parkNanos(this, intervalNanos);
+            commitAll();
+        }
+    }
+
+    /**
+     * Write out all journals queued so far, then force them to disk in parallel.
+     */
+    private void commitAll() {
+        long start = System.nanoTime();
+        List<FoxHoundJournal> written = new ArrayList<>();
+        FoxHoundJournal journal;
+        while ((journal = dirty.poll()) != null) {
+            try {
+                if (journal.write()) {
+                    written.add(journal);
+                }
+            } catch (IOException e) {
+                report(e);
+            }
+        }
+        if (written.isEmpty()) {
+            return;
+        }
+        int threads = Math.min(forceThreads, written.size());
+        List<Future<?>> forcing = new ArrayList<>(threads - 1);
+        for (int part = 1; part < threads; part++) {
+            int first = part;
+            forcing.add(forcePool.submit(() -> force(written, first, threads)));
+        }
+        force(written, 0, threads);
+        for (Future<?> future : forcing) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                System.err.println("ERROR: Committing journal failed: " + e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        lastCommitNanos = nanos;
+        maxCommitNanos = Math.max(maxCommitNanos, nanos);
+    }
+
+    /**
+     * Force every n-th written journal to disk.
+     *
+     * @param written journals written by the current pass
+     * @param first index of the first journal to force
+     * @param step distance between two journals to force
+     */
+    private static void force(List<FoxHoundJournal> written, int first, int step) {
+        for (int i = first; i < written.size(); i += step) {
+            try {
+                written.get(i).force();
+            } catch (IOException e) {
+                report(e);
+            }
+        }
+    }
+
+    /**
+     * @param e failure of a journal, which keeps it and reports it on its next sync
+     */
+    private static void report(IOException e) {
+        System.err.println("ERROR: Committing journal failed: " + e.getMessage());
+    }
+
+    /** @return duration of the last pass which committed anything in nanoseconds, 0 before the first */
+    public long getLastCommitNanos() {
+        return lastCommitNanos;
+    }
+
+    /** @return longest duration of a pass in nanoseconds, 0 before the first */
+    public long getMaxCommitNanos() {
+        return maxCommitNanos;
+    }
+
+    /**
+     * Stop the threads after committing everything queued.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        commitAll();
+        if (forcePool != null) {
+            forcePool.shutdown();
+        }
+    }
+}
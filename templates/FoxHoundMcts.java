@@ -0,0 +1,549 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A Monte Carlo tree search computer player for the fox hound program, an alternative to the
+ * alpha-beta {@link FoxHoundSearch} whose strength grows smoothly with the time it is given,
+ * also on the largest boards where the branching factor makes deep alpha-beta searches expensive.
+ *
+ * Every iteration descends the tree choosing children by UCT, expands the reached leaf, plays
+ * the game to its end with random or heuristic moves, see {@link Playout}, and adds the result
+ * to every node on the way. The move finally played is the most visited child of the root.
+ *
+ * The tree lives in parallel primitive arrays indexed by node, so millions of nodes fit into a
+ * memory budget given in megabytes and no objects are created per node. The children of a node
+ * are allocated as one block. All threads share one tree: a thread descending through a node
+ * counts a visit right away, which works as a virtual loss steering the other threads to
+ * different lines until the playout result arrives. Once the tree is full the search goes on
+ * with playouts from its leaves.
+ *
+ * A search is not thread safe itself, it must only run one search at a time. Its threads are
+ * released by {@link #close()}.
+ */
+public class FoxHoundMcts implements AutoCloseable {
+
+    /** How the moves of a playout are chosen. */
+    public enum Playout {
+        /** Uniformly random legal moves. */
+        RANDOM,
+        /**
+         * The fox takes a winning move and otherwise mostly heads for its goal row, the hounds
+         * play the better of two random moves, the one leaving the fox fewer moves.
+         */
+        HEURISTIC
+    }
+
+    /** Default tree size in megabytes. */
+    public static final int DEFAULT_MEGABYTES = 64;
+    /** Default UCT exploration constant. */
+    public static final double DEFAULT_EXPLORATION = Math.sqrt(2);
+    /** Bytes per node: move, first child, child count, visits, wins and state. */
+    static final int NODE_BYTES = 4 + 4 + 1 + 4 + 4 + 4;
+
+    /** Index of the root node. */
+    private static final int ROOT = 0;
+    /** State of a node whose children haven't been created. */
+    private static final int LEAF = 0;
+    /** State of a node whose children are being created, or which didn't fit into a full tree. */
+    private static final int EXPANDING = 1;
+    /** State of a node whose children can be used. */
+    private static final int EXPANDED = 2;
+    /** Chance in percent that the heuristic fox playout heads for the goal row. */
+    private static final int FORWARD_PERCENT = 75;
+
+    /** Dimension of the board. */
+    private final int dim;
+    /** Number of threads. */
+    private final int threads;
+    /** Maximum number of nodes. */
+    private final int capacity;
+    /** Packed move leading to every node. */
+    private final int[] move;
+    /** Index of the first child of every expanded node. */
+    private final int[] firstChild;
+    /** Number of children of every expanded node. */
+    private final byte[] childCount;
+    /** Playouts through every node, including the ones still running. */
+    private final AtomicIntegerArray visits;
+    /** Playouts through every node won by the figure which played its move. */
+    private final AtomicIntegerArray wins;
+    /** Expansion state of every node, its write publishes the children. */
+    private final AtomicIntegerArray state;
+    /** Number of nodes in use. */
+    private final AtomicInteger size = new AtomicInteger();
+    /** Playout state of every thread. */
+    private final Worker[] workers;
+    /** Pool running the workers, null with a single thread. */
+    private final ForkJoinPool pool;
+    /** How playout moves are chosen. */
+    private Playout playout = Playout.RANDOM;
+    /** UCT exploration constant. */
+    private double exploration = DEFAULT_EXPLORATION;
+
+    /** Playouts of the last search. */
+    private long playouts;
+    /** Wall clock time of the last search in nanoseconds. */
+    private long elapsedNanos;
+    /** Share of the playouts through the chosen move won by the moving figure. */
+    private double bestWinRate;
+
+    /**
+     * Create a search with a tree of {@value FoxHoundMcts#DEFAULT_MEGABYTES} megabytes.
+     *
+     * @param dim dimension of the board
+     * @param threads number of threads
+     * @param seed seed of the random generators, so single threaded searches can be repeated
+     * @throws IllegalArgumentException if the number of threads isn't positive
+     */
+    public FoxHoundMcts(int dim, int threads, long seed) {
+        this(dim, threads, DEFAULT_MEGABYTES, seed);
+    }
+
+    /**
+     * Create a search.
+     *
+     * @param dim dimension of the board
+     * @param threads number of threads
+     * @param megabytes memory budget of the tree
+     * @param seed seed of the random generators, so single threaded searches can be repeated
+     * @throws IllegalArgumentException if the number of threads or the memory budget isn't positive
+     */
+    public FoxHoundMcts(int dim, int threads, int megabytes, long seed) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("A search needs at least one thread: " + threads);
+        }
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("The tree needs at least one megabyte: " + megabytes);
+        }
+        this.dim = dim;
+        this.threads = threads;
+        this.capacity = (int) Math.min(((long) megabytes << 20) / NODE_BYTES, Integer.MAX_VALUE - 8);
+        this.move = new int[capacity];
+        this.firstChild = new int[capacity];
+        this.childCount = new byte[capacity];
+        this.visits = new AtomicIntegerArray(capacity);
+        this.wins = new AtomicIntegerArray(capacity);
+        this.state = new AtomicIntegerArray(capacity);
+        SplittableRandom random = new SplittableRandom(seed);
+        this.workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(dim, random.split());
+        }
+        this.pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    /** @return number of threads */
+    public int getThreads() {
+        return threads;
+    }
+
+    /** @return maximum number of nodes of the tree */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @param playout how playout moves are chosen
+     * @throws NullPointerException if the playout is null
+     */
+    public void setPlayout(Playout playout) {
+        if (playout == null) {
+            throw new NullPointerException("There was no playout given");
+        }
+        this.playout = playout;
+    }
+
+    /**
+     * @param exploration UCT exploration constant, larger values try more moves
+     * @throws IllegalArgumentException if the constant is negative
+     */
+    public void setExploration(double exploration) {
+        if (!(exploration >= 0)) {
+            throw new IllegalArgumentException("Exploration must not be negative: " + exploration);
+        }
+        this.exploration = exploration;
+    }
+
+    /**
+     * Run a search. The board isn't modified.
+     *
+     * @param board current position
+     * @param turn the figure to move
+     * @param timeMillis time budget in milliseconds shared by all threads, 0 or less for none
+     * @param playoutLimit playout budget shared by all threads, 0 or less for none
+     * @return the best packed move or {@value FoxHoundSearch#NO_MOVE} if the game is already over
+     * @throws IllegalArgumentException if the board dimension is wrong or there is neither a time nor a playout budget
+     */
+    public int search(FoxHoundBitboard board, char turn, long timeMillis, long playoutLimit) {
+        if (board.getDim() != dim) {
+            throw new IllegalArgumentException("Board dimension must be " + dim);
+        }
+        if (timeMillis <= 0 && playoutLimit <= 0) {
+            throw new IllegalArgumentException("A Monte Carlo search needs a time or playout budget");
+        }
+        long start = System.nanoTime();
+        FoxHoundSearch.Budget budget = new FoxHoundSearch.Budget(timeMillis, playoutLimit);
+        size.set(1);
+        resetNode(ROOT, FoxHoundSearch.NO_MOVE);
+        Worker first = workers[0];
+        first.root.copyFrom(board);
+        first.board.copyFrom(board);
+        playouts = 0;
+        bestWinRate = 0;
+        if (!expand(ROOT, first, turn) || childCount[ROOT] == 0) {
+            elapsedNanos = System.nanoTime() - start;
+            return FoxHoundSearch.NO_MOVE;
+        }
+        if (threads == 1) {
+            first.run(turn, budget);
+        } else {
+            List<Callable<Void>> tasks = new ArrayList<>(threads);
+            for (Worker worker : workers) {
+                worker.root.copyFrom(board);
+                tasks.add(() -> {
+                    worker.run(turn, budget);
+                    return null;
+                });
+            }
+            invokeAll(tasks);
+        }
+        for (Worker worker : workers) {
+            playouts += worker.playouts;
+        }
+        int best = firstChild[ROOT];
+        for (int child = best + 1; child < firstChild[ROOT] + childCount[ROOT]; child++) {
+            if (visits.get(child) > visits.get(best)) {
+                best = child;
+            }
+        }
+        bestWinRate = visits.get(best) == 0 ? 0 : (double) wins.get(best) / visits.get(best);
+        elapsedNanos = System.nanoTime() - start;
+        return move[best];
+    }
+
+    /**
+     * Clear the statistics of a new node.
+     *
+     * @param node index of the node
+     * @param nodeMove packed move leading to the node
+     */
+    private void resetNode(int node, int nodeMove) {
+        move[node] = nodeMove;
+        visits.set(node, 0);
+        wins.set(node, 0);
+        state.set(node, LEAF);
+    }
+
+    /**
+     * Create the children of a leaf, unless another thread already does.
+     *
+     * @param node index of the leaf
+     * @param worker worker whose board holds the node's position
+     * @param turn the figure to move in the node's position
+     * @return true if this thread expanded the node
+     */
+    private boolean expand(int node, Worker worker, char turn) {
+        if (!state.compareAndSet(node, LEAF, EXPANDING)) {
+            return false;
+        }
+        FoxHoundBitboard board = worker.board;
+        int count = FoxHoundMoveGenerator.winner(board) != FoxHoundMoveGenerator.NO_WINNER ? 0
+                : worker.generator.generate(board, turn, worker.moves);
+        int first = reserve(count);
+        if (first < 0) {
+            // the node stays a leaf for good, playouts still start from it
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            resetNode(first + i, worker.moves[i]);
+        }
+        firstChild[node] = first;
+        childCount[node] = (byte) count;
+        state.set(node, EXPANDED);
+        return true;
+    }
+
+    /**
+     * @param count number of nodes needed
+     * @return index of the first reserved node or -1 if the tree is full
+     */
+    private int reserve(int count) {
+        while (true) {
+            int first = size.get();
+            if (first > capacity - count) {
+                return -1;
+            }
+            if (size.compareAndSet(first, first + count)) {
+                return first;
+            }
+        }
+    }
+
+    /**
+     * Pick the child with the highest upper confidence bound.
+     *
+     * @param node index of an expanded node
+     * @return index of the child
+     */
+    private int select(int node) {
+        double logVisits = Math.log(Math.max(1, visits.get(node)));
+        int first = firstChild[node];
+        int best = first;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int child = first; child < first + childCount[node]; child++) {
+            int childVisits = visits.get(child);
+            if (childVisits == 0) {
+                return child;
+            }
+            double value = (double) wins.get(child) / childVisits + exploration * Math.sqrt(logVisits / childVisits);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Run tasks on the pool and wait for all of them.
+     *
+     * @param tasks the tasks
+     * @throws IllegalStateException if a task failed
+     */
+    private void invokeAll(List<Callable<Void>> tasks) {
+        for (Future<Void> result : pool.invokeAll(tasks)) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search thread failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Search interrupted", e);
+            }
+        }
+    }
+
+    /** @return number of playouts of the last search */
+    public long getPlayouts() {
+        return playouts;
+    }
+
+    /** @return number of nodes of the last search's tree */
+    public int getTreeSize() {
+        return size.get();
+    }
+
+    /** @return share of the playouts through the chosen move of the last search won by the moving figure */
+    public double getBestWinRate() {
+        return bestWinRate;
+    }
+
+    /** @return wall clock time of the last search in nanoseconds */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /** @return playouts per second of all threads in the last search */
+    public double getPlayoutsPerSecond() {
+        return elapsedNanos == 0 ? 0 : playouts * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Stop the threads of the pool.
+     */
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * The boards and buffers of one thread.
+     */
+    private final class Worker {
+
+        /** Root position of the search. */
+        final FoxHoundBitboard root;
+        /** Position of the current iteration. */
+        final FoxHoundBitboard board;
+        /** Move generator. */
+        final FoxHoundMoveGenerator generator;
+        /** Move buffer. */
+        final int[] moves = new int[FoxHoundMoveGenerator.MAX_MOVES];
+        /** Nodes visited by the current iteration, longer than any game. */
+        final int[] path;
+        /** Random generator of the playouts. */
+        final SplittableRandom random;
+        /** Playouts of the last search. */
+        long playouts;
+
+        /**
+         * @param dim dimension of the board
+         * @param random random generator of the playouts
+         */
+        Worker(int dim, SplittableRandom random) {
+            this.root = new FoxHoundBitboard(dim);
+            this.board = new FoxHoundBitboard(dim);
+            this.generator = new FoxHoundMoveGenerator(dim);
+            // every hound move advances a row, so a game has at most twice that many plies
+            this.path = new int[2 * (dim / 2) * (dim - 1) + 2];
+            this.random = random;
+        }
+
+        /**
+         * Run iterations until the budget is used up.
+         *
+         * @param rootTurn the figure to move at the root
+         * @param budget budget shared by all threads
+         */
+        void run(char rootTurn, FoxHoundSearch.Budget budget) {
+            playouts = 0;
+            do {
+                iterate(rootTurn);
+                playouts++;
+            } while (!budget.charge(1));
+        }
+
+        /**
+         * Select a leaf, expand it, play the game out and update the nodes on the path.
+         *
+         * @param rootTurn the figure to move at the root
+         */
+        private void iterate(char rootTurn) {
+            board.copyFrom(root);
+            char turn = rootTurn;
+            int node = ROOT;
+            int length = 0;
+            path[length++] = ROOT;
+            visits.incrementAndGet(ROOT);
+            while (true) {
+                int nodeState = state.get(node);
+                // a leaf is only expanded on its second visit, which keeps one-off lines out of the tree
+                if (nodeState == LEAF && visits.get(node) > 1 && expand(node, this, turn)) {
+                    nodeState = EXPANDED;
+                }
+                if (nodeState != EXPANDED || childCount[node] == 0) {
+                    break;
+                }
+                node = select(node);
+                // counted before the result is known, a virtual loss for the other threads
+                visits.incrementAndGet(node);
+                board.move(FoxHoundMoveGenerator.from(move[node]), FoxHoundMoveGenerator.to(move[node]));
+                turn = FoxHoundSearch.opponent(turn);
+                path[length++] = node;
+            }
+            char winner = playOut(turn);
+            // the move of the node at index i was played by the root figure for odd i
+            char mover = rootTurn;
+            for (int i = 1; i < length; i++) {
+                if (winner == mover) {
+                    wins.incrementAndGet(path[i]);
+                }
+                mover = FoxHoundSearch.opponent(mover);
+            }
+        }
+
+        /**
+         * Play the game on the board to its end, the same way as {@link FoxHoundSelfPlay}.
+         *
+         * @param turn the figure to move
+         * @return the winning figure
+         */
+        private char playOut(char turn) {
+            while (true) {
+                char winner = FoxHoundMoveGenerator.winner(board);
+                if (winner != FoxHoundMoveGenerator.NO_WINNER) {
+                    return winner;
+                }
+                int count = generator.generate(board, turn, moves);
+                if (count == 0) {
+                    return FoxHoundSearch.opponent(turn);
+                }
+                int next = playout == Playout.RANDOM ? moves[random.nextInt(count)]
+                        : turn == FoxHoundUtils.FOX_FIELD ? foxMove(count) : houndMove(count);
+                board.move(FoxHoundMoveGenerator.from(next), FoxHoundMoveGenerator.to(next));
+                turn = FoxHoundSearch.opponent(turn);
+            }
+        }
+
+        /**
+         * @param count number of legal fox moves
+         * @return heuristic fox move
+         */
+        private int foxMove(int count) {
+            int forward = 0;
+            for (int i = 0; i < count; i++) {
+                int to = FoxHoundMoveGenerator.to(moves[i]);
+                if (to < dim) {
+                    return moves[i];
+                }
+                if (to < FoxHoundMoveGenerator.from(moves[i])) {
+                    // keep the forward moves at the front of the buffer
+                    int swap = moves[forward];
+                    moves[forward++] = moves[i];
+                    moves[i] = swap;
+                }
+            }
+            if (forward > 0 && random.nextInt(100) < FORWARD_PERCENT) {
+                return moves[random.nextInt(forward)];
+            }
+            return moves[random.nextInt(count)];
+        }
+
+        /**
+         * @param count number of legal hound moves
+         * @return heuristic hound move
+         */
+        private int houndMove(int count) {
+            int first = moves[random.nextInt(count)];
+            int second = moves[random.nextInt(count)];
+            return foxMovesAfter(second) < foxMovesAfter(first) ? second : first;
+        }
+
+        /**
+         * @param houndMove packed hound move
+         * @return number of fox moves after the hound move
+         */
+        private int foxMovesAfter(int houndMove) {
+            int from = FoxHoundMoveGenerator.from(houndMove);
+            int to = FoxHoundMoveGenerator.to(houndMove);
+            board.move(from, to);
+            int foxMoves = FoxHoundMoveGenerator.countFoxMoves(board);
+            board.move(to, from);
+            return foxMoves;
+        }
+    }
+
+    /**
+     * Scaling report: searches the start position of a board for a fixed time with growing
+     * thread counts and prints the playouts per second and the size of the tree.
+     *
+     * Arguments are optional: {@code [dimension [milliseconds [max threads]]]}, by default the
+     * largest board, one second and all available processors.
+     *
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        int dim = args.length > 0 ? Integer.parseInt(args[0]) : FoxHoundUtils.MAX_DIM;
+        long timeMillis = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+        System.out.printf("%7s %10s %12s %10s %8s %6s%n", "threads", "playouts", "playouts/s", "nodes", "move", "wins");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            try (FoxHoundMcts search = new FoxHoundMcts(dim, threads, System.nanoTime())) {
+                int best = search.search(board, FoxHoundUtils.FOX_FIELD, timeMillis, 0);
+                System.out.printf("%7d %10d %12.0f %10d %8s %5.1f%%%n", threads, search.getPlayouts(),
+                        search.getPlayoutsPerSecond(), search.getTreeSize(),
+                        String.join("-", FoxHoundMoveGenerator.toMovement(best, dim)), 100 * search.getBestWinRate());
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * A move generator for the fox hound program.
+ *
+ * It enumerates all legal moves of the fox or the hounds on a {@link FoxHoundBitboard}
+ * into a caller supplied {@code int} buffer, so that search and self-play can generate
+ * moves without creating any objects per call.
+ *
+ * Every move is packed into a single int holding the origin square in the upper and
+ * the destination square in the lower 16 bits, see {@link #pack(int, int)}.
+ */
+public class FoxHoundMoveGenerator {
+
+    /** Maximum number of moves in any position, reached by the hounds on the largest board. */
+    public static final int MAX_MOVES = 2 * (FoxHoundUtils.MAX_DIM / 2);
+
+    /** Result of {@link #winner(FoxHoundBitboard)} while the game is still going on. */
+    public static final char NO_WINNER = ' ';
+
+    /** Number of bits used for each square inside a packed move. */
+    private static final int SQUARE_BITS = 16;
+    /** Mask extracting the destination square of a packed move. */
+    private static final int SQUARE_MASK = (1 << SQUARE_BITS) - 1;
+
+    /** Dimension of the boards this generator works on. */
+    private final int dim;
+    /** Diagonal neighbours of every square, see {@link FoxHoundNeighbours#diagonal(int)}. */
+    private final int[][] foxSteps;
+    /** Reusable word array receiving destination squares. */
+    private final long[] targets;
+    /** Reusable word array used as temporary storage by the hound generation. */
+    private final long[] scratch;
+
+    /**
+     * Create a generator for boards of the given dimension.
+     * A generator is not thread safe, every thread should use its own.
+     *
+     * @param dim dimension of the board
+     */
+    public FoxHoundMoveGenerator(int dim) {
+        this.dim = dim;
+        this.foxSteps = FoxHoundNeighbours.diagonal(dim);
+        this.targets = new long[FoxHoundBitboard.wordCount(dim)];
+        this.scratch = new long[targets.length];
+    }
+
+    /**
+     * Fill the buffer with all legal moves of the given figure.
+     *
+     * @param board current position
+     * @param figure the figure to move, {@link FoxHoundUtils#FOX_FIELD} or {@link FoxHoundUtils#HOUND_FIELD}
+     * @param moves buffer of at least {@value FoxHoundMoveGenerator#MAX_MOVES} packed moves
+     * @return number of moves written to the buffer
+     * @throws IllegalArgumentException if the board dimension or the figure is invalid
+     */
+    public int generate(FoxHoundBitboard board, char figure, int[] moves) {
+        if (board.getDim() != dim) {
+            throw new IllegalArgumentException("Board dimension must be " + dim);
+        }
+        if (figure == FoxHoundUtils.FOX_FIELD) {
+            return generateFoxMoves(board, moves);
+        } else if (figure == FoxHoundUtils.HOUND_FIELD) {
+            return generateHoundMoves(board, moves);
+        }
+        throw new IllegalArgumentException("Given figure field invalid: " + figure);
+    }
+
+    /**
+     * Fill the buffer with all legal fox moves.
+     *
+     * @param board current position
+     * @param moves buffer of at least four packed moves
+     * @return number of moves written to the buffer
+     */
+    public int generateFoxMoves(FoxHoundBitboard board, int[] moves) {
+        int fox = board.getFox();
+        if (fox == FoxHoundBitboard.NO_SQUARE) {
+            return 0;
+        }
+        int count = 0;
+        // the table is sorted, so the moves come out in the same order as the bit set scan
+        for (int to : foxSteps[fox]) {
+            if (!board.isOccupied(to)) {
+                moves[count++] = pack(fox, to);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Fill the buffer with all legal hound moves.
+     *
+     * @param board current position
+     * @param moves buffer of at least twice the hound count packed moves
+     * @return number of moves written to the buffer
+     */
+    public int generateHoundMoves(FoxHoundBitboard board, int[] moves) {
+        int count = 0;
+        // moving towards column A the origin lies one row up and one column right of the target
+        board.houndTargets(false, targets, scratch);
+        for (int to = FoxHoundBitboard.nextSetBit(targets, 0); to != FoxHoundBitboard.NO_SQUARE;
+             to = FoxHoundBitboard.nextSetBit(targets, to + 1)) {
+            moves[count++] = pack(to - dim + 1, to);
+        }
+        board.houndTargets(true, targets, scratch);
+        for (int to = FoxHoundBitboard.nextSetBit(targets, 0); to != FoxHoundBitboard.NO_SQUARE;
+             to = FoxHoundBitboard.nextSetBit(targets, to + 1)) {
+            moves[count++] = pack(to - dim - 1, to);
+        }
+        return count;
+    }
+
+    /**
+     * Count the legal fox moves without generating them.
+     *
+     * @param board current position
+     * @return number of squares the fox can move to
+     */
+    public static int countFoxMoves(FoxHoundBitboard board) {
+        int fox = board.getFox();
+        if (fox == FoxHoundBitboard.NO_SQUARE) {
+            return 0;
+        }
+        int dim = board.getDim();
+        if (dim <= FoxHoundBitboard.SMALL_MAX_DIM) {
+            long hounds = board.houndWords()[0];
+            return Long.bitCount(FoxHoundBitboard.foxTargets(1L << fox, hounds | (1L << fox), dim));
+        }
+        int count = 0;
+        for (int to : FoxHoundNeighbours.diagonal(dim)[fox]) {
+            if (!board.isOccupied(to)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Check the position for a winner using the same order as {@link FoxHoundUtils#isWinner(String[], int)}:
+     * the fox wins on reaching the first row, the hounds win once the fox can't move anymore.
+     * Positions where only the hounds are stuck are not decided here, callers treat a side
+     * without moves as having lost.
+     *
+     * @param board current position
+     * @return the winning figure or {@value FoxHoundMoveGenerator#NO_WINNER} if there is none yet
+     */
+    public static char winner(FoxHoundBitboard board) {
+        if (board.isFoxHome()) {
+            return FoxHoundUtils.FOX_FIELD;
+        } else if (countFoxMoves(board) == 0) {
+            return FoxHoundUtils.HOUND_FIELD;
+        }
+        return NO_WINNER;
+    }
+
+    /**
+     * Pack a move into a single int.
+     *
+     * @param from origin square
+     * @param to destination square
+     * @return packed move
+     */
+    public static int pack(int from, int to) {
+        return (from << SQUARE_BITS) | to;
+    }
+
+    /**
+     * @param move packed move
+     * @return origin square of the move
+     */
+    public static int from(int move) {
+        return move >>> SQUARE_BITS;
+    }
+
+    /**
+     * @param move packed move
+     * @return destination square of the move
+     */
+    public static int to(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    /**
+     * Convert a packed move to the two-element movement array used by
+     * {@link FoxHoundUtils#switchPlace(String[], String[])}.
+     *
+     * @param move packed move
+     * @param dim dimension of the board
+     * @return origin and destination coordinates
+     */
+    public static String[] toMovement(int move, int dim) {
+        return new String[]{FoxHoundBitboard.toCoordinate(from(move), dim),
+                FoxHoundBitboard.toCoordinate(to(move), dim)};
+    }
+}
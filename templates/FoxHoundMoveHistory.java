@@ -0,0 +1,179 @@
+import java.util.Arrays;
+
+/**
+ * A journal of the moves of a game with undo and redo, see {@link FoxHoundGameState}.
+ *
+ * Moves are kept as packed ints, see {@link FoxHoundMoveGenerator#pack(int, int)}, in a
+ * growing array. Undo and redo only move a cursor, so they run in constant time and the
+ * undone moves stay in the journal until a different move is played. Any intermediate
+ * position is regenerated by replaying the journal from the start of the game with
+ * {@link #replay(FoxHoundBitboard, char, int[], int)}.
+ *
+ * A history must only be used by one thread at a time.
+ */
+public class FoxHoundMoveHistory {
+
+    /** Initial capacity of the journal in moves. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Packed moves, the undone moves after the played ones. */
+    private int[] moves;
+    /** Number of moves played, the undo cursor. */
+    private int length;
+    /** Number of moves played or undone. */
+    private int size;
+
+    /**
+     * Create an empty history.
+     */
+    public FoxHoundMoveHistory() {
+        this.moves = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Create a history of played moves, e.g. from a {@link FoxHoundGameRecord}.
+     *
+     * @param moves packed moves played from the start of the game, copied
+     * @param count number of moves
+     * @throws IllegalArgumentException if the count is negative or larger than the array
+     */
+    public FoxHoundMoveHistory(int[] moves, int count) {
+        if (count < 0 || count > moves.length) {
+            throw new IllegalArgumentException("Invalid number of moves: " + count);
+        }
+        this.moves = Arrays.copyOf(moves, Math.max(INITIAL_CAPACITY, count));
+        this.length = count;
+        this.size = count;
+    }
+
+    /**
+     * @param other history to copy
+     */
+    private FoxHoundMoveHistory(FoxHoundMoveHistory other) {
+        this.moves = other.moves.clone();
+        this.length = other.length;
+        this.size = other.size;
+    }
+
+    /** @return an independent copy of the history including the undone moves */
+    public FoxHoundMoveHistory copy() {
+        return new FoxHoundMoveHistory(this);
+    }
+
+    /** @return number of moves played */
+    public int length() {
+        return length;
+    }
+
+    /** @return number of undone moves which can be redone */
+    public int redoCount() {
+        return size - length;
+    }
+
+    /**
+     * @param ply index of the move, 0 for the first move of the game
+     * @return packed move
+     * @throws IndexOutOfBoundsException if the move hasn't been played
+     */
+    public int getMove(int ply) {
+        if (ply < 0 || ply >= length) {
+            throw new IndexOutOfBoundsException("No move " + ply + " in a history of " + length);
+        }
+        return moves[ply];
+    }
+
+    /** @return last move played or {@value FoxHoundSearch#NO_MOVE} if there is none */
+    public int lastMove() {
+        return length > 0 ? moves[length - 1] : FoxHoundSearch.NO_MOVE;
+    }
+
+    /** @return a copy of the packed moves played */
+    public int[] toArray() {
+        return Arrays.copyOf(moves, length);
+    }
+
+    /**
+     * Record a played move, dropping the undone moves unless it is the next of them.
+     *
+     * @param move packed move
+     */
+    public void push(int move) {
+        if (length < size && moves[length] == move) {
+            // playing the undone move again keeps the rest of the redo line
+            length++;
+            return;
+        }
+        if (length == moves.length) {
+            moves = Arrays.copyOf(moves, length * 2);
+        }
+        moves[length++] = move;
+        size = length;
+    }
+
+    /**
+     * Move the cursor back by one move.
+     *
+     * @return the move to take back or {@value FoxHoundSearch#NO_MOVE} if no move has been played
+     */
+    public int undo() {
+        return length > 0 ? moves[--length] : FoxHoundSearch.NO_MOVE;
+    }
+
+    /**
+     * Move the cursor forward by one undone move.
+     *
+     * @return the move to play again or {@value FoxHoundSearch#NO_MOVE} if no move has been undone
+     */
+    public int redo() {
+        return length < size ? moves[length++] : FoxHoundSearch.NO_MOVE;
+    }
+
+    /**
+     * Forget all moves.
+     */
+    public void clear() {
+        length = 0;
+        size = 0;
+    }
+
+    /**
+     * Replay logged moves on a board, checking every move.
+     *
+     * @param board position the moves start from, changed in place
+     * @param turn the figure to play the first move
+     * @param moves packed moves
+     * @param count number of moves to play
+     * @return the figure to move after the last move
+     * @throws IllegalArgumentException if a move isn't legal, the board then holds the position before it
+     */
+    public static char replay(FoxHoundBitboard board, char turn, int[] moves, int count) {
+        for (int ply = 0; ply < count; ply++) {
+            int from = FoxHoundMoveGenerator.from(moves[ply]);
+            int to = FoxHoundMoveGenerator.to(moves[ply]);
+            if (!board.isValidMove(turn, from, to)) {
+                throw new IllegalArgumentException("Invalid move " + ply + " for " + turn + ": "
+                        + String.join("-", FoxHoundMoveGenerator.toMovement(moves[ply], board.getDim())));
+            }
+            board.move(from, to);
+            turn = FoxHoundSearch.opponent(turn);
+        }
+        return turn;
+    }
+
+    /**
+     * Replay the first moves of this history on a board.
+     *
+     * @param board position the game started from, changed in place
+     * @param turn the figure which played the first move
+     * @param ply number of moves to play
+     * @return the figure to move after the last move
+     * @throws IndexOutOfBoundsException if fewer moves have been played
+     * @throws IllegalArgumentException if a move isn't legal on the board
+     */
+    public char replay(FoxHoundBitboard board, char turn, int ply) {
+        if (ply < 0 || ply > length) {
+            throw new IndexOutOfBoundsException("Can't replay " + ply + " moves of a history of " + length);
+        }
+        return replay(board, turn, moves, ply);
+    }
+}
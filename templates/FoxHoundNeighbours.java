@@ -0,0 +1,116 @@
+import java.util.Arrays;
+
+/**
+ * A utility class for the fox hound program.
+ *
+ * It holds precomputed adjacency tables for every board dimension from
+ * {@value FoxHoundUtils#MIN_DIM} to {@value FoxHoundUtils#MAX_DIM}: the diagonal neighbours of
+ * every square, which are the squares the fox can move to, and the forward diagonal neighbours
+ * in the next row, which are the squares a hound can move to. Squares off the board are never
+ * part of a table, so looking up the moves of a piece takes no checks of the board edges.
+ *
+ * The neighbours of every square are sorted by ascending square index. The tables are shared
+ * and must not be modified by callers.
+ */
+public class FoxHoundNeighbours {
+
+    /** Per dimension diagonal neighbours of every square. */
+    private static final int[][][] DIAGONAL = new int[FoxHoundUtils.MAX_DIM + 1][][];
+    /** Per dimension diagonal neighbours of every square in the next row. */
+    private static final int[][][] FORWARD = new int[FoxHoundUtils.MAX_DIM + 1][][];
+
+    static {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; dim++) {
+            DIAGONAL[dim] = new int[dim * dim][];
+            FORWARD[dim] = new int[dim * dim][];
+            for (int square = 0; square < dim * dim; square++) {
+                DIAGONAL[dim][square] = neighbours(square, dim, -1);
+                FORWARD[dim][square] = neighbours(square, dim, 1);
+            }
+        }
+    }
+
+    /**
+     * Helper for the static initialiser collecting the neighbours of a square.
+     *
+     * @param square square index
+     * @param dim dimension of the board
+     * @param firstRow -1 to include the previous row, 1 for the next row only
+     * @return on board neighbours in ascending order
+     */
+    private static int[] neighbours(int square, int dim, int firstRow) {
+        int lat = square % dim;
+        int vert = square / dim;
+        int[] found = new int[4];
+        int count = 0;
+        for (int vertStep = firstRow; vertStep <= 1; vertStep += 2) {
+            for (int latStep = -1; latStep <= 1; latStep += 2) {
+                if (lat + latStep >= 0 && lat + latStep < dim && vert + vertStep >= 0 && vert + vertStep < dim) {
+                    found[count++] = square + vertStep * dim + latStep;
+                }
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * @param dim dimension of the board
+     * @return per square the diagonal neighbours, the fox's destinations on an empty board
+     * @throws IllegalArgumentException if the board dimension isn't between {@value FoxHoundUtils#MIN_DIM} and
+     * {@value FoxHoundUtils#MAX_DIM}.
+     */
+    public static int[][] diagonal(int dim) {
+        return DIAGONAL[checkDim(dim)];
+    }
+
+    /**
+     * @param dim dimension of the board
+     * @return per square the diagonal neighbours in the next row, a hound's destinations on an empty board
+     * @throws IllegalArgumentException if the board dimension isn't between {@value FoxHoundUtils#MIN_DIM} and
+     * {@value FoxHoundUtils#MAX_DIM}.
+     */
+    public static int[][] forward(int dim) {
+        return FORWARD[checkDim(dim)];
+    }
+
+    /**
+     * Check if a square can be reached by a single move of the given figure on an empty board.
+     *
+     * @param dim dimension of the board
+     * @param figure the figure which would be moved
+     * @param from origin square, possibly off the board
+     * @param to destination square, possibly off the board
+     * @return true if the destination is a neighbour of the origin the figure may move to
+     */
+    public static boolean isStep(int dim, char figure, int from, int to) {
+        int[][] table;
+        if (figure == FoxHoundUtils.FOX_FIELD) {
+            table = diagonal(dim);
+        } else if (figure == FoxHoundUtils.HOUND_FIELD) {
+            table = forward(dim);
+        } else {
+            return false;
+        }
+        if (from < 0 || from >= table.length) {
+            return false;
+        }
+        for (int neighbour : table[from]) {
+            if (neighbour == to) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param dim dimension of the board
+     * @return the given dimension
+     * @throws IllegalArgumentException if the board dimension is out of range
+     */
+    private static int checkDim(int dim) {
+        if (dim < FoxHoundUtils.MIN_DIM || dim > FoxHoundUtils.MAX_DIM) {
+            throw new IllegalArgumentException("You must have a board dimension from 4 to 26");
+        }
+        return dim;
+    }
+}
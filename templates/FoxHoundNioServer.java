@@ -0,0 +1,376 @@
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * A non-blocking TCP server playing the console game of the fox hound program with every
+ * connection.
+ *
+ * Every connection runs its own {@link FoxHoundDialog}, so clients see the same prompts,
+ * boards and messages as a player at the console, and answer them line by line. A single
+ * thread multiplexes all connections with a {@link Selector}: it reads whatever bytes have
+ * arrived, feeds the complete lines to the connection's dialog and writes its responses back
+ * as far as the socket accepts them. While a response is still being written no more input
+ * is read from that connection, so a client which doesn't read can't make the server buffer
+ * without bound. Save files are kept in a save directory, see {@link FoxHoundSession}.
+ */
+public class FoxHoundNioServer implements Closeable {
+
+    /** Default port of the server. */
+    public static final int DEFAULT_PORT = 4849;
+
+    /** Maximum number of pending connections waiting to be accepted. */
+    private static final int BACKLOG = 1024;
+    /** Time the server waits for its thread to stop when it is closed, in milliseconds. */
+    private static final long STOP_MILLIS = 5000;
+
+    /** Directory the dialogs keep their save files in. */
+    private final Path saveDir;
+    /** Selector of the server channel and all connections. */
+    private final Selector selector;
+    /** Channel accepting new connections. */
+    private final ServerSocketChannel serverChannel;
+    /** Thread running the selector loop, null until started. */
+    private Thread thread;
+    /** True once the server is closed. */
+    private volatile boolean closed;
+    /** Number of connections currently open. */
+    private volatile int activeConnections;
+
+    /**
+     * A connection and the dialog played with it.
+     */
+    private static final class Connection {
+
+        /** Channel of the connection. */
+        final SocketChannel channel;
+        /** Bytes received but not yet consumed by the dialog. */
+        final ByteBuffer in = ByteBuffer.allocate(FoxHoundServer.MAX_LINE);
+        /** Buffer the dialog prints its responses to. */
+        final ByteArrayOutputStream response = new ByteArrayOutputStream();
+        /** Dialog played with the connection. */
+        final FoxHoundDialog dialog;
+        /** Response still being written, null if there is none. */
+        ByteBuffer pending;
+        /** True once the dialog has ended, the connection is closed after the last response. */
+        boolean done;
+
+        /**
+         * @param channel channel of the connection
+         * @param saveDir directory save files are kept in
+         */
+        Connection(SocketChannel channel, Path saveDir) {
+            this.channel = channel;
+            PrintStream print = new PrintStream(response, false, StandardCharsets.UTF_8);
+            this.dialog = new FoxHoundDialog(name -> FoxHoundSession.resolve(saveDir, name), print, print);
+        }
+
+        /**
+         * Move everything the dialog has printed since the last call behind the pending response.
+         */
+        void collect() {
+            if (response.size() == 0) {
+                return;
+            }
+            byte[] bytes = response.toByteArray();
+            response.reset();
+            if (pending == null || !pending.hasRemaining()) {
+                pending = ByteBuffer.wrap(bytes);
+            } else {
+                ByteBuffer joined = ByteBuffer.allocate(pending.remaining() + bytes.length);
+                joined.put(pending).put(bytes).flip();
+                pending = joined;
+            }
+        }
+    }
+
+    /**
+     * Bind the server to a socket address.
+     * Connections are only accepted after {@link #start()}.
+     *
+     * @param address address to listen on
+     * @param saveDir directory the dialogs keep their save files in, created if missing
+     * @throws IOException if the address can't be bound or the directory can't be created
+     */
+    public FoxHoundNioServer(InetSocketAddress address, Path saveDir) throws IOException {
+        this.saveDir = Files.createDirectories(saveDir).toAbsolutePath().normalize();
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            serverChannel.bind(address, BACKLOG);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            serverChannel.close();
+            selector.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Start serving connections on a background thread.
+     *
+     * @throws IllegalStateException if the server has already been started
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            throw new IllegalStateException("The server has already been started");
+        }
+        thread = new Thread(this::run, "foxhound-selector");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** @return port the server listens on */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /** @return number of connections currently open */
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    /**
+     * Stop accepting connections and close all open ones.
+     *
+     * @throws IOException if the server channel can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        Thread running;
+        synchronized (this) {
+            running = thread;
+        }
+        if (running == null) {
+            shutdown();
+            return;
+        }
+        selector.wakeup();
+        if (running != Thread.currentThread()) {
+            try {
+                running.join(STOP_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Serve connections until the server is closed.
+     */
+    private void run() {
+        try {
+            while (!closed) {
+                selector.select();
+                for (SelectionKey key : selector.selectedKeys()) {
+                    handle(key);
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (!closed) {
+                System.err.println("ERROR: Serving connections failed: " + e.getMessage());
+            }
+        } finally {
+            try {
+                shutdown();
+            } catch (IOException e) {
+                System.err.println("ERROR: Closing the server failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @param key key of a ready channel
+     */
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                read(key, connection);
+            }
+            if (key.isValid() && key.isWritable()) {
+                write(key, connection);
+            }
+        } catch (IOException e) {
+            // the client went away, nothing left to answer
+            disconnect(key, connection);
+        }
+    }
+
+    /**
+     * Accept all pending connections and greet them with the first prompt.
+     */
+    private void accept() {
+        SocketChannel channel;
+        try {
+            while ((channel = serverChannel.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Connection connection = new Connection(channel, saveDir);
+                SelectionKey key = channel.register(selector, 0, connection);
+                activeConnections++;
+                connection.done = !connection.dialog.start();
+                respond(key, connection);
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                System.err.println("ERROR: Accepting connection failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Read the available input and feed its complete lines to the dialog.
+     *
+     * @param key key of the connection
+     * @param connection the connection
+     * @throws IOException if reading fails or a line is too long
+     */
+    private void read(SelectionKey key, Connection connection) throws IOException {
+        ByteBuffer in = connection.in;
+        int read = connection.channel.read(in);
+        in.flip();
+        boolean open = connection.dialog.receive(in, read == -1);
+        in.compact();
+        if (open && read != -1 && !in.hasRemaining()) {
+            throw new IOException("Request line too long");
+        }
+        connection.done = !open || read == -1;
+        respond(key, connection);
+    }
+
+    /**
+     * Write as much of the pending response as the socket accepts.
+     *
+     * @param key key of the connection
+     * @param connection the connection
+     * @throws IOException if writing fails
+     */
+    private void write(SelectionKey key, Connection connection) throws IOException {
+        connection.channel.write(connection.pending);
+        if (!connection.pending.hasRemaining()) {
+            connection.pending = null;
+        }
+        updateInterest(key, connection);
+    }
+
+    /**
+     * Send what the dialog has printed, closing the connection once the dialog has ended and
+     * everything has been sent.
+     *
+     * @param key key of the connection
+     * @param connection the connection
+     * @throws IOException if writing fails
+     */
+    private void respond(SelectionKey key, Connection connection) throws IOException {
+        connection.collect();
+        if (connection.pending != null) {
+            write(key, connection);
+        } else {
+            updateInterest(key, connection);
+        }
+    }
+
+    /**
+     * Read while there's nothing left to write, and close the connection once it's done.
+     *
+     * @param key key of the connection
+     * @param connection the connection
+     */
+    private void updateInterest(SelectionKey key, Connection connection) {
+        if (connection.pending != null) {
+            key.interestOps(SelectionKey.OP_WRITE);
+        } else if (connection.done) {
+            disconnect(key, connection);
+        } else {
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    /**
+     * @param key key of the connection
+     * @param connection connection to close, errors are ignored
+     */
+    private void disconnect(SelectionKey key, Connection connection) {
+        if (!connection.channel.isOpen()) {
+            return;
+        }
+        key.cancel();
+        activeConnections--;
+        try {
+            connection.dialog.close();
+        } catch (IOException e) {
+            // dialogs of the server aren't journaled
+        }
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            // already closed
+        }
+    }
+
+    /**
+     * Close all connections, the server channel and the selector.
+     *
+     * @throws IOException if the server channel can't be closed
+     */
+    private void shutdown() throws IOException {
+        if (selector.isOpen()) {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection) {
+                    disconnect(key, (Connection) key.attachment());
+                }
+            }
+            selector.close();
+        }
+        serverChannel.close();
+    }
+
+    /**
+     * Entry method of the non-blocking server mode.
+     *
+     * Arguments are optional: {@code [port [save directory]]}, by default port
+     * {@value FoxHoundNioServer#DEFAULT_PORT} and the directory "saves" on the loopback
+     * address only. Every client chooses the dimension of its own board.
+     *
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        try {
+            int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+            Path saveDir = Paths.get(args.length > 1 ? args[1] : "saves");
+            FoxHoundNioServer server = new FoxHoundNioServer(
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), port), saveDir);
+            System.out.println("Listening on port " + server.getPort());
+            // serve on the main thread, the daemon threads don't keep the program running
+            server.run();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("ERROR: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,424 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A multi-threaded computer player for the fox hound program, built from one
+ * {@link FoxHoundSearch} per thread sharing a single {@link FoxHoundTranspositionTable}
+ * and a node and time budget.
+ *
+ * Two ways of splitting the work are offered, see {@link Mode}. With a single thread both
+ * run the plain sequential search, so results are deterministic and equal to the ones of
+ * {@link FoxHoundSearch} with the same table size and budget.
+ *
+ * A parallel search is not thread safe itself, it must only run one search at a time.
+ * Its threads are released by {@link #close()}.
+ */
+public class FoxHoundParallelSearch implements AutoCloseable {
+
+    /** How the work of a search is split between the threads. */
+    public enum Mode {
+        /**
+         * Every iteration searches the best move of the previous iteration first and then
+         * splits the remaining root moves between the threads of a ForkJoinPool, all
+         * searching against the best score found so far.
+         */
+        ROOT_SPLIT,
+        /**
+         * Every thread runs its own iterative deepening of the whole tree, half of them one
+         * ply ahead. They only cooperate through the shared transposition table; the result
+         * is the one of the deepest completed iteration.
+         */
+        LAZY_SMP
+    }
+
+    /** Default transposition table size in megabytes, shared by all threads. */
+    public static final int DEFAULT_MEGABYTES = 64;
+
+    /** Number of threads. */
+    private final int threads;
+    /** How the work is split. */
+    private final Mode mode;
+    /** Table shared by all threads. */
+    private final FoxHoundTranspositionTable table;
+    /** Searches with their own board, one per thread, idle ones are queued. */
+    private final Worker[] workers;
+    /** Workers not used by a running task. */
+    private final ConcurrentLinkedQueue<Worker> idle = new ConcurrentLinkedQueue<>();
+    /** Pool running the tasks, null with a single thread. */
+    private final ForkJoinPool pool;
+    /** Move generator of the root position. */
+    private final FoxHoundMoveGenerator generator;
+    /** Maximum depth of the iterative deepening. */
+    private int maxDepth = FoxHoundSearch.MAX_PLY;
+
+    /** Nodes visited by all threads in the last search. */
+    private long nodes;
+    /** Wall clock time of the last search in nanoseconds. */
+    private long elapsedNanos;
+    /** Score of the best move found by the last search. */
+    private int bestScore;
+    /** Deepest iteration completed by the last search. */
+    private int completedDepth;
+
+    /**
+     * Create a search for boards of the given dimension with a shared transposition table of
+     * {@value FoxHoundParallelSearch#DEFAULT_MEGABYTES} megabytes.
+     *
+     * @param dim dimension of the board
+     * @param threads number of threads
+     * @param mode how the work is split between the threads
+     * @throws IllegalArgumentException if the number of threads isn't positive
+     */
+    public FoxHoundParallelSearch(int dim, int threads, Mode mode) {
+        this(dim, threads, mode, new FoxHoundTranspositionTable(DEFAULT_MEGABYTES));
+    }
+
+    /**
+     * Create a search for boards of the given dimension.
+     *
+     * @param dim dimension of the board
+     * @param threads number of threads
+     * @param mode how the work is split between the threads
+     * @param table transposition table shared by all threads
+     * @throws IllegalArgumentException if the number of threads isn't positive
+     * @throws NullPointerException if the mode is null
+     */
+    public FoxHoundParallelSearch(int dim, int threads, Mode mode, FoxHoundTranspositionTable table) {
+        this(dim, threads, mode, table, FoxHoundEvaluator.defaults());
+    }
+
+    /**
+     * Create a search for boards of the given dimension with the given static evaluation.
+     *
+     * @param dim dimension of the board
+     * @param threads number of threads
+     * @param mode how the work is split between the threads
+     * @param table transposition table shared by all threads
+     * @param evaluator static evaluation shared by all threads
+     * @throws IllegalArgumentException if the number of threads isn't positive
+     * @throws NullPointerException if the mode or the evaluator is null
+     */
+    public FoxHoundParallelSearch(int dim, int threads, Mode mode, FoxHoundTranspositionTable table,
+                                  FoxHoundEvaluator evaluator) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("A search needs at least one thread: " + threads);
+        }
+        if (mode == null) {
+            throw new NullPointerException("There was no mode given");
+        }
+        this.threads = threads;
+        this.mode = mode;
+        this.table = table;
+        this.generator = new FoxHoundMoveGenerator(dim);
+        this.workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(new FoxHoundSearch(dim, table, evaluator), new FoxHoundBitboard(dim));
+            idle.add(workers[i]);
+        }
+        this.pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    /** @return number of threads */
+    public int getThreads() {
+        return threads;
+    }
+
+    /** @return how the work is split between the threads */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Limit the depth of the iterative deepening.
+     *
+     * @param maxDepth maximum depth in plies, capped at {@value FoxHoundSearch#MAX_PLY}
+     */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = Math.max(1, Math.min(maxDepth, FoxHoundSearch.MAX_PLY));
+        for (Worker worker : workers) {
+            worker.search.setMaxDepth(this.maxDepth);
+        }
+    }
+
+    /**
+     * Run a search. The board isn't modified.
+     *
+     * @param board current position
+     * @param turn the figure to move
+     * @param timeMillis time budget in milliseconds shared by all threads, 0 or less for none
+     * @param nodeLimit node budget shared by all threads, 0 or less for none
+     * @return the best packed move or {@value FoxHoundSearch#NO_MOVE} if the game is already over
+     */
+    public int search(FoxHoundBitboard board, char turn, long timeMillis, long nodeLimit) {
+        long start = System.nanoTime();
+        int move;
+        if (threads == 1) {
+            // the sequential search keeps single threaded results reproducible
+            FoxHoundSearch search = workers[0].search;
+            FoxHoundBitboard copy = workers[0].board;
+            copy.copyFrom(board);
+            move = search.search(copy, turn, timeMillis, nodeLimit);
+            bestScore = search.getBestScore();
+            completedDepth = search.getCompletedDepth();
+        } else {
+            FoxHoundSearch.Budget budget = new FoxHoundSearch.Budget(timeMillis, nodeLimit);
+            table.newSearch();
+            for (Worker worker : workers) {
+                worker.search.share(budget);
+                worker.search.prepare();
+                worker.board.copyFrom(board);
+            }
+            move = mode == Mode.ROOT_SPLIT ? rootSplit(board, turn, budget) : lazySmp(turn, budget);
+        }
+        nodes = 0;
+        for (Worker worker : workers) {
+            nodes += worker.search.getNodes();
+        }
+        elapsedNanos = System.nanoTime() - start;
+        return move;
+    }
+
+    /**
+     * Iterative deepening splitting the root moves of every iteration between the threads.
+     *
+     * @param board current position
+     * @param turn the figure to move
+     * @param budget budget shared by all threads
+     * @return the best packed move or {@value FoxHoundSearch#NO_MOVE} if the game is already over
+     */
+    private int rootSplit(FoxHoundBitboard board, char turn, FoxHoundSearch.Budget budget) {
+        int[] rootMoves = new int[FoxHoundMoveGenerator.MAX_MOVES];
+        int count = generator.generate(board, turn, rootMoves);
+        char winner = FoxHoundMoveGenerator.winner(board);
+        completedDepth = 0;
+        if (count == 0 || winner != FoxHoundMoveGenerator.NO_WINNER) {
+            bestScore = winner == turn ? FoxHoundSearch.WIN_SCORE : -FoxHoundSearch.WIN_SCORE;
+            return FoxHoundSearch.NO_MOVE;
+        }
+        int bestMove = rootMoves[0];
+        bestScore = 0;
+        int[] scores = new int[count];
+        boolean[] exact = new boolean[count];
+        List<Callable<Void>> tasks = new ArrayList<>(count);
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            // the best move so far is searched alone to get a good bound for all others
+            for (int i = 1; i < count; i++) {
+                if (rootMoves[i] == bestMove) {
+                    rootMoves[i] = rootMoves[0];
+                    rootMoves[0] = bestMove;
+                }
+            }
+            Worker first = idle.poll();
+            scores[0] = first.search.searchRootMove(first.board, turn, rootMoves[0], depth, -FoxHoundSearch.INFINITY);
+            exact[0] = true;
+            idle.add(first);
+            if (budget.isStopped()) {
+                break;
+            }
+            AtomicInteger alpha = new AtomicInteger(scores[0]);
+            tasks.clear();
+            for (int i = 1; i < count; i++) {
+                int index = i;
+                int move = rootMoves[i];
+                int iterationDepth = depth;
+                tasks.add(() -> {
+                    Worker worker = idle.poll();
+                    try {
+                        int bound = alpha.get();
+                        int score = worker.search.searchRootMove(worker.board, turn, move, iterationDepth, bound);
+                        scores[index] = score;
+                        // only a score above the bound it was searched with is exact
+                        exact[index] = score > bound;
+                        alpha.accumulateAndGet(score, Math::max);
+                    } finally {
+                        idle.add(worker);
+                    }
+                    return null;
+                });
+            }
+            invokeAll(tasks);
+            if (budget.isStopped()) {
+                break;
+            }
+            int best = 0;
+            for (int i = 1; i < count; i++) {
+                if (exact[i] && scores[i] > scores[best]) {
+                    best = i;
+                }
+            }
+            bestMove = rootMoves[best];
+            bestScore = scores[best];
+            completedDepth = depth;
+            table.store(FoxHoundSymmetry.canonicalHash(board, turn), FoxHoundSymmetry.orient(board, bestMove),
+                    bestScore, depth, FoxHoundTranspositionTable.EXACT, 0);
+            if (FoxHoundSearch.isDecided(bestScore, depth)) {
+                break;
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * Independent iterative deepening on every thread, cooperating through the table.
+     *
+     * @param turn the figure to move
+     * @param budget budget shared by all threads
+     * @return the best move of the deepest completed iteration
+     */
+    private int lazySmp(char turn, FoxHoundSearch.Budget budget) {
+        List<Callable<Integer>> tasks = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Worker worker = workers[i];
+            // every other helper skips ahead so the threads don't all finish the same depth together
+            int firstDepth = 1 + (i & 1);
+            tasks.add(() -> {
+                int move = worker.search.iterate(worker.board, turn, firstDepth);
+                // the first thread to finish ends the search, the others can only be shallower by now
+                budget.stop();
+                return move;
+            });
+        }
+        List<Future<Integer>> results = pool.invokeAll(tasks);
+        int bestMove = FoxHoundSearch.NO_MOVE;
+        completedDepth = -1;
+        for (int i = 0; i < threads; i++) {
+            FoxHoundSearch search = workers[i].search;
+            if (search.getCompletedDepth() > completedDepth) {
+                completedDepth = search.getCompletedDepth();
+                bestScore = search.getBestScore();
+                bestMove = join(results.get(i));
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * Run tasks on the pool and wait for all of them.
+     *
+     * @param tasks the tasks
+     */
+    private void invokeAll(List<Callable<Void>> tasks) {
+        for (Future<Void> result : pool.invokeAll(tasks)) {
+            join(result);
+        }
+    }
+
+    /**
+     * @param result finished task
+     * @param <T> type of the result
+     * @return result of the task
+     * @throws IllegalStateException if the task failed
+     */
+    private static <T> T join(Future<T> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search thread failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Search interrupted", e);
+        }
+    }
+
+    /** @return score of the best move of the last search from the view of the moving figure */
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    /** @return deepest iteration completed by the last search */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /** @return number of nodes visited by all threads in the last search */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /** @return wall clock time of the last search in nanoseconds */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /** @return nodes visited per second by all threads in the last search */
+    public double getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Stop the threads of the pool.
+     */
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * A search with the board it works on, used by one thread at a time.
+     */
+    private static final class Worker {
+
+        /** The search. */
+        final FoxHoundSearch search;
+        /** Copy of the root position owned by the search. */
+        final FoxHoundBitboard board;
+
+        /**
+         * @param search the search
+         * @param board board owned by the search
+         */
+        Worker(FoxHoundSearch search, FoxHoundBitboard board) {
+            this.search = search;
+            this.board = board;
+        }
+    }
+
+    /**
+     * Scaling report: searches the start position of a board to a fixed depth with growing
+     * thread counts and prints nodes per second, the node rate per thread relative to a
+     * single thread and the speedup of the time to depth.
+     *
+     * Arguments are optional: {@code [dimension [depth [max threads]]]}, by default the
+     * largest board, depth 12 and all available processors.
+     *
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        int dim = args.length > 0 ? Integer.parseInt(args[0]) : FoxHoundUtils.MAX_DIM;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 12;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+        // warm up the JIT so the single thread baseline isn't measured on interpreted code
+        try (FoxHoundParallelSearch warmUp = new FoxHoundParallelSearch(dim, Math.min(2, maxThreads), Mode.ROOT_SPLIT)) {
+            warmUp.setMaxDepth(depth);
+            warmUp.search(board, FoxHoundUtils.FOX_FIELD, 0, 0);
+        }
+        System.out.printf("%-10s %7s %12s %12s %10s %8s%n", "mode", "threads", "nodes", "nodes/s",
+                "efficiency", "speedup");
+        for (Mode mode : Mode.values()) {
+            double singleRate = 0;
+            double singleNanos = 0;
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                try (FoxHoundParallelSearch search = new FoxHoundParallelSearch(dim, threads, mode)) {
+                    search.setMaxDepth(depth);
+                    search.search(board, FoxHoundUtils.FOX_FIELD, 0, 0);
+                    if (threads == 1) {
+                        singleRate = search.getNodesPerSecond();
+                        singleNanos = search.getElapsedNanos();
+                    }
+                    System.out.printf("%-10s %7d %12d %12.0f %9.0f%% %7.2fx%n", mode, threads, search.getNodes(),
+                            search.getNodesPerSecond(), 100 * search.getNodesPerSecond() / (threads * singleRate),
+                            singleNanos / search.getElapsedNanos());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Renders boards of the fox hound program into text frames.
+ *
+ * The header, divider and empty rows of a frame only depend on the board's dimension,
+ * so every renderer keeps a template of the empty board. Rendering copies the template,
+ * writes the glyph of every piece at its precomputed offset and emits the whole frame
+ * in a single write. Renderers are immutable, cached per dimension and style, and can
+ * be shared by any number of threads.
+ *
+ * Frames are plain ASCII and use the platform line separator, byte for byte the same as
+ * the output of {@link FoxHoundUI#displayBoard(String[], int)} and
+ * {@link FoxHoundUI#fancyDisplayBoard(String[], int)}.
+ */
+public class FoxHoundRenderer {
+
+    /** Cached simple renderers by dimension. */
+    private static final FoxHoundRenderer[] SIMPLE = new FoxHoundRenderer[FoxHoundUtils.MAX_DIM + 1];
+    /** Cached fancy renderers by dimension. */
+    private static final FoxHoundRenderer[] FANCY = new FoxHoundRenderer[FoxHoundUtils.MAX_DIM + 1];
+
+    /** Glyph of an empty square in the simple style. */
+    private static final byte SIMPLE_EMPTY = '.';
+
+    /** Dimension of the board. */
+    private final int dim;
+    /** The frame of an empty board. */
+    private final byte[] template;
+    /** Offset of the glyph of every square in the frame, by square index. */
+    private final int[] glyphOffsets;
+    /** Zero based line of the glyph of every square in the frame. */
+    private final int[] glyphLines;
+    /** Zero based column of the glyph of every square in the frame. */
+    private final int[] glyphColumns;
+    /** Number of lines of the frame. */
+    private final int lineCount;
+
+    /**
+     * @param dim dimension of the board
+     * @param template the frame of an empty board
+     * @param glyphOffsets offset of the glyph of every square in the frame
+     */
+    private FoxHoundRenderer(int dim, byte[] template, int[] glyphOffsets) {
+        this.dim = dim;
+        this.template = template;
+        this.glyphOffsets = glyphOffsets;
+        // index the start of every line so glyphs can be addressed by line and column
+        int[] lineOfOffset = new int[template.length];
+        int[] lineStart = new int[template.length + 1];
+        int line = 0;
+        for (int i = 0; i < template.length; i++) {
+            lineOfOffset[i] = line;
+            if (template[i] == '\n') {
+                lineStart[++line] = i + 1;
+            }
+        }
+        this.lineCount = line;
+        this.glyphLines = new int[glyphOffsets.length];
+        this.glyphColumns = new int[glyphOffsets.length];
+        for (int square = 0; square < glyphOffsets.length; square++) {
+            glyphLines[square] = lineOfOffset[glyphOffsets[square]];
+            glyphColumns[square] = glyphOffsets[square] - lineStart[glyphLines[square]];
+        }
+    }
+
+    /**
+     * Get the renderer of the dotted style of {@link FoxHoundUI#displayBoard(String[], int)}.
+     *
+     * @param dim dimension of the board
+     * @return the shared renderer
+     * @throws IllegalArgumentException if the dimension isn't between 1 and {@value FoxHoundUtils#MAX_DIM}
+     */
+    public static FoxHoundRenderer simple(int dim) {
+        checkDim(dim);
+        FoxHoundRenderer renderer = SIMPLE[dim];
+        if (renderer == null) {
+            // racing threads build equal renderers, either one may be kept
+            renderer = buildSimple(dim);
+            SIMPLE[dim] = renderer;
+        }
+        return renderer;
+    }
+
+    /**
+     * Get the renderer of the framed style of {@link FoxHoundUI#fancyDisplayBoard(String[], int)}.
+     *
+     * @param dim dimension of the board
+     * @return the shared renderer
+     * @throws IllegalArgumentException if the dimension isn't between 1 and {@value FoxHoundUtils#MAX_DIM}
+     */
+    public static FoxHoundRenderer fancy(int dim) {
+        checkDim(dim);
+        FoxHoundRenderer renderer = FANCY[dim];
+        if (renderer == null) {
+            renderer = buildFancy(dim);
+            FANCY[dim] = renderer;
+        }
+        return renderer;
+    }
+
+    /**
+     * @param dim dimension to check
+     * @throws IllegalArgumentException if the dimension can't be rendered
+     */
+    private static void checkDim(int dim) {
+        if (dim < 1 || dim > FoxHoundUtils.MAX_DIM) {
+            throw new IllegalArgumentException("Can't render a board dimension of " + dim);
+        }
+    }
+
+    /**
+     * @param vert row number
+     * @param padder minimum number of digits
+     * @return the row number padded with zeros like the format {@code %0<padder>d}
+     */
+    private static String rowNumber(int vert, int padder) {
+        String number = Integer.toString(vert);
+        return "0".repeat(Math.max(0, padder - number.length())) + number;
+    }
+
+    /**
+     * @param dim dimension of the board
+     * @return renderer of the dotted style
+     */
+    private static FoxHoundRenderer buildSimple(int dim) {
+        String nl = System.lineSeparator();
+        //A number used as a multiplier to adjust spacing when the dimension is greater than or equal to 10 or less than 10
+        int padder = dim / 10 + 1;
+        StringBuilder title = new StringBuilder();
+        for (int i = 1; i <= dim; i++) {
+            title.append((char) (FoxHoundUtils.CHAR_SHIFT + i));
+        }
+        int[] offsets = new int[dim * dim];
+        StringBuilder frame = new StringBuilder();
+        frame.append(" ".repeat(padder)).append(' ').append(title).append("  ").append(nl).append(nl);
+        for (int vert = 1; vert <= dim; vert++) {
+            String number = rowNumber(vert, padder);
+            frame.append(number).append(' ');
+            for (int lat = 1; lat <= dim; lat++) {
+                offsets[FoxHoundBitboard.square(lat, vert, dim)] = frame.length();
+                frame.append((char) SIMPLE_EMPTY);
+            }
+            frame.append(' ').append(number).append(nl);
+        }
+        frame.append(nl).append(" ".repeat(padder)).append(' ').append(title).append(nl).append(nl);
+        return new FoxHoundRenderer(dim, frame.toString().getBytes(StandardCharsets.US_ASCII), offsets);
+    }
+
+    /**
+     * @param dim dimension of the board
+     * @return renderer of the framed style
+     */
+    private static FoxHoundRenderer buildFancy(int dim) {
+        String nl = System.lineSeparator();
+        int padder = dim / 10 + 1;
+        StringBuilder title = new StringBuilder();
+        for (int i = 1; i <= dim; i++) {
+            title.append("   ").append((char) (FoxHoundUtils.CHAR_SHIFT + i));
+        }
+        //Creates horizontal divider based on board dimension to aid clarity
+        String divider = " ".repeat(padder) + " " + "|===".repeat(dim) + '|';
+        int[] offsets = new int[dim * dim];
+        StringBuilder frame = new StringBuilder();
+        frame.append(" ".repeat(padder)).append(title).append(nl).append(divider).append(nl);
+        for (int vert = 1; vert <= dim; vert++) {
+            String number = rowNumber(vert, padder);
+            frame.append(number).append(' ');
+            for (int lat = 1; lat <= dim; lat++) {
+                // the glyph sits in the middle of "| H "
+                offsets[FoxHoundBitboard.square(lat, vert, dim)] = frame.length() + 2;
+                frame.append("|   ");
+            }
+            frame.append("| ").append(number).append(nl).append(divider).append(nl);
+        }
+        frame.append(" ".repeat(padder)).append(title).append(nl).append(nl);
+        return new FoxHoundRenderer(dim, frame.toString().getBytes(StandardCharsets.US_ASCII), offsets);
+    }
+
+    /** @return dimension of the board */
+    public int getDim() {
+        return dim;
+    }
+
+    /** @return number of bytes of every frame */
+    public int frameLength() {
+        return template.length;
+    }
+
+    /** @return number of lines of every frame, each ended by a line separator */
+    public int lineCount() {
+        return lineCount;
+    }
+
+    /** @return glyph drawn on empty squares */
+    public byte emptyGlyph() {
+        return template[glyphOffsets[0]];
+    }
+
+    /**
+     * @param square square index
+     * @return zero based line of the square's glyph in the frame
+     */
+    public int glyphLine(int square) {
+        return glyphLines[square];
+    }
+
+    /**
+     * @param square square index
+     * @return zero based column of the square's glyph in its line
+     */
+    public int glyphColumn(int square) {
+        return glyphColumns[square];
+    }
+
+    /**
+     * Render a frame into a new array. Pieces off the board are left out,
+     * the fox is drawn over a hound on the same square.
+     *
+     * @param players array of the current positions of the pieces on the board, the fox last
+     * @return the ASCII bytes of the frame
+     */
+    public byte[] renderBytes(String[] players) {
+        byte[] frame = template.clone();
+        for (int i = 0; i < players.length; i++) {
+            int square = FoxHoundBitboard.toSquare(players[i], dim);
+            if (square != FoxHoundBitboard.NO_SQUARE) {
+                frame[glyphOffsets[square]] = (byte) (i == players.length - 1
+                        ? FoxHoundUtils.FOX_FIELD : FoxHoundUtils.HOUND_FIELD);
+            }
+        }
+        return frame;
+    }
+
+    /**
+     * Render a frame of a bitboard into a new array.
+     *
+     * @param board position to render, must have this renderer's dimension
+     * @return the ASCII bytes of the frame
+     * @throws IllegalArgumentException if the board has a different dimension
+     */
+    public byte[] renderBytes(FoxHoundBitboard board) {
+        if (board.getDim() != dim) {
+            throw new IllegalArgumentException("Board dimension " + board.getDim() + " doesn't match " + dim);
+        }
+        byte[] frame = template.clone();
+        for (int square = board.nextHound(0); square != FoxHoundBitboard.NO_SQUARE;
+             square = board.nextHound(square + 1)) {
+            frame[glyphOffsets[square]] = FoxHoundUtils.HOUND_FIELD;
+        }
+        if (board.getFox() != FoxHoundBitboard.NO_SQUARE) {
+            frame[glyphOffsets[board.getFox()]] = FoxHoundUtils.FOX_FIELD;
+        }
+        return frame;
+    }
+
+    /**
+     * Render a frame to a stream in a single write.
+     *
+     * @param players array of the current positions of the pieces on the board, the fox last
+     * @param out stream the frame is written to
+     * @throws IOException if writing fails
+     */
+    public void render(String[] players, OutputStream out) throws IOException {
+        out.write(renderBytes(players));
+    }
+
+    /**
+     * Render a frame to a print stream in a single write, e.g. {@link System#out}.
+     *
+     * @param players array of the current positions of the pieces on the board, the fox last
+     * @param out stream the frame is written to
+     */
+    public void render(String[] players, PrintStream out) {
+        byte[] frame = renderBytes(players);
+        out.write(frame, 0, frame.length);
+    }
+
+    /**
+     * Render a frame to a character sink in a single append.
+     *
+     * @param players array of the current positions of the pieces on the board, the fox last
+     * @param out sink the frame is appended to
+     * @throws IOException if appending fails
+     */
+    public void render(String[] players, Appendable out) throws IOException {
+        out.append(new String(renderBytes(players), StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @param players array of the current positions of the pieces on the board, the fox last
+     * @return the frame as a string
+     */
+    public String render(String[] players) {
+        return new String(renderBytes(players), StandardCharsets.US_ASCII);
+    }
+}
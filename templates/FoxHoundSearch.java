@@ -0,0 +1,514 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A computer player for the fox hound program.
+ *
+ * It runs a negamax search with alpha-beta pruning and iterative deepening on a
+ * {@link FoxHoundBitboard}. Moves are ordered by the best move of the previous
+ * iteration, the transposition table, killer moves and a history table. Positions
+ * reached through different move orders are looked up in a {@link FoxHoundTranspositionTable}
+ * instead of being searched again. The search stops when it runs out
+ * of its time or node budget and answers with the best move of the deepest
+ * completed iteration. {@link FoxHoundParallelSearch} runs several searches sharing a
+ * {@link Budget} and a table on multiple threads.
+ *
+ * The rules are the ones of {@link FoxHoundGame}: the fox wins on reaching the first
+ * row, the hounds win once the fox can't move, and a side without any legal move loses.
+ */
+public class FoxHoundSearch {
+
+    /** Score of a won position, reduced by the number of plies needed to win. */
+    public static final int WIN_SCORE = 1000000;
+    /** Maximum search depth in plies. */
+    public static final int MAX_PLY = 64;
+    /** Move value returned when there is no legal move. */
+    public static final int NO_MOVE = -1;
+
+    /** Score bound larger than every possible score. */
+    static final int INFINITY = WIN_SCORE + 1;
+    /** Scores beyond this bound are wins or losses found by the search. */
+    static final int WIN_BOUND = WIN_SCORE - MAX_PLY;
+    /** The budget is checked whenever the node counter crosses a multiple of this mask plus one. */
+    private static final int CHECK_MASK = 255;
+    /** Transposition table size used by {@link #bestMove(String[], int, char, long)}. */
+    private static final int SINGLE_MOVE_MEGABYTES = 2;
+    /** Number of killer moves remembered per ply. */
+    private static final int KILLERS = 2;
+
+    /** Ordering bonus of the best move from the previous iteration. */
+    private static final int PV_BONUS = 1 << 30;
+    /** Ordering bonus of the move stored in the transposition table. */
+    private static final int HASH_BONUS = 1 << 29;
+    /** Ordering bonus of a killer move. */
+    private static final int KILLER_BONUS = 1 << 20;
+
+    /** Table shared with other searches of the same dimension. */
+    private final FoxHoundTranspositionTable table;
+    /** Static evaluation of the leaves. */
+    private final FoxHoundEvaluator evaluator;
+    /** Move generator used by every node. */
+    private final FoxHoundMoveGenerator generator;
+    /** One move buffer per ply so no node allocates. */
+    private final int[][] moves = new int[MAX_PLY + 1][FoxHoundMoveGenerator.MAX_MOVES];
+    /** Ordering scores matching the move buffers. */
+    private final int[][] orderScores = new int[MAX_PLY + 1][FoxHoundMoveGenerator.MAX_MOVES];
+    /** Quiet moves that caused a cutoff, per ply. */
+    private final int[][] killers = new int[MAX_PLY + 1][KILLERS];
+    /** History heuristic indexed by figure and destination square. */
+    private final int[][] history;
+
+    /** Nodes visited by the current search. */
+    private long nodes;
+    /** Node budget of the current search, 0 for none. */
+    private long nodeLimit;
+    /** System.nanoTime value at which the current search must stop, 0 for none. */
+    private long deadline;
+    /** Budget shared with searches on other threads, null if the search has its own. */
+    private Budget shared;
+    /** True once the budget ran out. */
+    private boolean stopped;
+    /** Maximum depth of the iterative deepening. */
+    private int maxDepth = MAX_PLY;
+    /** Score of the best move found by the last search. */
+    private int bestScore;
+    /** Deepest iteration completed by the last search. */
+    private int completedDepth;
+
+    /**
+     * Create a search for boards of the given dimension with its own transposition table
+     * of {@value FoxHoundTranspositionTable#DEFAULT_MEGABYTES} megabytes.
+     * A search is not thread safe, every thread should use its own.
+     *
+     * @param dim dimension of the board
+     */
+    public FoxHoundSearch(int dim) {
+        this(dim, new FoxHoundTranspositionTable());
+    }
+
+    /**
+     * Create a search for boards of the given dimension using the given transposition table,
+     * which may be shared with searches running in other threads.
+     *
+     * @param dim dimension of the board
+     * @param table transposition table to use
+     */
+    public FoxHoundSearch(int dim, FoxHoundTranspositionTable table) {
+        this(dim, table, FoxHoundEvaluator.defaults());
+    }
+
+    /**
+     * Create a search for boards of the given dimension using the given transposition table
+     * and static evaluation.
+     *
+     * @param dim dimension of the board
+     * @param table transposition table to use
+     * @param evaluator static evaluation of the positions at the end of the search
+     * @throws NullPointerException if the evaluator is null
+     */
+    public FoxHoundSearch(int dim, FoxHoundTranspositionTable table, FoxHoundEvaluator evaluator) {
+        if (evaluator == null) {
+            throw new NullPointerException("There was no evaluator given");
+        }
+        this.table = table;
+        this.evaluator = evaluator;
+        this.generator = new FoxHoundMoveGenerator(dim);
+        this.history = new int[2][dim * dim];
+    }
+
+    /**
+     * Find the best move for the given figure.
+     *
+     * @param players array of the current positions of the pieces on the board
+     * @param dim dimension of the board
+     * @param turn the figure to move
+     * @param timeMillis time budget in milliseconds
+     * @return origin and destination coordinates of the best move or null if the game is already over
+     */
+    public static String[] bestMove(String[] players, int dim, char turn, long timeMillis) {
+        FoxHoundSearch search = new FoxHoundSearch(dim, new FoxHoundTranspositionTable(SINGLE_MOVE_MEGABYTES));
+        int move = search.search(FoxHoundBitboard.fromPlayers(players, dim), turn, timeMillis, 0);
+        return move == NO_MOVE ? null : FoxHoundMoveGenerator.toMovement(move, dim);
+    }
+
+    /**
+     * Run an iterative deepening search. The board is modified during the search
+     * but restored before the method returns.
+     *
+     * @param board current position
+     * @param turn the figure to move
+     * @param timeMillis time budget in milliseconds, 0 or less for none
+     * @param nodeLimit node budget, 0 or less for none
+     * @return the best packed move or {@value FoxHoundSearch#NO_MOVE} if the game is already over
+     * @throws IllegalArgumentException if the board dimension or the figure is invalid
+     */
+    public int search(FoxHoundBitboard board, char turn, long timeMillis, long nodeLimit) {
+        this.nodeLimit = nodeLimit > 0 ? nodeLimit : 0;
+        this.deadline = timeMillis > 0 ? System.nanoTime() + timeMillis * 1000000L : 0;
+        this.shared = null;
+        table.newSearch();
+        return iterate(board, turn, 1);
+    }
+
+    /**
+     * Run the iterative deepening with the budget already set.
+     *
+     * @param board current position, restored before the method returns
+     * @param turn the figure to move
+     * @param firstDepth depth of the first iteration, helper threads of a parallel search skip ahead
+     * @return the best packed move or {@value FoxHoundSearch#NO_MOVE} if the game is already over
+     */
+    int iterate(FoxHoundBitboard board, char turn, int firstDepth) {
+        prepare();
+
+        int[] rootMoves = moves[0];
+        int count = generator.generate(board, turn, rootMoves);
+        char winner = FoxHoundMoveGenerator.winner(board);
+        if (count == 0 || winner != FoxHoundMoveGenerator.NO_WINNER) {
+            bestScore = winner == turn ? WIN_SCORE : -WIN_SCORE;
+            return NO_MOVE;
+        }
+
+        int bestMove = rootMoves[0];
+        bestScore = 0;
+        for (int depth = Math.min(firstDepth, maxDepth); depth <= maxDepth && !stopped; depth++) {
+            int iterationMove = NO_MOVE;
+            int alpha = -INFINITY;
+            scoreMoves(0, turn, count, bestMove);
+            for (int i = 0; i < count; i++) {
+                int move = pickMove(0, i, count);
+                int from = FoxHoundMoveGenerator.from(move);
+                int to = FoxHoundMoveGenerator.to(move);
+                board.move(from, to);
+                int score = -negamax(board, opponent(turn), depth - 1, 1, -INFINITY, -alpha);
+                board.move(to, from);
+                if (stopped) {
+                    break;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    iterationMove = move;
+                }
+            }
+            if (stopped) {
+                break;
+            }
+            bestMove = iterationMove;
+            bestScore = alpha;
+            completedDepth = depth;
+            table.store(FoxHoundSymmetry.canonicalHash(board, turn), FoxHoundSymmetry.orient(board, bestMove),
+                    bestScore, depth, FoxHoundTranspositionTable.EXACT, 0);
+            if (isDecided(alpha, depth)) {
+                break;
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * @param score score of the best move of an iteration
+     * @param depth depth of the iteration
+     * @return true if the score is a forced win or loss inside the searched depth, which can't change any more
+     */
+    static boolean isDecided(int score, int depth) {
+        return Math.abs(score) > WIN_BOUND && WIN_SCORE - Math.abs(score) <= depth;
+    }
+
+    /**
+     * Share a budget with searches on other threads instead of using an own one.
+     *
+     * @param budget the shared budget
+     */
+    void share(Budget budget) {
+        this.shared = budget;
+        this.nodeLimit = 0;
+        this.deadline = 0;
+    }
+
+    /**
+     * Reset the counters and move ordering before a search.
+     */
+    void prepare() {
+        this.nodes = 0;
+        this.stopped = false;
+        this.completedDepth = 0;
+        clearOrdering();
+    }
+
+    /**
+     * Search a single root move, the unit of work split between the threads of a parallel search.
+     * Nodes are added to the counter of the running search.
+     *
+     * @param board current position, restored before the method returns
+     * @param turn the figure to move
+     * @param move packed root move
+     * @param depth depth of the iteration
+     * @param alpha score the move has to beat
+     * @return score of the move, at most alpha if it doesn't beat it, meaningless once stopped
+     */
+    int searchRootMove(FoxHoundBitboard board, char turn, int move, int depth, int alpha) {
+        int from = FoxHoundMoveGenerator.from(move);
+        int to = FoxHoundMoveGenerator.to(move);
+        board.move(from, to);
+        int score = -negamax(board, opponent(turn), depth - 1, 1, -INFINITY, -alpha);
+        board.move(to, from);
+        return score;
+    }
+
+    /** @return true if the budget of the current search ran out */
+    boolean isStopped() {
+        return stopped;
+    }
+
+    /** @return score of the best move of the last search from the view of the moving figure */
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    /** @return deepest iteration completed by the last search */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /** @return number of nodes visited by the last search */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Limit the depth of the iterative deepening.
+     *
+     * @param maxDepth maximum depth in plies, capped at {@value FoxHoundSearch#MAX_PLY}
+     */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = Math.max(1, Math.min(maxDepth, MAX_PLY));
+    }
+
+    /**
+     * Swap between fox and hounds.
+     *
+     * @param figure figure that just moved
+     * @return figure to move next
+     */
+    public static char opponent(char figure) {
+        return figure == FoxHoundUtils.FOX_FIELD ? FoxHoundUtils.HOUND_FIELD : FoxHoundUtils.FOX_FIELD;
+    }
+
+    /**
+     * The recursive alpha-beta search.
+     *
+     * @param board current position
+     * @param side the figure to move
+     * @param depth remaining depth in plies
+     * @param ply distance from the root
+     * @param alpha lower score bound
+     * @param beta upper score bound
+     * @return score of the position from the view of the moving figure
+     */
+    private int negamax(FoxHoundBitboard board, char side, int depth, int ply, int alpha, int beta) {
+        if ((++nodes & CHECK_MASK) == 0) {
+            checkBudget();
+        }
+        if (stopped) {
+            return 0;
+        }
+        char winner = FoxHoundMoveGenerator.winner(board);
+        if (winner != FoxHoundMoveGenerator.NO_WINNER) {
+            return winner == side ? WIN_SCORE - ply : ply - WIN_SCORE;
+        }
+        if (depth == 0 || ply >= MAX_PLY) {
+            return evaluator.evaluate(board, side);
+        }
+
+        // a position and its mirror image share their entry, which holds the move of the canonical form
+        long key = FoxHoundSymmetry.canonicalHash(board, side);
+        long entry = table.probe(key);
+        int hashMove = FoxHoundSymmetry.orient(board, FoxHoundTranspositionTable.move(entry));
+        if (entry != FoxHoundTranspositionTable.MISS && FoxHoundTranspositionTable.depth(entry) >= depth) {
+            int score = FoxHoundTranspositionTable.score(entry, ply);
+            int bound = FoxHoundTranspositionTable.bound(entry);
+            if (bound == FoxHoundTranspositionTable.EXACT
+                    || (bound == FoxHoundTranspositionTable.LOWER && score >= beta)
+                    || (bound == FoxHoundTranspositionTable.UPPER && score <= alpha)) {
+                return score;
+            }
+        }
+
+        int count = generator.generate(board, side, moves[ply]);
+        if (count == 0) {
+            return ply - WIN_SCORE;
+        }
+        scoreMoves(ply, side, count, hashMove);
+        int originalAlpha = alpha;
+        int bestMove = NO_MOVE;
+        int best = -INFINITY;
+        for (int i = 0; i < count; i++) {
+            int move = pickMove(ply, i, count);
+            int from = FoxHoundMoveGenerator.from(move);
+            int to = FoxHoundMoveGenerator.to(move);
+            board.move(from, to);
+            int score = -negamax(board, opponent(side), depth - 1, ply + 1, -beta, -alpha);
+            board.move(to, from);
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        rememberCutoff(ply, side, move, depth);
+                        break;
+                    }
+                }
+            }
+        }
+        int bound = best >= beta ? FoxHoundTranspositionTable.LOWER
+                : best > originalAlpha ? FoxHoundTranspositionTable.EXACT : FoxHoundTranspositionTable.UPPER;
+        table.store(key, FoxHoundSymmetry.orient(board, bestMove), best, depth, bound, ply);
+        return best;
+    }
+
+    /**
+     * Assign ordering scores to the moves of a ply.
+     *
+     * @param ply distance from the root
+     * @param side the figure to move
+     * @param count number of moves in the buffer
+     * @param firstMove move to search first or {@value FoxHoundSearch#NO_MOVE}
+     */
+    private void scoreMoves(int ply, char side, int count, int firstMove) {
+        int[] buffer = moves[ply];
+        int[] scores = orderScores[ply];
+        int[] sideHistory = history[sideIndex(side)];
+        for (int i = 0; i < count; i++) {
+            int move = buffer[i];
+            if (move == firstMove) {
+                scores[i] = ply == 0 ? PV_BONUS : HASH_BONUS;
+            } else if (move == killers[ply][0] || move == killers[ply][1]) {
+                scores[i] = KILLER_BONUS;
+            } else {
+                scores[i] = sideHistory[FoxHoundMoveGenerator.to(move)];
+            }
+        }
+    }
+
+    /**
+     * Selection sort step moving the best remaining move to the given index.
+     *
+     * @param ply distance from the root
+     * @param index index to fill
+     * @param count number of moves in the buffer
+     * @return the move now stored at the index
+     */
+    private int pickMove(int ply, int index, int count) {
+        int[] buffer = moves[ply];
+        int[] scores = orderScores[ply];
+        int best = index;
+        for (int i = index + 1; i < count; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = buffer[best];
+        buffer[best] = buffer[index];
+        buffer[index] = move;
+        int score = scores[best];
+        scores[best] = scores[index];
+        scores[index] = score;
+        return move;
+    }
+
+    /**
+     * Update killer moves and history after a beta cutoff.
+     *
+     * @param ply distance from the root
+     * @param side the figure that moved
+     * @param move the move causing the cutoff
+     * @param depth remaining depth of the node
+     */
+    private void rememberCutoff(int ply, char side, int move, int depth) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        history[sideIndex(side)][FoxHoundMoveGenerator.to(move)] += depth * depth;
+    }
+
+    /** Reset killer moves and history before a new search. */
+    private void clearOrdering() {
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = NO_MOVE;
+            plyKillers[1] = NO_MOVE;
+        }
+        for (int[] sideHistory : history) {
+            Arrays.fill(sideHistory, 0);
+        }
+    }
+
+    /** Stop the search if the node or time budget is used up. */
+    private void checkBudget() {
+        if ((nodeLimit > 0 && nodes >= nodeLimit) || (deadline != 0 && System.nanoTime() - deadline >= 0)) {
+            stopped = true;
+        } else if (shared != null) {
+            stopped = shared.charge(CHECK_MASK + 1);
+        }
+    }
+
+    /**
+     * @param side a figure
+     * @return 0 for the fox and 1 for the hounds
+     */
+    private static int sideIndex(char side) {
+        return side == FoxHoundUtils.FOX_FIELD ? 0 : 1;
+    }
+
+    /**
+     * Time and node budget shared by the searches of all threads of a parallel search.
+     * Every search charges its nodes in batches, so the budget is only touched every
+     * few hundred nodes.
+     */
+    static final class Budget {
+
+        /** Nodes charged so far. */
+        private final AtomicLong nodes = new AtomicLong();
+        /** Node budget, 0 for none. */
+        private final long nodeLimit;
+        /** System.nanoTime value at which all searches must stop, 0 for none. */
+        private final long deadline;
+        /** True once the budget ran out or the search was stopped. */
+        private volatile boolean stopped;
+
+        /**
+         * @param timeMillis time budget in milliseconds, 0 or less for none
+         * @param nodeLimit node budget, 0 or less for none
+         */
+        Budget(long timeMillis, long nodeLimit) {
+            this.nodeLimit = nodeLimit > 0 ? nodeLimit : 0;
+            this.deadline = timeMillis > 0 ? System.nanoTime() + timeMillis * 1000000L : 0;
+        }
+
+        /**
+         * @param count nodes searched since the last charge
+         * @return true if the searches must stop
+         */
+        boolean charge(long count) {
+            long total = nodes.addAndGet(count);
+            if ((nodeLimit > 0 && total >= nodeLimit) || (deadline != 0 && System.nanoTime() - deadline >= 0)) {
+                stopped = true;
+            }
+            return stopped;
+        }
+
+        /** Stop all searches sharing the budget. */
+        void stop() {
+            stopped = true;
+        }
+
+        /** @return true once the budget ran out or the search was stopped */
+        boolean isStopped() {
+            return stopped;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A headless runner for the fox hound program.
+ *
+ * It plays a number of games between two move selection strategies without any user
+ * interaction, spread over a pool of worker threads, and reports win rates, the
+ * average game length and the number of games played per second.
+ *
+ * Games follow the same rules as {@link FoxHoundGame}: the fox moves first, after every
+ * move the game ends if the fox reached the first row or can't move anymore, and
+ * a side without any legal move loses.
+ */
+public class FoxHoundSelfPlay {
+
+    /** Names of the strategies that can be selected on the command line. */
+    private static final String STRATEGIES = "random, greedy, search or mcts";
+
+    /**
+     * Creates a fresh strategy for a worker thread.
+     */
+    public interface StrategyFactory {
+        /**
+         * @param dim dimension of the board
+         * @param seed seed for strategies using random numbers
+         * @return a new strategy used by a single worker
+         */
+        FoxHoundStrategy create(int dim, long seed);
+    }
+
+    /**
+     * Totals of a batch of games.
+     */
+    public static class Result {
+        /** Number of games won by the fox. */
+        public final long foxWins;
+        /** Number of games won by the hounds. */
+        public final long houndWins;
+        /** Number of moves played in all games. */
+        public final long totalPlies;
+        /** Wall clock time of the batch in nanoseconds. */
+        public final long elapsedNanos;
+
+        /**
+         * @param foxWins number of games won by the fox
+         * @param houndWins number of games won by the hounds
+         * @param totalPlies number of moves played in all games
+         * @param elapsedNanos wall clock time of the batch in nanoseconds
+         */
+        public Result(long foxWins, long houndWins, long totalPlies, long elapsedNanos) {
+            this.foxWins = foxWins;
+            this.houndWins = houndWins;
+            this.totalPlies = totalPlies;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /** @return number of games played */
+        public long games() {
+            return foxWins + houndWins;
+        }
+
+        /** @return share of the games won by the fox */
+        public double foxWinRate() {
+            return games() == 0 ? 0 : (double) foxWins / games();
+        }
+
+        /** @return average number of moves per game */
+        public double averageLength() {
+            return games() == 0 ? 0 : (double) totalPlies / games();
+        }
+
+        /** @return games played per second of wall clock time */
+        public double gamesPerSecond() {
+            return elapsedNanos == 0 ? 0 : games() * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("games: %d%nfox wins: %d (%.1f%%)%nhound wins: %d (%.1f%%)%n"
+                            + "average length: %.1f moves%ngames per second: %.1f",
+                    games(), foxWins, 100 * foxWinRate(), houndWins, 100 * (1 - foxWinRate()),
+                    averageLength(), gamesPerSecond());
+        }
+    }
+
+    /**
+     * Play a batch of games.
+     *
+     * @param dim dimension of the board
+     * @param games number of games to play
+     * @param fox strategy factory of the fox
+     * @param hounds strategy factory of the hounds
+     * @param threads number of worker threads
+     * @param seed base seed, every worker derives its own seeds from it
+     * @return totals of all games
+     * @throws IllegalArgumentException if the dimension, game or thread count is invalid
+     */
+    public static Result run(int dim, int games, StrategyFactory fox, StrategyFactory hounds,
+                             int threads, long seed) {
+        if (dim < FoxHoundUtils.MIN_DIM || dim > FoxHoundUtils.MAX_DIM) {
+            throw new IllegalArgumentException("You must have a board dimension from 4 to 26");
+        }
+        if (games < 0 || threads < 1) {
+            throw new IllegalArgumentException("Game count must not be negative and at least one thread is needed");
+        }
+        int workers = Math.max(1, Math.min(threads, games));
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        long start = System.nanoTime();
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int worker = 0; worker < workers; worker++) {
+                // spread the games evenly, the first workers play one more if they don't divide
+                int workerGames = games / workers + (worker < games % workers ? 1 : 0);
+                long workerSeed = seed + worker * 0x9E3779B97F4A7C15L;
+                results.add(pool.submit(() -> playGames(dim, workerGames,
+                        fox.create(dim, workerSeed), hounds.create(dim, ~workerSeed))));
+            }
+            long[] totals = new long[3];
+            for (Future<long[]> result : results) {
+                long[] workerTotals = result.get();
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += workerTotals[i];
+                }
+            }
+            return new Result(totals[0], totals[1], totals[2], System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Self-play was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Self-play game failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Play games on the calling thread.
+     *
+     * @param dim dimension of the board
+     * @param games number of games to play
+     * @param fox strategy of the fox
+     * @param hounds strategy of the hounds
+     * @return fox wins, hound wins and total moves
+     */
+    private static long[] playGames(int dim, int games, FoxHoundStrategy fox, FoxHoundStrategy hounds) {
+        long[] totals = new long[3];
+        FoxHoundBitboard start = FoxHoundBitboard.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+        FoxHoundBitboard board = new FoxHoundBitboard(dim);
+        FoxHoundMoveGenerator generator = new FoxHoundMoveGenerator(dim);
+        int[] moves = new int[FoxHoundMoveGenerator.MAX_MOVES];
+        for (int game = 0; game < games; game++) {
+            board.copyFrom(start);
+            char winner = playGame(board, fox, hounds, generator, moves, totals);
+            totals[winner == FoxHoundUtils.FOX_FIELD ? 0 : 1]++;
+        }
+        return totals;
+    }
+
+    /**
+     * Play a single game to its end.
+     *
+     * @param board initial position, holds the final position afterwards
+     * @param fox strategy of the fox
+     * @param hounds strategy of the hounds
+     * @param generator move generator for the board's dimension
+     * @param moves move buffer
+     * @param totals totals whose move counter is increased for every move
+     * @return the winning figure
+     */
+    static char playGame(FoxHoundBitboard board, FoxHoundStrategy fox, FoxHoundStrategy hounds,
+                         FoxHoundMoveGenerator generator, int[] moves, long[] totals) {
+        // start each game with the Fox
+        char turn = FoxHoundUtils.FOX_FIELD;
+        while (true) {
+            int count = generator.generate(board, turn, moves);
+            if (count == 0) {
+                return FoxHoundSearch.opponent(turn);
+            }
+            FoxHoundStrategy strategy = turn == FoxHoundUtils.FOX_FIELD ? fox : hounds;
+            int move = strategy.selectMove(board, turn, moves, count);
+            if (!board.isValidMove(turn, FoxHoundMoveGenerator.from(move), FoxHoundMoveGenerator.to(move))) {
+                throw new IllegalStateException("Strategy selected an invalid move for " + turn);
+            }
+            board.move(FoxHoundMoveGenerator.from(move), FoxHoundMoveGenerator.to(move));
+            totals[2]++;
+            char winner = FoxHoundMoveGenerator.winner(board);
+            if (winner != FoxHoundMoveGenerator.NO_WINNER) {
+                return winner;
+            }
+            turn = FoxHoundSearch.opponent(turn);
+        }
+    }
+
+    /**
+     * Create the strategy factory selected by name.
+     *
+     * @param name random, greedy, search or mcts
+     * @param timeMillis time budget per move of the search and mcts strategies
+     * @return the factory
+     * @throws IllegalArgumentException if the name is unknown, or the strategy searches and the time budget isn't positive
+     */
+    static StrategyFactory strategy(String name, long timeMillis) {
+        return strategy(name, timeMillis, FoxHoundEvaluator.defaults());
+    }
+
+    /**
+     * Create the strategy factory selected by name, with the given static evaluation.
+     *
+     * @param name random, greedy, search or mcts
+     * @param timeMillis time budget per move of the search and mcts strategies
+     * @param evaluator static evaluation used by the greedy and search strategies
+     * @return the factory
+     * @throws IllegalArgumentException if the name is unknown, or the strategy searches and the time budget isn't positive
+     */
+    static StrategyFactory strategy(String name, long timeMillis, FoxHoundEvaluator evaluator) {
+        // checked here as the factories only run on the worker threads
+        if ((name.equals("search") || name.equals("mcts")) && timeMillis <= 0) {
+            throw new IllegalArgumentException("The " + name + " strategy needs a positive --time, got " + timeMillis);
+        }
+        switch (name) {
+            case "random":
+                return (dim, seed) -> FoxHoundStrategy.random(seed);
+            case "greedy":
+                return (dim, seed) -> FoxHoundStrategy.greedy(dim, evaluator);
+            case "search":
+                return (dim, seed) -> FoxHoundStrategy.search(dim, timeMillis, 0, evaluator);
+            case "mcts":
+                return (dim, seed) -> FoxHoundStrategy.mcts(dim, timeMillis, 0, seed);
+            default:
+                throw new IllegalArgumentException("Unknown strategy " + name + ", use " + STRATEGIES);
+        }
+    }
+
+    /**
+     * Entry method of the headless mode.
+     *
+     * Options are given as pairs of name and value, every option is optional:
+     * {@code --games 1000 --dim 8 --fox random --hounds search --threads 4 --time 10 --seed 1}
+     * The evaluation weights of each side can be read from a properties file with
+     * {@code --fox-weights file} and {@code --hounds-weights file}, see {@link FoxHoundEvaluator},
+     * to compare weights against each other.
+     *
+     * @param args command line options
+     */
+    public static void main(String[] args) {
+        int games = 1000;
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        String fox = "random";
+        String hounds = "random";
+        int threads = Runtime.getRuntime().availableProcessors();
+        long timeMillis = 10;
+        long seed = System.nanoTime();
+        FoxHoundEvaluator foxWeights = FoxHoundEvaluator.defaults();
+        FoxHoundEvaluator houndWeights = FoxHoundEvaluator.defaults();
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value of option " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--games": games = Integer.parseInt(value); break;
+                    case "--dim": dim = Integer.parseInt(value); break;
+                    case "--fox": fox = value; break;
+                    case "--hounds": hounds = value; break;
+                    case "--threads": threads = Integer.parseInt(value); break;
+                    case "--time": timeMillis = Long.parseLong(value); break;
+                    case "--seed": seed = Long.parseLong(value); break;
+                    case "--fox-weights": foxWeights = FoxHoundEvaluator.load(Paths.get(value)); break;
+                    case "--hounds-weights": houndWeights = FoxHoundEvaluator.load(Paths.get(value)); break;
+                    default: throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            Result result = run(dim, games, strategy(fox, timeMillis, foxWeights),
+                    strategy(hounds, timeMillis, houndWeights), threads, seed);
+            System.out.println(result);
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERROR: " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("ERROR: Reading weights failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,257 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A TCP server for the fox hound program hosting one independent game per connection.
+ *
+ * Connections speak the line based protocol of {@link FoxHoundSession}. Every connection
+ * is served by its own thread blocking on the socket. On Java 21 and later these are
+ * virtual threads, so idle sessions only cost a little heap; on older runtimes the server
+ * falls back to a pool of platform threads with small stacks. Games journaled by their
+ * sessions are committed in batches by a single {@link FoxHoundJournalCommitter}.
+ */
+public class FoxHoundServer implements Closeable {
+
+    /** Default port of the server. */
+    public static final int DEFAULT_PORT = 4848;
+    /** Longest request line accepted from a client, in bytes. */
+    public static final int MAX_LINE = 256;
+
+    /** Maximum number of pending connections waiting to be accepted. */
+    private static final int BACKLOG = 1024;
+    /** Stack size of session threads when there are no virtual threads. */
+    private static final long PLATFORM_STACK_BYTES = 256 * 1024;
+
+    /** Dimension of the boards of all sessions. */
+    private final int dim;
+    /** Directory the sessions keep their save files in. */
+    private final Path saveDir;
+    /** Socket accepting new connections. */
+    private final ServerSocket serverSocket;
+    /** Executor running one task per connection. */
+    private final ExecutorService sessions;
+    /** Connections currently open, closed when the server stops. */
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    /** Number of sessions currently running. */
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    /** Committer writing out the journals of all sessions in batches. */
+    private final FoxHoundJournalCommitter committer;
+
+    /**
+     * Bind the server to a port on all local addresses.
+     * Connections are only accepted after {@link #start()}.
+     *
+     * @param port port to listen on, 0 for any free port
+     * @param dim dimension of the boards of all sessions
+     * @param saveDir directory the sessions keep their save files in, created if missing
+     * @throws IOException if the port can't be bound or the directory can't be created
+     * @throws IllegalArgumentException if the dimension is invalid
+     */
+    public FoxHoundServer(int port, int dim, Path saveDir) throws IOException {
+        this(new InetSocketAddress(port), dim, saveDir);
+    }
+
+    /**
+     * Bind the server to a socket address.
+     * Connections are only accepted after {@link #start()}.
+     *
+     * @param address address to listen on
+     * @param dim dimension of the boards of all sessions
+     * @param saveDir directory the sessions keep their save files in, created if missing
+     * @throws IOException if the address can't be bound or the directory can't be created
+     * @throws IllegalArgumentException if the dimension is invalid
+     */
+    public FoxHoundServer(InetSocketAddress address, int dim, Path saveDir) throws IOException {
+        if (dim < FoxHoundUtils.MIN_DIM || dim > FoxHoundUtils.MAX_DIM) {
+            throw new IllegalArgumentException("You must have a board dimension from 4 to 26");
+        }
+        this.dim = dim;
+        this.saveDir = Files.createDirectories(saveDir).toAbsolutePath().normalize();
+        this.serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(address, BACKLOG);
+        this.sessions = newSessionExecutor();
+        this.committer = new FoxHoundJournalCommitter();
+    }
+
+    /**
+     * Create an executor starting a new thread for every task, virtual if the runtime supports them.
+     *
+     * @return the executor
+     */
+    static ExecutorService newSessionExecutor() {
+        try {
+            // looked up reflectively so the program still builds and runs on Java 17
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(null, task, "foxhound-session-" + count.incrementAndGet(),
+                        PLATFORM_STACK_BYTES);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Start accepting connections on a background thread.
+     */
+    public void start() {
+        Thread acceptor = new Thread(this::acceptLoop, "foxhound-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /** @return port the server listens on */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** @return number of sessions currently running */
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    /**
+     * Stop accepting connections and end all running sessions.
+     *
+     * @throws IOException if the server socket can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket socket : connections) {
+            closeQuietly(socket);
+        }
+        sessions.shutdownNow();
+        committer.close();
+    }
+
+    /**
+     * Accept connections until the server socket is closed.
+     */
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.add(socket);
+                activeSessions.incrementAndGet();
+                sessions.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("ERROR: Accepting connection failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Run the session of a single connection until the client leaves.
+     *
+     * @param socket the connection
+     */
+    private void serve(Socket socket) {
+        try (socket; FoxHoundSession session = new FoxHoundSession(dim, saveDir, committer)) {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            PrintStream out = new PrintStream(new BufferedOutputStream(socket.getOutputStream()),
+                    false, StandardCharsets.UTF_8);
+            out.println(session.greeting());
+            out.flush();
+            boolean open = true;
+            byte[] buffer = new byte[MAX_LINE];
+            while (open) {
+                String line = readLine(in, buffer);
+                if (line == null) {
+                    break;
+                }
+                open = session.execute(line, out);
+                out.flush();
+            }
+        } catch (IOException e) {
+            // the client went away, nothing left to answer
+        } finally {
+            connections.remove(socket);
+            activeSessions.decrementAndGet();
+        }
+    }
+
+    /**
+     * Read a request line without its terminator.
+     *
+     * @param in stream of the connection
+     * @param buffer buffer of {@value FoxHoundServer#MAX_LINE} bytes
+     * @return the line or null if the stream has ended
+     * @throws IOException if reading fails or the line is too long
+     */
+    private static String readLine(InputStream in, byte[] buffer) throws IOException {
+        int length = 0;
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b == -1) {
+                return length == 0 ? null : new String(buffer, 0, length, StandardCharsets.UTF_8);
+            }
+            if (length == buffer.length) {
+                throw new IOException("Request line too long");
+            }
+            buffer[length++] = (byte) b;
+        }
+        if (length > 0 && buffer[length - 1] == '\r') {
+            length--;
+        }
+        return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param socket socket to close, errors are ignored
+     */
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // already closed
+        }
+    }
+
+    /**
+     * Entry method of the server mode.
+     *
+     * Arguments are optional: {@code [port [dimension [save directory]]]}, by default
+     * port {@value FoxHoundServer#DEFAULT_PORT}, dimension {@value FoxHoundUtils#DEFAULT_DIM}
+     * and the directory "saves" on the loopback address only.
+     *
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        try {
+            int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+            int dim = args.length > 1 ? Integer.parseInt(args[1]) : FoxHoundUtils.DEFAULT_DIM;
+            Path saveDir = Paths.get(args.length > 2 ? args[2] : "saves");
+            FoxHoundServer server = new FoxHoundServer(
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), port), dim, saveDir);
+            System.out.println("Listening on port " + server.getPort());
+            // serve on the main thread, the background threads don't keep the program running
+            server.acceptLoop();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("ERROR: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,376 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * A single game played over a text protocol, used by {@link FoxHoundServer}.
+ *
+ * Every request is one line holding a command and its arguments separated by spaces,
+ * mirroring the entries of the main menu:
+ * <pre>
+ * MOVE origin dest   play a move of the figure to move, e.g. MOVE E8 D7
+ * SAVE name          save the game in the server's save directory
+ * LOAD name          replace the game with a saved one
+ * UNDO               take back the last move
+ * REDO               play the last move taken back again
+ * JOURNAL name       journal every change of the game, resuming the journaled game if the file exists,
+ *                    refused while another session journals the file
+ * BOARD              print the board
+ * DIFF [ANSI|DELTA] [lines]
+ *                    print the squares changed since the last DIFF, as a DELTA line by default,
+ *                    ANSI for a terminal of the given height, {@value FoxHoundDiffRenderer#DEFAULT_SCREEN_LINES} lines by default
+ * EXIT               end the session
+ * </pre>
+ * Every response ends with a single status line: {@code OK turn} with the figure to move
+ * next, {@code WIN figure} once a move has ended the game, {@code ERROR message} if the
+ * request was rejected, or {@code BYE} when the session ends. BOARD prints the board before
+ * its status line. The first DIFF, and the first after switching its mode, prints the whole
+ * board instead of the changes, see {@link FoxHoundDiffRenderer}. ANSI updates assume the
+ * client's terminal shows every request and every line of the responses below the frame.
+ */
+public class FoxHoundSession implements Closeable {
+
+    /** Status of an accepted request. */
+    public static final String OK = "OK";
+    /** Status of a move which ended the game. */
+    public static final String WIN = "WIN";
+    /** Status of a rejected request. */
+    public static final String ERROR = "ERROR";
+    /** Status of the end of a session. */
+    public static final String BYE = "BYE";
+
+    /** Names that can be used for save files: no separators and no leading dot. */
+    private static final Pattern SAVE_NAME = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9_.-]{0,63}");
+
+    /** Current game, replaced when a journaled game is resumed. */
+    private FoxHoundGameState state;
+    /** Directory all save files of the session are kept in. */
+    private final Path saveDir;
+    /** Committer shared by the journals of all sessions, null if journaling isn't enabled. */
+    private final FoxHoundJournalCommitter committer;
+    /** Journal of the game, null until JOURNAL. */
+    private FoxHoundJournal journal;
+    /** True once a figure has won the game. */
+    private boolean over;
+    /** Renderer of the changes sent by DIFF, null until the first DIFF. */
+    private FoxHoundDiffRenderer diff;
+
+    /**
+     * Start a new game.
+     *
+     * @param dim dimension of the board
+     * @param saveDir directory all save files of the session are kept in
+     * @throws IllegalArgumentException if the dimension is invalid
+     */
+    public FoxHoundSession(int dim, Path saveDir) {
+        this(dim, saveDir, null);
+    }
+
+    /**
+     * Start a new game which can be journaled.
+     *
+     * @param dim dimension of the board
+     * @param saveDir directory all save files and journals of the session are kept in
+     * @param committer committer shared by the journals of all sessions, null to disable JOURNAL
+     * @throws IllegalArgumentException if the dimension is invalid
+     */
+    public FoxHoundSession(int dim, Path saveDir, FoxHoundJournalCommitter committer) {
+        // start each game with the Fox
+        this.state = new FoxHoundGameState(dim, FoxHoundUtils.initialisePositions(dim), FoxHoundUtils.FOX_FIELD);
+        this.saveDir = saveDir;
+        this.committer = committer;
+    }
+
+    /** @return current game */
+    public FoxHoundGameState getState() {
+        return state;
+    }
+
+    /** @return the line sent to a client when the session starts */
+    public String greeting() {
+        return "HELLO " + state.getDim() + " " + state.getTurn();
+    }
+
+    /**
+     * Execute a single request.
+     *
+     * @param line request line without its line terminator
+     * @param out stream the response is printed to
+     * @return false if the session has ended
+     */
+    public boolean execute(String line, PrintStream out) {
+        // the client's terminal shows the request on a line of its own
+        if (diff != null) {
+            diff.linesWritten(1);
+        }
+        boolean open = dispatch(line.trim().split("\\s+"), out);
+        // and every response ends with a status line
+        if (diff != null) {
+            diff.linesWritten(1);
+        }
+        return open;
+    }
+
+    /**
+     * @param args command and arguments of a request
+     * @param out stream the response is printed to
+     * @return false if the session has ended
+     */
+    private boolean dispatch(String[] args, PrintStream out) {
+        switch (args[0].toUpperCase(Locale.ROOT)) {
+            case "MOVE":
+                out.println(args.length == 3 ? move(args[1], args[2]) : ERROR + " Usage: MOVE origin dest");
+                return true;
+            case "SAVE":
+                out.println(args.length == 2 ? save(args[1]) : ERROR + " Usage: SAVE name");
+                return true;
+            case "LOAD":
+                out.println(args.length == 2 ? load(args[1]) : ERROR + " Usage: LOAD name");
+                return true;
+            case "UNDO":
+                out.println(undo());
+                return true;
+            case "REDO":
+                out.println(redo());
+                return true;
+            case "JOURNAL":
+                out.println(args.length == 2 ? journal(args[1]) : ERROR + " Usage: JOURNAL name");
+                return true;
+            case "BOARD":
+                FoxHoundUI.fancyDisplayBoard(state.getPlayers(), state.getDim(), out);
+                if (diff != null) {
+                    diff.linesWritten(FoxHoundRenderer.fancy(state.getDim()).lineCount());
+                }
+                out.println(status());
+                return true;
+            case "DIFF":
+                out.println(args.length <= 3 ? diff(args.length >= 2 ? args[1] : null,
+                        args.length == 3 ? args[2] : null, out) : ERROR + " Usage: DIFF [ANSI|DELTA] [lines]");
+                return true;
+            case "EXIT":
+                out.println(BYE);
+                return false;
+            default:
+                out.println(ERROR + " Unknown command: " + args[0]);
+                return true;
+        }
+    }
+
+    /**
+     * @param origin the coordinate of the piece being commanded to move
+     * @param dest the coordinate which the piece would be moved to
+     * @return status line
+     */
+    private String move(String origin, String dest) {
+        if (over) {
+            return ERROR + " The game is over";
+        }
+        origin = origin.toUpperCase(Locale.ROOT);
+        dest = dest.toUpperCase(Locale.ROOT);
+        if (!state.isValidMove(origin, dest)) {
+            return ERROR + " Invalid move: " + origin + " " + dest;
+        }
+        state.makeMove(origin, dest);
+        if (journal != null) {
+            journal.recordMove(state.getLastMove());
+        }
+        return status();
+    }
+
+    /**
+     * @return status line
+     */
+    private String undo() {
+        if (!state.undo()) {
+            return ERROR + " No move to take back";
+        }
+        if (journal != null) {
+            journal.recordUndo();
+        }
+        return status();
+    }
+
+    /**
+     * @return status line
+     */
+    private String redo() {
+        if (!state.redo()) {
+            return ERROR + " No move to play again";
+        }
+        if (journal != null) {
+            journal.recordRedo();
+        }
+        return status();
+    }
+
+    /**
+     * @param name name of the journal file
+     * @return status line
+     */
+    private String journal(String name) {
+        if (committer == null) {
+            return ERROR + " Journaling isn't enabled";
+        }
+        Path file = resolve(name);
+        if (file == null) {
+            return ERROR + " Invalid file name: " + name;
+        }
+        try {
+            boolean current = journal != null && journal.getFile().equals(FoxHoundJournal.canonical(file));
+            if (!current && FoxHoundJournal.isOpen(file)) {
+                return ERROR + " Journal is in use: " + name;
+            }
+            if (journal != null) {
+                // the file may be the current journal, whose last entries have to be on disk first
+                journal.sync();
+            }
+            FoxHoundGameState game = state;
+            if (Files.exists(file)) {
+                game = FoxHoundJournal.recover(file);
+                if (game.getDim() != state.getDim()) {
+                    return ERROR + " The journal holds a game of dimension " + game.getDim();
+                }
+            }
+            close();
+            journal = new FoxHoundJournal(file, game, committer);
+            state = game;
+        } catch (IOException | IllegalArgumentException e) {
+            return ERROR + " " + e.getMessage();
+        }
+        return status();
+    }
+
+    /**
+     * @param modeName mode of the changes or null to keep the current one
+     * @param linesText height of the client's terminal or null to keep the current one
+     * @param out stream the changes are printed to
+     * @return status line
+     */
+    private String diff(String modeName, String linesText, PrintStream out) {
+        FoxHoundDiffRenderer.Mode mode = diff == null ? FoxHoundDiffRenderer.Mode.DELTA : diff.getMode();
+        if (modeName != null) {
+            try {
+                mode = FoxHoundDiffRenderer.Mode.valueOf(modeName.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return ERROR + " Unknown mode: " + modeName;
+            }
+        }
+        int lines = diff == null ? FoxHoundDiffRenderer.DEFAULT_SCREEN_LINES : diff.getScreenLines();
+        if (linesText != null) {
+            try {
+                lines = Integer.parseInt(linesText);
+            } catch (NumberFormatException e) {
+                lines = 0;
+            }
+            if (lines < 1) {
+                return ERROR + " Invalid screen height: " + linesText;
+            }
+        }
+        if (diff == null || diff.getMode() != mode || diff.getScreenLines() != lines) {
+            diff = new FoxHoundDiffRenderer(FoxHoundRenderer.fancy(state.getDim()), mode, lines);
+        }
+        try {
+            diff.render(state.getPlayers(), out);
+        } catch (IOException e) {
+            // a PrintStream never throws, it only sets its error flag
+            return ERROR + " " + e.getMessage();
+        }
+        return status();
+    }
+
+    /**
+     * @param name name of the save file
+     * @return status line
+     */
+    private String save(String name) {
+        Path file = resolve(name);
+        if (file == null) {
+            return ERROR + " Invalid file name: " + name;
+        }
+        try {
+            if (!FoxHoundIO.saveGame(state.getPlayers(), state.getTurn(), state.getDim(), file)) {
+                return ERROR + " Saving file failed";
+            }
+        } catch (IllegalArgumentException e) {
+            return ERROR + " " + e.getMessage();
+        }
+        return status();
+    }
+
+    /**
+     * @param name name of the save file
+     * @return status line
+     */
+    private String load(String name) {
+        Path file = resolve(name);
+        if (file == null) {
+            return ERROR + " Invalid file name: " + name;
+        }
+        try {
+            String[] players = state.getPlayers();
+            char turn = FoxHoundIO.loadGame(players, state.getDim(), file);
+            if (turn == FoxHoundIO.ERROR_CHAR) {
+                return ERROR + " Loading from file failed";
+            }
+            state.setPosition(players, turn);
+        } catch (IllegalArgumentException e) {
+            return ERROR + " " + e.getMessage();
+        }
+        if (journal != null) {
+            journal.recordPosition(state);
+        }
+        return status();
+    }
+
+    /**
+     * End the session, writing out and closing its journal.
+     *
+     * @throws IOException if the journal can't be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (journal != null) {
+            FoxHoundJournal closing = journal;
+            journal = null;
+            closing.close();
+        }
+    }
+
+    /**
+     * @return status line of the current game, marking it as over while a figure has won
+     */
+    private String status() {
+        char winner = state.getWinner();
+        // taking back the winning move reopens the game
+        over = winner != FoxHoundMoveGenerator.NO_WINNER;
+        if (over) {
+            return WIN + " " + winner;
+        }
+        return OK + " " + state.getTurn();
+    }
+
+    /**
+     * Confine a save file name to the save directory.
+     *
+     * @param name name of the save file given by the client
+     * @return path of the file or null if the name isn't allowed
+     */
+    static Path resolve(Path saveDir, String name) {
+        if (!SAVE_NAME.matcher(name).matches()) {
+            return null;
+        }
+        return saveDir.resolve(name);
+    }
+
+    /**
+     * @param name name of the save file given by the client
+     * @return path of the file in this session's save directory or null if the name isn't allowed
+     */
+    private Path resolve(String name) {
+        return resolve(saveDir, name);
+    }
+}
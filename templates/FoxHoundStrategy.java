@@ -0,0 +1,107 @@
+import java.util.SplittableRandom;
+
+/**
+ * A move selection strategy for the fox hound program, used to let the computer play
+ * either side of a game. A strategy may keep state between moves and is only ever
+ * used by one thread at a time.
+ */
+public interface FoxHoundStrategy {
+
+    /** Tree size in megabytes of the Monte Carlo strategy, small as self-play runs one per thread. */
+    int MCTS_MEGABYTES = 16;
+
+    /**
+     * Select the move to play.
+     *
+     * @param board current position, must be unchanged when the method returns
+     * @param turn the figure to move
+     * @param moves all legal packed moves of the figure
+     * @param count number of legal moves, at least one
+     * @return the selected packed move
+     */
+    int selectMove(FoxHoundBitboard board, char turn, int[] moves, int count);
+
+    /**
+     * A strategy playing uniformly random legal moves.
+     *
+     * @param seed seed of the random generator, so games can be repeated
+     * @return the strategy
+     */
+    static FoxHoundStrategy random(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        return (board, turn, moves, count) -> moves[random.nextInt(count)];
+    }
+
+    /**
+     * A strategy playing the move with the best static evaluation one ply ahead.
+     *
+     * @param dim dimension of the board
+     * @return the strategy
+     */
+    static FoxHoundStrategy greedy(int dim) {
+        return greedy(dim, FoxHoundEvaluator.defaults());
+    }
+
+    /**
+     * A strategy playing the move with the best static evaluation one ply ahead.
+     *
+     * @param dim dimension of the board
+     * @param evaluator static evaluation of the positions
+     * @return the strategy
+     */
+    static FoxHoundStrategy greedy(int dim, FoxHoundEvaluator evaluator) {
+        FoxHoundSearch search = new FoxHoundSearch(dim, new FoxHoundTranspositionTable(1), evaluator);
+        search.setMaxDepth(1);
+        return (board, turn, moves, count) -> search.search(board, turn, 0, 0);
+    }
+
+    /**
+     * A strategy playing the move found by an alpha-beta search.
+     *
+     * @param dim dimension of the board
+     * @param timeMillis time budget per move in milliseconds, 0 or less for none
+     * @param nodeLimit node budget per move, 0 or less for none
+     * @return the strategy
+     * @throws IllegalArgumentException if there is neither a time nor a node budget
+     */
+    static FoxHoundStrategy search(int dim, long timeMillis, long nodeLimit) {
+        return search(dim, timeMillis, nodeLimit, FoxHoundEvaluator.defaults());
+    }
+
+    /**
+     * A strategy playing the move found by an alpha-beta search with the given static evaluation.
+     *
+     * @param dim dimension of the board
+     * @param timeMillis time budget per move in milliseconds, 0 or less for none
+     * @param nodeLimit node budget per move, 0 or less for none
+     * @param evaluator static evaluation of the positions at the end of the search
+     * @return the strategy
+     * @throws IllegalArgumentException if there is neither a time nor a node budget
+     */
+    static FoxHoundStrategy search(int dim, long timeMillis, long nodeLimit, FoxHoundEvaluator evaluator) {
+        // without a budget every move would be searched to the maximum depth
+        if (timeMillis <= 0 && nodeLimit <= 0) {
+            throw new IllegalArgumentException("An alpha-beta search needs a time or node budget");
+        }
+        FoxHoundSearch search = new FoxHoundSearch(dim, new FoxHoundTranspositionTable(), evaluator);
+        return (board, turn, moves, count) -> search.search(board, turn, timeMillis, nodeLimit);
+    }
+
+    /**
+     * A strategy playing the move found by a single threaded Monte Carlo tree search.
+     *
+     * @param dim dimension of the board
+     * @param timeMillis time budget per move in milliseconds, 0 or less for none
+     * @param playoutLimit playout budget per move, 0 or less for none
+     * @param seed seed of the playouts, so games can be repeated with a playout budget
+     * @return the strategy
+     * @throws IllegalArgumentException if there is neither a time nor a playout budget
+     */
+    static FoxHoundStrategy mcts(int dim, long timeMillis, long playoutLimit, long seed) {
+        if (timeMillis <= 0 && playoutLimit <= 0) {
+            throw new IllegalArgumentException("A Monte Carlo search needs a time or playout budget");
+        }
+        FoxHoundMcts search = new FoxHoundMcts(dim, 1, MCTS_MEGABYTES, seed);
+        return (board, turn, moves, count) -> search.search(board, turn, timeMillis, playoutLimit);
+    }
+}
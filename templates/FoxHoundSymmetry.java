@@ -0,0 +1,121 @@
+/**
+ * A utility class for the fox hound program.
+ *
+ * The rules are the same on a board mirrored left to right: every piece keeps its row and
+ * moves diagonally in both directions, and the fox's goal is the whole first row. A position
+ * and its mirror image therefore have the same game value, and the best move of one is the
+ * mirrored best move of the other. Caches of positions only need to keep one of every pair,
+ * the canonical one, and mirror moves into and out of it.
+ *
+ * The canonical form of a position is the one of the pair with the smaller piece hash, see
+ * {@link FoxHoundBitboard#getMirrorHash()}, so choosing it costs no more than a comparison.
+ * Symmetric positions are their own mirror and never flipped.
+ *
+ * Mirroring keeps the pieces on the colour of squares they started on only on boards of an
+ * odd dimension. On even boards the mirror of a position of {@link FoxHoundUtils#initialisePositions(int)}
+ * stands on the other colour, which is why tables indexing only one colour, like
+ * {@link FoxHoundTablebase}, can only fold mirrored positions together on odd boards.
+ */
+public class FoxHoundSymmetry {
+
+    /**
+     * @param square square index
+     * @param dim dimension of the board
+     * @return the square in the same row and the mirrored column
+     */
+    public static int mirror(int square, int dim) {
+        return square + dim - 1 - 2 * (square % dim);
+    }
+
+    /**
+     * @param move packed move or {@value FoxHoundSearch#NO_MOVE}
+     * @param dim dimension of the board
+     * @return the mirrored move or {@value FoxHoundSearch#NO_MOVE}
+     */
+    public static int mirrorMove(int move, int dim) {
+        if (move == FoxHoundSearch.NO_MOVE) {
+            return move;
+        }
+        return FoxHoundMoveGenerator.pack(mirror(FoxHoundMoveGenerator.from(move), dim),
+                mirror(FoxHoundMoveGenerator.to(move), dim));
+    }
+
+    /**
+     * @param dim dimension of the board
+     * @return true if mirrored pieces stay on squares of the same colour
+     */
+    public static boolean keepsColour(int dim) {
+        return dim % 2 == 1;
+    }
+
+    /**
+     * @param board current position
+     * @return true if the canonical form of the position is its mirror image
+     */
+    public static boolean isFlipped(FoxHoundBitboard board) {
+        return board.getMirrorHash() < board.getHash();
+    }
+
+    /**
+     * Hash of the canonical form of a position, equal for a position and its mirror image.
+     *
+     * @param board current position
+     * @param turn the figure to move
+     * @return Zobrist hash of the canonical position including the side to move
+     */
+    public static long canonicalHash(FoxHoundBitboard board, char turn) {
+        return Math.min(board.getHash(), board.getMirrorHash()) ^ FoxHoundZobrist.turnKey(turn);
+    }
+
+    /**
+     * Convert a move between a position and its canonical form, in either direction.
+     *
+     * @param board current position
+     * @param move packed move in the position or in its canonical form
+     * @return the move in the other form
+     */
+    public static int orient(FoxHoundBitboard board, int move) {
+        return isFlipped(board) ? mirrorMove(move, board.getDim()) : move;
+    }
+
+    /**
+     * Write the mirror image of a board into another board.
+     *
+     * @param board position to mirror
+     * @param target board of the same dimension receiving the mirror image
+     * @return the target board
+     * @throws IllegalArgumentException if the dimensions differ
+     */
+    public static FoxHoundBitboard mirror(FoxHoundBitboard board, FoxHoundBitboard target) {
+        int dim = board.getDim();
+        if (target.getDim() != dim) {
+            throw new IllegalArgumentException("Boards must have the same dimension");
+        }
+        if (target == board) {
+            board = board.copy();
+        }
+        target.clear();
+        for (int square = board.nextHound(0); square != FoxHoundBitboard.NO_SQUARE;
+             square = board.nextHound(square + 1)) {
+            target.addHound(mirror(square, dim));
+        }
+        if (board.getFox() != FoxHoundBitboard.NO_SQUARE) {
+            target.setFox(mirror(board.getFox(), dim));
+        }
+        return target;
+    }
+
+    /**
+     * Replace a position by its canonical form.
+     *
+     * @param board position, mirrored in place if needed
+     * @return true if the board was mirrored, moves found on it must then be mirrored back
+     */
+    public static boolean canonicalize(FoxHoundBitboard board) {
+        if (!isFlipped(board)) {
+            return false;
+        }
+        mirror(board, board);
+        return true;
+    }
+}
@@ -0,0 +1,370 @@
+import java.nio.ByteBuffer;
+
+/**
+ * The layout of a solved position file (tablebase) for the fox hound program.
+ *
+ * All pieces of a game stay on the squares whose coordinates add up to an odd number,
+ * the playable squares. A position is ranked into a single index made of the
+ * combination of playable squares holding the hounds, the playable square of the fox
+ * and the side to move. The file stores one byte per index holding the game theoretic
+ * value for the side to move together with the number of plies until the game ends.
+ *
+ * File layout, all numbers big endian:
+ * <pre>
+ * int magic  int version  int dim  int hounds  int squares  long entries  int reserved
+ * byte[entries] values
+ * </pre>
+ */
+public class FoxHoundTablebase {
+
+    /** Magic number at the start of every tablebase file, "FHTB" in ASCII. */
+    public static final int MAGIC = 0x46485442;
+    /** Current version of the file format. */
+    public static final int VERSION = 1;
+    /** Size of the file header in bytes. */
+    public static final int HEADER_BYTES = 32;
+    /** Value of an index that doesn't belong to a legal position. */
+    public static final byte UNKNOWN = 0;
+    /** Largest distance in plies that fits into a value byte. */
+    public static final int MAX_DISTANCE = Byte.MAX_VALUE - 1;
+
+    /** Side index of the fox being the side to move. */
+    private static final int FOX_TURN = 0;
+    /** Side index of the hounds being the side to move. */
+    private static final int HOUND_TURN = 1;
+
+    /** Dimension of the board. */
+    private final int dim;
+    /** Number of hounds. */
+    private final int hounds;
+    /** Number of playable squares. */
+    private final int squares;
+    /** Number of hound square combinations. */
+    private final long combinations;
+    /** Number of values in the file. */
+    private final long entries;
+    /** Board square of every playable square. */
+    private final int[] playable;
+    /** Playable square of every board square, -1 for the other squares. */
+    private final int[] playableIndex;
+    /** Playable square of the mirror image of every playable square, null on even boards. */
+    private final int[] mirrorIndex;
+    /** Binomial coefficients {@code binomial[n][k]} used for ranking the hound combinations. */
+    private final long[][] binomial;
+
+    /**
+     * Create the layout for a board of the given dimension with
+     * the number of hounds used by {@link FoxHoundUtils#initialisePositions(int)}.
+     *
+     * @param dim dimension of the board
+     * @throws IllegalArgumentException if the dimension is invalid or has more positions than can be indexed
+     */
+    public FoxHoundTablebase(int dim) {
+        if (dim < FoxHoundUtils.MIN_DIM || dim > FoxHoundUtils.MAX_DIM) {
+            throw new IllegalArgumentException("You must have a board dimension from 4 to 26");
+        }
+        this.dim = dim;
+        this.hounds = dim / 2;
+        this.playable = new int[dim * dim / 2];
+        this.playableIndex = new int[dim * dim];
+        int count = 0;
+        for (int square = 0; square < dim * dim; square++) {
+            playableIndex[square] = -1;
+            if (isPlayable(square, dim)) {
+                playableIndex[square] = count;
+                playable[count++] = square;
+            }
+        }
+        this.squares = count;
+        if (FoxHoundSymmetry.keepsColour(dim)) {
+            this.mirrorIndex = new int[squares];
+            for (int i = 0; i < squares; i++) {
+                mirrorIndex[i] = playableIndex[FoxHoundSymmetry.mirror(playable[i], dim)];
+            }
+        } else {
+            this.mirrorIndex = null;
+        }
+        this.binomial = new long[squares + 1][hounds + 2];
+        try {
+            for (int n = 0; n <= squares; n++) {
+                binomial[n][0] = 1;
+                for (int k = 1; k <= hounds + 1 && k <= n; k++) {
+                    binomial[n][k] = Math.addExact(binomial[n - 1][k - 1], binomial[n - 1][k]);
+                }
+            }
+            this.combinations = binomial[squares][hounds];
+            this.entries = Math.multiplyExact(Math.multiplyExact(combinations, squares), 2L);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Too many positions to index for dimension " + dim, e);
+        }
+    }
+
+    /**
+     * @param square square index
+     * @param dim dimension of the board
+     * @return true if pieces of a game starting from the initial positions can stand on the square
+     */
+    public static boolean isPlayable(int square, int dim) {
+        return ((square % dim) + (square / dim)) % 2 == 1;
+    }
+
+    /** @return dimension of the board */
+    public int getDim() {
+        return dim;
+    }
+
+    /** @return number of hounds */
+    public int getHounds() {
+        return hounds;
+    }
+
+    /** @return number of playable squares */
+    public int getSquares() {
+        return squares;
+    }
+
+    /** @return number of hound square combinations */
+    public long getCombinations() {
+        return combinations;
+    }
+
+    /** @return number of values in the file */
+    public long getEntries() {
+        return entries;
+    }
+
+    /**
+     * @param index playable square index
+     * @return board square of the playable square
+     */
+    public int square(int index) {
+        return playable[index];
+    }
+
+    /**
+     * @param square board square
+     * @return playable square index or -1 if the square isn't playable
+     */
+    public int playableIndex(int square) {
+        return playableIndex[square];
+    }
+
+    /**
+     * @return true if the mirror image of every playable square is playable, see {@link FoxHoundSymmetry#keepsColour(int)}
+     */
+    public boolean hasMirror() {
+        return mirrorIndex != null;
+    }
+
+    /**
+     * @param index playable square index
+     * @return playable square index of the mirror image
+     * @throws IllegalStateException if mirrored squares aren't playable on this board
+     */
+    public int mirror(int index) {
+        if (mirrorIndex == null) {
+            throw new IllegalStateException("Mirrored squares aren't playable on a board of dimension " + dim);
+        }
+        return mirrorIndex[index];
+    }
+
+    /**
+     * Rank the mirror image of a combination of playable squares.
+     *
+     * @param combination ascending playable square indexes of the hounds
+     * @param mirrored scratch array of the same length receiving the mirrored combination
+     * @return rank of the mirrored combination
+     * @throws IllegalStateException if mirrored squares aren't playable on this board
+     */
+    public long mirrorRank(int[] combination, int[] mirrored) {
+        for (int i = 0; i < hounds; i++) {
+            // mirroring keeps the rows, so only hounds sharing a row can get out of order
+            int square = mirror(combination[i]);
+            int j = i;
+            while (j > 0 && mirrored[j - 1] > square) {
+                mirrored[j] = mirrored[j - 1];
+                j--;
+            }
+            mirrored[j] = square;
+        }
+        return rank(mirrored);
+    }
+
+    /**
+     * Rank a combination of playable squares in colexicographic order. Moving any hound
+     * forward always produces a combination with a higher rank.
+     *
+     * @param combination ascending playable square indexes of the hounds
+     * @return rank of the combination
+     */
+    public long rank(int[] combination) {
+        long rank = 0;
+        for (int i = 0; i < hounds; i++) {
+            rank += binomial[combination[i]][i + 1];
+        }
+        return rank;
+    }
+
+    /**
+     * Turn a rank back into its combination.
+     *
+     * @param rank rank of the combination
+     * @param combination array receiving the ascending playable square indexes of the hounds
+     */
+    public void unrank(long rank, int[] combination) {
+        int n = squares;
+        for (int i = hounds - 1; i >= 0; i--) {
+            n--;
+            while (binomial[n][i + 1] > rank) {
+                n--;
+            }
+            combination[i] = n;
+            rank -= binomial[n][i + 1];
+        }
+    }
+
+    /**
+     * @param rank rank of the hound combination
+     * @param fox playable square index of the fox
+     * @param turn the figure to move
+     * @return index of the position's value
+     */
+    public long index(long rank, int fox, char turn) {
+        return (rank * squares + fox) * 2 + (turn == FoxHoundUtils.FOX_FIELD ? FOX_TURN : HOUND_TURN);
+    }
+
+    /**
+     * Rank a position on a board without creating any objects.
+     *
+     * @param board current position
+     * @param turn the figure to move
+     * @return index of the position's value or -1 if the position isn't covered by the table
+     */
+    public long index(FoxHoundBitboard board, char turn) {
+        if (board.getDim() != dim || board.getHoundCount() != hounds || board.getFox() == FoxHoundBitboard.NO_SQUARE) {
+            return -1;
+        }
+        int fox = playableIndex[board.getFox()];
+        if (fox < 0) {
+            return -1;
+        }
+        int i = 0;
+        long rank = 0;
+        // board squares and playable indexes share their order, so the hounds come out sorted
+        for (int square = board.nextHound(0); square != FoxHoundBitboard.NO_SQUARE;
+             square = board.nextHound(square + 1)) {
+            int index = playableIndex[square];
+            if (index < 0) {
+                return -1;
+            }
+            rank += binomial[index][++i];
+        }
+        return index(rank, fox, turn);
+    }
+
+    /**
+     * Rank the mirror image of a position without creating any objects. On even boards this
+     * covers the positions standing on the other colour, whose mirror images are in the table.
+     *
+     * @param board current position
+     * @param turn the figure to move
+     * @return index of the mirrored position's value or -1 if it isn't covered by the table
+     */
+    public long mirroredIndex(FoxHoundBitboard board, char turn) {
+        if (board.getDim() != dim || board.getHoundCount() != hounds || board.getFox() == FoxHoundBitboard.NO_SQUARE) {
+            return -1;
+        }
+        int fox = playableIndex[FoxHoundSymmetry.mirror(board.getFox(), dim)];
+        if (fox < 0) {
+            return -1;
+        }
+        long rank = 0;
+        for (int square = board.nextHound(0); square != FoxHoundBitboard.NO_SQUARE;
+             square = board.nextHound(square + 1)) {
+            int index = playableIndex[FoxHoundSymmetry.mirror(square, dim)];
+            if (index < 0) {
+                return -1;
+            }
+            // mirroring reorders the hounds of a row, count the ones now sorting before this one
+            int before = 0;
+            for (int other = board.nextHound(0); other != FoxHoundBitboard.NO_SQUARE;
+                 other = board.nextHound(other + 1)) {
+                if (playableIndex[FoxHoundSymmetry.mirror(other, dim)] < index) {
+                    before++;
+                }
+            }
+            rank += binomial[index][before + 1];
+        }
+        return index(rank, fox, turn);
+    }
+
+    // ------------------------- values --------------------
+
+    /**
+     * @param distance plies until the side to move has won
+     * @return value byte of a win
+     */
+    public static byte win(int distance) {
+        return (byte) (distance + 1);
+    }
+
+    /**
+     * @param distance plies until the side to move has lost
+     * @return value byte of a loss
+     */
+    public static byte loss(int distance) {
+        return (byte) -(distance + 1);
+    }
+
+    /**
+     * @param value value byte
+     * @return true if the side to move wins
+     */
+    public static boolean isWin(byte value) {
+        return value > 0;
+    }
+
+    /**
+     * @param value value byte
+     * @return number of plies until the game ends
+     */
+    public static int distance(byte value) {
+        return Math.abs(value) - 1;
+    }
+
+    // ------------------------- header --------------------
+
+    /**
+     * Write the file header.
+     *
+     * @param buffer buffer with at least {@value FoxHoundTablebase#HEADER_BYTES} bytes remaining
+     */
+    public void writeHeader(ByteBuffer buffer) {
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(dim).putInt(hounds).putInt(squares)
+                .putLong(entries).putInt(0);
+    }
+
+    /**
+     * Read and check a file header.
+     *
+     * @param buffer buffer positioned at the start of the file
+     * @return the layout described by the header
+     * @throws IllegalArgumentException if the header is invalid or doesn't match its layout
+     */
+    public static FoxHoundTablebase readHeader(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a tablebase file");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported tablebase version: " + version);
+        }
+        FoxHoundTablebase layout = new FoxHoundTablebase(buffer.getInt());
+        if (buffer.getInt() != layout.hounds || buffer.getInt() != layout.squares
+                || buffer.getLong() != layout.entries) {
+            throw new IllegalArgumentException("Tablebase header doesn't match its dimension");
+        }
+        buffer.getInt();
+        return layout;
+    }
+}
@@ -0,0 +1,152 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A reader for tablebase files written by {@link FoxHoundTablebaseSolver}.
+ *
+ * The file is memory mapped read only with {@link FileChannel#map}, so the values never get
+ * copied onto the heap. Every JVM on a host mapping the same file shares the pages of the
+ * operating system's file cache, and inside a JVM {@link #open(Path)} hands out a single
+ * reader per file. A reader is immutable and can be used by any number of threads at once.
+ */
+public class FoxHoundTablebaseReader {
+
+    /** Bytes covered by each memory mapped segment of the file. */
+    private static final int SEGMENT_BYTES = 1 << 30;
+
+    /** Readers already opened in this JVM, by absolute file path. */
+    private static final ConcurrentMap<Path, FoxHoundTablebaseReader> OPEN_READERS = new ConcurrentHashMap<>();
+
+    /** Layout of the tablebase. */
+    private final FoxHoundTablebase layout;
+    /** Memory mapped value segments of the file. */
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * Map a tablebase file.
+     *
+     * @param file path of the tablebase file
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the file isn't a valid tablebase
+     */
+    public FoxHoundTablebaseReader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(channel.size(), FoxHoundTablebase.HEADER_BYTES));
+            this.layout = FoxHoundTablebase.readHeader(header);
+            long entries = layout.getEntries();
+            if (channel.size() != FoxHoundTablebase.HEADER_BYTES + entries) {
+                throw new IllegalArgumentException("Tablebase file is truncated: " + file);
+            }
+            this.segments = new MappedByteBuffer[(int) ((entries + SEGMENT_BYTES - 1) / SEGMENT_BYTES)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = (long) i * SEGMENT_BYTES;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        FoxHoundTablebase.HEADER_BYTES + start, Math.min(SEGMENT_BYTES, entries - start));
+            }
+        }
+        // the mapping stays valid after the channel is closed
+    }
+
+    /**
+     * Get the shared reader of a file, mapping it on first use.
+     *
+     * @param file path of the tablebase file
+     * @return the reader shared by all callers in this JVM
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the file isn't a valid tablebase
+     */
+    public static FoxHoundTablebaseReader open(Path file) throws IOException {
+        try {
+            return OPEN_READERS.computeIfAbsent(file.toAbsolutePath().normalize(), path -> {
+                try {
+                    return new FoxHoundTablebaseReader(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** @return layout of the tablebase */
+    public FoxHoundTablebase getLayout() {
+        return layout;
+    }
+
+    /**
+     * Look up the value of a position.
+     *
+     * @param board current position
+     * @param turn the figure to move
+     * @return value byte, see {@link FoxHoundTablebase}, or {@link FoxHoundTablebase#UNKNOWN}
+     * if neither the position nor its mirror image is covered by the table
+     */
+    public byte probe(FoxHoundBitboard board, char turn) {
+        long index = layout.index(board, turn);
+        if (index < 0) {
+            // the mirror image has the same value, see FoxHoundSymmetry
+            index = layout.mirroredIndex(board, turn);
+        }
+        if (index < 0) {
+            return FoxHoundTablebase.UNKNOWN;
+        }
+        return segments[(int) (index / SEGMENT_BYTES)].get((int) (index % SEGMENT_BYTES));
+    }
+
+    /**
+     * Look up the value of a position given in the string representation.
+     *
+     * @param players array of the current positions of the pieces on the board
+     * @param turn the figure to move
+     * @return value byte or {@link FoxHoundTablebase#UNKNOWN} if the position isn't covered by the table
+     * @throws IllegalArgumentException if a coordinate isn't on the board
+     */
+    public byte probe(String[] players, char turn) {
+        return probe(FoxHoundBitboard.fromPlayers(players, layout.getDim()), turn);
+    }
+
+    /**
+     * Find a perfect move: the fastest win, or the slowest loss if the position is lost.
+     * The board is modified while trying the moves but restored before the method returns.
+     *
+     * @param board current position
+     * @param turn the figure to move
+     * @param generator move generator for the board's dimension
+     * @param moves buffer of at least {@value FoxHoundMoveGenerator#MAX_MOVES} packed moves
+     * @return the best packed move or {@value FoxHoundSearch#NO_MOVE} if there is none or the
+     * position isn't covered by the table
+     */
+    public int bestMove(FoxHoundBitboard board, char turn, FoxHoundMoveGenerator generator, int[] moves) {
+        int count = generator.generate(board, turn, moves);
+        int bestMove = FoxHoundSearch.NO_MOVE;
+        int bestRank = Integer.MIN_VALUE;
+        char opponent = FoxHoundSearch.opponent(turn);
+        for (int i = 0; i < count; i++) {
+            int from = FoxHoundMoveGenerator.from(moves[i]);
+            int to = FoxHoundMoveGenerator.to(moves[i]);
+            board.move(from, to);
+            byte value = probe(board, opponent);
+            board.move(to, from);
+            if (value == FoxHoundTablebase.UNKNOWN) {
+                return FoxHoundSearch.NO_MOVE;
+            }
+            // a loss for the opponent is good for us, sooner is better; otherwise later is better
+            int distance = FoxHoundTablebase.distance(value);
+            int rank = FoxHoundTablebase.isWin(value) ? distance - FoxHoundTablebase.MAX_DISTANCE - 1
+                    : FoxHoundTablebase.MAX_DISTANCE + 1 - distance;
+            if (rank > bestRank) {
+                bestRank = rank;
+                bestMove = moves[i];
+            }
+        }
+        return bestMove;
+    }
+}
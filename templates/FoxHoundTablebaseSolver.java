@@ -0,0 +1,429 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * A retrograde solver for the fox hound program.
+ *
+ * It computes the game theoretic value and the distance to the end of the game for every
+ * position of a board dimension and writes them into a tablebase file, see {@link FoxHoundTablebase}.
+ * The rules are the ones used by {@link FoxHoundSearch}.
+ *
+ * Hounds only move forward, so every hound move increases the sum of the hound rows by one.
+ * The solver works backwards from the largest sum: all hound combinations with the same sum
+ * only depend on combinations with a larger sum and are solved in parallel. The values are
+ * written straight into the memory mapped output file, so the working set is paged to disk
+ * by the operating system instead of having to fit into the heap.
+ *
+ * On boards of an odd dimension the mirror image of a position is a position of the playable squares
+ * with the same value, see {@link FoxHoundSymmetry}. Only the hound combinations ranked before their
+ * mirror image are solved there, the values of the others are copied from their mirror image once
+ * their level is done, which halves the solving work. Even boards mirror onto the other colour and
+ * are solved in full.
+ *
+ * Every position of the playable squares is solved, which includes all positions reachable from
+ * {@link FoxHoundUtils#initialisePositions(int)}. Values store distances in a single byte, which
+ * limits the solver to dimensions whose longest game fits into {@value FoxHoundTablebase#MAX_DISTANCE} plies.
+ */
+public class FoxHoundTablebaseSolver {
+
+    /** Bytes covered by each memory mapped segment of the output file. */
+    private static final int SEGMENT_BYTES = 1 << 30;
+    /** Largest number of playable squares whose occupancy fits into a long. */
+    private static final int MAX_SQUARES = Long.SIZE;
+
+    /** Layout of the tablebase being solved. */
+    private final FoxHoundTablebase layout;
+    /** Memory mapped value segments of the output file. */
+    private final MappedByteBuffer[] segments;
+    /** Playable squares reachable by a hound move, -1 where the board ends. */
+    private final int[][] houndSteps;
+    /** Playable squares reachable by a fox move, -1 where the board ends. */
+    private final int[][] foxSteps;
+    /** True if mirrored combinations are copied instead of solved. */
+    private final boolean mirrored;
+
+    /**
+     * @param layout layout of the tablebase
+     * @param segments memory mapped value segments of the output file
+     * @param mirrored true to copy mirrored combinations instead of solving them
+     */
+    private FoxHoundTablebaseSolver(FoxHoundTablebase layout, MappedByteBuffer[] segments, boolean mirrored) {
+        this.layout = layout;
+        this.segments = segments;
+        this.mirrored = mirrored;
+        int dim = layout.getDim();
+        this.houndSteps = new int[layout.getSquares()][2];
+        this.foxSteps = new int[layout.getSquares()][4];
+        for (int i = 0; i < layout.getSquares(); i++) {
+            int square = layout.square(i);
+            int lat = square % dim;
+            int vert = square / dim;
+            houndSteps[i][0] = step(lat - 1, vert + 1);
+            houndSteps[i][1] = step(lat + 1, vert + 1);
+            foxSteps[i][0] = step(lat - 1, vert - 1);
+            foxSteps[i][1] = step(lat + 1, vert - 1);
+            foxSteps[i][2] = houndSteps[i][0];
+            foxSteps[i][3] = houndSteps[i][1];
+        }
+    }
+
+    /**
+     * Solve every position of a board dimension and write the tablebase file.
+     *
+     * @param dim dimension of the board
+     * @param output path of the tablebase file, replaced if it exists
+     * @param threads number of worker threads
+     * @return the layout of the written tablebase
+     * @throws IOException if the file can't be written
+     * @throws IllegalArgumentException if the dimension can't be solved
+     */
+    public static FoxHoundTablebase solve(int dim, Path output, int threads) throws IOException {
+        return solve(dim, output, threads, true);
+    }
+
+    /**
+     * Solve every position of a board dimension and write the tablebase file.
+     *
+     * @param dim dimension of the board
+     * @param output path of the tablebase file, replaced if it exists
+     * @param threads number of worker threads
+     * @param useMirror true to copy mirrored positions where the board allows it, false to solve all of them
+     * @return the layout of the written tablebase
+     * @throws IOException if the file can't be written
+     * @throws IllegalArgumentException if the dimension can't be solved
+     */
+    static FoxHoundTablebase solve(int dim, Path output, int threads, boolean useMirror) throws IOException {
+        FoxHoundTablebase layout = new FoxHoundTablebase(dim);
+        int longestGame = 2 * layout.getHounds() * (dim - 1) + 1;
+        if (longestGame > FoxHoundTablebase.MAX_DISTANCE || layout.getSquares() > MAX_SQUARES
+                || layout.getCombinations() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many positions to solve for dimension " + dim);
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed");
+        }
+
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(FoxHoundTablebase.HEADER_BYTES);
+            layout.writeHeader(header);
+            header.flip();
+            channel.write(header, 0);
+
+            long entries = layout.getEntries();
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((entries + SEGMENT_BYTES - 1) / SEGMENT_BYTES)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = (long) i * SEGMENT_BYTES;
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                        FoxHoundTablebase.HEADER_BYTES + start, Math.min(SEGMENT_BYTES, entries - start));
+            }
+
+            FoxHoundTablebaseSolver solver = new FoxHoundTablebaseSolver(layout, segments,
+                    useMirror && layout.hasMirror());
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                solver.solveLevels(pool);
+            } finally {
+                pool.shutdown();
+            }
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        }
+        return layout;
+    }
+
+    /**
+     * Solve all hound combinations level by level, starting with the largest sum of hound rows.
+     *
+     * @param pool pool running the combinations of a level in parallel
+     */
+    private void solveLevels(ForkJoinPool pool) {
+        int hounds = layout.getHounds();
+        int count = (int) layout.getCombinations();
+        int maxLevel = hounds * (layout.getDim() - 1);
+
+        // bucket the ranks by level with a counting sort, ranks are enumerated in colex order
+        byte[] levels = new byte[count];
+        int[] levelStart = new int[maxLevel + 2];
+        int[] combination = new int[hounds];
+        for (int i = 0; i < hounds; i++) {
+            combination[i] = i;
+        }
+        for (int rank = 0; rank < count; rank++) {
+            int level = 0;
+            for (int i = 0; i < hounds; i++) {
+                level += layout.square(combination[i]) / layout.getDim();
+            }
+            levels[rank] = (byte) level;
+            levelStart[level + 1]++;
+            nextCombination(combination);
+        }
+        for (int level = 0; level <= maxLevel; level++) {
+            levelStart[level + 1] += levelStart[level];
+        }
+        int[] ranks = new int[count];
+        int[] fill = levelStart.clone();
+        for (int rank = 0; rank < count; rank++) {
+            ranks[fill[levels[rank]]++] = rank;
+        }
+
+        for (int level = maxLevel; level >= 0; level--) {
+            int from = levelStart[level];
+            int to = levelStart[level + 1];
+            pool.submit(() -> IntStream.range(from, to).parallel().forEach(i -> solveCombination(ranks[i]))).join();
+            if (mirrored) {
+                // a combination and its mirror image share their level, so the copies are complete now
+                pool.submit(() -> IntStream.range(from, to).parallel().forEach(i -> copyMirror(ranks[i]))).join();
+            }
+        }
+    }
+
+    /**
+     * Solve all positions of one hound combination: first with the hounds to move,
+     * which only depend on combinations of the next level, then with the fox to move.
+     *
+     * @param rank rank of the hound combination
+     */
+    private void solveCombination(long rank) {
+        int hounds = layout.getHounds();
+        int[] combination = new int[hounds];
+        int[] moved = new int[hounds];
+        layout.unrank(rank, combination);
+        if (mirrored && layout.mirrorRank(combination, moved) < rank) {
+            return;
+        }
+        long occupied = 0L;
+        for (int i = 0; i < hounds; i++) {
+            occupied |= 1L << combination[i];
+        }
+
+        for (int fox = 0; fox < layout.getSquares(); fox++) {
+            if ((occupied & (1L << fox)) == 0) {
+                set(layout.index(rank, fox, FoxHoundUtils.HOUND_FIELD),
+                        solveHoundTurn(combination, moved, occupied, fox));
+            }
+        }
+        for (int fox = 0; fox < layout.getSquares(); fox++) {
+            if ((occupied & (1L << fox)) == 0) {
+                set(layout.index(rank, fox, FoxHoundUtils.FOX_FIELD), solveFoxTurn(rank, occupied, fox));
+            }
+        }
+    }
+
+    /**
+     * Copy the values of a combination that wasn't solved from its mirror image.
+     *
+     * @param rank rank of the hound combination
+     */
+    private void copyMirror(long rank) {
+        int[] combination = new int[layout.getHounds()];
+        int[] mirror = new int[combination.length];
+        layout.unrank(rank, combination);
+        long mirrorRank = layout.mirrorRank(combination, mirror);
+        if (mirrorRank >= rank) {
+            return;
+        }
+        long occupied = 0L;
+        for (int square : combination) {
+            occupied |= 1L << square;
+        }
+        for (int fox = 0; fox < layout.getSquares(); fox++) {
+            if ((occupied & (1L << fox)) == 0) {
+                int mirrorFox = layout.mirror(fox);
+                set(layout.index(rank, fox, FoxHoundUtils.HOUND_FIELD),
+                        get(layout.index(mirrorRank, mirrorFox, FoxHoundUtils.HOUND_FIELD)));
+                set(layout.index(rank, fox, FoxHoundUtils.FOX_FIELD),
+                        get(layout.index(mirrorRank, mirrorFox, FoxHoundUtils.FOX_FIELD)));
+            }
+        }
+    }
+
+    /**
+     * @param combination ascending playable squares of the hounds
+     * @param moved scratch array of the same length
+     * @param occupied bit mask of the hound squares
+     * @param fox playable square of the fox
+     * @return value of the position with the hounds to move
+     */
+    private byte solveHoundTurn(int[] combination, int[] moved, long occupied, int fox) {
+        byte terminal = terminal(occupied, fox, FoxHoundUtils.HOUND_FIELD);
+        if (terminal != FoxHoundTablebase.UNKNOWN) {
+            return terminal;
+        }
+        occupied |= 1L << fox;
+        byte best = FoxHoundTablebase.UNKNOWN;
+        for (int i = 0; i < combination.length; i++) {
+            for (int target : houndSteps[combination[i]]) {
+                if (target >= 0 && (occupied & (1L << target)) == 0) {
+                    long movedRank = rankAfterMove(combination, moved, i, target);
+                    best = better(best, get(layout.index(movedRank, fox, FoxHoundUtils.FOX_FIELD)));
+                }
+            }
+        }
+        // hounds that can't move anymore have lost
+        return best == FoxHoundTablebase.UNKNOWN ? FoxHoundTablebase.loss(0) : best;
+    }
+
+    /**
+     * @param rank rank of the hound combination
+     * @param occupied bit mask of the hound squares
+     * @param fox playable square of the fox
+     * @return value of the position with the fox to move
+     */
+    private byte solveFoxTurn(long rank, long occupied, int fox) {
+        byte terminal = terminal(occupied, fox, FoxHoundUtils.FOX_FIELD);
+        if (terminal != FoxHoundTablebase.UNKNOWN) {
+            return terminal;
+        }
+        byte best = FoxHoundTablebase.UNKNOWN;
+        for (int target : foxSteps[fox]) {
+            if (target >= 0 && (occupied & (1L << target)) == 0) {
+                best = better(best, get(layout.index(rank, target, FoxHoundUtils.HOUND_FIELD)));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Check the winner of a position the same way as {@link FoxHoundMoveGenerator#winner(FoxHoundBitboard)}.
+     *
+     * @param occupied bit mask of the hound squares
+     * @param fox playable square of the fox
+     * @param turn the figure to move
+     * @return value of a finished game or {@link FoxHoundTablebase#UNKNOWN} if it isn't finished
+     */
+    private byte terminal(long occupied, int fox, char turn) {
+        char winner;
+        if (layout.square(fox) < layout.getDim()) {
+            winner = FoxHoundUtils.FOX_FIELD;
+        } else {
+            winner = FoxHoundUtils.HOUND_FIELD;
+            for (int target : foxSteps[fox]) {
+                if (target >= 0 && (occupied & (1L << target)) == 0) {
+                    return FoxHoundTablebase.UNKNOWN;
+                }
+            }
+        }
+        return winner == turn ? FoxHoundTablebase.win(0) : FoxHoundTablebase.loss(0);
+    }
+
+    /**
+     * Combine the value of another move with the best value found so far. A move into a
+     * position lost for the opponent wins, the fastest win is preferred and the slowest
+     * loss if there is no win.
+     *
+     * @param best value of the best move so far or {@link FoxHoundTablebase#UNKNOWN}
+     * @param child value of the position after the move, from the view of the opponent
+     * @return value of the better move from the view of the side to move
+     */
+    private static byte better(byte best, byte child) {
+        if (child == FoxHoundTablebase.UNKNOWN) {
+            throw new IllegalStateException("Position solved before its successor");
+        }
+        int distance = FoxHoundTablebase.distance(child) + 1;
+        byte value = FoxHoundTablebase.isWin(child) ? FoxHoundTablebase.loss(distance) : FoxHoundTablebase.win(distance);
+        if (best == FoxHoundTablebase.UNKNOWN) {
+            return value;
+        }
+        if (FoxHoundTablebase.isWin(value) != FoxHoundTablebase.isWin(best)) {
+            return FoxHoundTablebase.isWin(value) ? value : best;
+        }
+        boolean shorter = FoxHoundTablebase.distance(value) < FoxHoundTablebase.distance(best);
+        return FoxHoundTablebase.isWin(value) == shorter ? value : best;
+    }
+
+    /**
+     * Rank the hound combination after moving one hound.
+     *
+     * @param combination ascending playable squares of the hounds
+     * @param moved scratch array receiving the new combination
+     * @param hound index of the moving hound
+     * @param target playable square the hound moves to
+     * @return rank of the new combination
+     */
+    private long rankAfterMove(int[] combination, int[] moved, int hound, int target) {
+        System.arraycopy(combination, 0, moved, 0, combination.length);
+        // the hound moves to a higher square, shift it right until the combination is sorted again
+        int i = hound;
+        while (i + 1 < moved.length && moved[i + 1] < target) {
+            moved[i] = moved[i + 1];
+            i++;
+        }
+        moved[i] = target;
+        return layout.rank(moved);
+    }
+
+    /**
+     * Advance a combination to the next one in colex order.
+     *
+     * @param combination ascending playable squares, updated in place
+     */
+    private static void nextCombination(int[] combination) {
+        int i = 0;
+        while (i + 1 < combination.length && combination[i] + 1 == combination[i + 1]) {
+            combination[i] = i;
+            i++;
+        }
+        combination[i]++;
+    }
+
+    /**
+     * @param lat zero based column
+     * @param vert zero based row
+     * @return playable square index or -1 if the coordinates are off the board
+     */
+    private int step(int lat, int vert) {
+        int dim = layout.getDim();
+        if (lat < 0 || lat >= dim || vert < 0 || vert >= dim) {
+            return -1;
+        }
+        return layout.playableIndex(vert * dim + lat);
+    }
+
+    /**
+     * @param index index of a value
+     * @return the value stored in the output file
+     */
+    private byte get(long index) {
+        return segments[(int) (index / SEGMENT_BYTES)].get((int) (index % SEGMENT_BYTES));
+    }
+
+    /**
+     * Store a value in the output file. Every index is written by exactly one thread.
+     *
+     * @param index index of the value
+     * @param value value to store
+     */
+    private void set(long index, byte value) {
+        segments[(int) (index / SEGMENT_BYTES)].put((int) (index % SEGMENT_BYTES), value);
+    }
+
+    /**
+     * Entry method of the solver.
+     *
+     * @param args board dimension, output file and optionally the number of threads
+     * @throws IOException if the file can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java FoxHoundTablebaseSolver <dimension> <output file> [threads]");
+            return;
+        }
+        int dim = Integer.parseInt(args[0]);
+        Path output = Paths.get(args[1]);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        FoxHoundTablebase layout = solve(dim, output, threads);
+        System.out.format("Solved %d positions of dimension %d in %.1f s%n",
+                layout.getEntries(), dim, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,239 @@
+/**
+ * A transposition table for the fox hound search.
+ *
+ * It remembers the score, depth and best move of positions already searched, so
+ * positions reached again through a different move order don't have to be searched
+ * again. The table is a fixed size primitive {@code long} array holding two words per
+ * entry and can be shared by several search threads without any locking.
+ *
+ * Lock-free replacement works by storing the key XOR the data next to the data itself.
+ * A reader only accepts an entry if both words XOR back to the key it is looking for,
+ * so an entry half written by another thread is simply treated as a miss.
+ */
+public class FoxHoundTranspositionTable {
+
+    /** Bound type of a score that is exact. */
+    public static final int EXACT = 1;
+    /** Bound type of a score that is at least the stored value. */
+    public static final int LOWER = 2;
+    /** Bound type of a score that is at most the stored value. */
+    public static final int UPPER = 3;
+    /** Data value returned when a position isn't in the table. */
+    public static final long MISS = 0L;
+    /** Default table size in megabytes. */
+    public static final int DEFAULT_MEGABYTES = 16;
+
+    /** Bytes used by a single entry: a key word and a data word. */
+    private static final int ENTRY_BYTES = 16;
+    /** Largest number of entries, limited by the maximum array length. */
+    private static final int MAX_ENTRIES = 1 << 30;
+
+    // Layout of the data word, from the lowest bit upwards
+    /** Bits of each square of the stored move. */
+    private static final int SQUARE_BITS = 10;
+    /** Bits of the stored move. */
+    private static final int MOVE_BITS = 2 * SQUARE_BITS;
+    /** Stored move value meaning there is no move. */
+    private static final long NO_MOVE_BITS = (1L << MOVE_BITS) - 1;
+    /** Bits of the stored score. */
+    private static final int SCORE_BITS = 22;
+    /** Offset making every stored score positive. */
+    private static final int SCORE_OFFSET = 1 << (SCORE_BITS - 1);
+    /** Bits of the stored depth. */
+    private static final int DEPTH_BITS = 8;
+    /** Bits of the stored bound type. */
+    private static final int BOUND_BITS = 2;
+    /** Bits of the search generation of an entry. */
+    private static final int AGE_BITS = 8;
+
+    /** Positions of the fields inside the data word. */
+    private static final int SCORE_SHIFT = MOVE_BITS;
+    private static final int DEPTH_SHIFT = SCORE_SHIFT + SCORE_BITS;
+    private static final int BOUND_SHIFT = DEPTH_SHIFT + DEPTH_BITS;
+    private static final int AGE_SHIFT = BOUND_SHIFT + BOUND_BITS;
+
+    /** Key and data words of all entries, {@code table[2i]} is key XOR data and {@code table[2i+1]} the data. */
+    private final long[] table;
+    /** Mask turning a key into an entry index. */
+    private final int indexMask;
+    /** Generation of the current search, used to replace entries left over from earlier searches. */
+    private volatile int age;
+
+    /**
+     * Create a table with the default size of {@value FoxHoundTranspositionTable#DEFAULT_MEGABYTES} megabytes.
+     */
+    public FoxHoundTranspositionTable() {
+        this(DEFAULT_MEGABYTES);
+    }
+
+    /**
+     * Create a table using at most the given amount of memory. The number of entries is
+     * rounded down to a power of two.
+     *
+     * @param megabytes memory budget of the table
+     * @throws IllegalArgumentException if the budget is less than one megabyte
+     */
+    public FoxHoundTranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("A transposition table needs at least one megabyte");
+        }
+        long entries = Math.min(((long) megabytes << 20) / ENTRY_BYTES, MAX_ENTRIES);
+        int size = Integer.highestOneBit((int) entries);
+        this.table = new long[2 * size];
+        this.indexMask = size - 1;
+    }
+
+    /** @return number of entries the table can hold */
+    public int capacity() {
+        return indexMask + 1;
+    }
+
+    /** Start a new search so older entries are preferred for replacement. */
+    public void newSearch() {
+        age = (age + 1) & ((1 << AGE_BITS) - 1);
+    }
+
+    /** Remove every entry from the table. */
+    public void clear() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = 0L;
+        }
+    }
+
+    /**
+     * Look up a position.
+     *
+     * @param key Zobrist hash of the position including the side to move
+     * @return the data word of the entry or {@value FoxHoundTranspositionTable#MISS} if there is none
+     */
+    public long probe(long key) {
+        int slot = ((int) key & indexMask) << 1;
+        long data = table[slot + 1];
+        if ((table[slot] ^ data) != key) {
+            return MISS;
+        }
+        return data;
+    }
+
+    /**
+     * Store the result of a search, replacing the current entry if it belongs to another
+     * position, is from an earlier search or wasn't searched deeper.
+     *
+     * @param key Zobrist hash of the position including the side to move
+     * @param move best packed move or {@value FoxHoundSearch#NO_MOVE}
+     * @param score score of the position relative to the node, win scores are adjusted by the ply
+     * @param depth remaining depth the position was searched with
+     * @param bound {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     * @param ply distance of the node from the root of the search
+     */
+    public void store(long key, int move, int score, int depth, int bound, int ply) {
+        int slot = ((int) key & indexMask) << 1;
+        long oldData = table[slot + 1];
+        boolean samePosition = (table[slot] ^ oldData) == key;
+        if (oldData != MISS) {
+            boolean replace = samePosition
+                    ? depth >= depth(oldData) || bound == EXACT
+                    : ageOf(oldData) != age || depth >= depth(oldData);
+            if (!replace) {
+                return;
+            }
+        }
+        if (samePosition && move == FoxHoundSearch.NO_MOVE) {
+            move = move(oldData);
+        }
+        long data = pack(move, toStored(score, ply), depth, bound, age);
+        table[slot + 1] = data;
+        table[slot] = key ^ data;
+    }
+
+    /**
+     * @param data data word of an entry
+     * @return the best packed move or {@value FoxHoundSearch#NO_MOVE}
+     */
+    public static int move(long data) {
+        long bits = data & NO_MOVE_BITS;
+        if (data == MISS || bits == NO_MOVE_BITS) {
+            return FoxHoundSearch.NO_MOVE;
+        }
+        int from = (int) (bits >>> SQUARE_BITS);
+        int to = (int) (bits & ((1 << SQUARE_BITS) - 1));
+        return FoxHoundMoveGenerator.pack(from, to);
+    }
+
+    /**
+     * @param data data word of an entry
+     * @param ply distance of the probing node from the root of the search
+     * @return score of the entry relative to the probing node
+     */
+    public static int score(long data, int ply) {
+        int score = (int) ((data >>> SCORE_SHIFT) & ((1L << SCORE_BITS) - 1)) - SCORE_OFFSET;
+        if (score > FoxHoundSearch.WIN_SCORE - FoxHoundSearch.MAX_PLY) {
+            return score - ply;
+        } else if (score < FoxHoundSearch.MAX_PLY - FoxHoundSearch.WIN_SCORE) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * @param data data word of an entry
+     * @return remaining depth the position was searched with
+     */
+    public static int depth(long data) {
+        return (int) ((data >>> DEPTH_SHIFT) & ((1L << DEPTH_BITS) - 1));
+    }
+
+    /**
+     * @param data data word of an entry
+     * @return {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     */
+    public static int bound(long data) {
+        return (int) ((data >>> BOUND_SHIFT) & ((1L << BOUND_BITS) - 1));
+    }
+
+    /**
+     * @param data data word of an entry
+     * @return search generation that stored the entry
+     */
+    private static int ageOf(long data) {
+        return (int) ((data >>> AGE_SHIFT) & ((1L << AGE_BITS) - 1));
+    }
+
+    /**
+     * Win scores count plies from the root, but the same position can be reached at any ply.
+     * Store them relative to the node instead.
+     *
+     * @param score score relative to the root
+     * @param ply distance of the node from the root
+     * @return score relative to the node
+     */
+    private static int toStored(int score, int ply) {
+        if (score > FoxHoundSearch.WIN_SCORE - FoxHoundSearch.MAX_PLY) {
+            return score + ply;
+        } else if (score < FoxHoundSearch.MAX_PLY - FoxHoundSearch.WIN_SCORE) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * Pack all parts of an entry into a data word. The bound type is never zero,
+     * so a stored data word can't be mistaken for {@value FoxHoundTranspositionTable#MISS}.
+     *
+     * @param move best packed move or {@value FoxHoundSearch#NO_MOVE}
+     * @param score score relative to the node
+     * @param depth remaining depth the position was searched with
+     * @param bound {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     * @param age search generation storing the entry
+     * @return the data word
+     */
+    private static long pack(int move, int score, int depth, int bound, int age) {
+        long moveBits = move == FoxHoundSearch.NO_MOVE ? NO_MOVE_BITS
+                : ((long) FoxHoundMoveGenerator.from(move) << SQUARE_BITS) | FoxHoundMoveGenerator.to(move);
+        return moveBits
+                | ((long) (score + SCORE_OFFSET) << SCORE_SHIFT)
+                | ((long) Math.min(depth, (1 << DEPTH_BITS) - 1) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) age << AGE_SHIFT);
+    }
+}
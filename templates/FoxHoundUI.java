@@ -1,3 +1,4 @@
+import java.io.PrintStream;
 import java.nio.file.Path;
 import java.util.Scanner;
 import java.util.Objects;
@@ -14,6 +15,12 @@ public class FoxHoundUI {
     /** Main menu display string. */
     private static final String MAIN_MENU =
             "\n1. Move\n2. Save Game\n3. Load Game\n4. Exit\n\nEnter 1 - 4:";
+    /** Reply to a main menu entry that isn't a number from 1 to 4. */
+    static final String MENU_ERROR = "Please enter valid number.";
+    /** Reply to a movement command that isn't a pair of coordinates on the board. */
+    static final String POSITION_ERROR = "ERROR: Please enter valid coordinate pair separated by space.";
+    /** Prompt for the name of a save file. */
+    static final String FILE_PROMPT = "Enter file path:";
 
     /** Menu entry to select a move action. */
     public static final int MENU_MOVE = 1;
@@ -31,32 +38,8 @@ public class FoxHoundUI {
      * @param dimension dimension of the board
      */
     public static void displayBoard(String[] players, int dimension) {
-        //A number used as a multiplier to adjust spacing when the dimension is greater than or equal to 10 or less than 10
-        int padder = dimension/10 + 1;
-        //Creates the alphabetic header and footer for the board representing dimension across
-        String title = "";
-        for (int i = 1; i <= dimension; i++) {
-            title = title + (char)(FoxHoundUtils.CHAR_SHIFT + i);
-        }
-        System.out.format(" ".repeat(padder) + " %s  %n%n", title);
-        //for loop creating the rows of the board, using player coordinates to determine what character to print
-        for (int vert = 1; vert <= dimension; vert++) { //
-            System.out.format("%0"+padder+"d ", vert);
-            for (int lat = 1; lat <= dimension; lat++) {
-                boolean isHound = false;
-                char positionVal = '.';
-                for (int place = 0; place < players.length - 1 && !isHound; place++) {
-                    if (players[place].equals(FoxHoundUtils.makeCoordinate(lat, vert))) {
-                        positionVal = FoxHoundUtils.HOUND_FIELD;
-                        isHound = true;
-                    }
-                }
-                if (players[players.length - 1].equals(FoxHoundUtils.makeCoordinate(lat, vert))) positionVal = FoxHoundUtils.FOX_FIELD;
-                System.out.print(positionVal);
-            }
-            System.out.format(" %0"+padder+"d%n", vert);
-        }
-        System.out.format("%n" + " ".repeat(padder) + " %s%n%n", title);
+        //The frame is built from a cached template of the empty board and printed in one write
+        FoxHoundRenderer.simple(dimension).render(players, System.out);
     }
 
     /**
@@ -65,36 +48,19 @@ public class FoxHoundUI {
      * @param dimension dimension of the board
      */
     public static void fancyDisplayBoard(String[] players, int dimension) {
-        //A number used as a multiplier to adjust spacing when the dimension is greater than or equal to 10 or less than 10
-        int padder = dimension/10 + 1;
-        String title = "";
-        //Creates the alphabetic header and footer for the board representing dimension across
-        for (int i = 1; i <= dimension; i++) {
-            title = title + "   " + Character.toString(FoxHoundUtils.CHAR_SHIFT + i);
-        }
-        //Creates horizontal divider based on board dimension to aid clarity
-        String divider = " ".repeat(padder) + " " + "|===".repeat(dimension) + '|';
-        System.out.format(" ".repeat(padder) + "%s%n%s%n", title, divider);
-        //for loop creating the rows of the board, using player coordinates to determine what character to print
-        for (int vert = 1; vert <= dimension; vert++) {
-            System.out.format("%0"+padder+"d ", vert);
-            for (int lat = 1; lat <= dimension; lat++) { //
-                boolean isHound = false;
-                String positionVal = "|   ";
-                for (int place = 0; place < players.length - 1 && !isHound; place++) {
-                    if (players[place].equals(FoxHoundUtils.makeCoordinate(lat, vert))) {
-                        positionVal = "| H ";
-                        isHound = true;
-                    }
-                }
-                if (players[players.length - 1].equals(FoxHoundUtils.makeCoordinate(lat, vert))) positionVal = "| F ";
-                System.out.print(positionVal);
-            }
-            System.out.format("| %0"+padder+"d%n", vert);
-            System.out.println(divider);
-        }
-        System.out.format(" ".repeat(padder)+ "%s%n%n", title);
-        //System.out.println(Arrays.toString(players) + "\n"); //Remember to comment out later to pass checks
+        fancyDisplayBoard(players, dimension, System.out);
+    }
+
+    /**
+     * Print the chessboard in a fancier and clearer format to the given stream,
+     * e.g. the connection of a network session.
+     *
+     * @param players array of the current positions of the pieces on the board
+     * @param dimension dimension of the board
+     * @param out stream the board is printed to
+     */
+    public static void fancyDisplayBoard(String[] players, int dimension, PrintStream out) {
+        FoxHoundRenderer.fancy(dimension).render(players, out);
     }
 
     /**
@@ -113,13 +79,9 @@ public class FoxHoundUI {
             throw new IllegalArgumentException("Given figure field invalid: " + figureToMove);
         }
 
-        String nextFigure =
-                figureToMove == FoxHoundUtils.FOX_FIELD ? "Fox" : "Hounds";
-
         int input = -1;
         while (input == -1) {
-            System.out.println(nextFigure + " to move");
-            System.out.println(MAIN_MENU);
+            printMenu(figureToMove, System.out);
 
             boolean validInput = false;
             if (stdin.hasNextInt()) {
@@ -128,7 +90,7 @@ public class FoxHoundUI {
             }
 
             if (!validInput) {
-                System.out.println("Please enter valid number.");
+                System.out.println(MENU_ERROR);
                 input = -1; // reset input variable
             }
 
@@ -138,6 +100,45 @@ public class FoxHoundUI {
         return input;
     }
 
+    /**
+     * Print the figure to move and the main menu.
+     *
+     * @param figureToMove the figure type that has the next move
+     * @param out stream the menu is printed to
+     */
+    static void printMenu(char figureToMove, PrintStream out) {
+        String nextFigure =
+                figureToMove == FoxHoundUtils.FOX_FIELD ? "Fox" : "Hounds";
+        out.println(nextFigure + " to move");
+        out.println(MAIN_MENU);
+    }
+
+    /**
+     * Parse a main menu entry the way {@link #mainMenuQuery(char, Scanner)} reads it: the first
+     * word of the line as a number, ignoring the rest of the line.
+     *
+     * @param line line entered by the user
+     * @return the selected menu entry, -1 if the line is blank, 0 if it isn't a valid entry
+     */
+    static int menuEntry(String line) {
+        String[] words = line.trim().split("\\s+", 2);
+        if (words[0].isEmpty()) {
+            return -1;
+        }
+        String word = words[0];
+        int start = word.charAt(0) == '+' || word.charAt(0) == '-' ? 1 : 0;
+        if (start == word.length() || word.length() - start > 9) {
+            return 0;
+        }
+        for (int i = start; i < word.length(); i++) {
+            if (word.charAt(i) < '0' || word.charAt(i) > '9') {
+                return 0;
+            }
+        }
+        int entry = Integer.parseInt(word);
+        return entry > 0 && entry <= MENU_ENTRIES ? entry : 0;
+    }
+
     /** A helper function used by positionQuery to check if the moves
      * requested represent positions that exist on the current board
      *
@@ -146,6 +147,18 @@ public class FoxHoundUI {
      * @return whether the position selected exists on the current board or not.
      */
     public static boolean inRange(int dimension, String coordinate) {
+        return inRange(dimension, coordinate, System.err);
+    }
+
+    /**
+     * Check if a position exists on the current board, reporting badly formatted numbers to the given stream.
+     *
+     * @param dimension dimension of the board
+     * @param coordinate A position on the board represented by a letter followed by a number
+     * @param err stream errors are printed to
+     * @return whether the position selected exists on the current board or not.
+     */
+    static boolean inRange(int dimension, String coordinate, PrintStream err) {
         //try and catch prevents the program from crashing instead of simply denying a falsely formatted move
         try {
             /**Checks if a validly formatted letter and number combination
@@ -153,7 +166,7 @@ public class FoxHoundUI {
             return (coordinate.charAt(0) - FoxHoundUtils.CHAR_SHIFT <= dimension
                     && Integer.parseInt(coordinate.substring(1)) <= dimension);
         } catch (NumberFormatException e) {
-            System.err.println(e);
+            err.println(e);
             return false;
         }
     }
@@ -169,8 +182,7 @@ public class FoxHoundUI {
         int pairLength = 0;
         //Loop doesn't end till valid movement command is given
         while (true) {
-            System.out.println("Provide origin and destination coordinates.");
-            System.out.println("Enter two positions between A1-" + FoxHoundUtils.makeCoordinate(dim, dim) +":\n");
+            printPositionPrompt(dim, System.out);
             String[] pair = stdin.nextLine().split(" ");
             pairLength = pair.length;
             if (pairLength == 2) {
@@ -178,10 +190,21 @@ public class FoxHoundUI {
                     return pair;
                 }
             }
-            System.err.println("ERROR: Please enter valid coordinate pair separated by space.");
+            System.err.println(POSITION_ERROR);
         }
     }
 
+    /**
+     * Print the request for a movement command.
+     *
+     * @param dim dimensions of the board
+     * @param out stream the request is printed to
+     */
+    static void printPositionPrompt(int dim, PrintStream out) {
+        out.println("Provide origin and destination coordinates.");
+        out.println("Enter two positions between A1-" + FoxHoundUtils.makeCoordinate(dim, dim) +":\n");
+    }
+
     /**
      * The method used to get file names from the user
      * to save or load a game
@@ -191,7 +214,7 @@ public class FoxHoundUI {
      */
     public static Path fileQuery(Scanner stdin) {
         Objects.requireNonNull(stdin, "Given Scanner must not be null");
-        System.out.println("Enter file path:");
+        System.out.println(FILE_PROMPT);
         Path filePath = Path.of(stdin.nextLine());
         return filePath;
     }
@@ -1,4 +1,4 @@
-import java.util.Arrays;
+import java.io.PrintStream;
 import java.util.Scanner;
 
 /**
@@ -30,6 +30,9 @@ public class FoxHoundUtils {
      */
     public static final int CHAR_SHIFT = 64;
 
+    /** Prompt for the dimension of the board at the start of a game. */
+    static final String DIM_PROMPT = "Please enter the dimensions of the board";
+
     // HINT Write your own constants here to improve code readability ...
     /**
      * A method that takes cartesian coordinates and converts and converts them
@@ -37,9 +40,14 @@ public class FoxHoundUtils {
      *
      * @param lat horizontal coordinate of a piece, measured from left to right of the board
      * @param vert vertical coordinate of a piece, measured from top to bottom of the board
-     * @return equivalent letter then number coordinates in the form of a string
+     * @return equivalent letter then number coordinates in the form of a string,
+     * the shared instance from {@link FoxHoundCoordinates} for coordinates up to {@value FoxHoundUtils#MAX_DIM}
      */
     public static String makeCoordinate(int lat, int vert) {
+        String coordinate = FoxHoundCoordinates.get(lat, vert);
+        if (coordinate != null) {
+            return coordinate;
+        }
         return Character.toString(CHAR_SHIFT + lat) + Integer.toString(vert);
     }
 
@@ -69,7 +77,6 @@ public class FoxHoundUtils {
         } else {
             positions[positions.length - 1] = makeCoordinate((dimension/2 + 1), dimension);
         }
-        System.out.println(Arrays.toString(positions));
         return positions;
     }
 
@@ -86,7 +93,7 @@ public class FoxHoundUtils {
         String dest   = movement[1];
         for (int i = 0; i < players.length; i++) {
             if (players[i].equals(origin)) {
-                players[i] = dest;
+                players[i] = FoxHoundCoordinates.canonical(dest);
                 return players;
             }
         }
@@ -118,19 +125,9 @@ public class FoxHoundUtils {
         if (dimension < MIN_DIM || dimension > MAX_DIM) {
             throw new IllegalArgumentException("The dimension of the board must be between 4 and 26");
         }
-        String foxPos = players[players.length -1 ];
-        int foxLat = foxPos.charAt(0) - CHAR_SHIFT;
-        int foxVert = Integer.parseInt(foxPos.substring(1));
-        String move1 = makeCoordinate(foxLat + 1, foxVert + 1);
-        String move2 = makeCoordinate(foxLat + 1, foxVert - 1);
-        String move3 = makeCoordinate(foxLat - 1, foxVert + 1);
-        String move4 = makeCoordinate(foxLat - 1, foxVert - 1);
-        String[] possibleMoves = {move1, move2, move3, move4};
-        for (int i = 0; i < possibleMoves.length; i++) {
-            if (isValidMove(dimension, players, FOX_FIELD, foxPos, possibleMoves[i]))
-                return false;
-        }
-        return true;
+        //The fox is trapped when the move generator can't find a single legal fox move
+        FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(players, dimension);
+        return FoxHoundMoveGenerator.countFoxMoves(board) == 0;
     }
 
     /**
@@ -142,11 +139,23 @@ public class FoxHoundUtils {
      * @return true if there is a winner and false otherwise
      */
     public static boolean isWinner(String[] players, int dimension) {
+        return isWinner(players, dimension, System.out);
+    }
+
+    /**
+     * Check for a victory, announcing the winner on the given stream.
+     *
+     * @param players array of the current positions of the pieces on the board
+     * @param dimension dimension of the board
+     * @param out stream the winner is announced on
+     * @return true if there is a winner and false otherwise
+     */
+    static boolean isWinner(String[] players, int dimension, PrintStream out) {
         if (isFoxWin(players[players.length-1])) {
-            System.out.println("The Fox wins!");
+            out.println("The Fox wins!");
             return true;
         } else if (isHoundWin(players, dimension)) {
-            System.out.println("The hounds win!");
+            out.println("The hounds win!");
             return true;
         } else {
             return false;
@@ -164,44 +173,32 @@ public class FoxHoundUtils {
      * @return true if the move is valid and false otherwise
      */
     public static boolean isValidMove(int dim, String[] players, char figure, String origin, String dest) {
-        boolean isValid = false;
-        int originLat = origin.charAt(0) - CHAR_SHIFT;
-        int originVert = Integer.parseInt(origin.substring(1));
-        int destLat = dest.charAt(0) - CHAR_SHIFT;
-        int destVert = Integer.parseInt(dest.substring(1));
+        //Coordinates off the board in any direction, e.g. "@3" or "C0", are never valid
+        int from = FoxHoundBitboard.toSquare(origin, dim);
+        int to = FoxHoundBitboard.toSquare(dest, dim);
+        if (!FoxHoundNeighbours.isStep(dim, figure, from, to)) {
+            return false;
+        }
+        origin = FoxHoundBitboard.toCoordinate(from, dim);
+        dest = FoxHoundBitboard.toCoordinate(to, dim);
 
         //Checks if there's already a piece at the target coordinate and returns false if that is the case
         for (int place = 0; place < players.length; place++) {
-            if (players[place].equals(FoxHoundUtils.makeCoordinate(destLat, destVert))) {
-                return isValid;
+            if (players[place].equals(dest)) {
+                return false;
             }
         }
 
-        //Checks if the move type is valid when it is the fox's turn to move
+        //The fox must stand at the origin on the fox's turn, any hound on the hounds' turn
         if (figure == FOX_FIELD) {
-            if (players[players.length - 1].equals(makeCoordinate(originLat, originVert)) &&
-                    destLat <= dim && destVert <= dim &&
-                    (destLat  == originLat +  1 || destLat  == originLat  - 1) &&
-                    (destVert == originVert + 1 || destVert == originVert - 1)) {
-                isValid = true;
-            }
+            return players[players.length - 1].equals(origin);
         }
-
-        //Checks if the move type is valid when it is the hounds' turn to move
-        if (figure == HOUND_FIELD) {
-            if (destLat <= dim && destVert <= dim &&
-                    (destLat == originLat + 1 || destLat == originLat - 1) &&
-                    destVert == originVert + 1) {
-                boolean isHound = false;
-                for (int place = 0; place < players.length - 1 && !isHound; place++) {
-                    if (players[place].equals(FoxHoundUtils.makeCoordinate(originLat, originVert))) {
-                        isValid = true;
-                        isHound = true;
-                    }
-                }
+        for (int place = 0; place < players.length - 1; place++) {
+            if (players[place].equals(origin)) {
+                return true;
             }
         }
-        return isValid;
+        return false;
     }
 
     /**
@@ -216,7 +213,7 @@ public class FoxHoundUtils {
      * @return a value for the dimension of the board to be used throughout the program
      */
     public static int validateDim(Scanner stdin) {
-        System.out.println("Please enter the dimensions of the board");
+        System.out.println(DIM_PROMPT);
         int dimension = stdin.nextInt();
         if (!(dimension >= MIN_DIM && dimension <= MAX_DIM)) {
             dimension = DEFAULT_DIM;
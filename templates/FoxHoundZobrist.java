@@ -0,0 +1,120 @@
+import java.util.SplittableRandom;
+
+/**
+ * A utility class for the fox hound program.
+ *
+ * It holds the Zobrist keys used to hash positions: one random key per board square
+ * for a hound and for the fox, and one key for the hounds being the side to move.
+ * A position hash is the XOR of the keys of all its pieces, so moving a piece only
+ * takes two XOR operations, see {@link FoxHoundBitboard#move(int, int)}.
+ */
+public class FoxHoundZobrist {
+
+    /** Fixed seed so hashes are the same in every run, for example in saved tables. */
+    private static final long SEED = 0x5EEDF0C5L;
+
+    /** Per dimension keys of a hound on every square. */
+    private static final long[][] HOUND_KEYS = new long[FoxHoundUtils.MAX_DIM + 1][];
+    /** Per dimension keys of the fox on every square. */
+    private static final long[][] FOX_KEYS = new long[FoxHoundUtils.MAX_DIM + 1][];
+    /** Per dimension keys of a hound on the mirror image of every square, see {@link FoxHoundSymmetry}. */
+    private static final long[][] MIRROR_HOUND_KEYS = new long[FoxHoundUtils.MAX_DIM + 1][];
+    /** Per dimension keys of the fox on the mirror image of every square. */
+    private static final long[][] MIRROR_FOX_KEYS = new long[FoxHoundUtils.MAX_DIM + 1][];
+    /** Key mixed into the hash when the hounds are to move. */
+    private static final long HOUND_TURN_KEY;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        HOUND_TURN_KEY = random.nextLong();
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; dim++) {
+            HOUND_KEYS[dim] = new long[dim * dim];
+            FOX_KEYS[dim] = new long[dim * dim];
+            for (int square = 0; square < dim * dim; square++) {
+                HOUND_KEYS[dim][square] = random.nextLong();
+                FOX_KEYS[dim][square] = random.nextLong();
+            }
+            MIRROR_HOUND_KEYS[dim] = new long[dim * dim];
+            MIRROR_FOX_KEYS[dim] = new long[dim * dim];
+            for (int square = 0; square < dim * dim; square++) {
+                MIRROR_HOUND_KEYS[dim][square] = HOUND_KEYS[dim][FoxHoundSymmetry.mirror(square, dim)];
+                MIRROR_FOX_KEYS[dim][square] = FOX_KEYS[dim][FoxHoundSymmetry.mirror(square, dim)];
+            }
+        }
+    }
+
+    /**
+     * @param dim dimension of the board
+     * @param square square of the hound
+     * @return key of a hound standing on the square
+     */
+    public static long houndKey(int dim, int square) {
+        return HOUND_KEYS[dim][square];
+    }
+
+    /**
+     * @param dim dimension of the board
+     * @param square square of the fox
+     * @return key of the fox standing on the square
+     */
+    public static long foxKey(int dim, int square) {
+        return FOX_KEYS[dim][square];
+    }
+
+    /**
+     * @param dim dimension of the board
+     * @param square square of the hound
+     * @return key of a hound standing on the mirror image of the square
+     */
+    public static long mirrorHoundKey(int dim, int square) {
+        return MIRROR_HOUND_KEYS[dim][square];
+    }
+
+    /**
+     * @param dim dimension of the board
+     * @param square square of the fox
+     * @return key of the fox standing on the mirror image of the square
+     */
+    public static long mirrorFoxKey(int dim, int square) {
+        return MIRROR_FOX_KEYS[dim][square];
+    }
+
+    /**
+     * @param turn the figure to move
+     * @return key to mix into a piece hash for the given side to move
+     */
+    public static long turnKey(char turn) {
+        return turn == FoxHoundUtils.HOUND_FIELD ? HOUND_TURN_KEY : 0L;
+    }
+
+    /**
+     * Hash of a position including the side to move.
+     *
+     * @param board current position
+     * @param turn the figure to move
+     * @return Zobrist hash of the position
+     */
+    public static long hash(FoxHoundBitboard board, char turn) {
+        return board.getHash() ^ turnKey(turn);
+    }
+
+    /**
+     * Compute the piece hash of a board from scratch, used to initialise and verify
+     * the incrementally updated hash.
+     *
+     * @param board current position
+     * @return XOR of the keys of all pieces on the board
+     */
+    public static long computeHash(FoxHoundBitboard board) {
+        int dim = board.getDim();
+        long hash = 0L;
+        for (int square = board.nextHound(0); square != FoxHoundBitboard.NO_SQUARE;
+             square = board.nextHound(square + 1)) {
+            hash ^= houndKey(dim, square);
+        }
+        if (board.getFox() != FoxHoundBitboard.NO_SQUARE) {
+            hash ^= foxKey(dim, board.getFox());
+        }
+        return hash;
+    }
+}
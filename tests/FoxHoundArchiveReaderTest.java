@@ -0,0 +1,129 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class FoxHoundArchiveReaderTest {
+
+    private static final int GAMES = 3000;
+
+    private static Path archive;
+    private static long totalMoves;
+
+    @BeforeClass
+    public static void writeArchive() throws IOException {
+        File tmpFile = File.createTempFile("foxHoundArchive", ".fha");
+        tmpFile.deleteOnExit();
+        Files.delete(tmpFile.toPath());
+        archive = tmpFile.toPath();
+        int[] history = new int[32];
+        try (FoxHoundArchiveWriter writer = new FoxHoundArchiveWriter(archive)) {
+            for (int game = 0; game < GAMES; game++) {
+                int dim = FoxHoundUtils.MIN_DIM + game % 23;
+                FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+                FoxHoundMoveGenerator generator = new FoxHoundMoveGenerator(dim);
+                int[] moves = new int[FoxHoundMoveGenerator.MAX_MOVES];
+                char turn = FoxHoundUtils.FOX_FIELD;
+                int length = 0;
+                for (int count; length < game % history.length
+                        && (count = generator.generate(board, turn, moves)) > 0; length++) {
+                    history[length] = moves[(game + length) % count];
+                    board.move(FoxHoundMoveGenerator.from(history[length]), FoxHoundMoveGenerator.to(history[length]));
+                    turn = FoxHoundSearch.opponent(turn);
+                }
+                writer.append(board, turn, history, length);
+                totalMoves += length;
+            }
+        }
+    }
+
+    @AfterClass
+    public static void deleteArchive() throws IOException {
+        Files.deleteIfExists(archive);
+    }
+
+    private static void assertSameGame(FoxHoundGameRecord expected, FoxHoundGameRecord actual) {
+        assertEquals(expected.getDim(), actual.getDim());
+        assertEquals(expected.getTurn(), actual.getTurn());
+        assertArrayEquals(expected.getPlayers(), actual.getPlayers());
+        assertArrayEquals(expected.getHistory(), actual.getHistory());
+    }
+
+    @Test
+    public void testRandomAccess() throws IOException {
+        List<FoxHoundGameRecord> expected = FoxHoundBinaryIO.loadArchive(archive);
+        FoxHoundArchiveReader reader = new FoxHoundArchiveReader(archive);
+        FoxHoundGameRecord record = new FoxHoundGameRecord();
+
+        assertEquals(GAMES, reader.getGameCount());
+        for (int game = GAMES - 1; game >= 0; game -= 13) {
+            reader.read(game, record);
+            assertSameGame(expected.get(game), record);
+        }
+    }
+
+    @Test
+    public void testCursorReusesRecord() throws IOException {
+        List<FoxHoundGameRecord> expected = FoxHoundBinaryIO.loadArchive(archive);
+        FoxHoundArchiveReader.Cursor cursor = new FoxHoundArchiveReader(archive).cursor();
+
+        FoxHoundGameRecord first = cursor.next();
+        assertSameGame(expected.get(0), first);
+        int game = 1;
+        while (cursor.hasNext()) {
+            FoxHoundGameRecord record = cursor.next();
+            assertSame("Cursor expected to reuse its record.", first, record);
+            assertSameGame(expected.get(game++), record);
+        }
+        assertEquals(GAMES, game);
+    }
+
+    @Test
+    public void testSmallSegments() throws IOException {
+        List<FoxHoundGameRecord> expected = FoxHoundBinaryIO.loadArchive(archive);
+        FoxHoundArchiveReader reader = new FoxHoundArchiveReader(archive, 4096);
+        FoxHoundArchiveReader.Cursor cursor = reader.cursor(100, 2900);
+
+        for (int game = 100; game < 2900; game++) {
+            assertEquals(game, cursor.nextIndex());
+            assertSameGame(expected.get(game), cursor.next());
+        }
+        assertFalse(cursor.hasNext());
+    }
+
+    @Test
+    public void testParallelScan() throws IOException {
+        FoxHoundArchiveReader reader = new FoxHoundArchiveReader(archive, 8192);
+        int ranges = 8;
+
+        long moves = IntStream.range(0, ranges).parallel().mapToLong(range -> {
+            FoxHoundArchiveReader.Cursor cursor = reader.cursor(range * GAMES / ranges, (range + 1) * GAMES / ranges);
+            long sum = 0;
+            while (cursor.hasNext()) {
+                sum += cursor.next().getHistoryLength();
+            }
+            return sum;
+        }).sum();
+
+        assertEquals(totalMoves, moves);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testCursorEnd() throws IOException {
+        new FoxHoundArchiveReader(archive).cursor(5, 5).next();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidGame() throws IOException {
+        new FoxHoundArchiveReader(archive).read(GAMES);
+    }
+}
@@ -0,0 +1,156 @@
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundBatchValidatorTest {
+
+    private static final String START = "F 8 B1 D1 F1 H1 E8";
+
+    @Test
+    public void testPositionCodes() {
+        String[] positions = {
+                START,
+                "H B3 E4 C6 E6 D5",
+                null,
+                "X 8 B1 D1 F1 H1 E8",
+                "F 30 B1 D1 F1 H1 E8",
+                "F 8 B1 D1 F1 H1",
+                "F 8 B1 D1 F1 I1 E8",
+                "F 8 B1 B1 F1 H1 E8",
+                "F 8 B1 D1 F1 H1 E8 C8",
+                "F 8 B1 D1 F1 H1 E08",
+                "F 8 B1 D1 F1 H1 E\u00e98",
+                "F 8 B1 D1 F1 H1 E8\n"
+        };
+        int[] expected = {
+                FoxHoundBatchValidator.VALID,
+                FoxHoundBatchValidator.VALID,
+                FoxHoundBatchValidator.NO_RECORD,
+                FoxHoundBatchValidator.INVALID_TURN,
+                FoxHoundBatchValidator.INVALID_DIMENSION,
+                FoxHoundBatchValidator.MISSING_PIECES,
+                FoxHoundBatchValidator.INVALID_POSITION,
+                FoxHoundBatchValidator.SHARED_SQUARE,
+                FoxHoundBatchValidator.TOO_MANY_PIECES,
+                FoxHoundBatchValidator.INVALID_POSITION,
+                FoxHoundBatchValidator.INVALID_POSITION,
+                FoxHoundBatchValidator.VALID
+        };
+        FoxHoundBatchValidator.Result result = FoxHoundBatchValidator.validatePositions(positions);
+
+        assertEquals(positions.length, result.size());
+        for (int i = 0; i < positions.length; i++) {
+            assertEquals("Record " + i, expected[i], result.getCode(i));
+            assertEquals(expected[i] == FoxHoundBatchValidator.VALID, result.isValid(i));
+        }
+        assertEquals(3, result.getValidCount());
+        assertEquals(0b100000000011L, result.getBitmap()[0]);
+    }
+
+    @Test
+    public void testBytesAndStreamMatchStrings() {
+        String[] positions = {START, "H 8 B1 D1 F1 H1", "H 26 A1 C1 E1 G1 I1 K1 M1 O1 Q1 S1 U1 W1 Y1 Z26"};
+        byte[][] bytes = new byte[positions.length][];
+        for (int i = 0; i < positions.length; i++) {
+            bytes[i] = positions[i].getBytes(StandardCharsets.US_ASCII);
+        }
+        byte[] expected = FoxHoundBatchValidator.validatePositions(positions).getCodes();
+
+        assertArrayEquals(new byte[]{0, FoxHoundBatchValidator.MISSING_PIECES, 0}, expected);
+        assertArrayEquals(expected, FoxHoundBatchValidator.validatePositions(bytes).getCodes());
+        assertArrayEquals(expected, FoxHoundBatchValidator.validatePositions(Stream.of(positions)).getCodes());
+    }
+
+    @Test
+    public void testMoveCodes() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        String[] positions = {START, START, START, START, START, "H 8 B1 D1 F1 H1 E8", "H 8 B1 D1 F1 H1 E8",
+                "F 8 B1 D1 F1 H1", null};
+        int[] moves = {
+                move("E8", "D7", dim),
+                move("E8", "E7", dim),
+                move("B1", "C2", dim),
+                FoxHoundMoveGenerator.pack(60, dim * dim),
+                FoxHoundSearch.NO_MOVE,
+                move("B1", "C2", dim),
+                move("E8", "D7", dim),
+                move("E8", "D7", dim),
+                move("E8", "D7", dim)
+        };
+        int[] expected = {
+                FoxHoundBatchValidator.VALID,
+                FoxHoundBatchValidator.MOVE_NOT_A_STEP,
+                FoxHoundBatchValidator.MOVE_WRONG_PIECE,
+                FoxHoundBatchValidator.MOVE_OFF_BOARD,
+                FoxHoundBatchValidator.MOVE_OFF_BOARD,
+                FoxHoundBatchValidator.VALID,
+                FoxHoundBatchValidator.MOVE_WRONG_PIECE,
+                FoxHoundBatchValidator.MISSING_PIECES,
+                FoxHoundBatchValidator.NO_RECORD
+        };
+        FoxHoundBatchValidator.Result result = FoxHoundBatchValidator.validateMoves(positions, moves);
+
+        for (int i = 0; i < moves.length; i++) {
+            assertEquals("Move " + i, expected[i], result.getCode(i));
+        }
+        int occupied = FoxHoundBatchValidator.validateMoves(new String[]{"H 8 B1 C2 F1 H1 E8"},
+                new int[]{move("B1", "C2", dim)}).getCode(0);
+        assertEquals(FoxHoundBatchValidator.MOVE_OCCUPIED, occupied);
+    }
+
+    private static int move(String origin, String dest, int dim) {
+        return FoxHoundMoveGenerator.pack(FoxHoundBitboard.toSquare(origin, dim), FoxHoundBitboard.toSquare(dest, dim));
+    }
+
+    @Test
+    public void testLargeBatchAcrossChunks() {
+        int size = 3 * FoxHoundBatchValidator.CHUNK + 17;
+        String[] positions = new String[size];
+        for (int i = 0; i < size; i++) {
+            positions[i] = i % 7 == 0 ? "F 8 B1 D1 F1 H1 E9" : START;
+        }
+        FoxHoundBatchValidator.Result result = FoxHoundBatchValidator.validatePositions(positions);
+
+        int invalid = 0;
+        for (int i = result.nextInvalid(0); i >= 0; i = result.nextInvalid(i + 1)) {
+            assertEquals(0, i % 7);
+            assertEquals(FoxHoundBatchValidator.INVALID_POSITION, result.getCode(i));
+            invalid++;
+        }
+        assertEquals((size + 6) / 7, invalid);
+        assertEquals(size - invalid, result.getValidCount());
+        assertEquals((size + Long.SIZE - 1) / Long.SIZE, result.getBitmap().length);
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        FoxHoundBatchValidator.Result result = FoxHoundBatchValidator.validatePositions(new String[0]);
+        assertEquals(0, result.size());
+        assertEquals(-1, result.nextInvalid(0));
+        assertEquals(0, result.getBitmap().length);
+    }
+
+    @Test
+    public void testDescribe() {
+        assertEquals("two pieces on one square", FoxHoundBatchValidator.describe(FoxHoundBatchValidator.SHARED_SQUARE));
+        assertEquals("valid", FoxHoundBatchValidator.describe(FoxHoundBatchValidator.VALID));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDescribeUnknownCode() {
+        FoxHoundBatchValidator.describe(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMismatchedMoves() {
+        FoxHoundBatchValidator.validateMoves(new String[]{START}, new int[0]);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testCodeOutOfRange() {
+        FoxHoundBatchValidator.validatePositions(new String[]{START}).getCode(1);
+    }
+}
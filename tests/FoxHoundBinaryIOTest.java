@@ -0,0 +1,188 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundBinaryIOTest {
+
+    private Path getTmpPath() {
+        try {
+            File tmpFile = File.createTempFile("foxHoundBinary", ".fhg");
+            tmpFile.deleteOnExit();
+            Files.delete(tmpFile.toPath());
+            return tmpFile.toPath();
+        } catch(IOException e) {
+            throw new UncheckedIOException("Creating save file failed.", e);
+        }
+    }
+
+    private FoxHoundBitboard playRandomMoves(int dim, int[] history, int count) {
+        FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+        FoxHoundMoveGenerator generator = new FoxHoundMoveGenerator(dim);
+        int[] moves = new int[FoxHoundMoveGenerator.MAX_MOVES];
+        char turn = FoxHoundUtils.FOX_FIELD;
+        for (int i = 0; i < count; i++) {
+            int moveCount = generator.generate(board, turn, moves);
+            history[i] = moves[(i * 7) % moveCount];
+            board.move(FoxHoundMoveGenerator.from(history[i]), FoxHoundMoveGenerator.to(history[i]));
+            turn = FoxHoundSearch.opponent(turn);
+        }
+        return board;
+    }
+
+    @Test
+    public void testRecordRoundTrip() {
+        for (int dim : new int[]{FoxHoundUtils.MIN_DIM, 16, 17, FoxHoundUtils.MAX_DIM}) {
+            int[] history = new int[6];
+            FoxHoundBitboard board = playRandomMoves(dim, history, history.length);
+            ByteBuffer buffer = ByteBuffer.allocate(FoxHoundBinaryIO.recordBytes(dim, board.getHoundCount(), 6));
+
+            FoxHoundBinaryIO.encode(board, FoxHoundUtils.FOX_FIELD, history, history.length, buffer);
+            assertFalse("Record size expected to be exact at dimension " + dim, buffer.hasRemaining());
+
+            FoxHoundGameRecord record = new FoxHoundGameRecord();
+            FoxHoundBinaryIO.decode(buffer.flip(), record);
+            assertArrayEquals(board.toPlayers(), record.getPlayers());
+            assertEquals(FoxHoundUtils.FOX_FIELD, record.getTurn());
+            assertArrayEquals(history, record.getHistory());
+        }
+    }
+
+    @Test
+    public void testSquareWidth() {
+        assertEquals(4 + 5, FoxHoundBinaryIO.recordBytes(8, 4, 0));
+        assertEquals(4 + 14 * 2, FoxHoundBinaryIO.recordBytes(26, 13, 0));
+    }
+
+    @Test
+    public void testSaveAndLoadGame() throws IOException {
+        Path file = getTmpPath();
+        String[] players = {"A4", "F5", "C6", "E6", "G6", "J7", "D8"};
+
+        FoxHoundBinaryIO.saveGame(players, FoxHoundUtils.HOUND_FIELD, 10, file);
+        FoxHoundGameRecord record = FoxHoundBinaryIO.loadGame(file);
+
+        assertEquals(10, record.getDim());
+        assertEquals(FoxHoundUtils.HOUND_FIELD, record.getTurn());
+        assertArrayEquals(players, record.getPlayers());
+        assertEquals(0, record.getHistoryLength());
+        Files.delete(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void testSaveDoesNotOverwrite() throws IOException {
+        Path file = getTmpPath();
+        String[] players = FoxHoundUtils.initialisePositions(8);
+        FoxHoundBinaryIO.saveGame(players, FoxHoundUtils.FOX_FIELD, 8, file);
+        try {
+            FoxHoundBinaryIO.saveGame(players, FoxHoundUtils.FOX_FIELD, 8, file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLoadTextSaveRejected() throws IOException {
+        Path file = getTmpPath();
+        Files.writeString(file, "F B1 D1 F1 H1 E8");
+        try {
+            FoxHoundBinaryIO.loadGame(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testArchiveAppend() throws IOException {
+        Path file = getTmpPath();
+        int[] history = new int[40];
+        try (FoxHoundArchiveWriter writer = new FoxHoundArchiveWriter(file)) {
+            for (int i = 0; i < 5000; i++) {
+                int dim = FoxHoundUtils.MIN_DIM + i % 23;
+                int length = i % 10;
+                FoxHoundBitboard board = playRandomMoves(dim, history, length);
+                writer.append(board, length % 2 == 0 ? FoxHoundUtils.FOX_FIELD : FoxHoundUtils.HOUND_FIELD,
+                        history, length);
+            }
+        }
+        try (FoxHoundArchiveWriter writer = new FoxHoundArchiveWriter(file)) {
+            assertEquals(5000, writer.getGameCount());
+            writer.append(playRandomMoves(8, history, 40), FoxHoundUtils.FOX_FIELD, history, 40);
+        }
+
+        List<FoxHoundGameRecord> games = FoxHoundBinaryIO.loadArchive(file);
+        assertEquals(5001, games.size());
+        for (int i = 0; i < 5000; i += 487) {
+            int dim = FoxHoundUtils.MIN_DIM + i % 23;
+            int length = i % 10;
+            FoxHoundBitboard board = playRandomMoves(dim, history, length);
+            FoxHoundGameRecord record = games.get(i);
+            assertArrayEquals("Game " + i + " not as expected.", board.toPlayers(), record.getPlayers());
+            assertEquals(length, record.getHistoryLength());
+        }
+        assertEquals(40, games.get(5000).getHistoryLength());
+        Files.delete(file);
+    }
+
+    @Test
+    public void testUnclosedAppendKeepsArchive() throws IOException {
+        Path file = getTmpPath();
+        Path crashed = getTmpPath();
+        int[] history = new int[40];
+        try (FoxHoundArchiveWriter writer = new FoxHoundArchiveWriter(file)) {
+            assertEquals(0, FoxHoundBinaryIO.loadArchive(file).size());
+            for (int i = 0; i < 100; i++) {
+                writer.append(playRandomMoves(8, history, i % 10), FoxHoundUtils.FOX_FIELD, history, i % 10);
+            }
+        }
+        try (FoxHoundArchiveWriter writer = new FoxHoundArchiveWriter(file)) {
+            // enough records to write some of them out
+            for (int i = 0; i < 5000; i++) {
+                writer.append(playRandomMoves(8, history, 20), FoxHoundUtils.FOX_FIELD, history, 20);
+            }
+            // the file as a crash would leave it
+            Files.copy(file, crashed);
+        }
+
+        try {
+            assertTrue(Files.size(crashed) > 100_000);
+            assertEquals("Games before the unclosed writer expected to be readable.",
+                    100, FoxHoundBinaryIO.loadArchive(crashed).size());
+            assertEquals(100, new FoxHoundArchiveReader(crashed).getGameCount());
+            assertEquals(9, new FoxHoundArchiveReader(crashed).read(99).getHistoryLength());
+
+            try (FoxHoundArchiveWriter writer = new FoxHoundArchiveWriter(crashed)) {
+                assertEquals(100, writer.getGameCount());
+                writer.append(playRandomMoves(8, history, 40), FoxHoundUtils.FOX_FIELD, history, 40);
+            }
+            List<FoxHoundGameRecord> games = FoxHoundBinaryIO.loadArchive(crashed);
+            assertEquals(101, games.size());
+            assertEquals(9, games.get(99).getHistoryLength());
+            assertEquals(40, games.get(100).getHistoryLength());
+            assertEquals(5100, FoxHoundBinaryIO.loadArchive(file).size());
+        } finally {
+            Files.delete(file);
+            Files.delete(crashed);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnclosedArchiveRejected() throws IOException {
+        Path file = getTmpPath();
+        ByteBuffer header = ByteBuffer.allocate(64);
+        FoxHoundBinaryIO.writeHeader(FoxHoundArchiveWriter.ARCHIVE_MAGIC, header);
+        Files.write(file, header.array());
+        try {
+            FoxHoundBinaryIO.loadArchive(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class FoxHoundBitboardTest {
+
+    private String[] defaultPlayers;
+
+    @Before
+    public void setup() {
+        defaultPlayers = new String[]{"B1","D1","F1","H1","E8"};
+    }
+
+    // ------------------------- conversion --------------------
+
+    @Test
+    public void testPlayersRoundTrip() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(defaultPlayers, dim);
+
+        assertEquals("Hound count not as expected.", 4, board.getHoundCount());
+        assertTrue("Fox expected on E8.", board.isFox(FoxHoundBitboard.toSquare("E8", dim)));
+        assertArrayEquals("Converted players not as expected.", defaultPlayers, board.toPlayers());
+    }
+
+    @Test
+    public void testPlayersRoundTripMaxDim() {
+        int dim = FoxHoundUtils.MAX_DIM;
+        String[] players = FoxHoundUtils.initialisePositions(dim);
+        FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(players, dim);
+
+        assertArrayEquals("Converted players not as expected.", players, board.toPlayers());
+    }
+
+    @Test
+    public void testToSquareInvalid() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        assertEquals(FoxHoundBitboard.NO_SQUARE, FoxHoundBitboard.toSquare("I1", dim));
+        assertEquals(FoxHoundBitboard.NO_SQUARE, FoxHoundBitboard.toSquare("A9", dim));
+        assertEquals(FoxHoundBitboard.NO_SQUARE, FoxHoundBitboard.toSquare("A0", dim));
+        assertEquals(FoxHoundBitboard.NO_SQUARE, FoxHoundBitboard.toSquare("@1", dim));
+        assertEquals(FoxHoundBitboard.NO_SQUARE, FoxHoundBitboard.toSquare("2C", dim));
+        assertEquals(FoxHoundBitboard.NO_SQUARE, FoxHoundBitboard.toSquare(null, dim));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromPlayersSharedSquare() {
+        FoxHoundBitboard.fromPlayers(new String[]{"B1","B1","F1","H1","E8"}, FoxHoundUtils.DEFAULT_DIM);
+    }
+
+    // ------------------------- move generation --------------------
+
+    @Test
+    public void testFoxTargets() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(new String[]{"C4","E4","C6","B1","D5"}, dim);
+        long[] targets = board.foxTargets(new long[FoxHoundBitboard.wordCount(dim)]);
+
+        assertTrue(FoxHoundBitboard.testBit(targets, FoxHoundBitboard.toSquare("E6", dim)));
+        assertFalse(FoxHoundBitboard.testBit(targets, FoxHoundBitboard.toSquare("C6", dim)));
+        assertEquals("Fox expected to have a single move.", 1, Long.bitCount(targets[0]));
+    }
+
+    @Test
+    public void testHoundTargetsAgreeWithIsValidMove() {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; dim++) {
+            String[] players = FoxHoundUtils.initialisePositions(dim);
+            FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(players, dim);
+            int words = FoxHoundBitboard.wordCount(dim);
+            long[] left = board.houndTargets(false, new long[words], new long[words]);
+            long[] right = board.houndTargets(true, new long[words], new long[words]);
+
+            for (int to = 0; to < dim * dim; to++) {
+                boolean fromRight = to % dim != dim - 1 && to - dim + 1 >= 0
+                        && board.isValidMove(FoxHoundUtils.HOUND_FIELD, to - dim + 1, to);
+                boolean fromLeft = to % dim != 0 && to - dim - 1 >= 0
+                        && board.isValidMove(FoxHoundUtils.HOUND_FIELD, to - dim - 1, to);
+                assertEquals("Left targets differ at dim " + dim, fromRight, FoxHoundBitboard.testBit(left, to));
+                assertEquals("Right targets differ at dim " + dim, fromLeft, FoxHoundBitboard.testBit(right, to));
+            }
+        }
+    }
+
+    @Test
+    public void testMoveAndUndo() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(defaultPlayers, dim);
+        int from = FoxHoundBitboard.toSquare("D1", dim);
+        int to = FoxHoundBitboard.toSquare("E2", dim);
+
+        assertTrue(board.isValidMove(FoxHoundUtils.HOUND_FIELD, from, to));
+        board.move(from, to);
+        assertArrayEquals(new String[]{"B1","F1","H1","E2","E8"}, board.toPlayers());
+        board.move(to, from);
+        assertArrayEquals(defaultPlayers, board.toPlayers());
+    }
+}
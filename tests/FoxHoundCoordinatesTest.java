@@ -0,0 +1,63 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundCoordinatesTest {
+
+    @Test
+    public void testMakeCoordinateIsCanonical() {
+        for (int vert = 1; vert <= FoxHoundUtils.MAX_DIM; vert++) {
+            for (int lat = 1; lat <= FoxHoundUtils.MAX_DIM; lat++) {
+                String expected = Character.toString(FoxHoundUtils.CHAR_SHIFT + lat) + vert;
+                String coordinate = FoxHoundUtils.makeCoordinate(lat, vert);
+                assertEquals(expected, coordinate);
+                assertSame(coordinate, FoxHoundUtils.makeCoordinate(lat, vert));
+                assertSame(coordinate, FoxHoundCoordinates.canonical(expected));
+            }
+        }
+        assertSame("B1", FoxHoundUtils.makeCoordinate(2, 1));
+    }
+
+    @Test
+    public void testOutsideLargestBoard() {
+        assertEquals("@1", FoxHoundUtils.makeCoordinate(0, 1));
+        assertEquals("A27", FoxHoundUtils.makeCoordinate(1, 27));
+        assertNull(FoxHoundCoordinates.get(0, 1));
+        assertNull(FoxHoundCoordinates.get(1, 27));
+    }
+
+    @Test
+    public void testOfSquare() {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; dim++) {
+            for (int square = 0; square < dim * dim; square++) {
+                String coordinate = FoxHoundCoordinates.ofSquare(square, dim);
+                assertSame(FoxHoundUtils.makeCoordinate(square % dim + 1, square / dim + 1), coordinate);
+                assertEquals(square, FoxHoundBitboard.toSquare(coordinate, dim));
+            }
+        }
+        assertEquals("A5", FoxHoundCoordinates.ofSquare(16, 4));
+    }
+
+    @Test
+    public void testCanonicalKeepsOtherText() {
+        String leadingZero = "C02";
+        assertSame(leadingZero, FoxHoundCoordinates.canonical(leadingZero));
+        String invalid = "@3";
+        assertSame(invalid, FoxHoundCoordinates.canonical(invalid));
+        String copy = new String("D7");
+        assertNotSame(copy, "D7");
+        assertSame("D7", FoxHoundCoordinates.canonical(copy));
+    }
+
+    @Test
+    public void testPlayersAreCanonical() {
+        String[] players = FoxHoundUtils.initialisePositions(FoxHoundUtils.DEFAULT_DIM);
+        FoxHoundUtils.switchPlace(players, new String[]{"E8", new String("D7")});
+        for (String player : players) {
+            assertSame(player, FoxHoundCoordinates.canonical(player));
+        }
+        for (String player : FoxHoundBitboard.fromPlayers(players, FoxHoundUtils.DEFAULT_DIM).toPlayers()) {
+            assertSame(player, FoxHoundCoordinates.canonical(new String(player)));
+        }
+    }
+}
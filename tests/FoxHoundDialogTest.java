@@ -0,0 +1,191 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class FoxHoundDialogTest {
+
+    private static final String MENU = "Fox to move\n\n1. Move\n2. Save Game\n3. Load Game\n4. Exit\n\nEnter 1 - 4:\n";
+    private static final String POS_QUERY_MSG =
+            "Provide origin and destination coordinates.\nEnter two positions between A1-H8:\n\n";
+    private static final String POS_QUERY_ERROR =
+            "ERROR: Please enter valid coordinate pair separated by space.\n";
+
+    private ByteArrayOutputStream out;
+    private ByteArrayOutputStream err;
+
+    @Before
+    public void setup() {
+        out = new ByteArrayOutputStream();
+        err = new ByteArrayOutputStream();
+    }
+
+    private FoxHoundDialog dialog(FoxHoundGameState state, Path dir) {
+        return new FoxHoundDialog(state, name -> FoxHoundSession.resolve(dir, name),
+                new PrintStream(out, true), new PrintStream(err, true));
+    }
+
+    private static ByteBuffer input(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String takeOut() {
+        String text = out.toString().replace("\r", "");
+        out.reset();
+        return text;
+    }
+
+    private String takeErr() {
+        String text = err.toString().replace("\r", "");
+        err.reset();
+        return text;
+    }
+
+    private static String board(FoxHoundGameState state) {
+        ByteArrayOutputStream board = new ByteArrayOutputStream();
+        FoxHoundUI.fancyDisplayBoard(state.getPlayers(), state.getDim(), new PrintStream(board, true));
+        return "\n#################################\n\n" + board.toString().replace("\r", "");
+    }
+
+    @Test
+    public void testDimensionAndMenu() {
+        FoxHoundDialog dialog = dialog(null, Path.of("."));
+        assertTrue(dialog.start());
+        assertEquals("Please enter the dimensions of the board\n", takeOut());
+        assertEquals(FoxHoundDialog.Step.DIMENSION, dialog.getStep());
+
+        assertTrue(dialog.receive(input("\n30\n"), false));
+        assertEquals(FoxHoundUtils.DEFAULT_DIM, dialog.getState().getDim());
+        assertEquals(board(dialog.getState()) + MENU, takeOut());
+
+        // rejected twice, once more for the rest of the dimension's line
+        assertTrue(dialog.receive(input("7\n"), false));
+        assertEquals("Please enter valid number.\n" + MENU + "Please enter valid number.\n" + MENU, takeOut());
+        assertTrue(dialog.receive(input("1\n"), false));
+        assertEquals(POS_QUERY_MSG, takeOut());
+        assertEquals(FoxHoundDialog.Step.MOVE, dialog.getStep());
+        assertEquals("", takeErr());
+    }
+
+    @Test
+    public void testMoveAcrossBuffers() {
+        FoxHoundGameState state = new FoxHoundGameState(FoxHoundUtils.DEFAULT_DIM,
+                FoxHoundUtils.initialisePositions(FoxHoundUtils.DEFAULT_DIM), FoxHoundUtils.FOX_FIELD);
+        FoxHoundDialog dialog = dialog(state, Path.of("."));
+        dialog.start();
+        takeOut();
+
+        ByteBuffer in = ByteBuffer.allocate(64);
+        in.put("1\r\nE8 ".getBytes(StandardCharsets.US_ASCII)).flip();
+        assertTrue(dialog.receive(in, false));
+        assertEquals("E8 ", StandardCharsets.US_ASCII.decode(in.duplicate()).toString());
+        in.compact();
+        in.put("D7\n".getBytes(StandardCharsets.US_ASCII)).flip();
+        assertTrue(dialog.receive(in, false));
+        assertFalse(in.hasRemaining());
+
+        assertArrayEquals(new String[]{"B1", "D1", "F1", "H1", "D7"}, state.getPlayers());
+        assertEquals(POS_QUERY_MSG + board(state) + MENU.replace("Fox", "Hounds"), takeOut());
+    }
+
+    @Test
+    public void testInvalidMoves() {
+        FoxHoundGameState state = new FoxHoundGameState(FoxHoundUtils.DEFAULT_DIM,
+                FoxHoundUtils.initialisePositions(FoxHoundUtils.DEFAULT_DIM), FoxHoundUtils.FOX_FIELD);
+        FoxHoundDialog dialog = dialog(state, Path.of("."));
+        dialog.start();
+        dialog.receive(input("1\n"), false);
+        takeOut();
+
+        dialog.receive(input("E8\n E8 D7\nE8 Dx\nE8 E7\n"), false);
+        assertEquals(POS_QUERY_MSG + POS_QUERY_MSG + POS_QUERY_MSG + POS_QUERY_MSG, takeOut());
+        assertEquals(POS_QUERY_ERROR + POS_QUERY_ERROR
+                + "java.lang.NumberFormatException: For input string: \"x\"\n" + POS_QUERY_ERROR, takeErr());
+        assertEquals(FoxHoundDialog.Step.MOVE, dialog.getStep());
+    }
+
+    @Test
+    public void testWinEndsDialog() {
+        FoxHoundGameState state = new FoxHoundGameState(FoxHoundUtils.DEFAULT_DIM,
+                new String[]{"B3", "D3", "F1", "H1", "C2"}, FoxHoundUtils.FOX_FIELD);
+        FoxHoundDialog dialog = dialog(state, Path.of("."));
+        dialog.start();
+        takeOut();
+
+        ByteBuffer in = input("1\nC2 E1\nC2 D1\n4\n");
+        assertFalse(dialog.receive(in, false));
+        assertFalse(in.hasRemaining());
+        assertEquals(POS_QUERY_MSG + POS_QUERY_MSG + "The Fox wins!\n", takeOut());
+        assertEquals(FoxHoundDialog.Step.DONE, dialog.getStep());
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        Path dir = Files.createTempDirectory("foxHoundDialog");
+        FoxHoundGameState state = new FoxHoundGameState(FoxHoundUtils.DEFAULT_DIM,
+                FoxHoundUtils.initialisePositions(FoxHoundUtils.DEFAULT_DIM), FoxHoundUtils.FOX_FIELD);
+        FoxHoundDialog dialog = dialog(state, dir);
+        dialog.start();
+
+        dialog.receive(input("2\ngame.txt\n1\nE8 D7\n2\n../escape.txt\n3\ngame.txt"), true);
+        assertEquals("ERROR: Saving file failed.\n", takeErr());
+        assertTrue(Files.exists(dir.resolve("game.txt")));
+        assertFalse(Files.exists(dir.getParent().resolve("escape.txt")));
+        assertArrayEquals(FoxHoundUtils.initialisePositions(FoxHoundUtils.DEFAULT_DIM), state.getPlayers());
+        assertEquals(FoxHoundUtils.FOX_FIELD, state.getTurn());
+
+        dialog.receive(input("3\nmissing.txt\n4\n"), false);
+        assertTrue(takeErr().endsWith("ERROR: Loading from file failed.\n"));
+        assertEquals(FoxHoundDialog.Step.DONE, dialog.getStep());
+
+        Files.delete(dir.resolve("game.txt"));
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testMenuReadsLikeScanner() {
+        FoxHoundDialog dialog = dialog(null, Path.of("."));
+        dialog.start();
+        takeOut();
+
+        // the rest of the dimension's line and the blank line each reject the entry once more
+        dialog.receive(input("8\n\nabc\n"), false);
+        String error = "Please enter valid number.\n" + MENU;
+        assertEquals(board(dialog.getState()) + MENU + error + error + error, takeOut());
+
+        dialog.receive(input("\n\n 3 extra\n"), false);
+        assertEquals("Enter file path:\n", takeOut());
+        assertEquals(FoxHoundDialog.Step.LOAD, dialog.getStep());
+    }
+
+    @Test
+    public void testJournal() throws IOException {
+        Path dir = Files.createTempDirectory("foxHoundDialog");
+        Path file = dir.resolve("game.journal");
+        try (FoxHoundJournalCommitter committer = new FoxHoundJournalCommitter()) {
+            try (FoxHoundDialog dialog = dialog(null, dir)) {
+                dialog.journalTo(file, committer);
+                dialog.start();
+                dialog.receive(input("6\n1\nE6 D5\n"), false);
+            }
+        }
+        FoxHoundGameState recovered = FoxHoundJournal.recover(file);
+        assertEquals(6, recovered.getDim());
+        assertArrayEquals(new String[]{"B1", "D1", "F1", "D5"}, recovered.getPlayers());
+        Files.delete(file);
+        Files.delete(dir);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReceiveBeforeStart() {
+        dialog(null, Path.of(".")).receive(input("8\n"), false);
+    }
+}
@@ -0,0 +1,188 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundDiffRendererTest {
+
+    private String render(FoxHoundDiffRenderer diff, FoxHoundGameState state) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int written = diff.render(state.getPlayers(), out);
+        assertEquals(out.size(), written);
+        return out.toString();
+    }
+
+    @Test
+    public void testDeltaAfterMove() throws IOException {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundGameState state = new FoxHoundGameState(dim, FoxHoundUtils.initialisePositions(dim),
+                FoxHoundUtils.FOX_FIELD);
+        FoxHoundDiffRenderer diff = new FoxHoundDiffRenderer(FoxHoundRenderer.fancy(dim),
+                FoxHoundDiffRenderer.Mode.DELTA);
+
+        assertEquals("First frame expected to be a full redraw.",
+                FoxHoundRenderer.fancy(dim).render(state.getPlayers()), render(diff, state));
+
+        state.makeMove("E8", "D7");
+        assertEquals("DELTA D7F E8." + System.lineSeparator(), render(diff, state));
+        assertEquals("DELTA" + System.lineSeparator(), render(diff, state));
+
+        diff.reset();
+        assertEquals(FoxHoundRenderer.fancy(dim).render(state.getPlayers()), render(diff, state));
+    }
+
+    /**
+     * A terminal of a fixed height which scrolls up when a line break is printed on its last line,
+     * understanding the ANSI sequences sent by the renderer.
+     */
+    private static class Terminal {
+        final int height;
+        final List<StringBuilder> screen = new ArrayList<>();
+        int row;
+        int column;
+
+        Terminal(int height) {
+            this.height = height;
+            for (int i = 0; i < height; i++) {
+                screen.add(new StringBuilder());
+            }
+        }
+
+        void print(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '\u001b') {
+                    int end = i + 2;
+                    while (!Character.isLetter(text.charAt(end))) {
+                        end++;
+                    }
+                    String argument = text.substring(i + 2, end);
+                    int n = argument.isEmpty() || argument.contains(";") ? 1 : Integer.parseInt(argument);
+                    switch (text.charAt(end)) {
+                        case 'A': row = Math.max(0, row - n); break;
+                        case 'B': row = Math.min(height - 1, row + n); break;
+                        case 'G': column = n - 1; break;
+                        case 'H': row = 0; column = 0; break;
+                        case 'J':
+                            int from = argument.equals("2") ? 0 : row;
+                            if (from == row) {
+                                screen.get(row).setLength(Math.min(column, screen.get(row).length()));
+                                from++;
+                            }
+                            for (int r = from; r < height; r++) {
+                                screen.get(r).setLength(0);
+                            }
+                            break;
+                        default: throw new IllegalArgumentException("Unexpected sequence " + argument);
+                    }
+                    i = end;
+                } else if (c == '\n') {
+                    column = 0;
+                    if (row == height - 1) {
+                        screen.remove(0);
+                        screen.add(new StringBuilder());
+                    } else {
+                        row++;
+                    }
+                } else if (c == '\r') {
+                    column = 0;
+                } else {
+                    StringBuilder line = screen.get(row);
+                    while (line.length() <= column) {
+                        line.append(' ');
+                    }
+                    line.setCharAt(column++, c);
+                }
+            }
+        }
+
+        /** @return the given number of lines above the cursor's line */
+        String linesAbove(int count) {
+            StringBuilder text = new StringBuilder();
+            for (int r = row - count; r < row; r++) {
+                text.append(screen.get(r)).append('\n');
+            }
+            return text.toString();
+        }
+    }
+
+    @Test
+    public void testAnsiRepaintMatchesFullFrame() throws IOException {
+        int dim = 12;
+        FoxHoundGameState state = new FoxHoundGameState(dim, FoxHoundUtils.initialisePositions(dim),
+                FoxHoundUtils.FOX_FIELD);
+        FoxHoundRenderer renderer = FoxHoundRenderer.fancy(dim);
+        Terminal terminal = new Terminal(renderer.lineCount() + 4);
+        FoxHoundDiffRenderer diff = new FoxHoundDiffRenderer(renderer, FoxHoundDiffRenderer.Mode.ANSI,
+                terminal.height);
+
+        String full = render(diff, state);
+        assertTrue(full.startsWith("\u001b[H\u001b[2J"));
+        terminal.print(full);
+        // the request lines fill the screen below the frame
+        terminal.print("MOVE G12 F11\nOK H\nDIFF\n");
+        diff.linesWritten(3);
+        state.makeMove("G12", "F11");
+        String update = render(diff, state);
+        assertFalse(update.startsWith("\u001b[H"));
+        terminal.print(update);
+        assertEquals("Repainted frame expected to match a full frame.",
+                renderer.render(state.getPlayers()), terminal.linesAbove(renderer.lineCount()));
+
+        // one more line scrolls the top of the frame off the screen
+        terminal.print("OK H\nMOVE B1 C2\nOK F\nDIFF\n");
+        diff.linesWritten(4);
+        state.makeMove("B1", "C2");
+        update = render(diff, state);
+        assertTrue(update.startsWith("\u001b[H"));
+        terminal.print(update);
+        assertEquals("Repainted frame expected to match a full frame.",
+                renderer.render(state.getPlayers()), terminal.linesAbove(renderer.lineCount()));
+    }
+
+    @Test
+    public void testAnsiFullFrameWhenScrolledOff() throws IOException {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundGameState state = new FoxHoundGameState(dim, FoxHoundUtils.initialisePositions(dim),
+                FoxHoundUtils.FOX_FIELD);
+        FoxHoundRenderer renderer = FoxHoundRenderer.fancy(dim);
+        FoxHoundDiffRenderer diff = new FoxHoundDiffRenderer(renderer, FoxHoundDiffRenderer.Mode.ANSI,
+                renderer.lineCount() + 2);
+        render(diff, state);
+
+        diff.linesWritten(1);
+        state.makeMove("E8", "D7");
+        assertFalse(render(diff, state).startsWith("\u001b[H"));
+        diff.linesWritten(2);
+        assertTrue("Frame scrolled off expected to be sent in full.", render(diff, state).startsWith("\u001b[H"));
+
+        FoxHoundDiffRenderer large = new FoxHoundDiffRenderer(FoxHoundRenderer.fancy(FoxHoundUtils.MAX_DIM),
+                FoxHoundDiffRenderer.Mode.ANSI);
+        FoxHoundGameState game = new FoxHoundGameState(FoxHoundUtils.MAX_DIM,
+                FoxHoundUtils.initialisePositions(FoxHoundUtils.MAX_DIM), FoxHoundUtils.FOX_FIELD);
+        render(large, game);
+        assertTrue("Frame taller than the screen expected to be sent in full.",
+                render(large, game).startsWith("\u001b[H"));
+    }
+
+    @Test
+    public void testDeltaMuchSmallerThanFrame() throws IOException {
+        int dim = FoxHoundUtils.MAX_DIM;
+        FoxHoundGameState state = new FoxHoundGameState(dim, FoxHoundUtils.initialisePositions(dim),
+                FoxHoundUtils.FOX_FIELD);
+        FoxHoundRenderer renderer = FoxHoundRenderer.fancy(dim);
+        // a terminal tall enough to show the whole frame and the cursor line below it
+        FoxHoundDiffRenderer diff = new FoxHoundDiffRenderer(renderer, FoxHoundDiffRenderer.Mode.ANSI,
+                renderer.lineCount() + 1);
+        int full = render(diff, state).length();
+
+        state.makeMove("O26", "N25");
+        int delta = render(diff, state).length();
+
+        assertTrue("Delta expected to be under a tenth of a frame: " + delta + " of " + full, delta * 10 < full);
+    }
+}
@@ -0,0 +1,111 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundEvaluatorTest {
+
+    private static final int DIM = FoxHoundUtils.DEFAULT_DIM;
+
+    private static int evaluate(FoxHoundEvaluator evaluator, String[] players, char side) {
+        return evaluator.evaluate(FoxHoundBitboard.fromPlayers(players, DIM), side);
+    }
+
+    @Test
+    public void testSingleFeatures() {
+        String[] start = FoxHoundUtils.initialisePositions(DIM);
+        // the fox in the last row has two moves, all hounds in one row ahead of it
+        assertEquals(0, evaluate(new FoxHoundEvaluator(1, 0, 0, 0, 0), start, FoxHoundUtils.FOX_FIELD));
+        assertEquals(2, evaluate(new FoxHoundEvaluator(0, 1, 0, 0, 0), start, FoxHoundUtils.FOX_FIELD));
+        assertEquals(0, evaluate(new FoxHoundEvaluator(0, 0, 1, 0, 0), start, FoxHoundUtils.FOX_FIELD));
+        assertEquals(0, evaluate(new FoxHoundEvaluator(0, 0, 0, 1, 0), start, FoxHoundUtils.FOX_FIELD));
+
+        String[] stretched = {"B1", "C4", "F5", "H7", "D6"};
+        assertEquals(2, evaluate(new FoxHoundEvaluator(1, 0, 0, 0, 0), stretched, FoxHoundUtils.FOX_FIELD));
+        assertEquals(4, evaluate(new FoxHoundEvaluator(0, 1, 0, 0, 0), stretched, FoxHoundUtils.FOX_FIELD));
+        assertEquals(1, evaluate(new FoxHoundEvaluator(0, 0, 1, 0, 0), stretched, FoxHoundUtils.FOX_FIELD));
+        // the hounds ahead of the fox span rows 1 to 5, three rows more than a closed line
+        assertEquals(3, evaluate(new FoxHoundEvaluator(0, 0, 0, 1, 0), stretched, FoxHoundUtils.FOX_FIELD));
+    }
+
+    @Test
+    public void testSideAndTempo() {
+        String[] players = {"B1", "C4", "F5", "H7", "D6"};
+        FoxHoundEvaluator evaluator = new FoxHoundEvaluator(10, 4, 30, 6, 2);
+        int fox = evaluate(evaluator, players, FoxHoundUtils.FOX_FIELD);
+
+        assertEquals(10 * 2 + 4 * 4 + 30 + 6 * 3 + 2, fox);
+        assertEquals(-(fox - 2) + 2, evaluate(evaluator, players, FoxHoundUtils.HOUND_FIELD));
+    }
+
+    @Test
+    public void testNoHoundsAhead() {
+        String[] players = {"B7", "D7", "F7", "H7", "C6"};
+        assertEquals(0, evaluate(new FoxHoundEvaluator(0, 0, 0, 1, 0), players, FoxHoundUtils.FOX_FIELD));
+        assertEquals(4, evaluate(new FoxHoundEvaluator(0, 0, 1, 0, 0), players, FoxHoundUtils.FOX_FIELD));
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        File tmpFile = File.createTempFile("foxHoundWeights", ".properties");
+        tmpFile.deleteOnExit();
+        Path file = tmpFile.toPath();
+        FoxHoundEvaluator weights = new FoxHoundEvaluator(11, -3, 25, 0, 7);
+
+        weights.save(file);
+        FoxHoundEvaluator loaded = FoxHoundEvaluator.load(file);
+        assertEquals(11, loaded.getProgress());
+        assertEquals(-3, loaded.getMobility());
+        assertEquals(25, loaded.getPassed());
+        assertEquals(0, loaded.getGaps());
+        assertEquals(7, loaded.getTempo());
+
+        Files.write(file, "# only one weight\nmobility = 9\n".getBytes());
+        loaded = FoxHoundEvaluator.load(file);
+        assertEquals(9, loaded.getMobility());
+        assertEquals(FoxHoundEvaluator.DEFAULT_PASSED, loaded.getPassed());
+        Files.delete(file);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLoadInvalidWeight() throws IOException {
+        File tmpFile = File.createTempFile("foxHoundWeights", ".properties");
+        tmpFile.deleteOnExit();
+        Files.write(tmpFile.toPath(), "tempo=fast\n".getBytes());
+        FoxHoundEvaluator.load(tmpFile.toPath());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWeightOutOfRange() {
+        new FoxHoundEvaluator(0, 0, FoxHoundEvaluator.MAX_WEIGHT + 1, 0, 0);
+    }
+
+    @Test
+    public void testPreviousHound() {
+        FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(new String[]{"B1", "A20", "Y25", "Z26"}, 26);
+        int a20 = FoxHoundBitboard.toSquare("A20", 26);
+        int y25 = FoxHoundBitboard.toSquare("Y25", 26);
+
+        assertEquals(y25, board.previousHound(26 * 26));
+        assertEquals(a20, board.previousHound(y25));
+        assertEquals(a20, board.previousHound(a20 + 1));
+        assertEquals(1, board.previousHound(a20));
+        assertEquals(FoxHoundBitboard.NO_SQUARE, board.previousHound(1));
+        assertEquals(FoxHoundBitboard.NO_SQUARE, board.previousHound(0));
+    }
+
+    @Test
+    public void testSearchUsesEvaluator() {
+        // a fox that only values the tempo bonus sees every quiet position as equal
+        FoxHoundSearch search = new FoxHoundSearch(DIM, new FoxHoundTranspositionTable(1),
+                new FoxHoundEvaluator(0, 0, 0, 0, 5));
+        search.setMaxDepth(1);
+        search.search(FoxHoundBitboard.fromPlayers(FoxHoundUtils.initialisePositions(DIM), DIM),
+                FoxHoundUtils.FOX_FIELD, 0, 0);
+        assertEquals(-5, search.getBestScore());
+    }
+}
@@ -0,0 +1,128 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundGameStateTest {
+
+    private static final String[] START = {"B1", "D1", "F1", "H1", "E8"};
+
+    private FoxHoundGameState newState() {
+        return new FoxHoundGameState(FoxHoundUtils.DEFAULT_DIM, START, FoxHoundUtils.FOX_FIELD);
+    }
+
+    @Test
+    public void testMakeAndUnmakeMove() {
+        FoxHoundGameState state = newState();
+        long hash = state.getHash();
+
+        state.makeMove("E8", "D7");
+        assertEquals(FoxHoundUtils.HOUND_FIELD, state.getTurn());
+        assertArrayEquals(new String[]{"B1", "D1", "F1", "H1", "D7"}, state.getPlayers());
+
+        state.unmakeMove(FoxHoundMoveGenerator.pack(
+                FoxHoundBitboard.toSquare("E8", 8), FoxHoundBitboard.toSquare("D7", 8)));
+        assertEquals(FoxHoundUtils.FOX_FIELD, state.getTurn());
+        assertArrayEquals(START, state.getPlayers());
+        assertEquals("Hash expected to be restored.", hash, state.getHash());
+    }
+
+    @Test
+    public void testSnapshotUnchangedByLaterMoves() {
+        FoxHoundGameState state = newState();
+        FoxHoundGameState snapshot = state.snapshot();
+
+        state.makeMove("E8", "D7");
+        state.makeMove("B1", "C2");
+
+        assertTrue(snapshot.isFrozen());
+        assertEquals(FoxHoundUtils.FOX_FIELD, snapshot.getTurn());
+        assertArrayEquals(START, snapshot.getPlayers());
+    }
+
+    @Test
+    public void testCopiesAreIndependent() {
+        FoxHoundGameState state = newState();
+        FoxHoundGameState copy = state.snapshot().copy();
+
+        copy.makeMove("E8", "F7");
+        state.makeMove("E8", "D7");
+
+        assertArrayEquals(new String[]{"B1", "D1", "F1", "H1", "F7"}, copy.getPlayers());
+        assertArrayEquals(new String[]{"B1", "D1", "F1", "H1", "D7"}, state.getPlayers());
+    }
+
+    @Test
+    public void testSetPositionKeepsTurn() {
+        FoxHoundGameState state = newState();
+
+        state.setPosition(new String[]{"A2", "C2", "E2", "G2", "D5"}, FoxHoundUtils.HOUND_FIELD);
+
+        assertEquals("Loaded turn expected to be kept.", FoxHoundUtils.HOUND_FIELD, state.getTurn());
+        assertTrue(state.isValidMove("A2", "B3"));
+        assertFalse(state.isValidMove("D5", "C4"));
+    }
+
+    @Test
+    public void testWinner() {
+        FoxHoundGameState state = new FoxHoundGameState(FoxHoundUtils.DEFAULT_DIM,
+                new String[]{"B5", "D5", "F5", "H5", "D2"}, FoxHoundUtils.FOX_FIELD);
+        assertEquals(FoxHoundMoveGenerator.NO_WINNER, state.getWinner());
+
+        state.makeMove("D2", "C1");
+        assertEquals(FoxHoundUtils.FOX_FIELD, state.getWinner());
+    }
+
+    @Test
+    public void testUndoRedoAndReplay() {
+        FoxHoundGameState state = newState();
+        long hash = state.getHash();
+        state.makeMove("E8", "D7");
+        state.makeMove("B1", "C2");
+        state.makeMove("D7", "E6");
+        FoxHoundGameState snapshot = state.snapshot();
+
+        assertTrue(state.undo());
+        assertTrue(state.undo());
+        assertEquals(FoxHoundUtils.HOUND_FIELD, state.getTurn());
+        assertArrayEquals(new String[]{"B1", "D1", "F1", "H1", "D7"}, state.getPlayers());
+        assertTrue(state.redo());
+        assertEquals(2, state.getPly());
+        assertEquals("Snapshot expected to keep its history.", 3, snapshot.getPly());
+
+        FoxHoundGameState start = snapshot.positionAt(0);
+        assertEquals(hash, start.getHash());
+        assertFalse(start.canUndo());
+        assertArrayEquals(new String[]{"D1", "F1", "H1", "C2", "D7"}, snapshot.positionAt(2).getPlayers());
+
+        state.makeMove("D7", "C6");
+        assertFalse("Playing a new move expected to drop the redo line.", state.canRedo());
+        while (state.undo()) {
+            // back to the start
+        }
+        assertEquals(hash, state.getHash());
+        assertEquals(0, state.getPly());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnmakeOtherMove() {
+        FoxHoundGameState state = newState();
+        state.makeMove("E8", "D7");
+        state.unmakeMove(FoxHoundMoveGenerator.pack(
+                FoxHoundBitboard.toSquare("E8", 8), FoxHoundBitboard.toSquare("F7", 8)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMove() {
+        newState().makeMove("B1", "C2");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTurn() {
+        new FoxHoundGameState(FoxHoundUtils.DEFAULT_DIM, START, '.');
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSnapshotReadOnly() {
+        newState().snapshot().makeMove("E8", "D7");
+    }
+}
@@ -1,6 +1,7 @@
 import java.io.File;
 import java.io.UncheckedIOException;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
@@ -104,11 +105,99 @@ public class FoxHoundIOBasicTest {
         FoxHoundIO.loadGame(defaultPlayers, null);
     }
 
-    @Test(expected = IllegalArgumentException.class)
+    @Test
     public void testLoadGamePlayersNonDefaultDim() {
         Path input = Paths.get("game01.txt");
-        String[] players = {"B1", "D1", "F1", "H1", "J1", "E10"}; 
-        FoxHoundIO.loadGame(players, input);
+        String[] expected = {"B1", "D1", "F1", "H1", "J1", "E10"};
+        String[] players = expected.clone();
+
+        assertEquals("Loading a game of another dimension expected to fail.", LOAD_ERROR,
+                FoxHoundIO.loadGame(players, input));
+        assertArrayEquals("Players array not expected to be modified.", expected, players);
+    }
+
+    @Test
+    public void testLoadGameSamePieceCountOtherDim() throws IOException {
+        Path file = getTmpPath();
+        Files.writeString(file, "F 9 B1 D1 F1 H1 I9");
+        String[] players = FoxHoundUtils.initialisePositions(8);
+        String[] expected = players.clone();
+        try {
+            assertEquals("Loading a 9x9 game into an 8x8 board expected to fail.", LOAD_ERROR,
+                    FoxHoundIO.loadGame(players, file));
+            assertArrayEquals("Players array not expected to be modified.", expected, players);
+            // all pieces within the 8x8 board still don't make it an 8x8 game
+            Files.writeString(file, "H 9 B1 D1 F1 H1 E8");
+            assertEquals(LOAD_ERROR, FoxHoundIO.loadGame(players, 8, file));
+            assertEquals(FoxHoundUtils.HOUND_FIELD, FoxHoundIO.loadGame(players, 9, file));
+            assertArrayEquals(new String[]{"B1", "D1", "F1", "H1", "E8"}, players);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testIsValidData() {
+        assertTrue(FoxHoundIO.isValidData("F 8 B1 D1 F1 H1 E8".split(" ")));
+        assertTrue(FoxHoundIO.isValidData("F 8 B1 D1 F1 H1 E8".split(" "), 8));
+        assertTrue("Data without dimension expected to be an 8x8 game.",
+                FoxHoundIO.isValidData("H B3 E4 C6 E6 D5".split(" "), 8));
+        assertTrue(FoxHoundIO.isValidData("F 10 B1 D1 F1 H1 J1 E10".split(" ")));
+        assertTrue(FoxHoundIO.isValidData("F 10 B1 D1 F1 H1 J1 E10".split(" "), 10));
+        assertFalse(FoxHoundIO.isValidData("F 10 B1 D1 F1 H1 J1 E10".split(" "), 8));
+        assertFalse(FoxHoundIO.isValidData("F 9 B1 D1 F1 H1 I9".split(" "), 8));
+        assertFalse(FoxHoundIO.isValidData("F 8 B1 D1 F1 H1 I9".split(" ")));
+        assertFalse(FoxHoundIO.isValidData("X 8 B1 D1 F1 H1 E8".split(" ")));
+        assertFalse(FoxHoundIO.isValidData(new String[]{"F", "8", "B1", "D1", "F1", null, "E8"}));
+    }
+
+    @Test
+    public void testLoadGameWithoutDimension() throws IOException {
+        FoxHoundGameState state = FoxHoundIO.loadGame(Paths.get("game02.txt"));
+
+        assertEquals(FoxHoundUtils.DEFAULT_DIM, state.getDim());
+        assertEquals(FoxHoundUtils.HOUND_FIELD, state.getTurn());
+        assertArrayEquals(new String[]{"B3", "E4", "C6", "E6", "D5"}, state.getPlayers());
+    }
+
+    @Test
+    public void testLoadGameInvalidDimensionContent() throws IOException {
+        String[] invalid = {
+            "F 3 B1 C2", "F 27 B1 D1 F1 H1 E8", "F 08B1 D1 F1 H1 E8", "F 10 B1 D1 F1 H1 E10",
+            "F 8 B1 D1 F1 H1 E8 ", "F 8 B1 D1 F1 H1 E08", "F 8 B1 B1 F1 H1 E8", "F 8 B1 D1 F1 H1 E8 G8"
+        };
+        Path file = getTmpPath();
+        for (String content : invalid) {
+            Files.writeString(file, content);
+            try {
+                FoxHoundIO.loadGame(file);
+                fail("Loading expected to fail for: " + content);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testSaveAndLoadGameLargeDim() throws IOException {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; dim++) {
+            String[] players = FoxHoundUtils.initialisePositions(dim);
+            Path saveFile = getTmpPath();
+
+            assertTrue("Save expected to be successful.", FoxHoundIO.saveGame(players,
+                    FoxHoundUtils.HOUND_FIELD, dim, saveFile));
+            FoxHoundGameState state = FoxHoundIO.loadGame(saveFile);
+            assertEquals(dim, state.getDim());
+            assertEquals(FoxHoundUtils.HOUND_FIELD, state.getTurn());
+            assertEquals(players.length, state.getPlayers().length);
+            assertEquals(players[players.length - 1], state.getPlayers()[players.length - 1]);
+
+            String[] loaded = new String[players.length];
+            assertEquals(FoxHoundUtils.HOUND_FIELD, FoxHoundIO.loadGame(loaded, dim, saveFile));
+            assertArrayEquals(players, loaded);
+            Files.delete(saveFile);
+        }
     }
 
     // ------------------------- saveGame --------------------
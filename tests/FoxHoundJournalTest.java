@@ -0,0 +1,161 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FoxHoundJournalTest {
+
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("foxHoundJournal");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (var files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    private static FoxHoundGameState newState(int dim) {
+        return new FoxHoundGameState(dim, FoxHoundUtils.initialisePositions(dim), FoxHoundUtils.FOX_FIELD);
+    }
+
+    /** Play a move and record it. */
+    private static void play(FoxHoundGameState state, FoxHoundJournal journal, String origin, String dest) {
+        state.makeMove(origin, dest);
+        journal.recordMove(state.getLastMove());
+    }
+
+    private static void assertSameGame(FoxHoundGameState expected, FoxHoundGameState actual) {
+        assertEquals(expected.getDim(), actual.getDim());
+        assertEquals(expected.getTurn(), actual.getTurn());
+        assertArrayEquals(expected.getPlayers(), actual.getPlayers());
+        assertArrayEquals(expected.getMoves(), actual.getMoves());
+    }
+
+    @Test
+    public void testRecoverMovesUndoAndPosition() throws IOException {
+        Path file = dir.resolve("game.fhj");
+        FoxHoundGameState state = newState(8);
+        try (FoxHoundJournal journal = new FoxHoundJournal(file, state, null)) {
+            play(state, journal, "E8", "D7");
+            play(state, journal, "B1", "C2");
+            state.undo();
+            journal.recordUndo();
+            state.redo();
+            journal.recordRedo();
+            play(state, journal, "D7", "E6");
+            journal.sync();
+            assertSameGame(state, FoxHoundJournal.recover(file));
+
+            state.setPosition(new String[]{"A2", "C2", "E2", "G2", "D5"}, FoxHoundUtils.HOUND_FIELD);
+            journal.recordPosition(state);
+            play(state, journal, "A2", "B3");
+        }
+        assertSameGame(state, FoxHoundJournal.recover(file));
+    }
+
+    @Test
+    public void testCommitterWritesInBatches() throws IOException {
+        FoxHoundGameState[] states = new FoxHoundGameState[20];
+        FoxHoundJournal[] journals = new FoxHoundJournal[states.length];
+        FoxHoundJournalCommitter committer = new FoxHoundJournalCommitter(1, 4);
+        try {
+            for (int i = 0; i < states.length; i++) {
+                states[i] = newState(FoxHoundUtils.MAX_DIM);
+                journals[i] = new FoxHoundJournal(dir.resolve("game" + i), states[i], committer);
+                play(states[i], journals[i], "O26", "N25");
+                play(states[i], journals[i], "B1", "C2");
+            }
+        } finally {
+            committer.close();
+        }
+        assertTrue("Commit duration expected to be reported.", committer.getLastCommitNanos() > 0);
+        assertTrue(committer.getMaxCommitNanos() >= committer.getLastCommitNanos());
+        // the closed committer has written out everything queued
+        for (int i = 0; i < states.length; i++) {
+            assertSameGame(states[i], FoxHoundJournal.recover(dir.resolve("game" + i)));
+            journals[i].close();
+        }
+    }
+
+    @Test
+    public void testTornEntryIgnored() throws IOException {
+        Path file = dir.resolve("game.fhj");
+        FoxHoundGameState state = newState(8);
+        try (FoxHoundJournal journal = new FoxHoundJournal(file, state, null)) {
+            play(state, journal, "E8", "D7");
+        }
+        // a move entry cut off by a crash
+        Files.write(file, new byte[]{FoxHoundJournal.OP_MOVE, 10}, StandardOpenOption.APPEND);
+
+        assertSameGame(state, FoxHoundJournal.recover(file));
+    }
+
+    @Test
+    public void testRestartKeepsHistory() throws IOException {
+        Path file = dir.resolve("game.fhj");
+        FoxHoundGameState state = newState(8);
+        try (FoxHoundJournal journal = new FoxHoundJournal(file, state, null)) {
+            play(state, journal, "E8", "D7");
+            play(state, journal, "B1", "C2");
+        }
+        FoxHoundGameState recovered = FoxHoundJournal.recover(file);
+        try (FoxHoundJournal journal = new FoxHoundJournal(file, recovered, null)) {
+            assertTrue(recovered.undo());
+            journal.recordUndo();
+        }
+        FoxHoundGameState again = FoxHoundJournal.recover(file);
+        assertEquals(1, again.getPly());
+        assertEquals(FoxHoundUtils.HOUND_FIELD, again.getTurn());
+        assertFalse("No temporary file expected to be left.", Files.exists(dir.resolve("game.fhj.tmp")));
+    }
+
+    @Test
+    public void testFileInUse() throws IOException {
+        Path file = dir.resolve("game.fhj");
+        FoxHoundGameState state = newState(8);
+        try (FoxHoundJournal journal = new FoxHoundJournal(file, state, null)) {
+            play(state, journal, "E8", "D7");
+            assertTrue(FoxHoundJournal.isOpen(dir.resolve(".").resolve("game.fhj")));
+            try {
+                new FoxHoundJournal(dir.resolve(".").resolve("game.fhj"), newState(8), null);
+                fail("Second journal of the same file expected to be refused.");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            // the refused journal hasn't replaced the file under the first one
+            play(state, journal, "B1", "C2");
+            journal.sync();
+            assertSameGame(state, FoxHoundJournal.recover(file));
+        }
+        assertFalse(FoxHoundJournal.isOpen(file));
+        new FoxHoundJournal(file, newState(8), null).close();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testClosedJournal() throws IOException {
+        FoxHoundJournal journal = new FoxHoundJournal(dir.resolve("game.fhj"), newState(8), null);
+        journal.close();
+        journal.recordUndo();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRecoverOtherFile() throws IOException {
+        Path file = dir.resolve("game.txt");
+        Files.writeString(file, "F 8 B1 D1 F1 H1 E8");
+        FoxHoundJournal.recover(file);
+    }
+}
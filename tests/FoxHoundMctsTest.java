@@ -0,0 +1,98 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundMctsTest {
+
+    private static final int DIM = FoxHoundUtils.DEFAULT_DIM;
+
+    private int search(FoxHoundMcts search, String[] players, char turn, long playoutLimit) {
+        FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(players, DIM);
+        int move = search.search(board, turn, 0, playoutLimit);
+        assertArrayEquals("Board expected to be unchanged by the search.", players, board.toPlayers());
+        return move;
+    }
+
+    @Test
+    public void testSingleThreadIsRepeatable() {
+        String[] players = FoxHoundUtils.initialisePositions(DIM);
+        try (FoxHoundMcts first = new FoxHoundMcts(DIM, 1, 4, 7);
+             FoxHoundMcts second = new FoxHoundMcts(DIM, 1, 4, 7)) {
+            int move = search(first, players, FoxHoundUtils.FOX_FIELD, 5000);
+
+            assertEquals(move, search(second, players, FoxHoundUtils.FOX_FIELD, 5000));
+            assertEquals(5000, first.getPlayouts());
+            assertEquals(first.getTreeSize(), second.getTreeSize());
+            assertEquals(first.getBestWinRate(), second.getBestWinRate(), 0);
+            assertTrue(FoxHoundUtils.isValidMove(DIM, players, FoxHoundUtils.FOX_FIELD,
+                    FoxHoundBitboard.toCoordinate(FoxHoundMoveGenerator.from(move), DIM),
+                    FoxHoundBitboard.toCoordinate(FoxHoundMoveGenerator.to(move), DIM)));
+        }
+    }
+
+    @Test
+    public void testFindsWinWithThreads() {
+        for (FoxHoundMcts.Playout playout : FoxHoundMcts.Playout.values()) {
+            try (FoxHoundMcts search = new FoxHoundMcts(DIM, 3, 4, 1)) {
+                search.setPlayout(playout);
+                int move = search(search, new String[]{"E1", "H1", "F2", "C6", "A8"}, FoxHoundUtils.HOUND_FIELD, 20000);
+
+                assertArrayEquals(playout + " expected to trap the fox.", new String[]{"C6", "B7"},
+                        FoxHoundMoveGenerator.toMovement(move, DIM));
+                assertEquals(1.0, search.getBestWinRate(), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testFoxTakesWin() {
+        try (FoxHoundMcts search = new FoxHoundMcts(DIM, 2, 4, 3)) {
+            int move = search(search, new String[]{"B1", "E1", "G1", "H3", "C2"}, FoxHoundUtils.FOX_FIELD, 3000);
+
+            assertEquals(FoxHoundUtils.FOX_FIELD, winnerAfter(new String[]{"B1", "E1", "G1", "H3", "C2"}, move));
+        }
+    }
+
+    private char winnerAfter(String[] players, int move) {
+        FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(players, DIM);
+        board.move(FoxHoundMoveGenerator.from(move), FoxHoundMoveGenerator.to(move));
+        return FoxHoundMoveGenerator.winner(board);
+    }
+
+    @Test
+    public void testFullTreeKeepsPlaying() {
+        int dim = FoxHoundUtils.MAX_DIM;
+        try (FoxHoundMcts search = new FoxHoundMcts(dim, 2, 1, 5)) {
+            search.setPlayout(FoxHoundMcts.Playout.HEURISTIC);
+            FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+            int move = search.search(board, FoxHoundUtils.HOUND_FIELD, 0, 200000);
+
+            assertTrue(board.isValidMove(FoxHoundUtils.HOUND_FIELD, FoxHoundMoveGenerator.from(move),
+                    FoxHoundMoveGenerator.to(move)));
+            assertTrue(search.getTreeSize() <= search.getCapacity());
+            assertTrue(search.getPlayouts() >= 200000);
+        }
+    }
+
+    @Test
+    public void testGameOver() {
+        try (FoxHoundMcts search = new FoxHoundMcts(DIM, 1, 1, 0)) {
+            assertEquals(FoxHoundSearch.NO_MOVE,
+                    search(search, new String[]{"B1", "D1", "F1", "H1", "C1"}, FoxHoundUtils.HOUND_FIELD, 100));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoBudget() {
+        try (FoxHoundMcts search = new FoxHoundMcts(DIM, 1, 1, 0)) {
+            search(search, FoxHoundUtils.initialisePositions(DIM), FoxHoundUtils.FOX_FIELD, 0);
+        }
+    }
+
+    @Test
+    public void testSelfPlayStrategy() {
+        FoxHoundSelfPlay.Result result = FoxHoundSelfPlay.run(DIM, 4, FoxHoundSelfPlay.strategy("mcts", 2),
+                FoxHoundSelfPlay.strategy("random", 2), 2, 11);
+        assertEquals(4, result.games());
+    }
+}
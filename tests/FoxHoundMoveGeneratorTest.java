@@ -0,0 +1,73 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundMoveGeneratorTest {
+
+    /**
+     * Collect all moves of a figure the slow way through FoxHoundUtils.isValidMove.
+     */
+    private int countWithIsValidMove(String[] players, int dim, char figure) {
+        int count = 0;
+        for (int from = 0; from < dim * dim; from++) {
+            for (int to = 0; to < dim * dim; to++) {
+                int latStep = Math.abs(to % dim - from % dim);
+                if (latStep == 1 && FoxHoundUtils.isValidMove(dim, players.clone(), figure,
+                        FoxHoundBitboard.toCoordinate(from, dim), FoxHoundBitboard.toCoordinate(to, dim))) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testGenerateMatchesIsValidMove() {
+        String[][] positions = {
+                {"B1","D1","F1","H1","E8"},
+                {"C4","E4","C6","E6","D5"},
+                {"B3","E4","C6","E6","D5"},
+                {"B3","D3","F1","H3","A2"}};
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundMoveGenerator generator = new FoxHoundMoveGenerator(dim);
+        int[] moves = new int[FoxHoundMoveGenerator.MAX_MOVES];
+
+        for (String[] players : positions) {
+            FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(players, dim);
+            for (char figure : new char[]{FoxHoundUtils.FOX_FIELD, FoxHoundUtils.HOUND_FIELD}) {
+                int count = generator.generate(board, figure, moves);
+                assertEquals("Move count differs for " + figure, countWithIsValidMove(players, dim, figure), count);
+                for (int i = 0; i < count; i++) {
+                    assertTrue(board.isValidMove(figure,
+                            FoxHoundMoveGenerator.from(moves[i]), FoxHoundMoveGenerator.to(moves[i])));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGenerateLargeBoard() {
+        int dim = FoxHoundUtils.MAX_DIM;
+        FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+        FoxHoundMoveGenerator generator = new FoxHoundMoveGenerator(dim);
+        int[] moves = new int[FoxHoundMoveGenerator.MAX_MOVES];
+
+        // every hound but the one in the last column can move both ways
+        assertEquals(2 * (dim / 2) - 1, generator.generate(board, FoxHoundUtils.HOUND_FIELD, moves));
+        assertEquals(2, generator.generate(board, FoxHoundUtils.FOX_FIELD, moves));
+    }
+
+    @Test
+    public void testPackRoundTrip() {
+        int move = FoxHoundMoveGenerator.pack(675, 650);
+        assertEquals(675, FoxHoundMoveGenerator.from(move));
+        assertEquals(650, FoxHoundMoveGenerator.to(move));
+    }
+
+    @Test
+    public void testIsHoundWinFoxOnEdge() {
+        // the fox on column A only has moves to column B, both blocked by hounds
+        String[] players = {"B3","B5","F1","H1","A4"};
+        assertTrue(FoxHoundUtils.isHoundWin(players, FoxHoundUtils.DEFAULT_DIM));
+    }
+}
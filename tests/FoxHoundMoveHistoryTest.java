@@ -0,0 +1,74 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundMoveHistoryTest {
+
+    private static int move(String origin, String dest) {
+        return FoxHoundMoveGenerator.pack(FoxHoundBitboard.toSquare(origin, 8), FoxHoundBitboard.toSquare(dest, 8));
+    }
+
+    @Test
+    public void testUndoAndRedo() {
+        FoxHoundMoveHistory history = new FoxHoundMoveHistory();
+        history.push(move("E8", "D7"));
+        history.push(move("B1", "C2"));
+
+        assertEquals(move("B1", "C2"), history.undo());
+        assertEquals(1, history.length());
+        assertEquals(1, history.redoCount());
+        assertEquals(move("B1", "C2"), history.redo());
+        assertEquals(FoxHoundSearch.NO_MOVE, history.redo());
+        assertEquals(2, history.length());
+    }
+
+    @Test
+    public void testPushDropsRedoLine() {
+        FoxHoundMoveHistory history = new FoxHoundMoveHistory();
+        history.push(move("E8", "D7"));
+        history.push(move("B1", "C2"));
+        history.undo();
+        history.undo();
+
+        history.push(move("E8", "D7"));
+        assertEquals("Replaying the undone move expected to keep the redo line.", 1, history.redoCount());
+
+        history.push(move("D1", "E2"));
+        assertEquals(0, history.redoCount());
+        assertArrayEquals(new int[]{move("E8", "D7"), move("D1", "E2")}, history.toArray());
+    }
+
+    @Test
+    public void testGrowsAndReplays() {
+        FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(FoxHoundUtils.initialisePositions(8), 8);
+        FoxHoundMoveHistory history = new FoxHoundMoveHistory();
+        // the fox walks back and forth far beyond the initial capacity
+        for (int i = 0; i < 500; i++) {
+            history.push(i % 2 == 0 ? move("E8", "D7") : move("D7", "E8"));
+        }
+        assertEquals(500, history.length());
+        assertEquals(move("D7", "E8"), history.getMove(499));
+
+        int[] moves = new int[500];
+        for (int i = 0; i < moves.length; i += 2) {
+            moves[i] = move("E8", "D7");
+            moves[i + 1] = move("B1", "C2");
+        }
+        try {
+            FoxHoundMoveHistory.replay(board, FoxHoundUtils.FOX_FIELD, moves, moves.length);
+            fail("Replaying the hound move twice expected to fail.");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("Invalid move 2"));
+        }
+        assertArrayEquals("Board expected to hold the position before the invalid move.",
+                new String[]{"D1", "F1", "H1", "C2", "D7"}, board.toPlayers());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testReplayBeyondHistory() {
+        FoxHoundMoveHistory history = new FoxHoundMoveHistory();
+        history.push(move("E8", "D7"));
+        history.replay(FoxHoundBitboard.fromPlayers(FoxHoundUtils.initialisePositions(8), 8),
+                FoxHoundUtils.FOX_FIELD, 2);
+    }
+}
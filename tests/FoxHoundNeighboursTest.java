@@ -0,0 +1,76 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundNeighboursTest {
+
+    @Test
+    public void testTablesMatchCoordinates() {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; dim++) {
+            int[][] diagonal = FoxHoundNeighbours.diagonal(dim);
+            int[][] forward = FoxHoundNeighbours.forward(dim);
+            assertEquals(dim * dim, diagonal.length);
+            for (int from = 0; from < dim * dim; from++) {
+                int expectedDiagonal = 0;
+                int expectedForward = 0;
+                for (int to = 0; to < dim * dim; to++) {
+                    int latStep = Math.abs(to % dim - from % dim);
+                    int vertStep = to / dim - from / dim;
+                    boolean isDiagonal = latStep == 1 && Math.abs(vertStep) == 1;
+                    boolean isForward = latStep == 1 && vertStep == 1;
+                    expectedDiagonal += isDiagonal ? 1 : 0;
+                    expectedForward += isForward ? 1 : 0;
+                    assertEquals(isDiagonal, FoxHoundNeighbours.isStep(dim, FoxHoundUtils.FOX_FIELD, from, to));
+                    assertEquals(isForward, FoxHoundNeighbours.isStep(dim, FoxHoundUtils.HOUND_FIELD, from, to));
+                }
+                assertEquals(expectedDiagonal, diagonal[from].length);
+                assertEquals(expectedForward, forward[from].length);
+                for (int i = 1; i < diagonal[from].length; i++) {
+                    assertTrue("Neighbours expected in ascending order.", diagonal[from][i - 1] < diagonal[from][i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTablesAreCached() {
+        assertSame(FoxHoundNeighbours.diagonal(8), FoxHoundNeighbours.diagonal(8));
+        assertSame(FoxHoundNeighbours.forward(26), FoxHoundNeighbours.forward(26));
+    }
+
+    @Test
+    public void testIsStepOffBoard() {
+        assertFalse(FoxHoundNeighbours.isStep(8, FoxHoundUtils.FOX_FIELD, -1, 8));
+        assertFalse(FoxHoundNeighbours.isStep(8, FoxHoundUtils.FOX_FIELD, 64, 55));
+        assertFalse(FoxHoundNeighbours.isStep(8, FoxHoundUtils.FOX_FIELD, 1, FoxHoundBitboard.NO_SQUARE));
+        assertFalse(FoxHoundNeighbours.isStep(8, 'X', 1, 8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDim() {
+        FoxHoundNeighbours.diagonal(FoxHoundUtils.MAX_DIM + 1);
+    }
+
+    @Test
+    public void testIsValidMoveLowerBounds() {
+        String[] players = {"B1", "D1", "F1", "H1", "A2"};
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+
+        assertFalse(FoxHoundUtils.isValidMove(dim, players, FoxHoundUtils.FOX_FIELD, "A2", "@1"));
+        assertFalse(FoxHoundUtils.isValidMove(dim, players, FoxHoundUtils.FOX_FIELD, "A2", "@3"));
+        assertTrue(FoxHoundUtils.isValidMove(dim, players, FoxHoundUtils.FOX_FIELD, "A2", "B3"));
+
+        players = new String[]{"B1", "D1", "F1", "H1", "C1"};
+        assertFalse(FoxHoundUtils.isValidMove(dim, players, FoxHoundUtils.FOX_FIELD, "C1", "B0"));
+        assertFalse(FoxHoundUtils.isValidMove(dim, players, FoxHoundUtils.HOUND_FIELD, "H1", "I2"));
+    }
+
+    @Test
+    public void testHoundWinAtEdges() {
+        assertTrue(FoxHoundUtils.isHoundWin(new String[]{"B1", "D1", "B3", "H1", "A2"}, 8));
+        assertFalse(FoxHoundUtils.isHoundWin(new String[]{"B1", "D1", "F1", "H1", "A2"}, 8));
+        assertTrue(FoxHoundUtils.isHoundWin(new String[]{"A7", "C7", "F1", "H1", "B8"}, 8));
+        assertTrue(FoxHoundUtils.isHoundWin(new String[]{"Y25", "B1", "F1", "H1", "E1", "G1", "A1",
+                "C1", "I1", "K1", "M1", "O1", "Z26"}, 26));
+    }
+}
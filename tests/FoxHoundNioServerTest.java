@@ -0,0 +1,145 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FoxHoundNioServerTest {
+
+    private static final String MENU_END = "Enter 1 - 4:\n";
+
+    private Path saveDir;
+    private FoxHoundNioServer server;
+
+    private static class Client implements AutoCloseable {
+        final Socket socket;
+        final InputStream in;
+        final OutputStream out;
+
+        Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setSoTimeout(10000);
+            in = socket.getInputStream();
+            out = socket.getOutputStream();
+        }
+
+        void send(String text) throws IOException {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+
+        /** Read until the output ends with the given text or the connection is closed. */
+        String readUntil(String end) throws IOException {
+            StringBuilder text = new StringBuilder();
+            int b;
+            while (!text.toString().endsWith(end) && (b = in.read()) != -1) {
+                text.append((char) b);
+            }
+            return text.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        saveDir = Files.createTempDirectory("foxHoundNioServer");
+        server = new FoxHoundNioServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), saveDir);
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+        try (var files = Files.list(saveDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(saveDir);
+    }
+
+    @Test
+    public void testConsoleDialog() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            assertEquals("Please enter the dimensions of the board\n",
+                    client.readUntil("board\n"));
+            client.send("8\n");
+            String menu = client.readUntil(MENU_END);
+            assertTrue(menu.startsWith("\n#################################\n"));
+            assertTrue(menu.endsWith("Fox to move\n\n1. Move\n2. Save Game\n3. Load Game\n4. Exit\n\n" + MENU_END));
+
+            client.send("1\n");
+            assertEquals("Provide origin and destination coordinates.\nEnter two positions between A1-H8:\n\n",
+                    client.readUntil(":\n\n"));
+            client.send("E8\n");
+            assertEquals("ERROR: Please enter valid coordinate pair separated by space.\n"
+                    + "Provide origin and destination coordinates.\nEnter two positions between A1-H8:\n\n",
+                    client.readUntil(":\n\n"));
+            // a move split over several packets
+            client.send("E8 ");
+            client.send("D7\r\n");
+            assertTrue(client.readUntil(MENU_END).contains("Hounds to move"));
+
+            client.send("4\n");
+            assertEquals("", client.readUntil("never"));
+        }
+    }
+
+    @Test
+    public void testSaveStaysInSaveDir() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            client.send("4\n2\n../escape.txt\n2\ngame.txt\n4\n");
+            String output = client.readUntil("never");
+            assertEquals(1, output.split("ERROR: Saving file failed.", -1).length - 1);
+        }
+        assertTrue(Files.exists(saveDir.resolve("game.txt")));
+        assertFalse(Files.exists(saveDir.getParent().resolve("escape.txt")));
+        assertEquals("F 4 B1 D1 C4", Files.readString(saveDir.resolve("game.txt")));
+    }
+
+    @Test
+    public void testIndependentConnections() throws IOException {
+        try (Client first = new Client(server.getPort()); Client second = new Client(server.getPort())) {
+            first.send("8\n1\nE8 F7\n");
+            second.send("6\n");
+            assertTrue(second.readUntil(MENU_END).contains("Fox to move"));
+            String output = first.readUntil("Hounds to move\n");
+            assertTrue(output.endsWith("Hounds to move\n"));
+            assertEquals(2, server.getActiveConnections());
+        }
+    }
+
+    @Test
+    public void testTooLongLineClosesConnection() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            client.readUntil("board\n");
+            client.send("8".repeat(FoxHoundServer.MAX_LINE + 1));
+            assertEquals("", client.readUntil("never"));
+        }
+    }
+
+    @Test
+    public void testCloseEndsConnections() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            client.readUntil("board\n");
+            assertEquals(1, server.getActiveConnections());
+            server.close();
+            assertEquals("", client.readUntil("never"));
+            assertEquals(0, server.getActiveConnections());
+        }
+    }
+}
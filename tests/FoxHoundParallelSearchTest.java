@@ -0,0 +1,75 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundParallelSearchTest {
+
+    private static final int DIM = FoxHoundUtils.DEFAULT_DIM;
+
+    private int search(FoxHoundParallelSearch search, String[] players, char turn, long nodeLimit) {
+        FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(players, DIM);
+        int move = search.search(board, turn, 0, nodeLimit);
+        assertArrayEquals("Board expected to be unchanged by the search.", players, board.toPlayers());
+        return move;
+    }
+
+    @Test
+    public void testSingleThreadMatchesSequentialSearch() {
+        String[] players = FoxHoundUtils.initialisePositions(DIM);
+        FoxHoundSearch sequential = new FoxHoundSearch(DIM, new FoxHoundTranspositionTable(4));
+        int expected = sequential.search(FoxHoundBitboard.fromPlayers(players, DIM), FoxHoundUtils.FOX_FIELD, 0, 50000);
+
+        for (FoxHoundParallelSearch.Mode mode : FoxHoundParallelSearch.Mode.values()) {
+            try (FoxHoundParallelSearch search = new FoxHoundParallelSearch(DIM, 1, mode,
+                    new FoxHoundTranspositionTable(4))) {
+                assertEquals(expected, search(search, players, FoxHoundUtils.FOX_FIELD, 50000));
+                assertEquals(sequential.getNodes(), search.getNodes());
+                assertEquals(sequential.getBestScore(), search.getBestScore());
+                assertEquals(sequential.getCompletedDepth(), search.getCompletedDepth());
+            }
+        }
+    }
+
+    @Test
+    public void testFindsWinWithAllModes() {
+        for (FoxHoundParallelSearch.Mode mode : FoxHoundParallelSearch.Mode.values()) {
+            try (FoxHoundParallelSearch search = new FoxHoundParallelSearch(DIM, 4, mode)) {
+                int move = search(search, new String[]{"E1", "H1", "F2", "C6", "A8"}, FoxHoundUtils.HOUND_FIELD, 0);
+
+                assertArrayEquals(mode + " expected to trap the fox.", new String[]{"C6", "B7"},
+                        FoxHoundMoveGenerator.toMovement(move, DIM));
+                assertEquals(FoxHoundSearch.WIN_SCORE - 1, search.getBestScore());
+            }
+        }
+    }
+
+    @Test
+    public void testSharedNodeBudget() {
+        for (FoxHoundParallelSearch.Mode mode : FoxHoundParallelSearch.Mode.values()) {
+            try (FoxHoundParallelSearch search = new FoxHoundParallelSearch(DIM, 3, mode)) {
+                String[] players = FoxHoundUtils.initialisePositions(DIM);
+                int move = search(search, players, FoxHoundUtils.FOX_FIELD, 100000);
+
+                assertTrue(FoxHoundUtils.isValidMove(DIM, players, FoxHoundUtils.FOX_FIELD,
+                        FoxHoundBitboard.toCoordinate(FoxHoundMoveGenerator.from(move), DIM),
+                        FoxHoundBitboard.toCoordinate(FoxHoundMoveGenerator.to(move), DIM)));
+                // every thread may overshoot by less than one batch of nodes
+                assertTrue(mode + " used " + search.getNodes() + " nodes.", search.getNodes() < 100000 + 3 * 256);
+                assertTrue(search.getNodesPerSecond() > 0);
+            }
+        }
+    }
+
+    @Test
+    public void testGameOver() {
+        try (FoxHoundParallelSearch search = new FoxHoundParallelSearch(DIM, 2, FoxHoundParallelSearch.Mode.ROOT_SPLIT)) {
+            assertEquals(FoxHoundSearch.NO_MOVE,
+                    search(search, new String[]{"C4", "E4", "C6", "E6", "D5"}, FoxHoundUtils.FOX_FIELD, 0));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoThreads() {
+        new FoxHoundParallelSearch(DIM, 0, FoxHoundParallelSearch.Mode.LAZY_SMP);
+    }
+}
@@ -0,0 +1,73 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundRendererTest {
+
+    @Test
+    public void testFancyFrame() {
+        String[] players = {"B1", "D1", "C4"};
+        String expected = String.join(System.lineSeparator(),
+                "    A   B   C   D",
+                "  |===|===|===|===|",
+                "1 |   | H |   | H | 1",
+                "  |===|===|===|===|",
+                "2 |   |   |   |   | 2",
+                "  |===|===|===|===|",
+                "3 |   |   |   |   | 3",
+                "  |===|===|===|===|",
+                "4 |   |   | F |   | 4",
+                "  |===|===|===|===|",
+                "    A   B   C   D", "", "");
+
+        assertEquals(expected, FoxHoundRenderer.fancy(4).render(players));
+    }
+
+    @Test
+    public void testRowNumbersPadded() {
+        String frame = FoxHoundRenderer.simple(10).render(FoxHoundUtils.initialisePositions(10));
+
+        assertTrue("Single digit rows expected to be padded.",
+                frame.contains(System.lineSeparator() + "01 .H.H.H.H.H 01" + System.lineSeparator()));
+        assertTrue(frame.contains(System.lineSeparator() + "10 ......F... 10" + System.lineSeparator()));
+    }
+
+    @Test
+    public void testSinksMatch() throws IOException {
+        int dim = 26;
+        String[] players = FoxHoundUtils.initialisePositions(dim);
+        FoxHoundRenderer renderer = FoxHoundRenderer.fancy(dim);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        renderer.render(players, bytes);
+        StringBuilder chars = new StringBuilder();
+        renderer.render(players, chars);
+
+        assertEquals(renderer.frameLength(), bytes.size());
+        assertEquals(bytes.toString(), chars.toString());
+        assertArrayEquals("Bitboard frame expected to match.", bytes.toByteArray(),
+                renderer.renderBytes(FoxHoundBitboard.fromPlayers(players, dim)));
+    }
+
+    @Test
+    public void testRenderersCached() {
+        assertSame(FoxHoundRenderer.fancy(8), FoxHoundRenderer.fancy(8));
+        assertNotSame(FoxHoundRenderer.fancy(8), FoxHoundRenderer.simple(8));
+    }
+
+    @Test
+    public void testPiecesOffBoardIgnored() {
+        String empty = FoxHoundRenderer.simple(4).render(new String[]{"E1", "A5"});
+
+        assertFalse(empty.contains("H"));
+        assertFalse(empty.contains("F"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDimension() {
+        FoxHoundRenderer.fancy(FoxHoundUtils.MAX_DIM + 1);
+    }
+}
@@ -0,0 +1,60 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundSearchTest {
+
+    private static final long NODE_BUDGET = 200000;
+
+    private int search(FoxHoundSearch search, String[] players, char turn) {
+        FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(players, FoxHoundUtils.DEFAULT_DIM);
+        int move = search.search(board, turn, 0, NODE_BUDGET);
+        assertArrayEquals("Board expected to be restored after the search.", players, board.toPlayers());
+        return move;
+    }
+
+    @Test
+    public void testFoxTakesWinningMove() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundSearch search = new FoxHoundSearch(dim);
+        String[] players = {"B5","D5","F5","H5","D2"};
+
+        int move = search(search, players, FoxHoundUtils.FOX_FIELD);
+
+        assertTrue("Fox expected to move to the first row.", FoxHoundMoveGenerator.to(move) < dim);
+        assertEquals(FoxHoundSearch.WIN_SCORE - 1, search.getBestScore());
+    }
+
+    @Test
+    public void testHoundsTrapFox() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundSearch search = new FoxHoundSearch(dim);
+        String[] players = {"E1","H1","F2","C6","A8"};
+
+        int move = search(search, players, FoxHoundUtils.HOUND_FIELD);
+
+        assertArrayEquals(new String[]{"C6","B7"}, FoxHoundMoveGenerator.toMovement(move, dim));
+        assertEquals(FoxHoundSearch.WIN_SCORE - 1, search.getBestScore());
+    }
+
+    @Test
+    public void testBestMoveIsValid() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        String[] players = FoxHoundUtils.initialisePositions(dim);
+        for (char turn : new char[]{FoxHoundUtils.FOX_FIELD, FoxHoundUtils.HOUND_FIELD}) {
+            String[] movement = FoxHoundSearch.bestMove(players, dim, turn, 10);
+
+            assertNotNull(movement);
+            assertTrue("Suggested move expected to be valid.",
+                    FoxHoundUtils.isValidMove(dim, players, turn, movement[0], movement[1]));
+        }
+    }
+
+    @Test
+    public void testGameOver() {
+        FoxHoundSearch search = new FoxHoundSearch(FoxHoundUtils.DEFAULT_DIM);
+        String[] players = {"C4","E4","C6","E6","D5"};
+
+        assertEquals(FoxHoundSearch.NO_MOVE, search(search, players, FoxHoundUtils.FOX_FIELD));
+    }
+}
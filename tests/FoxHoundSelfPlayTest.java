@@ -0,0 +1,85 @@
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundSelfPlayTest {
+
+    private static final FoxHoundSelfPlay.StrategyFactory RANDOM = FoxHoundSelfPlay.strategy("random", 0);
+
+    @Test
+    public void testAllGamesFinish() {
+        FoxHoundSelfPlay.Result result = FoxHoundSelfPlay.run(FoxHoundUtils.DEFAULT_DIM, 101, RANDOM, RANDOM, 4, 1);
+
+        assertEquals("Every game expected to be won by one side.", 101, result.games());
+        assertTrue("Every game expected to take at least one move per side.", result.averageLength() >= 2);
+    }
+
+    @Test
+    public void testSameSeedSameResult() {
+        FoxHoundSelfPlay.Result first = FoxHoundSelfPlay.run(6, 50, RANDOM, RANDOM, 3, 42);
+        FoxHoundSelfPlay.Result second = FoxHoundSelfPlay.run(6, 50, RANDOM, RANDOM, 3, 42);
+
+        assertEquals(first.foxWins, second.foxWins);
+        assertEquals(first.totalPlies, second.totalPlies);
+    }
+
+    @Test
+    public void testSearchingHoundsBeatRandomFox() {
+        FoxHoundSelfPlay.Result result = FoxHoundSelfPlay.run(FoxHoundUtils.DEFAULT_DIM, 10, RANDOM,
+                (dim, seed) -> FoxHoundStrategy.search(dim, 0, 5000), 2, 7);
+
+        assertTrue("Searching hounds expected to win most games.", result.houndWins > result.foxWins);
+    }
+
+    @Test
+    public void testGameEndsWithWinner() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+        FoxHoundStrategy random = FoxHoundStrategy.random(3);
+
+        char winner = FoxHoundSelfPlay.playGame(board, random, random, new FoxHoundMoveGenerator(dim),
+                new int[FoxHoundMoveGenerator.MAX_MOVES], new long[3]);
+
+        if (winner == FoxHoundUtils.FOX_FIELD) {
+            assertTrue("Fox expected on the first row.", board.isFoxHome());
+        } else {
+            assertEquals(FoxHoundUtils.HOUND_FIELD, winner);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownStrategy() {
+        FoxHoundSelfPlay.strategy("perfect", 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidThreads() {
+        FoxHoundSelfPlay.run(FoxHoundUtils.DEFAULT_DIM, 1, RANDOM, RANDOM, 0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSearchWithoutTimeBudget() {
+        FoxHoundSelfPlay.strategy("search", 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSearchWithoutAnyBudget() {
+        FoxHoundStrategy.search(FoxHoundUtils.DEFAULT_DIM, 0, 0);
+    }
+
+    @Test
+    public void testOptionWithoutValue() {
+        PrintStream originalErr = System.err;
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(err, true));
+        try {
+            FoxHoundSelfPlay.main(new String[]{"--threads", "1", "--games"});
+        } finally {
+            System.setErr(originalErr);
+        }
+        assertEquals("ERROR: Missing value of option --games", err.toString().trim());
+    }
+}
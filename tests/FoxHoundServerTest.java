@@ -0,0 +1,214 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FoxHoundServerTest {
+
+    private Path saveDir;
+    private FoxHoundServer server;
+
+    private static class Client implements AutoCloseable {
+        final Socket socket;
+        final BufferedReader in;
+        final PrintWriter out;
+
+        Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+        }
+
+        /** Send a request and return its status line, skipping any board output. */
+        String request(String line) throws IOException {
+            out.println(line);
+            String response;
+            do {
+                response = in.readLine();
+            } while (response != null && !isStatus(response));
+            return response;
+        }
+
+        static boolean isStatus(String line) {
+            return line.startsWith(FoxHoundSession.OK) || line.startsWith(FoxHoundSession.WIN)
+                    || line.startsWith(FoxHoundSession.ERROR) || line.equals(FoxHoundSession.BYE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        saveDir = Files.createTempDirectory("foxHoundServer");
+        server = new FoxHoundServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                FoxHoundUtils.DEFAULT_DIM, saveDir);
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+        try (var files = Files.list(saveDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(saveDir);
+    }
+
+    @Test
+    public void testMoveAndBoard() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            assertEquals("HELLO 8 F", client.in.readLine());
+            assertEquals("OK H", client.request("MOVE E8 D7"));
+            assertTrue(client.request("MOVE A1 B2").startsWith(FoxHoundSession.ERROR));
+
+            client.out.println("BOARD");
+            List<String> lines = new ArrayList<>();
+            String line;
+            while (!Client.isStatus(line = client.in.readLine())) {
+                lines.add(line);
+            }
+            assertEquals("OK H", line);
+            assertTrue("Fox expected on row 7.", lines.stream().anyMatch(l -> l.startsWith("7 ") && l.contains("| F ")));
+
+            assertEquals(FoxHoundSession.BYE, client.request("EXIT"));
+            assertNull("Connection expected to be closed.", client.in.readLine());
+        }
+    }
+
+    @Test
+    public void testSaveAndLoadKeepTurn() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            client.in.readLine();
+            client.request("MOVE E8 D7");
+            assertEquals("OK H", client.request("SAVE game1"));
+            assertTrue(Files.exists(saveDir.resolve("game1")));
+        }
+        try (Client client = new Client(server.getPort())) {
+            client.in.readLine();
+            assertEquals("Loaded turn expected.", "OK H", client.request("LOAD game1"));
+            assertEquals("OK F", client.request("MOVE B1 C2"));
+        }
+    }
+
+    @Test
+    public void testSaveConfinedToDirectory() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            client.in.readLine();
+            assertTrue(client.request("SAVE ../escape").startsWith(FoxHoundSession.ERROR));
+            assertTrue(client.request("LOAD /etc/passwd").startsWith(FoxHoundSession.ERROR));
+            assertTrue(client.request("SAVE ..").startsWith(FoxHoundSession.ERROR));
+            assertFalse(Files.exists(saveDir.resolveSibling("escape")));
+        }
+    }
+
+    @Test
+    public void testManyConcurrentSessions() throws IOException, InterruptedException {
+        List<Client> clients = new ArrayList<>();
+        try {
+            for (int i = 0; i < 200; i++) {
+                Client client = new Client(server.getPort());
+                clients.add(client);
+                assertEquals("HELLO 8 F", client.in.readLine());
+            }
+            assertEquals(200, server.getActiveSessions());
+            for (Client client : clients) {
+                assertEquals("Sessions expected to be independent.", "OK H", client.request("MOVE E8 F7"));
+            }
+        } finally {
+            for (Client client : clients) {
+                client.close();
+            }
+        }
+        for (int i = 0; i < 100 && server.getActiveSessions() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, server.getActiveSessions());
+    }
+
+    @Test
+    public void testDiffAfterMove() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            client.in.readLine();
+            assertEquals("Full frame expected first.", "OK F", client.request("DIFF"));
+            client.request("MOVE E8 D7");
+
+            client.out.println("DIFF");
+            assertEquals("DELTA D7F E8.", client.in.readLine());
+            assertEquals("OK H", client.in.readLine());
+            assertTrue(client.request("DIFF COLOUR").startsWith(FoxHoundSession.ERROR));
+            assertEquals(FoxHoundSession.ERROR + " Invalid screen height: 0", client.request("DIFF DELTA 0"));
+            assertTrue(client.request("DIFF DELTA 24 1").startsWith(FoxHoundSession.ERROR));
+        }
+    }
+
+    @Test
+    public void testUndoReopensGame() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            client.in.readLine();
+            assertTrue(client.request("UNDO").startsWith(FoxHoundSession.ERROR));
+            assertEquals("OK H", client.request("MOVE E8 D7"));
+            assertEquals("OK F", client.request("UNDO"));
+            assertEquals("OK H", client.request("REDO"));
+            assertTrue(client.request("REDO").startsWith(FoxHoundSession.ERROR));
+        }
+    }
+
+    @Test
+    public void testJournalResumesGame() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            client.in.readLine();
+            assertEquals("OK F", client.request("JOURNAL game1"));
+            client.request("MOVE E8 D7");
+            assertEquals("OK F", client.request("MOVE B1 C2"));
+        }
+        // the journal is closed when the server notices the client has gone
+        while (server.getActiveSessions() > 0) {
+            Thread.onSpinWait();
+        }
+        try (Client client = new Client(server.getPort())) {
+            client.in.readLine();
+            assertEquals("Journaled game expected to be resumed.", "OK F", client.request("JOURNAL game1"));
+            assertEquals("OK H", client.request("UNDO"));
+            assertTrue(client.request("JOURNAL ../game1").startsWith(FoxHoundSession.ERROR));
+        }
+    }
+
+    @Test
+    public void testJournalUsedBySessionRefused() throws IOException {
+        try (Client first = new Client(server.getPort()); Client second = new Client(server.getPort())) {
+            first.in.readLine();
+            second.in.readLine();
+            assertEquals("OK F", first.request("JOURNAL game2"));
+            assertEquals("ERROR Journal is in use: game2", second.request("JOURNAL game2"));
+            assertEquals("Session expected to journal its own file again.", "OK F", first.request("JOURNAL game2"));
+            assertEquals("OK H", first.request("MOVE E8 D7"));
+        }
+    }
+
+    @Test
+    public void testUnknownCommand() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            client.in.readLine();
+            assertEquals("ERROR Unknown command: JUMP", client.request("JUMP"));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundSymmetryTest {
+
+    @Test
+    public void testMirrorSquare() {
+        assertEquals(7, FoxHoundSymmetry.mirror(0, 8));
+        assertEquals(8 * 7, FoxHoundSymmetry.mirror(8 * 7 + 7, 8));
+        assertEquals(2, FoxHoundSymmetry.mirror(2, 5));
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; dim++) {
+            for (int square = 0; square < dim * dim; square++) {
+                int mirror = FoxHoundSymmetry.mirror(square, dim);
+                assertEquals(square / dim, mirror / dim);
+                assertEquals(square, FoxHoundSymmetry.mirror(mirror, dim));
+                assertEquals(FoxHoundSymmetry.keepsColour(dim),
+                        FoxHoundTablebase.isPlayable(square, dim) == FoxHoundTablebase.isPlayable(mirror, dim));
+            }
+        }
+    }
+
+    @Test
+    public void testMirrorHashFollowsMoves() {
+        SplittableRandom random = new SplittableRandom(3);
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; dim += 3) {
+            FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+            FoxHoundBitboard mirror = new FoxHoundBitboard(dim);
+            FoxHoundMoveGenerator generator = new FoxHoundMoveGenerator(dim);
+            int[] moves = new int[FoxHoundMoveGenerator.MAX_MOVES];
+            char turn = FoxHoundUtils.FOX_FIELD;
+            for (int count; (count = generator.generate(board, turn, moves)) > 0
+                    && FoxHoundMoveGenerator.winner(board) == FoxHoundMoveGenerator.NO_WINNER; ) {
+                int move = moves[random.nextInt(count)];
+                board.move(FoxHoundMoveGenerator.from(move), FoxHoundMoveGenerator.to(move));
+                turn = FoxHoundSearch.opponent(turn);
+
+                FoxHoundSymmetry.mirror(board, mirror);
+                assertEquals(FoxHoundZobrist.computeHash(mirror), board.getMirrorHash());
+                assertEquals(board.getHash(), mirror.getMirrorHash());
+                assertEquals(FoxHoundSymmetry.canonicalHash(board, turn), FoxHoundSymmetry.canonicalHash(mirror, turn));
+                if (board.getHash() != mirror.getHash()) {
+                    assertNotEquals(FoxHoundSymmetry.isFlipped(board), FoxHoundSymmetry.isFlipped(mirror));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCanonicalize() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(new String[]{"B1", "D3", "F1", "H1", "C6"}, dim);
+        FoxHoundBitboard mirror = FoxHoundSymmetry.mirror(board, new FoxHoundBitboard(dim));
+        assertArrayEquals(new String[]{"A1", "C1", "G1", "E3", "F6"}, mirror.toPlayers());
+
+        FoxHoundBitboard first = board.copy();
+        FoxHoundBitboard second = mirror.copy();
+        boolean firstFlipped = FoxHoundSymmetry.canonicalize(first);
+        boolean secondFlipped = FoxHoundSymmetry.canonicalize(second);
+
+        assertNotEquals(firstFlipped, secondFlipped);
+        assertArrayEquals(first.toPlayers(), second.toPlayers());
+        int move = FoxHoundMoveGenerator.pack(FoxHoundBitboard.toSquare("C6", dim), FoxHoundBitboard.toSquare("D5", dim));
+        assertArrayEquals(new String[]{"F6", "E5"},
+                FoxHoundMoveGenerator.toMovement(FoxHoundSymmetry.mirrorMove(move, dim), dim));
+        assertEquals(FoxHoundSearch.NO_MOVE, FoxHoundSymmetry.mirrorMove(FoxHoundSearch.NO_MOVE, dim));
+    }
+
+    @Test
+    public void testSearchAgreesOnMirror() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(new String[]{"B1", "D3", "F1", "H1", "C6"}, dim);
+        FoxHoundBitboard mirror = FoxHoundSymmetry.mirror(board, new FoxHoundBitboard(dim));
+        FoxHoundSearch search = new FoxHoundSearch(dim);
+        search.setMaxDepth(8);
+
+        search.search(board, FoxHoundUtils.HOUND_FIELD, 0, 0);
+        int score = search.getBestScore();
+        search.search(mirror, FoxHoundUtils.HOUND_FIELD, 0, 0);
+
+        assertEquals(score, search.getBestScore());
+    }
+}
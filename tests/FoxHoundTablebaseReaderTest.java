@@ -0,0 +1,88 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.*;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class FoxHoundTablebaseReaderTest {
+
+    private static final int DIM = 6;
+    private static Path tablebase;
+
+    @BeforeClass
+    public static void solve() throws IOException {
+        File tmpFile = File.createTempFile("foxHoundTablebase", ".fhtb");
+        tmpFile.deleteOnExit();
+        tablebase = tmpFile.toPath();
+        FoxHoundTablebaseSolver.solve(DIM, tablebase, 2);
+    }
+
+    @AfterClass
+    public static void cleanup() throws IOException {
+        Files.deleteIfExists(tablebase);
+    }
+
+    @Test
+    public void testOpenIsShared() throws IOException {
+        FoxHoundTablebaseReader reader = FoxHoundTablebaseReader.open(tablebase);
+
+        assertSame("Readers of the same file expected to be shared.", reader, FoxHoundTablebaseReader.open(tablebase));
+        assertEquals(DIM, reader.getLayout().getDim());
+    }
+
+    @Test
+    public void testPerfectPlayReachesPredictedResult() throws IOException {
+        FoxHoundTablebaseReader reader = FoxHoundTablebaseReader.open(tablebase);
+        FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(FoxHoundUtils.initialisePositions(DIM), DIM);
+        FoxHoundMoveGenerator generator = new FoxHoundMoveGenerator(DIM);
+        int[] moves = new int[FoxHoundMoveGenerator.MAX_MOVES];
+        char turn = FoxHoundUtils.FOX_FIELD;
+
+        byte start = reader.probe(board, turn);
+        char expectedWinner = FoxHoundTablebase.isWin(start) ? turn : FoxHoundSearch.opponent(turn);
+        int plies = 0;
+        while (FoxHoundMoveGenerator.winner(board) == FoxHoundMoveGenerator.NO_WINNER) {
+            int move = reader.bestMove(board, turn, generator, moves);
+            assertNotEquals(FoxHoundSearch.NO_MOVE, move);
+            board.move(FoxHoundMoveGenerator.from(move), FoxHoundMoveGenerator.to(move));
+            turn = FoxHoundSearch.opponent(turn);
+            plies++;
+        }
+
+        assertEquals(expectedWinner, FoxHoundMoveGenerator.winner(board));
+        assertEquals(FoxHoundTablebase.distance(start), plies);
+    }
+
+    @Test
+    public void testProbeOutsideTable() throws IOException {
+        FoxHoundTablebaseReader reader = FoxHoundTablebaseReader.open(tablebase);
+        // A1 isn't a playable square
+        String[] players = {"B1","D1","F1","A1"};
+
+        assertEquals(FoxHoundTablebase.UNKNOWN, reader.probe(players, FoxHoundUtils.FOX_FIELD));
+    }
+
+    @Test
+    public void testProbeOtherColourThroughMirror() throws IOException {
+        FoxHoundTablebaseReader reader = FoxHoundTablebaseReader.open(tablebase);
+        FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(new String[]{"B1", "D3", "F1", "C4"}, DIM);
+        FoxHoundBitboard mirror = FoxHoundSymmetry.mirror(board, new FoxHoundBitboard(DIM));
+
+        assertEquals(-1, reader.getLayout().index(mirror, FoxHoundUtils.FOX_FIELD));
+        for (char turn : new char[]{FoxHoundUtils.FOX_FIELD, FoxHoundUtils.HOUND_FIELD}) {
+            assertNotEquals(FoxHoundTablebase.UNKNOWN, reader.probe(board, turn));
+            assertEquals(reader.probe(board, turn), reader.probe(mirror, turn));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidFile() throws IOException {
+        new FoxHoundTablebaseReader(Paths.get("game01.txt"));
+    }
+}
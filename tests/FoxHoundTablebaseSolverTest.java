@@ -0,0 +1,102 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundTablebaseSolverTest {
+
+    private Path getTmpPath() {
+        try {
+            File tmpFile = File.createTempFile("foxHoundTablebase", ".fhtb");
+            tmpFile.deleteOnExit();
+            return tmpFile.toPath();
+        } catch(IOException e) {
+            throw new UncheckedIOException("Creating tablebase file failed.", e);
+        }
+    }
+
+    @Test
+    public void testRankRoundTrip() {
+        FoxHoundTablebase layout = new FoxHoundTablebase(FoxHoundUtils.DEFAULT_DIM);
+        int[] combination = new int[layout.getHounds()];
+
+        for (long rank = 0; rank < layout.getCombinations(); rank += 97) {
+            layout.unrank(rank, combination);
+            assertEquals(rank, layout.rank(combination));
+        }
+    }
+
+    @Test
+    public void testSolvedValuesMatchSearch() throws IOException {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= 6; dim++) {
+            Path output = getTmpPath();
+            FoxHoundTablebase layout = FoxHoundTablebaseSolver.solve(dim, output, 2);
+            ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(output));
+            assertEquals("File size not as expected.",
+                    FoxHoundTablebase.HEADER_BYTES + layout.getEntries(), data.capacity());
+            assertEquals(dim, FoxHoundTablebase.readHeader(data).getDim());
+
+            FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+            for (char turn : new char[]{FoxHoundUtils.FOX_FIELD, FoxHoundUtils.HOUND_FIELD}) {
+                byte value = data.get(FoxHoundTablebase.HEADER_BYTES + (int) layout.index(board, turn));
+                FoxHoundSearch search = new FoxHoundSearch(dim);
+                search.search(board, turn, 0, 0);
+                int score = search.getBestScore();
+
+                assertEquals("Winner differs at dimension " + dim, score > 0, FoxHoundTablebase.isWin(value));
+                assertEquals("Distance differs at dimension " + dim,
+                        FoxHoundSearch.WIN_SCORE - Math.abs(score), FoxHoundTablebase.distance(value));
+            }
+            Files.delete(output);
+        }
+    }
+
+    @Test
+    public void testMirrorMatchesFullSolve() throws IOException {
+        for (int dim = 5; dim <= 7; dim += 2) {
+            Path mirrored = getTmpPath();
+            Path full = getTmpPath();
+            FoxHoundTablebaseSolver.solve(dim, mirrored, 2, true);
+            FoxHoundTablebaseSolver.solve(dim, full, 2, false);
+
+            assertArrayEquals("Mirrored solve differs at dimension " + dim,
+                    Files.readAllBytes(full), Files.readAllBytes(mirrored));
+            Files.delete(mirrored);
+            Files.delete(full);
+        }
+    }
+
+    @Test
+    public void testMirrorRank() {
+        FoxHoundTablebase layout = new FoxHoundTablebase(7);
+        int[] combination = new int[layout.getHounds()];
+        int[] mirrored = new int[combination.length];
+        int[] twice = new int[combination.length];
+
+        assertTrue(layout.hasMirror());
+        assertFalse(new FoxHoundTablebase(8).hasMirror());
+        for (long rank = 0; rank < layout.getCombinations(); rank += 31) {
+            layout.unrank(rank, combination);
+            long mirrorRank = layout.mirrorRank(combination, mirrored);
+            assertEquals(rank, layout.mirrorRank(mirrored, twice));
+            assertArrayEquals(combination, twice);
+            assertTrue(mirrorRank >= 0 && mirrorRank < layout.getCombinations());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDimensionTooLarge() throws IOException {
+        FoxHoundTablebaseSolver.solve(FoxHoundUtils.MAX_DIM, getTmpPath(), 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidHeader() {
+        FoxHoundTablebase.readHeader(ByteBuffer.allocate(FoxHoundTablebase.HEADER_BYTES));
+    }
+}
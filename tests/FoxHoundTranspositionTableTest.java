@@ -0,0 +1,70 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundTranspositionTableTest {
+
+    @Test
+    public void testCapacityPowerOfTwo() {
+        FoxHoundTranspositionTable table = new FoxHoundTranspositionTable(3);
+        int capacity = table.capacity();
+
+        assertEquals("Capacity expected to be a power of two.", Integer.highestOneBit(capacity), capacity);
+        assertTrue("Table expected to stay within its budget.", (long) capacity * 16 <= 3L << 20);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSize() {
+        new FoxHoundTranspositionTable(0);
+    }
+
+    @Test
+    public void testStoreAndProbe() {
+        FoxHoundTranspositionTable table = new FoxHoundTranspositionTable(1);
+        long key = 0x1234567890ABCDEFL;
+        int move = FoxHoundMoveGenerator.pack(675, 650);
+
+        assertEquals(FoxHoundTranspositionTable.MISS, table.probe(key));
+
+        table.store(key, move, -1234, 7, FoxHoundTranspositionTable.LOWER, 3);
+        long data = table.probe(key);
+
+        assertEquals(move, FoxHoundTranspositionTable.move(data));
+        assertEquals(-1234, FoxHoundTranspositionTable.score(data, 5));
+        assertEquals(7, FoxHoundTranspositionTable.depth(data));
+        assertEquals(FoxHoundTranspositionTable.LOWER, FoxHoundTranspositionTable.bound(data));
+        assertEquals(FoxHoundTranspositionTable.MISS, table.probe(key ^ 1L << 40));
+    }
+
+    @Test
+    public void testWinScoreRelativeToPly() {
+        FoxHoundTranspositionTable table = new FoxHoundTranspositionTable(1);
+        long key = 42L;
+
+        // a win three plies from a node stored at ply 4 is found at ply 10 on another path
+        table.store(key, FoxHoundSearch.NO_MOVE, FoxHoundSearch.WIN_SCORE - 7, 5,
+                FoxHoundTranspositionTable.EXACT, 4);
+        long data = table.probe(key);
+
+        assertEquals(FoxHoundSearch.WIN_SCORE - 13, FoxHoundTranspositionTable.score(data, 10));
+        assertEquals(FoxHoundSearch.NO_MOVE, FoxHoundTranspositionTable.move(data));
+    }
+
+    @Test
+    public void testIncrementalHash() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundBitboard board = FoxHoundBitboard.fromPlayers(new String[]{"B1","D1","F1","H1","E8"}, dim);
+        long start = board.getHash();
+
+        assertEquals(FoxHoundZobrist.computeHash(board), start);
+        board.move(FoxHoundBitboard.toSquare("D1", dim), FoxHoundBitboard.toSquare("E2", dim));
+        board.move(FoxHoundBitboard.toSquare("E8", dim), FoxHoundBitboard.toSquare("D7", dim));
+        assertEquals(FoxHoundZobrist.computeHash(board), board.getHash());
+
+        // the same position reached in another order has the same hash
+        FoxHoundBitboard other = FoxHoundBitboard.fromPlayers(new String[]{"B1","F1","H1","E2","D7"}, dim);
+        assertEquals(other.getHash(), board.getHash());
+        assertNotEquals(FoxHoundZobrist.hash(board, FoxHoundUtils.FOX_FIELD),
+                FoxHoundZobrist.hash(board, FoxHoundUtils.HOUND_FIELD));
+    }
+}